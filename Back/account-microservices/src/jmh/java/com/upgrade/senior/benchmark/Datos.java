@@ -0,0 +1,169 @@
+package com.upgrade.senior.benchmark;
+
+import com.upgrade.senior.datasource.RuteoLecturas;
+import com.upgrade.senior.enums.Genero;
+import com.upgrade.senior.enums.TipoCuenta;
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cliente;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.repository.ClienteRepository;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.repository.MovimientoResumenDiarioRepository;
+import com.upgrade.senior.service.archivo.ArchivoMovimientos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos;
+import com.upgrade.senior.service.impl.ReporteServiceImpl;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Datos y colaboradores en memoria para los benchmarks: los repositorios son proxies que responden sin base de datos,
+ * así se mide solo el trabajo del servicio.
+ */
+final class Datos {
+
+    private Datos() {
+    }
+
+    static Cliente cliente() {
+        Cliente cliente = new Cliente();
+        cliente.setClienteId(1L);
+        cliente.setNombre("Jose Lema");
+        cliente.setGenero(Genero.MASCULINO);
+        cliente.setEdad(35);
+        cliente.setIdentificacion("1234567890");
+        cliente.setDireccion("Otavalo sn y principal");
+        cliente.setTelefono("098254785");
+        cliente.setContrasena("1234");
+        cliente.setEstado(true);
+        return cliente;
+    }
+
+    static Cuenta cuenta(Cliente cliente, Money saldo) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(1L);
+        cuenta.setNumeroCuenta("478758");
+        cuenta.setTipoCuenta(TipoCuenta.AHORRO);
+        cuenta.setSaldoInicial(saldo);
+        cuenta.setEstado(true);
+        cuenta.setVersion(0L);
+        cuenta.setCliente(cliente);
+        return cuenta;
+    }
+
+    /**
+     * Movimientos alternando créditos y débitos, uno por hora, en el orden en que los entrega la consulta del estado
+     * de cuenta.
+     */
+    static List<Movimiento> movimientos(Cuenta cuenta, int cantidad) {
+        List<Movimiento> movimientos = new ArrayList<>(cantidad);
+        LocalDateTime fecha = LocalDateTime.of(2024, 1, 1, 8, 0);
+        long saldo = cuenta.getSaldoInicial().centavos();
+        for (int i = 0; i < cantidad; i++) {
+            Movimiento movimiento = new Movimiento();
+            movimiento.setMovimientoId((long) i + 1);
+            movimiento.setCuenta(cuenta);
+            movimiento.setFecha(fecha.plusHours(i));
+            movimiento.setTipoMovimiento(i % 2 == 0 ? TipoMovimiento.CREDITO : TipoMovimiento.DEBITO);
+            long valor = 1000 + i % 50 * 100;
+            movimiento.setValor(Money.deCentavos(valor));
+            saldo += movimiento.getTipoMovimiento() == TipoMovimiento.CREDITO ? valor : -valor;
+            movimiento.setSaldo(Money.deCentavos(saldo));
+            movimientos.add(movimiento);
+        }
+        return movimientos;
+    }
+
+    /**
+     * Servicio de reportes con el cache deshabilitado: cada llamada recorre los {@code cantidad} movimientos de la
+     * única cuenta del cliente 1.
+     */
+    static ReporteServiceImpl reporteService(int cantidad) {
+        Cliente cliente = cliente();
+        List<Movimiento> lista = movimientos(cuenta(cliente, Money.de("1000")), cantidad);
+        return new ReporteServiceImpl(
+                repositorio(ClienteRepository.class, Map.of("findById", args -> Optional.of(cliente))),
+                repositorio(CuentaRepository.class, Map.of("countByClienteClienteId", args -> 1L)),
+                repositorio(MovimientoRepository.class, Map.of("streamEstadoCuenta", args -> lista.stream())),
+                repositorio(MovimientoResumenDiarioRepository.class),
+                new EstadoCuentaCache(false, 64L << 20, 4 << 20, 30), sinTransaccion(),
+                new BulkheadBaseDatos(true, 4, 10000, 4, 2000), RuteoLecturas.sinReplica(),
+                ArchivoMovimientos.sinArchivo(), repositorio(EntityManager.class), new SimpleMeterRegistry());
+    }
+
+    /**
+     * Implementa el repositorio con las respuestas dadas por nombre de método. Los {@code save*} devuelven su
+     * argumento y el resto de métodos un valor vacío según el tipo de retorno.
+     */
+    static <T> T repositorio(Class<T> tipo, Map<String, Function<Object[], Object>> respuestas) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) -> {
+            Function<Object[], Object> respuesta = respuestas.get(metodo.getName());
+            if (respuesta != null) {
+                return respuesta.apply(args);
+            }
+            if (metodo.getName().startsWith("save")) {
+                return args[0];
+            }
+            return vacio(metodo.getReturnType());
+        }));
+    }
+
+    static <T> T repositorio(Class<T> tipo) {
+        return repositorio(tipo, Map.of());
+    }
+
+    private static Object vacio(Class<?> tipo) {
+        if (tipo == long.class) {
+            return 0L;
+        }
+        if (tipo == int.class) {
+            return 0;
+        }
+        if (tipo == boolean.class) {
+            return false;
+        }
+        if (tipo == Optional.class) {
+            return Optional.empty();
+        }
+        if (Collection.class.isAssignableFrom(tipo)) {
+            return List.of();
+        }
+        return null;
+    }
+
+    /**
+     * Transacciones sin recurso detrás: {@code TransactionTemplate} ejecuta el callback directamente.
+     */
+    static PlatformTransactionManager sinTransaccion() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+}
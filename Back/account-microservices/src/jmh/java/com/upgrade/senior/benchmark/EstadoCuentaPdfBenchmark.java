@@ -0,0 +1,48 @@
+package com.upgrade.senior.benchmark;
+
+import com.upgrade.senior.service.impl.ReporteServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render del estado de cuenta en PDF por streaming, de 100 a 100k filas. La salida se descarta; lo que se mide es
+ * el recorrido y el trabajo de iText.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EstadoCuentaPdfBenchmark {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIN = LocalDate.of(2035, 12, 31);
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int filas;
+
+    private ReporteServiceImpl service;
+
+    @Setup
+    public void setup() {
+        service = Datos.reporteService(filas);
+    }
+
+    @Benchmark
+    public void escribirEstadoCuentaPDF() {
+        service.escribirEstadoCuentaPDF(1L, INICIO, FIN, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public int generarEstadoCuentaPDF() {
+        return service.generarEstadoCuentaPDF(1L, INICIO, FIN).getPdfBase64().length();
+    }
+}
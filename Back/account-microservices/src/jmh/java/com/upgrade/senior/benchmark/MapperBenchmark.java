@@ -0,0 +1,99 @@
+package com.upgrade.senior.benchmark;
+
+import com.upgrade.senior.enums.Genero;
+import com.upgrade.senior.enums.TipoCuenta;
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cliente;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.service.dto.cliente.ClienteRequestDTO;
+import com.upgrade.senior.service.dto.cliente.ClienteResponseDTO;
+import com.upgrade.senior.service.dto.cuenta.CuentaCreateDTO;
+import com.upgrade.senior.service.dto.cuenta.CuentaResponseDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.mapper.ClienteMapper;
+import com.upgrade.senior.service.mapper.ClienteMapperImpl;
+import com.upgrade.senior.service.mapper.CuentaMapper;
+import com.upgrade.senior.service.mapper.CuentaMapperImpl;
+import com.upgrade.senior.service.mapper.MovimientoMapper;
+import com.upgrade.senior.service.mapper.MovimientoMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Los mappers de MapStruct generados, en ambos sentidos.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+
+    private final MovimientoMapper movimientoMapper = new MovimientoMapperImpl();
+    private final CuentaMapper cuentaMapper = new CuentaMapperImpl();
+    private final ClienteMapper clienteMapper = new ClienteMapperImpl();
+
+    private Movimiento movimiento;
+    private MovimientoCreateDTO movimientoCreateDTO;
+    private Cuenta cuenta;
+    private CuentaCreateDTO cuentaCreateDTO;
+    private Cliente cliente;
+    private ClienteRequestDTO clienteRequestDTO;
+
+    @Setup
+    public void setup() {
+        cliente = Datos.cliente();
+        cuenta = Datos.cuenta(cliente, Money.de("2000"));
+        movimiento = Datos.movimientos(cuenta, 1).get(0);
+        movimientoCreateDTO = new MovimientoCreateDTO("478758", TipoMovimiento.DEBITO, Money.de("575"));
+        cuentaCreateDTO = new CuentaCreateDTO("478758", TipoCuenta.AHORRO, Money.de("2000"), true, 1L);
+        clienteRequestDTO = ClienteRequestDTO.builder()
+                .nombre("Jose Lema")
+                .genero(Genero.MASCULINO)
+                .edad(35)
+                .identificacion("1234567890")
+                .direccion("Otavalo sn y principal")
+                .telefono("098254785")
+                .contrasena("1234")
+                .estado(true)
+                .build();
+    }
+
+    @Benchmark
+    public MovimientoResponseDTO movimientoToResponseDTO() {
+        return movimientoMapper.toResponseDTO(movimiento);
+    }
+
+    @Benchmark
+    public Movimiento movimientoToEntity() {
+        return movimientoMapper.toEntity(movimientoCreateDTO);
+    }
+
+    @Benchmark
+    public CuentaResponseDTO cuentaToResponseDTO() {
+        return cuentaMapper.toResponseDTO(cuenta);
+    }
+
+    @Benchmark
+    public Cuenta cuentaToEntity() {
+        return cuentaMapper.toEntity(cuentaCreateDTO);
+    }
+
+    @Benchmark
+    public ClienteResponseDTO clienteToResponseDTO() {
+        return clienteMapper.toResponseDTO(cliente);
+    }
+
+    @Benchmark
+    public Cliente clienteToEntity() {
+        return clienteMapper.toEntity(clienteRequestDTO);
+    }
+}
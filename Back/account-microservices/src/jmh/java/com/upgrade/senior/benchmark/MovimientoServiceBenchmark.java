@@ -0,0 +1,105 @@
+package com.upgrade.senior.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.datasource.RuteoLecturas;
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.repository.MovimientoIdempotenciaRepository;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.repository.MovimientoResumenDiarioRepository;
+import com.upgrade.senior.service.archivo.ArchivoMovimientos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos;
+import com.upgrade.senior.service.evento.EventosCuenta;
+import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.idempotencia.IdempotenciaMovimientos;
+import com.upgrade.senior.service.impl.MovimientoServiceImpl;
+import com.upgrade.senior.service.impl.ResumenDiarioServiceImpl;
+import com.upgrade.senior.service.mapper.MovimientoMapperImpl;
+import com.upgrade.senior.service.posting.LedgerEngine;
+import com.upgrade.senior.service.posting.PostingMetrics;
+import com.upgrade.senior.service.posting.PostingStrategy;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@code crearMovimiento} por el camino sin ledger: validación y cálculo de saldo, armado de la entidad, resumen
+ * diario, invalidación del cache de reportes y mapeo de la respuesta. La estrategia de posting entrega la cuenta
+ * desde memoria y los repositorios no tocan la base.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovimientoServiceBenchmark {
+
+    private static final String CLAVE = "reintento-benchmark";
+
+    private MovimientoServiceImpl service;
+    private MovimientoCreateDTO credito;
+    private MovimientoCreateDTO debito;
+
+    @Setup
+    public void setup() {
+        Cuenta cuenta = Datos.cuenta(Datos.cliente(), Money.de("1000000000000"));
+        PostingStrategy enMemoria = new PostingStrategy() {
+            @Override
+            public String nombre() {
+                return "memoria";
+            }
+
+            @Override
+            public <T> T post(String numeroCuenta, Function<Cuenta, T> posting) {
+                return posting.apply(cuenta);
+            }
+        };
+        CuentaRepository cuentaRepository = Datos.repositorio(CuentaRepository.class);
+        MovimientoRepository movimientoRepository = Datos.repositorio(MovimientoRepository.class);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(Datos.sinTransaccion());
+        ResumenDiarioServiceImpl resumenDiarioService = new ResumenDiarioServiceImpl(
+                Datos.repositorio(MovimientoResumenDiarioRepository.class), movimientoRepository,
+                ArchivoMovimientos.sinArchivo());
+        LedgerEngine ledgerDeshabilitado = new LedgerEngine(null, movimientoRepository, transactionTemplate,
+                resumenDiarioService, null, false, 1, 16, 1, 1000);
+        service = new MovimientoServiceImpl(movimientoRepository, cuentaRepository, new MovimientoMapperImpl(),
+                enMemoria, new PostingMetrics(), transactionTemplate, ledgerDeshabilitado,
+                new EstadoCuentaCache(true, 1 << 20, 1 << 16, 30), resumenDiarioService, new ObjectMapper(),
+                new BulkheadBaseDatos(true, 4, 10000, 4, 2000),
+                new IdempotenciaMovimientos(Datos.repositorio(MovimientoIdempotenciaRepository.class), new ObjectMapper(),
+                        transactionTemplate, true, 1000, 24, 1000, 600000),
+                RuteoLecturas.sinReplica(), ArchivoMovimientos.sinArchivo(),
+                new EventosCuenta(new ObjectMapper(), 64, 0, 0));
+        credito = new MovimientoCreateDTO("478758", TipoMovimiento.CREDITO, Money.de("125.50"));
+        debito = new MovimientoCreateDTO("478758", TipoMovimiento.DEBITO, Money.de("75.25"));
+        service.crearMovimiento(credito, CLAVE);
+    }
+
+    @Benchmark
+    public MovimientoResponseDTO credito() {
+        return service.crearMovimiento(credito);
+    }
+
+    @Benchmark
+    public MovimientoResponseDTO debito() {
+        return service.crearMovimiento(debito);
+    }
+
+    /**
+     * Reintento de un movimiento ya registrado con {@code Idempotency-Key}: se responde desde memoria.
+     */
+    @Benchmark
+    public MovimientoResponseDTO repeticionIdempotente() {
+        return service.crearMovimiento(credito, CLAVE);
+    }
+}
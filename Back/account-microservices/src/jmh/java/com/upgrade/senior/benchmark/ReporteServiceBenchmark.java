@@ -0,0 +1,42 @@
+package com.upgrade.senior.benchmark;
+
+import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
+import com.upgrade.senior.service.impl.ReporteServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agregación del estado de cuenta en JSON: recorrido de los movimientos, totales por cuenta y armado de los DTOs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReporteServiceBenchmark {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIN = LocalDate.of(2035, 12, 31);
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int movimientos;
+
+    private ReporteServiceImpl service;
+
+    @Setup
+    public void setup() {
+        service = Datos.reporteService(movimientos);
+    }
+
+    @Benchmark
+    public ReporteEstadoCuentaResponseDTO generarEstadoCuenta() {
+        return service.generarEstadoCuenta(1L, INICIO, FIN);
+    }
+}
@@ -0,0 +1,72 @@
+package com.upgrade.senior.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cliente;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.service.dto.cliente.ClienteResponseDTO;
+import com.upgrade.senior.service.dto.cuenta.CuentaResponseDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
+import com.upgrade.senior.service.mapper.ClienteMapperImpl;
+import com.upgrade.senior.service.mapper.CuentaMapperImpl;
+import com.upgrade.senior.service.mapper.MovimientoMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de los DTOs de respuesta con un {@link ObjectMapper} configurado como el de Spring MVC. El estado
+ * de cuenta lleva 1000 movimientos en una cuenta.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializacionJsonBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private MovimientoResponseDTO movimiento;
+    private CuentaResponseDTO cuenta;
+    private ClienteResponseDTO cliente;
+    private ReporteEstadoCuentaResponseDTO estadoCuenta;
+
+    @Setup
+    public void setup() {
+        Cliente entidadCliente = Datos.cliente();
+        Cuenta entidadCuenta = Datos.cuenta(entidadCliente, Money.de("2000"));
+        movimiento = new MovimientoMapperImpl().toResponseDTO(Datos.movimientos(entidadCuenta, 1).get(0));
+        cuenta = new CuentaMapperImpl().toResponseDTO(entidadCuenta);
+        cliente = new ClienteMapperImpl().toResponseDTO(entidadCliente);
+        estadoCuenta = Datos.reporteService(1000).generarEstadoCuenta(1L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+    }
+
+    @Benchmark
+    public byte[] movimientoResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(movimiento);
+    }
+
+    @Benchmark
+    public byte[] cuentaResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cuenta);
+    }
+
+    @Benchmark
+    public byte[] clienteResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cliente);
+    }
+
+    @Benchmark
+    public byte[] estadoCuenta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(estadoCuenta);
+    }
+}
@@ -0,0 +1,122 @@
+package com.upgrade.senior.config;
+
+import com.upgrade.senior.datasource.RuteoDataSource;
+import com.upgrade.senior.datasource.RuteoLecturas;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Pools de conexiones separados para escrituras y posting ({@code primaria}, configurado con
+ * {@code spring.datasource.*}), reportes y, si se define {@code app.datasource.replica.url}, lecturas en la réplica.
+ * JPA usa un único {@code DataSource} que elige el pool en cada transacción (ver {@link RuteoLecturas}).
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * La URL puede traer comillas u otros caracteres, por eso no se evalúa con una expresión SpEL.
+     */
+    static class HayReplica implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return StringUtils.hasText(context.getEnvironment().getProperty("app.datasource.replica.url"));
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("primaria");
+        return pool;
+    }
+
+    @Bean
+    @Conditional(HayReplica.class)
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String usuario,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String clave,
+                                              @Value("${app.datasource.replica.maximum-pool-size:10}") int tamano) {
+        return pool("replica", properties, url, usuario, clave, tamano);
+    }
+
+    /**
+     * Sobre la réplica si hay una; si no, sobre la primaria pero con sus propias conexiones.
+     */
+    @Bean
+    public HikariDataSource reportesDataSource(DataSourceProperties properties,
+                                               @Value("${app.datasource.replica.url:}") String urlReplica,
+                                               @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String usuarioReplica,
+                                               @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String claveReplica,
+                                               @Value("${app.datasource.reportes.maximum-pool-size:4}") int tamano) {
+        if (urlReplica.isBlank()) {
+            return pool("reportes", properties, properties.determineUrl(), properties.determineUsername(),
+                    properties.determinePassword(), tamano);
+        }
+        return pool("reportes", properties, urlReplica, usuarioReplica, claveReplica, tamano);
+    }
+
+    @Bean
+    public RuteoLecturas ruteoLecturas(@Qualifier("primariaDataSource") DataSource primaria,
+                                       @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                                       @Value("${app.datasource.read-your-writes-ms:3000}") long ventanaMs,
+                                       @Value("${app.datasource.read-your-writes-max-clients:100000}") long maxClientes,
+                                       @Value("${app.datasource.replica.lag-check.enabled:true}") boolean controlRetraso,
+                                       @Value("${app.datasource.replica.max-lag-ms:2000}") long maxRetrasoMs,
+                                       @Value("${app.datasource.replica.lag-check-interval-ms:500}") long intervaloMs) {
+        return new RuteoLecturas(primaria, replica.getIfAvailable(), ventanaMs, maxClientes, controlRetraso,
+                maxRetrasoMs, intervaloMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RuteoLecturas ruteoLecturas,
+                                 @Qualifier("primariaDataSource") DataSource primaria,
+                                 @Qualifier("reportesDataSource") DataSource reportes,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) {
+        return new LazyConnectionDataSourceProxy(new RuteoDataSource(ruteoLecturas, primaria, reportes, replica.getIfAvailable()));
+    }
+
+    /**
+     * Hibernate devuelve la conexión al terminar cada transacción en vez de retenerla toda la petición (open-in-view):
+     * así cada transacción se rutea por separado y una escritura nunca reutiliza una conexión de la réplica.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer ruteoConexionesCustomizer() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    private static HikariDataSource pool(String nombre, DataSourceProperties properties, String url, String usuario,
+                                         String clave, int tamano) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(nombre);
+        pool.setJdbcUrl(url);
+        pool.setUsername(usuario);
+        pool.setPassword(clave);
+        if (url.equals(properties.determineUrl())) {
+            pool.setDriverClassName(properties.determineDriverClassName());
+        }
+        pool.setMaximumPoolSize(tamano);
+        return pool;
+    }
+}
@@ -0,0 +1,30 @@
+package com.upgrade.senior.config;
+
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Precarga el índice {@code numeroCuenta -> cuentaId} al arrancar. Sin precarga el índice se completa con las
+ * primeras búsquedas, que consultan por número.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.cuentas.indice.preload", havingValue = "true", matchIfMissing = true)
+public class IndiceNumeroCuentaRunner implements ApplicationRunner {
+
+    private final IndiceNumeroCuenta indiceNumeroCuenta;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long inicio = System.nanoTime();
+        int cuentas = indiceNumeroCuenta.precargar();
+        log.info("Índice de números de cuenta precargado con {} cuentas en {} ms", cuentas,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+}
@@ -0,0 +1,42 @@
+package com.upgrade.senior.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide cada método público de los {@code *ServiceImpl} con el timer {@code servicio.metodo}, etiquetado por clase,
+ * método y excepción. Los percentiles e histogramas se configuran con {@code management.metrics.distribution.*}.
+ * Las llamadas internas entre métodos de un mismo servicio no pasan por el proxy y no se miden aparte.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricasServicioAspect {
+
+    public static final String TIMER = "servicio.metodo";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * com.upgrade.senior.service.impl.*ServiceImpl.*(..))")
+    public Object medir(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String excepcion = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            excepcion = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(TIMER)
+                    .tag("clase", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("metodo", joinPoint.getSignature().getName())
+                    .tag("excepcion", excepcion)
+                    .register(meterRegistry));
+        }
+    }
+}
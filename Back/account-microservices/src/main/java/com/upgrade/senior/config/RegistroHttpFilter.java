@@ -0,0 +1,398 @@
+package com.upgrade.senior.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingRequestWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro central de peticiones HTTP. En el hilo de la petición solo se toma el tiempo, el status y, para las
+ * peticiones muestreadas, una copia acotada a {@code max-payload-bytes} de los cuerpos; el armado del mensaje y la
+ * escritura al appender los hace un hilo aparte. La cola es acotada: si se llena, el registro se descarta y se cuenta
+ * en vez de frenar la petición.
+ * <p>
+ * El muestreo es por ruta ({@code app.logging.http.sampling=patron:tasa,...}, primer patrón que coincide); las rutas
+ * sin patrón usan {@code default-sample-rate}.
+ */
+@Log4j2
+@Component
+public class RegistroHttpFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private final boolean habilitado;
+    private final boolean conCuerpos;
+    private final int maximoBytes;
+    private final double tasaPorDefecto;
+    private final List<Muestreo> muestreos;
+    private final BlockingQueue<Registro> cola;
+    private final LongAdder descartados = new LongAdder();
+    private long descartadosInformados;
+    private Thread escritor;
+    private volatile boolean activo = true;
+
+    public RegistroHttpFilter(@Value("${app.logging.http.enabled:true}") boolean habilitado,
+                              @Value("${app.logging.http.payloads:true}") boolean conCuerpos,
+                              @Value("${app.logging.http.max-payload-bytes:1024}") int maximoBytes,
+                              @Value("${app.logging.http.queue-capacity:2048}") int capacidadCola,
+                              @Value("${app.logging.http.default-sample-rate:1.0}") double tasaPorDefecto,
+                              @Value("${app.logging.http.sampling:}") String muestreo) {
+        this.habilitado = habilitado;
+        this.conCuerpos = conCuerpos;
+        this.maximoBytes = maximoBytes;
+        this.tasaPorDefecto = tasaPorDefecto;
+        this.muestreos = parsearMuestreo(muestreo);
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (habilitado) {
+            escritor = Thread.ofPlatform().name("registro-http").daemon().start(this::escribir);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        if (escritor != null) {
+            escritor.interrupt();
+            try {
+                escritor.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!habilitado || !log.isInfoEnabled() || !muestreada(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long inicio = System.nanoTime();
+        ContentCachingRequestWrapper peticion = conCuerpos ? new ContentCachingRequestWrapper(request, maximoBytes) : null;
+        CapturaRespuesta respuesta = conCuerpos ? new CapturaRespuesta(response, maximoBytes) : null;
+        boolean fallo = true;
+        try {
+            chain.doFilter(peticion != null ? peticion : request, respuesta != null ? respuesta : response);
+            fallo = false;
+        } finally {
+            if (respuesta != null) {
+                respuesta.vaciarWriter();
+            }
+            // Una excepción que llega hasta aquí la responde el contenedor con 500
+            int status = fallo ? 500 : response.getStatus();
+            // Con la petición asíncrona (streams SSE) la respuesta sigue escribiéndose después: no se registra su cuerpo
+            encolar(new Registro(request.getMethod(), uri(request), status, System.nanoTime() - inicio,
+                    peticion != null ? Cuerpo.de(peticion.getContentAsByteArray(), request.getContentLengthLong(),
+                            request.getContentType()) : null,
+                    respuesta != null && !request.isAsyncStarted() ? respuesta.cuerpo() : null));
+        }
+    }
+
+    public long descartados() {
+        return descartados.sum();
+    }
+
+    public int pendientes() {
+        return cola.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("registro.http.descartados", descartados, LongAdder::sum)
+                .description("Registros de peticiones descartados por cola llena")
+                .register(registry);
+        Gauge.builder("registro.http.cola", cola, BlockingQueue::size)
+                .register(registry);
+    }
+
+    boolean muestreada(HttpServletRequest request) {
+        double tasa = tasaPorDefecto;
+        if (!muestreos.isEmpty()) {
+            PathContainer ruta = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+            for (Muestreo m : muestreos) {
+                if (m.patron().matches(ruta)) {
+                    tasa = m.tasa();
+                    break;
+                }
+            }
+        }
+        return tasa >= 1.0 || (tasa > 0 && ThreadLocalRandom.current().nextDouble() < tasa);
+    }
+
+    void encolar(Registro registro) {
+        if (!cola.offer(registro)) {
+            descartados.increment();
+        }
+    }
+
+    /**
+     * Saca el siguiente registro pendiente sin esperar, o {@code null} si no hay.
+     */
+    Registro siguiente() {
+        return cola.poll();
+    }
+
+    private void escribir() {
+        while (activo) {
+            try {
+                Registro registro = cola.take();
+                informarDescartados();
+                log.info("{}", registro.mensaje(maximoBytes));
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+        for (Registro registro = cola.poll(); registro != null; registro = cola.poll()) {
+            log.info("{}", registro.mensaje(maximoBytes));
+        }
+        informarDescartados();
+    }
+
+    private void informarDescartados() {
+        long total = descartados.sum();
+        if (total > descartadosInformados) {
+            log.warn("Se descartaron {} registros de peticiones por cola llena", total - descartadosInformados);
+            descartadosInformados = total;
+        }
+    }
+
+    private static String uri(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return query == null ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+    }
+
+    static List<Muestreo> parsearMuestreo(String muestreo) {
+        List<Muestreo> resultado = new ArrayList<>();
+        Arrays.stream(muestreo.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .forEach(s -> {
+                    int separador = s.lastIndexOf(':');
+                    if (separador <= 0) {
+                        throw new IllegalArgumentException("app.logging.http.sampling: se esperaba patron:tasa en '" + s + "'");
+                    }
+                    resultado.add(new Muestreo(PathPatternParser.defaultInstance.parse(s.substring(0, separador).trim()),
+                            Double.parseDouble(s.substring(separador + 1).trim())));
+                });
+        return List.copyOf(resultado);
+    }
+
+    record Muestreo(PathPattern patron, double tasa) {
+    }
+
+    record Registro(String metodo, String uri, int status, long nanos, Cuerpo peticion, Cuerpo respuesta) {
+
+        String mensaje(int maximoBytes) {
+            StringBuilder sb = new StringBuilder(128 + 2 * maximoBytes)
+                    .append('[').append(metodo).append("] ").append(uri)
+                    .append(" - ").append(status)
+                    .append(String.format(Locale.ROOT, " (%.1f ms)", nanos / 1e6));
+            if (peticion != null && peticion.total() > 0) {
+                sb.append(" - Request: ");
+                peticion.agregar(sb);
+            }
+            if (respuesta != null && respuesta.total() > 0) {
+                sb.append(" - Response: ");
+                respuesta.agregar(sb);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Primeros bytes de un cuerpo y su tamaño total. Solo se decodifica si el tipo es texto; el resto se resume.
+     */
+    record Cuerpo(byte[] bytes, long total, String contentType) {
+
+        static Cuerpo de(byte[] bytes, long total, String contentType) {
+            return new Cuerpo(bytes, Math.max(total, bytes.length), contentType);
+        }
+
+        void agregar(StringBuilder sb) {
+            if (!esTexto()) {
+                sb.append('<').append(contentType == null ? "sin tipo" : contentType).append(", ")
+                        .append(total).append(" bytes>");
+                return;
+            }
+            sb.append(new String(bytes, charset()));
+            if (total > bytes.length) {
+                sb.append("... (").append(total).append(" bytes)");
+            }
+        }
+
+        private boolean esTexto() {
+            if (contentType == null) {
+                return true;
+            }
+            String tipo = contentType.toLowerCase(Locale.ROOT);
+            return tipo.startsWith("text/") || tipo.contains("json") || tipo.contains("xml")
+                    || tipo.startsWith("application/x-www-form-urlencoded");
+        }
+
+        private Charset charset() {
+            // JSON sin charset explícito es UTF-8, no el ISO-8859-1 por defecto del servlet
+            try {
+                Charset charset = contentType == null ? null : MediaType.parseMediaType(contentType).getCharset();
+                return charset != null ? charset : StandardCharsets.UTF_8;
+            } catch (InvalidMediaTypeException e) {
+                return StandardCharsets.UTF_8;
+            }
+        }
+    }
+
+    /**
+     * Deja pasar la respuesta sin retenerla (los PDF y exports siguen saliendo en streaming) y copia solo los primeros
+     * {@code maximo} bytes.
+     */
+    static final class CapturaRespuesta extends HttpServletResponseWrapper {
+        private final byte[] buffer;
+        private int capturados;
+        private long total;
+        private ServletOutputStream salida;
+        private PrintWriter writer;
+
+        CapturaRespuesta(HttpServletResponse response, int maximo) {
+            super(response);
+            this.buffer = new byte[maximo];
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (salida == null) {
+                salida = new Copia(super.getOutputStream());
+            }
+            return salida;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            descartarCaptura();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            descartarCaptura();
+        }
+
+        void vaciarWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        Cuerpo cuerpo() {
+            return new Cuerpo(Arrays.copyOf(buffer, capturados), total, getContentType());
+        }
+
+        private void descartarCaptura() {
+            capturados = 0;
+            total = 0;
+        }
+
+        private void capturar(byte[] b, int off, int len) {
+            int n = Math.min(len, buffer.length - capturados);
+            if (n > 0) {
+                System.arraycopy(b, off, buffer, capturados, n);
+                capturados += n;
+            }
+            total += len;
+        }
+
+        private final class Copia extends ServletOutputStream {
+            private final ServletOutputStream destino;
+
+            Copia(ServletOutputStream destino) {
+                this.destino = destino;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                destino.write(b);
+                if (capturados < buffer.length) {
+                    buffer[capturados++] = (byte) b;
+                }
+                total++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                destino.write(b, off, len);
+                capturar(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                destino.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                destino.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return destino.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener listener) {
+                destino.setWriteListener(listener);
+            }
+        }
+    }
+}
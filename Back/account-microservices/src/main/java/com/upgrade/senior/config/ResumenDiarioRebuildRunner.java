@@ -0,0 +1,29 @@
+package com.upgrade.senior.config;
+
+import com.upgrade.senior.service.ResumenDiarioService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstruye {@code movimiento_resumen_diario} desde {@code movimiento} al arrancar. Se ejecuta con
+ * {@code --app.reportes.resumen.rebuild=true}, por ejemplo tras cargar movimientos por fuera de la API.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.reportes.resumen.rebuild", havingValue = "true")
+public class ResumenDiarioRebuildRunner implements ApplicationRunner {
+
+    private final ResumenDiarioService resumenDiarioService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Reconstruyendo el resumen diario de movimientos");
+        long dias = resumenDiarioService.reconstruir();
+        log.info("Resumen diario reconstruido con {} días de cuenta", dias);
+    }
+}
@@ -0,0 +1,19 @@
+package com.upgrade.senior.config;
+
+import com.upgrade.senior.service.cache.SegundoNivelCache;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Entrega a Hibernate el {@code CacheManager} con las regiones ya creadas y acotadas.
+ */
+@Configuration
+public class SegundoNivelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer segundoNivelCacheCustomizer(SegundoNivelCache segundoNivelCache) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, segundoNivelCache.getCacheManager());
+    }
+}
@@ -0,0 +1,24 @@
+package com.upgrade.senior.controller;
+
+import com.upgrade.senior.service.CacheService;
+import com.upgrade.senior.service.dto.cache.RegionCacheMetricsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+public class CacheController {
+    private final CacheService cacheService;
+
+    @GetMapping("/segundo-nivel/metricas")
+    public ResponseEntity<List<RegionCacheMetricsDTO>> getMetricasSegundoNivel() {
+        List<RegionCacheMetricsDTO> response = cacheService.obtenerMetricasSegundoNivel();
+        return ResponseEntity.ok(response);
+    }
+}
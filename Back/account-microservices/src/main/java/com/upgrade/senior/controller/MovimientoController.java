@@ -1,64 +1,99 @@
 package com.upgrade.senior.controller;
 
 import com.upgrade.senior.service.MovimientoService;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.service.dto.movimiento.MovimientoBatchResponseDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoPaginaDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.dto.movimiento.PostingMetricsDTO;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.log4j.Log4j2;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
-@Log4j2
 @RestController
 @RequestMapping("/api/movimientos")
 @RequiredArgsConstructor
 public class MovimientoController {
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
     private final MovimientoService movimientoService;
 
     @PostMapping
-    public ResponseEntity<MovimientoResponseDTO> createMovimiento(@RequestBody MovimientoCreateDTO dto) {
-        log.info("[POST] /api/movimientos - Request: {}", dto);
-        MovimientoResponseDTO response = movimientoService.crearMovimiento(dto);
-        log.info("[POST] /api/movimientos - Response: {}", response);
+    public ResponseEntity<MovimientoResponseDTO> createMovimiento(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody MovimientoCreateDTO dto) {
+        MovimientoResponseDTO response = idempotencyKey == null
+                ? movimientoService.crearMovimiento(dto)
+                : movimientoService.crearMovimiento(dto, idempotencyKey);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<MovimientoBatchResponseDTO> createMovimientosBatch(@RequestBody List<MovimientoCreateDTO> dtos) {
+        if (dtos.isEmpty()) {
+            throw new GeneralException("El lote de movimientos está vacío", 400);
+        }
+        MovimientoBatchResponseDTO response = movimientoService.crearMovimientosBatch(dtos);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/cuenta/{numeroCuenta}")
-    public List<MovimientoResponseDTO> getByCuenta(@PathVariable String numeroCuenta) {
-        log.info("[GET] /api/movimientos/cuenta/{} - Request", numeroCuenta);
-        List<MovimientoResponseDTO> response = movimientoService.obtenerMovimientosPorCuenta(numeroCuenta);
-        log.info("[GET] /api/movimientos/cuenta/{} - Response: {}", numeroCuenta, response);
+    public MovimientoPaginaDTO getByCuenta(@PathVariable String numeroCuenta,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limite) {
+        MovimientoPaginaDTO response = movimientoService.obtenerMovimientosPorCuenta(numeroCuenta, cursor, limite);
         return response;
     }
 
     @GetMapping("/cliente/{clienteId}")
-    public List<MovimientoResponseDTO> getByClienteAndDates(
+    public MovimientoPaginaDTO getByClienteAndDates(
             @PathVariable Long clienteId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) java.time.LocalDate fechaInicio,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) java.time.LocalDate fechaFin) {
-        log.info("[GET] /api/movimientos/cliente/{} - Request: fechaInicio={}, fechaFin={}", clienteId, fechaInicio, fechaFin);
-        List<MovimientoResponseDTO> response = movimientoService.obtenerMovimientosPorClienteYFechas(clienteId, fechaInicio, fechaFin);
-        log.info("[GET] /api/movimientos/cliente/{} - Response: {}", clienteId, response);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) java.time.LocalDate fechaFin,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        MovimientoPaginaDTO response = movimientoService.obtenerMovimientosPorClienteYFechas(clienteId, fechaInicio, fechaFin, cursor, limite);
+        return response;
+    }
+
+    @GetMapping(value = "/cliente/{clienteId}/export", produces = MovimientoController.APPLICATION_NDJSON_VALUE)
+    public void exportByClienteAndDates(
+            @PathVariable Long clienteId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) java.time.LocalDate fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) java.time.LocalDate fechaFin,
+            HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("movimientos-cliente-" + clienteId + ".ndjson").build().toString());
+        movimientoService.exportarMovimientosPorCliente(clienteId, fechaInicio, fechaFin, response.getOutputStream());
+    }
+
+    @GetMapping("/posting/metricas")
+    public PostingMetricsDTO getMetricasPosting() {
+        PostingMetricsDTO response = movimientoService.obtenerMetricasPosting();
         return response;
     }
 
     @GetMapping("/{id}")
     public MovimientoResponseDTO getById(@PathVariable Long id) {
-        log.info("[GET] /api/movimientos/{} - Request", id);
         MovimientoResponseDTO response = movimientoService.obtenerMovimientoPorId(id);
-        log.info("[GET] /api/movimientos/{} - Response: {}", id, response);
         return response;
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        log.info("[DELETE] /api/movimientos/{} - Request", id);
         movimientoService.eliminarMovimiento(id);
-        log.info("[DELETE] /api/movimientos/{} - Response: No Content", id);
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,20 +1,26 @@
 package com.upgrade.senior.controller;
 
 import com.upgrade.senior.service.ReporteService;
+import com.upgrade.senior.service.dto.reporte.EstadoCuentaCacheMetricsDTO;
 import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaPDFResponseDTO;
 import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.log4j.Log4j2;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
 import java.time.LocalDate;
 
-@Log4j2
 @RestController
 @RequestMapping("/api/reportes")
 @RequiredArgsConstructor
@@ -26,17 +32,53 @@ public class ReporteController {
             @RequestParam Long clienteId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
-            @RequestParam(defaultValue = "json") String formato
-    ) {
-        log.info("[GET] /api/reportes/estado-cuenta - Request: clienteId={}, fechaInicio={}, fechaFin={}, formato={}", clienteId, fechaInicio, fechaFin, formato);
-        if ("pdf".equalsIgnoreCase(formato)) {
+            @RequestParam(defaultValue = "json") String formato,
+            @RequestParam(defaultValue = "false") boolean resumen,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse httpResponse
+    ) throws IOException {
+        if ("pdf".equalsIgnoreCase(formato) && aceptaPdf(accept)) {
+            // Se valida antes de escribir para que los errores se respondan con su código y no con un PDF truncado
+            reporteService.validarEstadoCuenta(clienteId, fechaInicio, fechaFin);
+            httpResponse.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            httpResponse.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                    .filename("estado-cuenta-" + clienteId + ".pdf").build().toString());
+            try {
+                reporteService.escribirEstadoCuentaPDF(clienteId, fechaInicio, fechaFin, httpResponse.getOutputStream());
+            } catch (RuntimeException e) {
+                // Si todavía no salió nada (p. ej. el bulkhead rechazó la consulta) el error se responde con su código
+                if (!httpResponse.isCommitted()) {
+                    httpResponse.reset();
+                }
+                throw e;
+            }
+            return null;
+        } else if ("pdf".equalsIgnoreCase(formato)) {
             ReporteEstadoCuentaPDFResponseDTO response = reporteService.generarEstadoCuentaPDF(clienteId, fechaInicio, fechaFin);
-            log.info("[GET] /api/reportes/estado-cuenta - Response: PDF base64");
+            return ResponseEntity.ok(response);
+        } else if (resumen) {
+            ReporteEstadoCuentaResponseDTO response = reporteService.generarResumenEstadoCuenta(clienteId, fechaInicio, fechaFin);
             return ResponseEntity.ok(response);
         } else {
             ReporteEstadoCuentaResponseDTO response = reporteService.generarEstadoCuenta(clienteId, fechaInicio, fechaFin);
-            log.info("[GET] /api/reportes/estado-cuenta - Response: {}", response);
             return ResponseEntity.ok(response);
         }
     }
+
+    @GetMapping("/cache/metricas")
+    public ResponseEntity<EstadoCuentaCacheMetricsDTO> getMetricasCache() {
+        EstadoCuentaCacheMetricsDTO response = reporteService.obtenerMetricasCache();
+        return ResponseEntity.ok(response);
+    }
+
+    private static boolean aceptaPdf(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_PDF.isPresentIn(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
 }
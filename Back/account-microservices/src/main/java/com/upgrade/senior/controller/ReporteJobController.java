@@ -0,0 +1,64 @@
+package com.upgrade.senior.controller;
+
+import com.upgrade.senior.service.ReporteJobService;
+import com.upgrade.senior.service.dto.reporte.ReporteJobArchivoDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobCreateDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobResponseDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+
+@RestController
+@RequestMapping("/api/reportes/jobs")
+@RequiredArgsConstructor
+public class ReporteJobController {
+    static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ReporteJobService reporteJobService;
+
+    @PostMapping
+    public ResponseEntity<ReporteJobResponseDTO> createJob(@RequestBody ReporteJobCreateDTO request) {
+        ReporteJobResponseDTO response = reporteJobService.crearJob(request);
+        return ResponseEntity.accepted().location(URI.create("/api/reportes/jobs/" + response.getId())).body(response);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReporteJobResponseDTO> getJob(@PathVariable String id) {
+        ReporteJobResponseDTO response = reporteJobService.obtenerJob(id);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{id}/result")
+    public void getResult(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ReporteJobArchivoDTO resultado = reporteJobService.obtenerResultado(id);
+        response.setContentType(resultado.getContentType());
+        response.setContentLengthLong(resultado.getTamanoBytes());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(resultado.getNombre()).build().toString());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat envía el archivo con sendfile después de terminar el handler, sin copiarlo por el heap
+            request.setAttribute(SENDFILE_FILENAME, resultado.getArchivo().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, resultado.getTamanoBytes());
+        } else {
+            // Sin sendfile no hay copia directa: el archivo pasa por un buffer de tamaño fijo hacia la respuesta
+            Files.copy(resultado.getArchivo(), response.getOutputStream());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.upgrade.senior.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Elige el pool de cada conexión al obtenerla, según {@link RuteoLecturas#destino}. Debe ir detrás de un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: así la conexión real se pide en la primera
+ * sentencia, cuando la transacción ya quedó marcada como de solo lectura.
+ */
+public class RuteoDataSource extends AbstractRoutingDataSource {
+
+    public enum Destino {
+        PRIMARIA, REPLICA, REPORTES
+    }
+
+    private final RuteoLecturas ruteo;
+
+    /**
+     * @param replica puede ser {@code null}; entonces las lecturas van a la primaria y los reportes a su propio pool
+     */
+    public RuteoDataSource(RuteoLecturas ruteo, DataSource primaria, DataSource reportes, DataSource replica) {
+        this.ruteo = ruteo;
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(Destino.PRIMARIA, primaria);
+        destinos.put(Destino.REPORTES, reportes);
+        if (replica != null) {
+            destinos.put(Destino.REPLICA, replica);
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ruteo.destino(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+    }
+}
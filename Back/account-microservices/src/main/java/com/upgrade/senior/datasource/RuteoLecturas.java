@@ -0,0 +1,236 @@
+package com.upgrade.senior.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.upgrade.senior.datasource.RuteoDataSource.Destino;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Decide a qué pool va cada transacción de solo lectura. Solo las lecturas declaradas con {@link #leer} o
+ * {@link #leerReporte} pueden ir a la réplica; el resto, incluidas las consultas de los repositorios que alimentan un
+ * posting, usan la primaria. Los reportes tienen su propio pool (sobre la réplica si hay una) para no competir con el
+ * posting por conexiones.
+ * <p>
+ * Lecturas propias: durante {@code read-your-writes-ms} después de confirmar un cambio de un cliente, sus lecturas van a
+ * la primaria. La réplica también se deja de usar mientras su retraso, medido con un latido que se escribe en la
+ * primaria y se lee en la réplica, supera {@code max-lag-ms}; el valor medido incluye hasta un intervalo de control.
+ */
+@Log4j2
+public class RuteoLecturas implements MeterBinder {
+
+    private static final ThreadLocal<Lectura> LECTURA = new ThreadLocal<>();
+
+    private final JdbcTemplate primaria;
+    private final JdbcTemplate replica;
+    private final boolean controlRetraso;
+    private final long maxRetrasoMs;
+    private final long intervaloMs;
+    private final Cache<Long, Boolean> escrituras;
+    private final Map<Destino, LongAdder> conexiones = new EnumMap<>(Destino.class);
+    private final LongAdder lecturasPropias = new LongAdder();
+    private volatile boolean replicaAlDia;
+    private volatile long retrasoMs = Long.MAX_VALUE;
+    private ScheduledExecutorService monitor;
+
+    private record Lectura(boolean reportes, boolean primaria) {
+    }
+
+    /**
+     * @param replica {@code null} si no hay réplica configurada
+     */
+    public RuteoLecturas(DataSource primaria, DataSource replica, long ventanaMs, long maxClientes,
+                         boolean controlRetraso, long maxRetrasoMs, long intervaloMs) {
+        this.primaria = primaria == null ? null : new JdbcTemplate(primaria);
+        this.replica = replica == null ? null : new JdbcTemplate(replica);
+        this.controlRetraso = controlRetraso;
+        this.maxRetrasoMs = maxRetrasoMs;
+        this.intervaloMs = intervaloMs;
+        this.escrituras = Caffeine.newBuilder()
+                .maximumSize(maxClientes)
+                .expireAfterWrite(Duration.ofMillis(ventanaMs))
+                .build();
+        // Sin control de retraso la réplica se considera siempre al día; con control, hasta la primera medición no
+        this.replicaAlDia = !controlRetraso;
+        for (Destino destino : Destino.values()) {
+            conexiones.put(destino, new LongAdder());
+        }
+        if (replica != null && controlRetraso && ventanaMs < maxRetrasoMs + intervaloMs) {
+            log.warn("read-your-writes-ms ({}) es menor que max-lag-ms + lag-check-interval-ms ({}): un cliente "
+                    + "podría no ver su último cambio", ventanaMs, maxRetrasoMs + intervaloMs);
+        }
+    }
+
+    /**
+     * Sin réplica: las lecturas quedan en la primaria y los reportes en su pool.
+     */
+    public static RuteoLecturas sinReplica() {
+        return new RuteoLecturas(null, null, 0, 1, false, 0, 0);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (replica == null || !controlRetraso) {
+            return;
+        }
+        monitor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("replica-retraso").daemon().factory());
+        monitor.scheduleWithFixedDelay(this::medirRetraso, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+    }
+
+    /**
+     * Ejecuta una lectura que puede ir a la réplica, salvo que {@code clienteId} (si no es nulo) haya cambiado dentro de
+     * la ventana de lecturas propias. Debe envolver la primera sentencia de una transacción de solo lectura.
+     */
+    public <T> T leer(Long clienteId, Supplier<T> lectura) {
+        return conLectura(false, clienteId, lectura);
+    }
+
+    /**
+     * Como {@link #leer}, pero la lectura usa el pool de reportes.
+     */
+    public <T> T leerReporte(Long clienteId, Supplier<T> lectura) {
+        return conLectura(true, clienteId, lectura);
+    }
+
+    public void leerReporte(Long clienteId, Runnable lectura) {
+        conLectura(true, clienteId, () -> {
+            lectura.run();
+            return null;
+        });
+    }
+
+    private <T> T conLectura(boolean reportes, Long clienteId, Supplier<T> accion) {
+        Lectura anterior = LECTURA.get();
+        boolean propia = clienteId != null && escrituras.getIfPresent(clienteId) != null;
+        if (propia) {
+            lecturasPropias.increment();
+        }
+        LECTURA.set(new Lectura(reportes, propia || (anterior != null && anterior.primaria())));
+        try {
+            return accion.get();
+        } finally {
+            if (anterior == null) {
+                LECTURA.remove();
+            } else {
+                LECTURA.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * Abre la ventana de lecturas propias del cliente. Dentro de una transacción se abre al confirmarla.
+     */
+    public void registrarEscritura(Long clienteId) {
+        if (replica == null || clienteId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    escrituras.put(clienteId, Boolean.TRUE);
+                }
+            });
+        } else {
+            escrituras.put(clienteId, Boolean.TRUE);
+        }
+    }
+
+    public Destino destino(boolean soloLectura) {
+        Destino destino = elegir(soloLectura);
+        conexiones.get(destino).increment();
+        return destino;
+    }
+
+    private Destino elegir(boolean soloLectura) {
+        Lectura lectura = LECTURA.get();
+        if (lectura == null || !soloLectura) {
+            return Destino.PRIMARIA;
+        }
+        if (replica == null) {
+            return lectura.reportes() ? Destino.REPORTES : Destino.PRIMARIA;
+        }
+        if (lectura.primaria() || !replicaAlDia) {
+            return Destino.PRIMARIA;
+        }
+        return lectura.reportes() ? Destino.REPORTES : Destino.REPLICA;
+    }
+
+    void medirRetraso() {
+        try {
+            primaria.update("UPDATE replica_latido SET instante = ? WHERE id = 1", System.currentTimeMillis());
+            List<Long> visto = replica.queryForList("SELECT instante FROM replica_latido WHERE id = 1", Long.class);
+            actualizarRetraso(visto.isEmpty() ? Long.MAX_VALUE : System.currentTimeMillis() - visto.get(0));
+        } catch (DataAccessException e) {
+            // Solo se avisa al pasar a atrasada, no en cada intento
+            if (replicaAlDia) {
+                log.warn("No se pudo medir el retraso de la réplica: {}", e.getMessage());
+            }
+            actualizarRetraso(Long.MAX_VALUE);
+        }
+    }
+
+    void actualizarRetraso(long retraso) {
+        boolean alDia = retraso <= maxRetrasoMs;
+        if (alDia != replicaAlDia) {
+            log.warn(alDia ? "Réplica al día ({} ms): vuelven las lecturas" : "Réplica atrasada ({} ms): lecturas a la primaria",
+                    retraso == Long.MAX_VALUE ? "?" : retraso);
+        }
+        retrasoMs = retraso;
+        replicaAlDia = alDia;
+    }
+
+    public boolean isReplicaAlDia() {
+        return replica != null && replicaAlDia;
+    }
+
+    public long conexiones(Destino destino) {
+        return conexiones.get(destino).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        conexiones.forEach((destino, contador) -> FunctionCounter.builder("ruteo.conexiones", contador, LongAdder::sum)
+                .description("Conexiones obtenidas por pool de destino")
+                .tag("destino", destino.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        FunctionCounter.builder("ruteo.lecturas.propias", lecturasPropias, LongAdder::sum)
+                .description("Lecturas enviadas a la primaria por un cambio reciente del cliente")
+                .register(registry);
+        if (replica != null) {
+            Gauge.builder("ruteo.replica.retraso", this, r -> r.retrasoMs == Long.MAX_VALUE ? Double.NaN : r.retrasoMs)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            Gauge.builder("ruteo.replica.al.dia", this, r -> r.replicaAlDia ? 1 : 0)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.upgrade.senior.enums;
+
+public enum EstadoReporteJob {
+    PENDIENTE,
+    EN_PROCESO,
+    COMPLETADO,
+    FALLIDO
+}
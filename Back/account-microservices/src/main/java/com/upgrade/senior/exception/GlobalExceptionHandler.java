@@ -1,17 +1,26 @@
 package com.upgrade.senior.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.web.server.ResponseStatusException;
 
 import lombok.extern.log4j.Log4j2;
 
 @Log4j2
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    // Opcional: los tests de controladores levantan el advice sin Micrometer
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
     @ExceptionHandler(ClienteNotFoundException.class)
     public ResponseStatusException handleClienteNotFound(ClienteNotFoundException ex) {
         log.error("ClienteNotFoundException: {}", ex.getMessage(), ex);
@@ -24,6 +33,12 @@ public class GlobalExceptionHandler {
         return new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseStatusException handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
+        log.error("HttpMessageNotReadableException: {}", ex.getMessage());
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cuerpo de la petición inválido: " + ex.getMostSpecificCause().getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseStatusException handleGenericException(Exception ex) {
         log.error("Generic Exception: {}", ex.getMessage(), ex);
@@ -33,6 +48,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(GeneralException.class)
     public ResponseStatusException handleMovimientoException(GeneralException ex) {
         log.error("MovimientoException: {}", ex.getMessage(), ex);
+        meterRegistry.ifAvailable(registry ->
+                registry.counter("errores.general", "status", String.valueOf(ex.getStatusCode())).increment());
         return new ResponseStatusException(HttpStatus.valueOf(ex.getStatusCode()), ex.getMessage());
     }
 
@@ -42,5 +59,13 @@ public class GlobalExceptionHandler {
         return new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    /**
+     * El cliente cerró un stream (SSE): la respuesta ya no admite un cuerpo de error.
+     */
+    @ExceptionHandler(AsyncRequestNotUsableException.class)
+    public void handleAsyncRequestNotUsable(AsyncRequestNotUsableException ex) {
+        log.debug("Cliente desconectado: {}", ex.getMessage());
+    }
+
 
 }
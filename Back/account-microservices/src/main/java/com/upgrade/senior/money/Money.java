@@ -0,0 +1,129 @@
+package com.upgrade.senior.money;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Monto en centavos sobre un {@code long}, con la misma escala que las columnas {@code DECIMAL(15,2)}. Es inmutable y
+ * la aritmética es entera y exacta; los ciclos de posting y de reportes trabajan con {@link #centavos()} y solo crean
+ * un {@code Money} al asignar el resultado. En JSON se escribe como número con dos decimales ({@code 125.50}).
+ */
+@JsonSerialize(using = MoneyJson.Serializador.class)
+@JsonDeserialize(using = MoneyJson.Deserializador.class)
+public final class Money implements Comparable<Money>, Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final int ESCALA = 2;
+    public static final Money CERO = new Money(0);
+
+    /**
+     * Largo máximo del texto de un monto: signo, 17 dígitos enteros, punto y 2 decimales.
+     */
+    static final int MAXIMO_CARACTERES = 21;
+
+    private final long centavos;
+
+    private Money(long centavos) {
+        this.centavos = centavos;
+    }
+
+    public static Money deCentavos(long centavos) {
+        return centavos == 0 ? CERO : new Money(centavos);
+    }
+
+    /**
+     * @throws ArithmeticException si el valor tiene más de dos decimales o no cabe en un {@code long} de centavos
+     */
+    public static Money de(BigDecimal valor) {
+        return deCentavos(valor.movePointRight(ESCALA).longValueExact());
+    }
+
+    public static Money de(String valor) {
+        return de(new BigDecimal(valor));
+    }
+
+    public long centavos() {
+        return centavos;
+    }
+
+    public Money sumar(Money otro) {
+        return deCentavos(Math.addExact(centavos, otro.centavos));
+    }
+
+    public Money restar(Money otro) {
+        return deCentavos(Math.subtractExact(centavos, otro.centavos));
+    }
+
+    public Money negar() {
+        return deCentavos(Math.negateExact(centavos));
+    }
+
+    public Money abs() {
+        return centavos < 0 ? negar() : this;
+    }
+
+    public boolean esCero() {
+        return centavos == 0;
+    }
+
+    public boolean esNegativo() {
+        return centavos < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    @Override
+    public int compareTo(Money otro) {
+        return Long.compare(centavos, otro.centavos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money otro && otro.centavos == centavos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centavos);
+    }
+
+    @Override
+    public String toString() {
+        char[] texto = new char[MAXIMO_CARACTERES];
+        return new String(texto, 0, formatear(centavos, texto));
+    }
+
+    /**
+     * Escribe {@code centavos} como {@code [-]enteros.dd} al inicio de {@code destino} (de al menos
+     * {@value #MAXIMO_CARACTERES} caracteres) y devuelve cuántos caracteres usó. No crea objetos.
+     */
+    static int formatear(long centavos, char[] destino) {
+        int fin = MAXIMO_CARACTERES;
+        int i = fin;
+        // Se trabaja en negativo para cubrir Long.MIN_VALUE
+        long resto = centavos < 0 ? centavos : -centavos;
+        for (int d = 0; d < ESCALA; d++) {
+            destino[--i] = (char) ('0' - resto % 10);
+            resto /= 10;
+        }
+        destino[--i] = '.';
+        do {
+            destino[--i] = (char) ('0' - resto % 10);
+            resto /= 10;
+        } while (resto != 0);
+        if (centavos < 0) {
+            destino[--i] = '-';
+        }
+        int largo = fin - i;
+        System.arraycopy(destino, i, destino, 0, largo);
+        return largo;
+    }
+}
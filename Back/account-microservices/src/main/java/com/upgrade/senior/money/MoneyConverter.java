@@ -0,0 +1,26 @@
+package com.upgrade.senior.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Columnas {@code DECIMAL(15,2)} como {@link Money}. Se aplica a todo atributo {@code Money}; al ser inmutable
+ * Hibernate compara instantáneas por {@code equals} sin copiar el valor.
+ */
+@Immutable
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money valor) {
+        return valor == null ? null : valor.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal valor) {
+        return valor == null ? null : Money.de(valor);
+    }
+}
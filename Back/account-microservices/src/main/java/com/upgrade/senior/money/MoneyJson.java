@@ -0,0 +1,70 @@
+package com.upgrade.senior.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Formato JSON de {@link Money}: número con dos decimales. Al leer se aceptan número o texto y se rechazan montos con
+ * más de dos decimales en vez de redondearlos.
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {
+    }
+
+    /**
+     * Escribe el monto sin pasar por {@code BigDecimal}; también lo usa la exportación NDJSON.
+     */
+    public static void escribir(long centavos, JsonGenerator gen) throws IOException {
+        char[] texto = new char[Money.MAXIMO_CARACTERES];
+        gen.writeNumber(texto, 0, Money.formatear(centavos, texto));
+    }
+
+    public static final class Serializador extends StdScalarSerializer<Money> {
+
+        public Serializador() {
+            super(Money.class);
+        }
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            escribir(value.centavos(), gen);
+        }
+    }
+
+    public static final class Deserializador extends StdScalarDeserializer<Money> {
+
+        public Deserializador() {
+            super(Money.class);
+        }
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            BigDecimal valor;
+            if (p.hasToken(JsonToken.VALUE_NUMBER_INT) || p.hasToken(JsonToken.VALUE_NUMBER_FLOAT)) {
+                valor = p.getDecimalValue();
+            } else if (p.hasToken(JsonToken.VALUE_STRING)) {
+                try {
+                    valor = new BigDecimal(p.getText().trim());
+                } catch (NumberFormatException e) {
+                    return (Money) ctxt.handleWeirdStringValue(Money.class, p.getText(), "no es un monto");
+                }
+            } else {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            try {
+                return Money.de(valor);
+            } catch (ArithmeticException e) {
+                return (Money) ctxt.handleWeirdNumberValue(Money.class, valor, "el monto admite hasta %d decimales", Money.ESCALA);
+            }
+        }
+    }
+}
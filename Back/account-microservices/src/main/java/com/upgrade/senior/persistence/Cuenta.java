@@ -1,13 +1,18 @@
 package com.upgrade.senior.persistence;
 
 import com.upgrade.senior.enums.TipoCuenta;
+import com.upgrade.senior.money.Money;
 import jakarta.persistence.*;
 import java.util.List;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @Table(name = "cuenta")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cuenta")
 public class Cuenta {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -22,11 +27,21 @@ public class Cuenta {
     private TipoCuenta tipoCuenta;
 
     @Column(nullable = false)
-    private Double saldoInicial;
+    private Money saldoInicial;
 
     @Column(nullable = false)
     private Boolean estado;
 
+    /**
+     * Cantidad de movimientos aplicados; ordena los eventos de la cuenta aunque se publiquen fuera de orden.
+     */
+    @Column(nullable = false)
+    private long secuencia;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Cliente cliente;
@@ -1,6 +1,7 @@
 package com.upgrade.senior.persistence;
 
 import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import lombok.Data;
@@ -10,7 +11,9 @@ import lombok.Data;
 @Table(name = "movimiento")
 public class Movimiento {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "movimiento_id_gen")
+    @TableGenerator(name = "movimiento_id_gen", table = "generador_id", pkColumnName = "nombre_secuencia",
+            valueColumnName = "siguiente_valor", pkColumnValue = "movimiento", allocationSize = 50)
     @Column(name = "movimiento_id")
     private Long movimientoId;
 
@@ -26,9 +29,15 @@ public class Movimiento {
     private TipoMovimiento tipoMovimiento;
 
     @Column(nullable = false)
-    private Double valor;
+    private Money valor;
 
     @Column(nullable = false)
-    private Double saldo;
+    private Money saldo;
+
+    /**
+     * Secuencia de la cuenta tras este movimiento; solo la tienen los movimientos recién registrados.
+     */
+    @Transient
+    private Long secuencia;
 
 }
@@ -0,0 +1,30 @@
+package com.upgrade.senior.persistence;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * Respuesta ya entregada para una {@code Idempotency-Key} de {@code POST /api/movimientos}, hasta {@code expira}.
+ */
+@Data
+@Entity
+@Table(name = "movimiento_idempotencia")
+public class MovimientoIdempotencia {
+    @Id
+    @Column(length = 100)
+    private String clave;
+
+    @Column(nullable = false, length = 80)
+    private String huella;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String respuesta;
+
+    @Column(nullable = false)
+    private LocalDateTime creado;
+
+    @Column(nullable = false)
+    private LocalDateTime expira;
+
+}
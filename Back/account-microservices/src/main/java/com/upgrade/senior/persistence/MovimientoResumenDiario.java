@@ -0,0 +1,37 @@
+package com.upgrade.senior.persistence;
+
+import com.upgrade.senior.money.Money;
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Resumen diario de movimientos por cuenta, mantenido en la misma transacción que los movimientos.
+ */
+@Data
+@Entity
+@Table(name = "movimiento_resumen_diario")
+public class MovimientoResumenDiario {
+    @EmbeddedId
+    private MovimientoResumenDiarioId id;
+
+    @MapsId("cuentaId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cuenta_id", nullable = false)
+    private Cuenta cuenta;
+
+    @Column(nullable = false)
+    private Money saldoApertura;
+
+    @Column(nullable = false)
+    private Money saldoCierre;
+
+    @Column(nullable = false)
+    private Money totalCreditos;
+
+    @Column(nullable = false)
+    private Money totalDebitos;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+
+}
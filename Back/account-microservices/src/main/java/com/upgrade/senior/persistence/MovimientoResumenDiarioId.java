@@ -0,0 +1,21 @@
+package com.upgrade.senior.persistence;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoResumenDiarioId implements Serializable {
+    @Column(name = "cuenta_id")
+    private Long cuentaId;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+}
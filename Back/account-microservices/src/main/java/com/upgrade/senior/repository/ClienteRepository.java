@@ -1,10 +1,21 @@
 package com.upgrade.senior.repository;
 
 import com.upgrade.senior.persistence.Cliente;
+import com.upgrade.senior.service.dto.cliente.ClienteListadoDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     boolean existsByIdentificacion(String identificacion);
+
+    @Query(value = "SELECT new com.upgrade.senior.service.dto.cliente.ClienteListadoDTO(c.clienteId, c.nombre, c.genero, " +
+            "c.edad, c.identificacion, c.direccion, c.telefono, c.estado) FROM Cliente c " +
+            "WHERE (:estado IS NULL OR c.estado = :estado)",
+            countQuery = "SELECT COUNT(c) FROM Cliente c WHERE (:estado IS NULL OR c.estado = :estado)")
+    Page<ClienteListadoDTO> findListado(@Param("estado") Boolean estado, Pageable pageable);
 }
@@ -1,13 +1,54 @@
 package com.upgrade.senior.repository;
 
+import com.upgrade.senior.enums.TipoCuenta;
 import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.service.cache.SegundoNivelCache;
+import com.upgrade.senior.service.dto.cuenta.CuentaResponseDTO;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     Optional<Cuenta> findByNumeroCuenta(String numeroCuenta);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Cuenta> findWithLockByNumeroCuenta(String numeroCuenta);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Cuenta> findWithLockByCuentaId(Long cuentaId);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.numeroCuenta IN :numerosCuenta ORDER BY c.cuentaId")
+    List<Cuenta> findWithLockByNumeroCuentaIn(@Param("numerosCuenta") Collection<String> numerosCuenta);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.numeroCuenta, c.cuentaId FROM Cuenta c")
+    Stream<Object[]> streamNumerosCuenta();
     boolean existsByNumeroCuenta(String numeroCuenta);
-    void deleteByNumeroCuenta(String numeroCuenta);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SegundoNivelCache.REGION_CUENTAS_POR_CLIENTE)
+    })
     List<Cuenta> findByClienteClienteId(Long clienteId);
+    @Query("SELECT COUNT(c) FROM Cuenta c WHERE c.cliente.clienteId = :clienteId")
+    long countByClienteClienteId(@Param("clienteId") Long clienteId);
+    @Query(value = "SELECT new com.upgrade.senior.service.dto.cuenta.CuentaResponseDTO(c.numeroCuenta, c.tipoCuenta, " +
+            "c.saldoInicial, c.estado, c.cliente.clienteId) FROM Cuenta c " +
+            "WHERE (:estado IS NULL OR c.estado = :estado) AND (:tipoCuenta IS NULL OR c.tipoCuenta = :tipoCuenta) " +
+            "AND (:clienteId IS NULL OR c.cliente.clienteId = :clienteId)",
+            countQuery = "SELECT COUNT(c) FROM Cuenta c WHERE (:estado IS NULL OR c.estado = :estado) " +
+                    "AND (:tipoCuenta IS NULL OR c.tipoCuenta = :tipoCuenta) " +
+                    "AND (:clienteId IS NULL OR c.cliente.clienteId = :clienteId)")
+    Page<CuentaResponseDTO> findListado(@Param("estado") Boolean estado, @Param("tipoCuenta") TipoCuenta tipoCuenta,
+                                        @Param("clienteId") Long clienteId, Pageable pageable);
 }
@@ -0,0 +1,13 @@
+package com.upgrade.senior.repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface MovimientoExportRepository {
+
+    /**
+     * Filas escalares (movimientoId, numeroCuenta, fecha, tipoMovimiento, valor, saldo) del cliente en el rango,
+     * ordenadas por fecha, leídas con un cursor de solo avance de {@code fetchSize} filas. Debe cerrarse.
+     */
+    Stream<Object[]> streamExportacion(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, int fetchSize);
+}
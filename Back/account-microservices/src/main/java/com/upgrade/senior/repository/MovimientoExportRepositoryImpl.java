@@ -0,0 +1,28 @@
+package com.upgrade.senior.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+class MovimientoExportRepositoryImpl implements MovimientoExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Object[]> streamExportacion(Long clienteId, LocalDateTime fechaInicio, LocalDateTime fechaFin, int fetchSize) {
+        return entityManager.createQuery("SELECT m.movimientoId, c.numeroCuenta, m.fecha, m.tipoMovimiento, m.valor, m.saldo " +
+                        "FROM Movimiento m JOIN m.cuenta c WHERE c.cliente.clienteId = :clienteId " +
+                        "AND m.fecha >= :fechaInicio AND m.fecha < :fechaFin " +
+                        "ORDER BY m.fecha, m.movimientoId", Object[].class)
+                .setParameter("clienteId", clienteId)
+                .setParameter("fechaInicio", fechaInicio)
+                .setParameter("fechaFin", fechaFin)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
@@ -0,0 +1,40 @@
+package com.upgrade.senior.repository;
+
+import com.upgrade.senior.persistence.MovimientoIdempotencia;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MovimientoIdempotenciaRepository extends JpaRepository<MovimientoIdempotencia, String> {
+
+    String TABLA = "movimiento_idempotencia";
+
+    /**
+     * Inserción directa, sin el merge de {@code save}: una clave repetida falla con
+     * {@link org.springframework.dao.DataIntegrityViolationException}.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA))
+    @Query(value = "INSERT INTO movimiento_idempotencia (clave, huella, respuesta, creado, expira) " +
+            "VALUES (:clave, :huella, :respuesta, :creado, :expira)", nativeQuery = true)
+    int insertar(@Param("clave") String clave, @Param("huella") String huella, @Param("respuesta") String respuesta,
+                 @Param("creado") LocalDateTime creado, @Param("expira") LocalDateTime expira);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA))
+    @Query(value = "DELETE FROM movimiento_idempotencia WHERE clave = :clave AND expira <= :ahora", nativeQuery = true)
+    int eliminarExpirada(@Param("clave") String clave, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA))
+    @Query(value = "DELETE FROM movimiento_idempotencia WHERE expira <= :ahora", nativeQuery = true)
+    int eliminarExpiradas(@Param("ahora") LocalDateTime ahora);
+}
@@ -1,23 +1,110 @@
 package com.upgrade.senior.repository;
 
 import com.upgrade.senior.persistence.Movimiento;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+/**
+ * Los filtros de fecha van sobre {@code m.fecha} sin funciones y como rangos ({@code >=}, {@code <}): así MySQL solo lee
+ * las particiones mensuales que cubren el rango. En la paginación por cursor el rango se separa del desempate por id.
+ */
 @Repository
-public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
+public interface MovimientoRepository extends JpaRepository<Movimiento, Long>, MovimientoExportRepository {
     List<Movimiento> findByCuenta_NumeroCuenta(String numeroCuenta);
     
-    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cliente.clienteId = :clienteId " +
+    @Query("SELECT m FROM Movimiento m JOIN FETCH m.cuenta c WHERE c.numeroCuenta = :numeroCuenta " +
+            "ORDER BY m.fecha, m.movimientoId")
+    List<Movimiento> findPaginaPorCuenta(@Param("numeroCuenta") String numeroCuenta, Limit limite);
+
+    @Query("SELECT m FROM Movimiento m JOIN FETCH m.cuenta c WHERE c.numeroCuenta = :numeroCuenta " +
+            "AND m.fecha >= :fecha AND (m.fecha > :fecha OR m.movimientoId > :movimientoId) " +
+            "ORDER BY m.fecha, m.movimientoId")
+    List<Movimiento> findPaginaPorCuentaDesde(@Param("numeroCuenta") String numeroCuenta,
+                                              @Param("fecha") LocalDateTime fecha,
+                                              @Param("movimientoId") Long movimientoId, Limit limite);
+
+    @Query("SELECT m FROM Movimiento m JOIN FETCH m.cuenta c WHERE c.cliente.clienteId = :clienteId " +
+            "AND m.fecha >= :fechaInicio AND m.fecha < :fechaFin " +
+            "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<Movimiento> findPaginaPorClienteYFechas(@Param("clienteId") Long clienteId,
+                                                 @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                 @Param("fechaFin") LocalDateTime fechaFin, Limit limite);
+
+    @Query("SELECT m FROM Movimiento m JOIN FETCH m.cuenta c WHERE c.cliente.clienteId = :clienteId " +
             "AND m.fecha >= :fechaInicio AND m.fecha < :fechaFin " +
-            "ORDER BY m.fecha DESC")
-    List<Movimiento> findMovimientosPorClienteYFechas(@Param("clienteId") Long clienteId, 
-                                                       @Param("fechaInicio") LocalDateTime fechaInicio, 
-                                                       @Param("fechaFin") LocalDateTime fechaFin);
+            "AND m.fecha <= :fecha AND (m.fecha < :fecha OR m.movimientoId < :movimientoId) " +
+            "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<Movimiento> findPaginaPorClienteYFechasDesde(@Param("clienteId") Long clienteId,
+                                                      @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                      @Param("fechaFin") LocalDateTime fechaFin,
+                                                      @Param("fecha") LocalDateTime fecha,
+                                                      @Param("movimientoId") Long movimientoId, Limit limite);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Movimiento m JOIN FETCH m.cuenta c WHERE c.cliente.clienteId = :clienteId " +
+            "AND m.fecha >= :fechaInicio AND m.fecha < :fechaFin " +
+            "ORDER BY c.cuentaId, m.fecha, m.movimientoId")
+    Stream<Movimiento> streamEstadoCuenta(@Param("clienteId") Long clienteId,
+                                          @Param("fechaInicio") LocalDateTime fechaInicio,
+                                          @Param("fechaFin") LocalDateTime fechaFin);
+
+    @Query("SELECT COUNT(DISTINCT m.cuenta.cuentaId) FROM Movimiento m WHERE m.cuenta.cliente.clienteId = :clienteId " +
+            "AND m.fecha >= :fechaInicio AND m.fecha < :fechaFin")
+    long contarCuentasConMovimientos(@Param("clienteId") Long clienteId,
+                                     @Param("fechaInicio") LocalDateTime fechaInicio,
+                                     @Param("fechaFin") LocalDateTime fechaFin);
+
+    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId " +
+            "AND m.fecha >= :fechaInicio AND m.fecha < :fechaFin " +
+            "ORDER BY m.fecha, m.movimientoId")
+    List<Movimiento> findMovimientosPorCuentaYFechas(@Param("cuentaId") Long cuentaId,
+                                                     @Param("fechaInicio") LocalDateTime fechaInicio,
+                                                     @Param("fechaFin") LocalDateTime fechaFin);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m.cuenta.cuentaId, m.fecha, m.tipoMovimiento, m.valor, m.saldo FROM Movimiento m " +
+            "ORDER BY m.cuenta.cuentaId, m.fecha, m.movimientoId")
+    Stream<Object[]> streamResumenOrdenado();
+
+    @Query("SELECT DISTINCT m.cuenta.cuentaId FROM Movimiento m WHERE m.cuenta.cliente.clienteId = :clienteId " +
+            "AND m.fecha >= :fechaInicio AND m.fecha < :fechaFin")
+    List<Long> findCuentasConMovimientos(@Param("clienteId") Long clienteId,
+                                         @Param("fechaInicio") LocalDateTime fechaInicio,
+                                         @Param("fechaFin") LocalDateTime fechaFin);
+
+    @Query("SELECT MIN(m.fecha) FROM Movimiento m")
+    LocalDateTime findPrimeraFecha();
+
+    boolean existsByFechaBefore(LocalDateTime fecha);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m.movimientoId, m.cuenta.cuentaId, m.fecha, m.tipoMovimiento, m.valor, m.saldo FROM Movimiento m " +
+            "WHERE m.fecha >= :inicio AND m.fecha < :fin ORDER BY m.cuenta.cuentaId, m.fecha, m.movimientoId")
+    Stream<Object[]> streamArchivo(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "movimiento"))
+    @Query(value = "DELETE FROM movimiento WHERE fecha < :fin LIMIT :limite", nativeQuery = true)
+    int eliminarAnteriores(@Param("fin") LocalDateTime fin, @Param("limite") int limite);
 }
@@ -0,0 +1,60 @@
+package com.upgrade.senior.repository;
+
+import com.upgrade.senior.persistence.MovimientoResumenDiario;
+import com.upgrade.senior.persistence.MovimientoResumenDiarioId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MovimientoResumenDiarioRepository extends JpaRepository<MovimientoResumenDiario, MovimientoResumenDiarioId> {
+
+    /**
+     * Espacio de consulta de las sentencias nativas: sin él Hibernate vacía todo el cache de segundo nivel en cada
+     * escritura.
+     */
+    String TABLA = "movimiento_resumen_diario";
+
+    /**
+     * Inserta el día o suma los totales al existente. El saldo de apertura solo se fija al crear el día.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA))
+    @Query(value = "INSERT INTO movimiento_resumen_diario " +
+            "(cuenta_id, fecha, saldo_apertura, saldo_cierre, total_creditos, total_debitos, cantidad) " +
+            "VALUES (:cuentaId, :fecha, :saldoApertura, :saldoCierre, :totalCreditos, :totalDebitos, :cantidad) " +
+            "ON DUPLICATE KEY UPDATE saldo_cierre = VALUES(saldo_cierre), " +
+            "total_creditos = total_creditos + VALUES(total_creditos), " +
+            "total_debitos = total_debitos + VALUES(total_debitos), " +
+            "cantidad = cantidad + VALUES(cantidad)", nativeQuery = true)
+    int acumular(@Param("cuentaId") Long cuentaId, @Param("fecha") LocalDate fecha,
+                 @Param("saldoApertura") BigDecimal saldoApertura, @Param("saldoCierre") BigDecimal saldoCierre,
+                 @Param("totalCreditos") BigDecimal totalCreditos, @Param("totalDebitos") BigDecimal totalDebitos,
+                 @Param("cantidad") Integer cantidad);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA))
+    @Query(value = "DELETE FROM movimiento_resumen_diario WHERE cuenta_id = :cuentaId AND fecha = :fecha", nativeQuery = true)
+    int eliminarDia(@Param("cuentaId") Long cuentaId, @Param("fecha") LocalDate fecha);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = TABLA))
+    @Query(value = "DELETE FROM movimiento_resumen_diario", nativeQuery = true)
+    int eliminarTodo();
+
+    @Query("SELECT r FROM MovimientoResumenDiario r JOIN FETCH r.cuenta c WHERE c.cliente.clienteId = :clienteId " +
+            "AND r.id.fecha >= :fechaInicio AND r.id.fecha <= :fechaFin " +
+            "ORDER BY c.cuentaId, r.id.fecha")
+    List<MovimientoResumenDiario> findResumenPorClienteYFechas(@Param("clienteId") Long clienteId,
+                                                               @Param("fechaInicio") LocalDate fechaInicio,
+                                                               @Param("fechaFin") LocalDate fechaFin);
+}
@@ -0,0 +1,10 @@
+package com.upgrade.senior.service;
+
+import com.upgrade.senior.service.dto.cache.RegionCacheMetricsDTO;
+
+import java.util.List;
+
+public interface CacheService {
+
+    List<RegionCacheMetricsDTO> obtenerMetricasSegundoNivel();
+}
@@ -1,8 +1,12 @@
 package com.upgrade.senior.service;
 
+import com.upgrade.senior.service.dto.PaginaDTO;
+import com.upgrade.senior.service.dto.cliente.ClienteListadoDTO;
 import com.upgrade.senior.service.dto.cliente.ClienteRequestDTO;
 import com.upgrade.senior.service.dto.cliente.ClienteResponseDTO;
 
+import org.springframework.data.domain.Pageable;
+
 import java.util.List;
 
 public interface ClienteService {
@@ -10,6 +14,7 @@ public interface ClienteService {
     ClienteResponseDTO crearCliente(ClienteRequestDTO cliente);
     ClienteResponseDTO obtenerClientePorId(Long id);
     List<ClienteResponseDTO> listarClientes();
+    PaginaDTO<ClienteListadoDTO> listarClientesPaginado(Boolean estado, Pageable pageable);
     ClienteResponseDTO actualizarCliente(Long id, ClienteRequestDTO cliente);
     void eliminarCliente(Long id);
 }
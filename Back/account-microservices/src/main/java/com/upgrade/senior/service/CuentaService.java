@@ -1,8 +1,13 @@
 package com.upgrade.senior.service;
 
+import com.upgrade.senior.enums.TipoCuenta;
+import com.upgrade.senior.service.dto.PaginaDTO;
 import com.upgrade.senior.service.dto.cuenta.CuentaCreateDTO;
 import com.upgrade.senior.service.dto.cuenta.CuentaResponseDTO;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import java.util.List;
 
 public interface CuentaService {
@@ -10,8 +15,10 @@ public interface CuentaService {
     CuentaResponseDTO obtenerCuentaPorId(Long id);
     CuentaResponseDTO obtenerCuentaPorNumeroCuenta(String numeroCuenta);
     List<CuentaResponseDTO> listarCuentas();
+    PaginaDTO<CuentaResponseDTO> listarCuentasPaginado(Boolean estado, TipoCuenta tipoCuenta, Long clienteId, Pageable pageable);
     List<CuentaResponseDTO> obtenerCuentasPorClienteId(Long clienteId);
     CuentaResponseDTO actualizarCuenta(String numeroCuenta, CuentaCreateDTO cuenta);
     void eliminarCuenta(Long id);
     void eliminarCuentaByNumeroCuenta(String numeroCuenta);
+    SseEmitter suscribirEventos(String numeroCuenta);
 }
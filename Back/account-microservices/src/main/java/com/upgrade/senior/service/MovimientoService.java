@@ -1,18 +1,32 @@
 package com.upgrade.senior.service;
 
 
+import com.upgrade.senior.service.dto.movimiento.MovimientoBatchResponseDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoPaginaDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.dto.movimiento.PostingMetricsDTO;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
 
 public interface MovimientoService {
 
     MovimientoResponseDTO crearMovimiento(MovimientoCreateDTO dto);
-    List<MovimientoResponseDTO> obtenerMovimientosPorCuenta(String numeroCuenta);
-    List<MovimientoResponseDTO> obtenerMovimientosPorClienteYFechas(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
+
+    /**
+     * Como {@link #crearMovimiento(MovimientoCreateDTO)}, pero una repetición con la misma clave devuelve la respuesta
+     * original sin volver a postear. Con {@code claveIdempotencia} nula no hay deduplicación.
+     */
+    MovimientoResponseDTO crearMovimiento(MovimientoCreateDTO dto, String claveIdempotencia);
+    MovimientoBatchResponseDTO crearMovimientosBatch(List<MovimientoCreateDTO> dtos);
+    MovimientoPaginaDTO obtenerMovimientosPorCuenta(String numeroCuenta, String cursor, Integer limite);
+    MovimientoPaginaDTO obtenerMovimientosPorClienteYFechas(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin,
+                                                            String cursor, Integer limite);
+    void exportarMovimientosPorCliente(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, OutputStream out);
     MovimientoResponseDTO obtenerMovimientoPorId(Long id);
     void eliminarMovimiento(Long id);
+    PostingMetricsDTO obtenerMetricasPosting();
 
 }
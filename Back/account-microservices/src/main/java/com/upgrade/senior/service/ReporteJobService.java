@@ -0,0 +1,11 @@
+package com.upgrade.senior.service;
+
+import com.upgrade.senior.service.dto.reporte.ReporteJobArchivoDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobCreateDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobResponseDTO;
+
+public interface ReporteJobService {
+    ReporteJobResponseDTO crearJob(ReporteJobCreateDTO dto);
+    ReporteJobResponseDTO obtenerJob(String id);
+    ReporteJobArchivoDTO obtenerResultado(String id);
+}
@@ -1,11 +1,17 @@
 package com.upgrade.senior.service;
 
+import com.upgrade.senior.service.dto.reporte.EstadoCuentaCacheMetricsDTO;
 import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaPDFResponseDTO;
 import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 
 public interface ReporteService {
     ReporteEstadoCuentaResponseDTO generarEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
+    ReporteEstadoCuentaResponseDTO generarResumenEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
     ReporteEstadoCuentaPDFResponseDTO generarEstadoCuentaPDF(Long clienteId, java.time.LocalDate fechaInicio, java.time.LocalDate fechaFin);
+    void validarEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin);
+    void escribirEstadoCuentaPDF(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, OutputStream out);
+    EstadoCuentaCacheMetricsDTO obtenerMetricasCache();
 }
@@ -0,0 +1,12 @@
+package com.upgrade.senior.service;
+
+import com.upgrade.senior.persistence.Movimiento;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface ResumenDiarioService {
+    void acumular(Collection<Movimiento> movimientos);
+    void recalcularDia(Long cuentaId, LocalDate fecha);
+    long reconstruir();
+}
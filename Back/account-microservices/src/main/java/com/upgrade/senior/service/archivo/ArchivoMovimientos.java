@@ -0,0 +1,495 @@
+package com.upgrade.senior.service.archivo;
+
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.service.particion.ParticionesMovimiento;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Archivo en frío de {@code movimiento}: los meses cerrados anteriores a los últimos {@code retention-months} pasan a
+ * segmentos inmutables en {@code dir} ({@link SegmentoMovimientos}, uno por mes) y salen de la tabla. Se archivan en
+ * orden, así el archivo cubre todo lo anterior al corte (el primer día del mes siguiente al último segmento) y la tabla
+ * lo posterior.
+ * <p>
+ * Las lecturas toman una {@link Vista} y solo consultan el archivo si el rango empieza antes de su corte. Un mes
+ * archivado se publica antes de borrar sus filas, y el borrado espera a la siguiente ejecución para que ninguna lectura
+ * en curso con la vista anterior pierda ese mes. En MySQL particionada el borrado es un {@code DROP PARTITION} por mes.
+ * <p>
+ * Con {@code retention-months=0} no se archiva nada, pero los segmentos existentes se siguen leyendo.
+ */
+@Log4j2
+@Component
+public class ArchivoMovimientos implements MeterBinder {
+
+    private static final DateTimeFormatter SUFIJO = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PREFIJO = "movimientos-";
+    private static final String EXTENSION = ".seg";
+    private static final Comparator<Movimiento> POR_CUENTA_FECHA = Comparator
+            .comparing((Movimiento m) -> m.getCuenta().getCuentaId())
+            .thenComparing(Movimiento::getFecha)
+            .thenComparing(Movimiento::getMovimientoId);
+    private static final Comparator<MovimientoArchivado> POR_FECHA = Comparator
+            .comparing(MovimientoArchivado::fecha)
+            .thenComparingLong(MovimientoArchivado::movimientoId);
+
+    private final MovimientoRepository movimientoRepository;
+    private final ParticionesMovimiento particiones;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directorio;
+    private final int mesesRetencion;
+    private final long intervaloMs;
+    private final int loteBorrado;
+    private final LongAdder archivados = new LongAdder();
+    private final LongAdder leidos = new LongAdder();
+    private volatile Vista vista = new Vista(Collections.emptyNavigableMap());
+    private volatile LocalDateTime corteBorrado;
+    private ScheduledExecutorService archivador;
+
+    public ArchivoMovimientos(MovimientoRepository movimientoRepository, ParticionesMovimiento particiones,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${app.movimientos.archivo.dir:archivo-movimientos}") Path directorio,
+                              @Value("${app.movimientos.archivo.retention-months:0}") int mesesRetencion,
+                              @Value("${app.movimientos.archivo.check-interval-ms:3600000}") long intervaloMs,
+                              @Value("${app.movimientos.archivo.delete-batch-size:5000}") int loteBorrado) {
+        this.movimientoRepository = movimientoRepository;
+        this.particiones = particiones;
+        this.transactionTemplate = transactionManager == null ? null : new TransactionTemplate(transactionManager);
+        this.directorio = directorio;
+        this.mesesRetencion = mesesRetencion;
+        this.intervaloMs = intervaloMs;
+        this.loteBorrado = loteBorrado;
+    }
+
+    /**
+     * Sin directorio: la vista queda vacía y las lecturas usan solo la tabla.
+     */
+    public static ArchivoMovimientos sinArchivo() {
+        return new ArchivoMovimientos(null, null, null, null, 0, 0, 0);
+    }
+
+    @PostConstruct
+    void cargar() throws IOException {
+        if (directorio == null || !Files.isDirectory(directorio)) {
+            return;
+        }
+        NavigableMap<YearMonth, SegmentoMovimientos> segmentos = new TreeMap<>();
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, PREFIJO + "*")) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                if (nombre.endsWith(EXTENSION + ".tmp")) {
+                    // Archivado interrumpido: el mes sigue en la tabla
+                    Files.delete(archivo);
+                } else if (nombre.endsWith(EXTENSION)) {
+                    SegmentoMovimientos segmento = SegmentoMovimientos.abrir(archivo);
+                    segmentos.put(segmento.mes(), segmento);
+                }
+            }
+        }
+        if (segmentos.isEmpty()) {
+            return;
+        }
+        long faltantes = segmentos.firstKey().until(segmentos.lastKey(), ChronoUnit.MONTHS) + 1 - segmentos.size();
+        if (faltantes > 0) {
+            log.warn("Faltan {} meses entre {} y {} en {}", faltantes, segmentos.firstKey(), segmentos.lastKey(), directorio);
+        }
+        vista = new Vista(Collections.unmodifiableNavigableMap(segmentos));
+        // Al arrancar no hay lecturas con una vista anterior: lo archivado ya se puede borrar
+        corteBorrado = vista.corte();
+        log.info("Archivo de movimientos: {} segmentos hasta {}", segmentos.size(), segmentos.lastKey());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void iniciar() {
+        if (directorio == null || (mesesRetencion <= 0 && corteBorrado == null)) {
+            return;
+        }
+        archivador = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("archivo-movimientos").daemon().factory());
+        archivador.scheduleWithFixedDelay(this::ejecutar, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (archivador != null) {
+            archivador.shutdownNow();
+        }
+    }
+
+    public Vista vista() {
+        return vista;
+    }
+
+    private void ejecutar() {
+        try {
+            archivar(YearMonth.now());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo archivar movimientos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Borra de la tabla lo que quedó archivado en la ejecución anterior y archiva los meses vencidos.
+     */
+    void archivar(YearMonth actual) {
+        eliminarArchivados();
+        if (mesesRetencion <= 0) {
+            return;
+        }
+        YearMonth limite = actual.minusMonths(mesesRetencion);
+        YearMonth mes = siguienteMes();
+        while (mes != null && mes.isBefore(limite)) {
+            archivarMes(mes);
+            mes = mes.plusMonths(1);
+        }
+        corteBorrado = vista.corte();
+    }
+
+    private YearMonth siguienteMes() {
+        if (!vista.segmentos.isEmpty()) {
+            return vista.segmentos.lastKey().plusMonths(1);
+        }
+        LocalDateTime primera = movimientoRepository.findPrimeraFecha();
+        return primera == null ? null : YearMonth.from(primera);
+    }
+
+    private void archivarMes(YearMonth mes) {
+        try {
+            Files.createDirectories(directorio);
+            Path destino = directorio.resolve(PREFIJO + mes.format(SUFIJO) + EXTENSION);
+            LocalDateTime inicio = mes.atDay(1).atStartOfDay();
+            LocalDateTime fin = mes.plusMonths(1).atDay(1).atStartOfDay();
+            long filas = transactionTemplate.execute(status -> escribir(destino, mes, inicio, fin));
+            SegmentoMovimientos segmento = SegmentoMovimientos.abrir(destino);
+            NavigableMap<YearMonth, SegmentoMovimientos> segmentos = new TreeMap<>(vista.segmentos);
+            segmentos.put(mes, segmento);
+            vista = new Vista(Collections.unmodifiableNavigableMap(segmentos));
+            archivados.add(filas);
+            log.info("Archivados {} movimientos de {} en {} ({} bytes)", filas, mes, destino, segmento.bytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long escribir(Path destino, YearMonth mes, LocalDateTime inicio, LocalDateTime fin) {
+        try (Stream<Object[]> filas = movimientoRepository.streamArchivo(inicio, fin);
+             SegmentoMovimientos.Escritor escritor = new SegmentoMovimientos.Escritor(destino, mes)) {
+            for (Iterator<Object[]> it = filas.iterator(); it.hasNext(); ) {
+                Object[] fila = it.next();
+                escritor.agregar(new MovimientoArchivado((Long) fila[0], (Long) fila[1], (LocalDateTime) fila[2],
+                        (TipoMovimiento) fila[3], ((Money) fila[4]).centavos(), ((Money) fila[5]).centavos()));
+            }
+            long total = escritor.movimientos();
+            escritor.terminar();
+            return total;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void eliminarArchivados() {
+        LocalDateTime corte = corteBorrado;
+        if (corte == null) {
+            return;
+        }
+        if (particiones != null) {
+            particiones.eliminarMesesAnteriores(YearMonth.from(corte));
+        }
+        long borrados = 0;
+        if (movimientoRepository.existsByFechaBefore(corte)) {
+            int lote;
+            do {
+                lote = transactionTemplate.execute(status -> movimientoRepository.eliminarAnteriores(corte, loteBorrado));
+                borrados += lote;
+            } while (lote == loteBorrado);
+        }
+        if (borrados > 0) {
+            log.info("Eliminados de la tabla {} movimientos ya archivados (anteriores a {})", borrados, corte);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("movimientos.archivo.segmentos", this, a -> a.vista.segmentos.size())
+                .register(registry);
+        Gauge.builder("movimientos.archivo.bytes", this,
+                        a -> a.vista.segmentos.values().stream().mapToLong(SegmentoMovimientos::bytes).sum())
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("movimientos.archivo.archivados", archivados, LongAdder::sum)
+                .description("Movimientos pasados de la tabla al archivo")
+                .register(registry);
+        FunctionCounter.builder("movimientos.archivo.leidos", leidos, LongAdder::sum)
+                .description("Movimientos leídos del archivo para reportes y listados")
+                .register(registry);
+    }
+
+    /**
+     * Segmentos publicados en un momento dado. Una lectura usa la misma vista para decidir qué pide al archivo y qué a
+     * la tabla ({@code fecha >= corte}), así no repite ni pierde filas mientras se archiva un mes.
+     */
+    public final class Vista {
+        private final NavigableMap<YearMonth, SegmentoMovimientos> segmentos;
+
+        private Vista(NavigableMap<YearMonth, SegmentoMovimientos> segmentos) {
+            this.segmentos = segmentos;
+        }
+
+        /**
+         * Primer instante que no está en el archivo; {@code null} si no hay segmentos.
+         */
+        public LocalDateTime corte() {
+            return segmentos.isEmpty() ? null : segmentos.lastKey().plusMonths(1).atDay(1).atStartOfDay();
+        }
+
+        /**
+         * Si un rango que empieza en {@code desde} ({@code null}: desde el principio) incluye movimientos archivados.
+         */
+        public boolean cubre(LocalDateTime desde) {
+            return !segmentos.isEmpty() && (desde == null || desde.isBefore(corte()));
+        }
+
+        /**
+         * Inicio del tramo que se lee de la tabla.
+         */
+        public LocalDateTime inicioVivo(LocalDateTime desde) {
+            LocalDateTime corte = corte();
+            return corte == null || (desde != null && desde.isAfter(corte)) ? desde : corte;
+        }
+
+        private Collection<SegmentoMovimientos> meses(LocalDateTime desde, LocalDateTime hasta) {
+            if (segmentos.isEmpty() || (hasta != null && !hasta.isAfter(segmentos.firstKey().atDay(1).atStartOfDay()))) {
+                return List.of();
+            }
+            YearMonth primero = desde == null ? segmentos.firstKey() : YearMonth.from(desde);
+            YearMonth ultimo = hasta == null ? segmentos.lastKey() : YearMonth.from(hasta.minusNanos(1));
+            return primero.isAfter(ultimo) ? List.of() : segmentos.subMap(primero, true, ultimo, true).values();
+        }
+
+        private List<MovimientoArchivado> leer(SegmentoMovimientos segmento, long cuentaId, LocalDateTime desde,
+                                               LocalDateTime hasta) {
+            List<MovimientoArchivado> filas = segmento.leer(cuentaId);
+            leidos.add(filas.size());
+            if ((desde == null || !desde.isAfter(segmento.mes().atDay(1).atStartOfDay()))
+                    && (hasta == null || !hasta.isBefore(segmento.mes().plusMonths(1).atDay(1).atStartOfDay()))) {
+                return filas;
+            }
+            return filas.stream()
+                    .filter(m -> (desde == null || !m.fecha().isBefore(desde)) && (hasta == null || m.fecha().isBefore(hasta)))
+                    .toList();
+        }
+
+        /**
+         * Movimientos archivados de las cuentas en {@code [desde, hasta)}, en orden de cuenta, fecha e id. Se
+         * descomprime un mes de una cuenta a la vez.
+         */
+        public Iterator<Movimiento> recorrer(List<Cuenta> cuentas, LocalDateTime desde, LocalDateTime hasta) {
+            List<Cuenta> ordenadas = cuentas.stream().sorted(Comparator.comparing(Cuenta::getCuentaId)).toList();
+            Collection<SegmentoMovimientos> meses = meses(desde, hasta);
+            return new Iterator<>() {
+                private final Iterator<Cuenta> cuentasPendientes = ordenadas.iterator();
+                private Cuenta cuenta;
+                private Iterator<SegmentoMovimientos> mesesPendientes = Collections.emptyIterator();
+                private Iterator<MovimientoArchivado> filas = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!filas.hasNext()) {
+                        if (mesesPendientes.hasNext()) {
+                            filas = leer(mesesPendientes.next(), cuenta.getCuentaId(), desde, hasta).iterator();
+                        } else if (cuentasPendientes.hasNext()) {
+                            cuenta = cuentasPendientes.next();
+                            mesesPendientes = meses.iterator();
+                        } else {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+
+                @Override
+                public Movimiento next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return filas.next().aMovimiento(cuenta);
+                }
+            };
+        }
+
+        /**
+         * Como {@link #recorrer}, intercalado con los movimientos vivos de las mismas cuentas (desde {@link #inicioVivo})
+         * en orden de cuenta, fecha e id.
+         */
+        public Iterator<Movimiento> mezclar(List<Cuenta> cuentas, LocalDateTime desde, LocalDateTime hasta,
+                                           Iterator<Movimiento> vivos) {
+            Iterator<Movimiento> archivados = recorrer(cuentas, desde, hasta);
+            return new Iterator<>() {
+                private Movimiento archivado;
+                private Movimiento vivo;
+
+                @Override
+                public boolean hasNext() {
+                    return archivado != null || vivo != null || archivados.hasNext() || vivos.hasNext();
+                }
+
+                @Override
+                public Movimiento next() {
+                    if (archivado == null && archivados.hasNext()) {
+                        archivado = archivados.next();
+                    }
+                    if (vivo == null && vivos.hasNext()) {
+                        vivo = vivos.next();
+                    }
+                    if (archivado == null && vivo == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Movimiento siguiente;
+                    if (vivo == null || (archivado != null && POR_CUENTA_FECHA.compare(archivado, vivo) <= 0)) {
+                        siguiente = archivado;
+                        archivado = null;
+                    } else {
+                        siguiente = vivo;
+                        vivo = null;
+                    }
+                    return siguiente;
+                }
+            };
+        }
+
+        /**
+         * Hasta {@code maximo} movimientos archivados de la cuenta posteriores a la posición ({@code null}: desde el
+         * primero), en orden de fecha e id.
+         */
+        public List<Movimiento> pagina(Cuenta cuenta, LocalDateTime fecha, Long movimientoId, int maximo) {
+            List<Movimiento> pagina = new ArrayList<>();
+            for (SegmentoMovimientos segmento : meses(fecha, null)) {
+                for (MovimientoArchivado mov : leer(segmento, cuenta.getCuentaId(), null, null)) {
+                    int orden = fecha == null ? 1 : mov.fecha().compareTo(fecha);
+                    if (orden > 0 || (orden == 0 && mov.movimientoId() > movimientoId)) {
+                        pagina.add(mov.aMovimiento(cuenta));
+                        if (pagina.size() == maximo) {
+                            return pagina;
+                        }
+                    }
+                }
+            }
+            return pagina;
+        }
+
+        /**
+         * Hasta {@code maximo} movimientos archivados de las cuentas en {@code [desde, hasta)} anteriores a la posición
+         * ({@code null}: desde el último), del más reciente al más antiguo. Se lee un mes a la vez.
+         */
+        public List<Movimiento> paginaDescendente(Collection<Cuenta> cuentas, LocalDateTime desde, LocalDateTime hasta,
+                                                  LocalDateTime fecha, Long movimientoId, int maximo) {
+            LocalDateTime tope = fecha == null || (hasta != null && hasta.isBefore(fecha)) ? hasta : fecha.plusNanos(1);
+            Map<Long, Cuenta> porId = cuentas.stream().collect(Collectors.toMap(Cuenta::getCuentaId, Function.identity()));
+            List<SegmentoMovimientos> meses = new ArrayList<>(meses(desde, tope));
+            Collections.reverse(meses);
+            List<Movimiento> pagina = new ArrayList<>();
+            for (SegmentoMovimientos segmento : meses) {
+                List<MovimientoArchivado> filas = new ArrayList<>();
+                for (Long cuentaId : porId.keySet()) {
+                    filas.addAll(leer(segmento, cuentaId, desde, tope));
+                }
+                filas.sort(POR_FECHA.reversed());
+                for (MovimientoArchivado mov : filas) {
+                    int orden = fecha == null ? -1 : mov.fecha().compareTo(fecha);
+                    if (orden < 0 || (orden == 0 && mov.movimientoId() < movimientoId)) {
+                        pagina.add(mov.aMovimiento(porId.get(mov.cuentaId())));
+                        if (pagina.size() == maximo) {
+                            return pagina;
+                        }
+                    }
+                }
+            }
+            return pagina;
+        }
+
+        /**
+         * Movimientos archivados de las cuentas en {@code [desde, hasta)} en orden de fecha e id, un mes a la vez.
+         */
+        public void recorrerPorFecha(Collection<Long> cuentaIds, LocalDateTime desde, LocalDateTime hasta,
+                                     Consumer<MovimientoArchivado> accion) {
+            for (SegmentoMovimientos segmento : meses(desde, hasta)) {
+                List<MovimientoArchivado> filas = new ArrayList<>();
+                for (Long cuentaId : cuentaIds) {
+                    filas.addAll(leer(segmento, cuentaId, desde, hasta));
+                }
+                filas.sort(POR_FECHA);
+                filas.forEach(accion);
+            }
+        }
+
+        /**
+         * Cuentas con al menos un movimiento archivado en {@code [desde, hasta)}.
+         */
+        public Set<Long> cuentasConMovimientos(Collection<Long> cuentaIds, LocalDateTime desde, LocalDateTime hasta) {
+            Set<Long> resultado = new HashSet<>();
+            for (SegmentoMovimientos segmento : meses(desde, hasta)) {
+                for (Long cuentaId : cuentaIds) {
+                    if (!resultado.contains(cuentaId) && segmento.contiene(cuentaId)
+                            && !leer(segmento, cuentaId, desde, hasta).isEmpty()) {
+                        resultado.add(cuentaId);
+                    }
+                }
+            }
+            return resultado;
+        }
+
+        /**
+         * Todos los movimientos archivados, por mes y dentro de cada mes por cuenta, fecha e id.
+         */
+        public void recorrerTodo(Consumer<MovimientoArchivado> accion) {
+            for (SegmentoMovimientos segmento : segmentos.values()) {
+                for (int i = 0; i < segmento.cuentas(); i++) {
+                    segmento.leerPosicion(i).forEach(accion);
+                }
+            }
+        }
+    }
+}
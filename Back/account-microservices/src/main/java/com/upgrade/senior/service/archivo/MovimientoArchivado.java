@@ -0,0 +1,29 @@
+package com.upgrade.senior.service.archivo;
+
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fila de un segmento de archivo; los montos van en centavos, como en {@link Money}.
+ */
+public record MovimientoArchivado(long movimientoId, long cuentaId, LocalDateTime fecha, TipoMovimiento tipoMovimiento,
+                                  long valor, long saldo) {
+
+    /**
+     * Entidad sin persistir para reutilizar los mapeos de los movimientos vivos.
+     */
+    public Movimiento aMovimiento(Cuenta cuenta) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setMovimientoId(movimientoId);
+        movimiento.setCuenta(cuenta);
+        movimiento.setFecha(fecha);
+        movimiento.setTipoMovimiento(tipoMovimiento);
+        movimiento.setValor(Money.deCentavos(valor));
+        movimiento.setSaldo(Money.deCentavos(saldo));
+        return movimiento;
+    }
+}
@@ -0,0 +1,349 @@
+package com.upgrade.senior.service.archivo;
+
+import com.upgrade.senior.enums.TipoMovimiento;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Segmento inmutable con los movimientos de un mes, leído con un mapeo de memoria del archivo.
+ * <pre>
+ * cabecera  magia, versión, mes (AAAAMM), diccionario de tipos de movimiento
+ * bloques   uno por cuenta, comprimido con Deflate y por columnas: ids, fechas (microsegundos) y saldos como
+ *           diferencias con la fila anterior, tipos como índice del diccionario y valores; enteros en varint zigzag
+ * índice    por cuenta, en orden de cuentaId: cuentaId, filas, posición, largo comprimido, largo, CRC32
+ * pie       posición del índice, cuentas, movimientos, magia
+ * </pre>
+ * Leer una cuenta es una búsqueda binaria en el índice y descomprimir solo su bloque.
+ */
+public final class SegmentoMovimientos {
+
+    static final int MAGIA = 0x4D4F5653;
+    static final short VERSION = 1;
+    private static final int ENTRADA = 32;
+    private static final int PIE = 24;
+    private static final TipoMovimiento[] TIPOS = TipoMovimiento.values();
+
+    private final YearMonth mes;
+    private final MappedByteBuffer datos;
+    private final TipoMovimiento[] tipos;
+    private final int inicioIndice;
+    private final int cuentas;
+    private final long movimientos;
+
+    private SegmentoMovimientos(MappedByteBuffer datos) throws IOException {
+        this.datos = datos;
+        int tamano = datos.capacity();
+        if (tamano < PIE || datos.getInt(0) != MAGIA || datos.getInt(tamano - 4) != MAGIA) {
+            throw new IOException("No es un segmento de movimientos");
+        }
+        if (datos.getShort(4) != VERSION) {
+            throw new IOException("Versión de segmento no soportada: " + datos.getShort(4));
+        }
+        int aaaamm = datos.getInt(6);
+        this.mes = YearMonth.of(aaaamm / 100, aaaamm % 100);
+        ByteBuffer cabecera = datos.slice(10, tamano - 10);
+        this.tipos = new TipoMovimiento[cabecera.get()];
+        for (int i = 0; i < tipos.length; i++) {
+            byte[] nombre = new byte[cabecera.get()];
+            cabecera.get(nombre);
+            tipos[i] = TipoMovimiento.valueOf(new String(nombre, StandardCharsets.US_ASCII));
+        }
+        this.inicioIndice = Math.toIntExact(datos.getLong(tamano - PIE));
+        this.cuentas = datos.getInt(tamano - PIE + 8);
+        this.movimientos = datos.getLong(tamano - PIE + 12);
+    }
+
+    public static SegmentoMovimientos abrir(Path ruta) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Segmento demasiado grande para mapear: " + ruta);
+            }
+            // El mapeo sigue vigente al cerrar el canal
+            return new SegmentoMovimientos(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    public YearMonth mes() {
+        return mes;
+    }
+
+    public long movimientos() {
+        return movimientos;
+    }
+
+    public long bytes() {
+        return datos.capacity();
+    }
+
+    public int cuentas() {
+        return cuentas;
+    }
+
+    public long cuentaId(int posicion) {
+        return datos.getLong(inicioIndice + posicion * ENTRADA);
+    }
+
+    public boolean contiene(long cuentaId) {
+        return buscar(cuentaId) >= 0;
+    }
+
+    /**
+     * Movimientos de la cuenta en orden de fecha e id; vacío si la cuenta no tuvo movimientos en el mes.
+     */
+    public List<MovimientoArchivado> leer(long cuentaId) {
+        int posicion = buscar(cuentaId);
+        return posicion < 0 ? List.of() : leerPosicion(posicion);
+    }
+
+    public List<MovimientoArchivado> leerPosicion(int posicion) {
+        int entrada = inicioIndice + posicion * ENTRADA;
+        long cuentaId = datos.getLong(entrada);
+        int filas = datos.getInt(entrada + 8);
+        int inicio = Math.toIntExact(datos.getLong(entrada + 12));
+        int comprimido = datos.getInt(entrada + 20);
+        byte[] bloque = new byte[datos.getInt(entrada + 24)];
+        CRC32 crc = new CRC32();
+        crc.update(datos.slice(inicio, comprimido));
+        if ((int) crc.getValue() != datos.getInt(entrada + 28)) {
+            throw new IllegalStateException("Bloque dañado en el segmento " + mes + " para la cuenta " + cuentaId);
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(datos.slice(inicio, comprimido));
+            if (inflater.inflate(bloque) != bloque.length) {
+                throw new IllegalStateException("Bloque incompleto en el segmento " + mes + " para la cuenta " + cuentaId);
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Bloque dañado en el segmento " + mes + " para la cuenta " + cuentaId, e);
+        } finally {
+            inflater.end();
+        }
+        return decodificar(cuentaId, filas, ByteBuffer.wrap(bloque));
+    }
+
+    private List<MovimientoArchivado> decodificar(long cuentaId, int filas, ByteBuffer bloque) {
+        long[] ids = new long[filas];
+        long[] fechas = new long[filas];
+        long anterior = 0;
+        for (int i = 0; i < filas; i++) {
+            ids[i] = anterior += leerZigzag(bloque);
+        }
+        anterior = 0;
+        for (int i = 0; i < filas; i++) {
+            fechas[i] = anterior += leerZigzag(bloque);
+        }
+        byte[] tiposFila = new byte[filas];
+        bloque.get(tiposFila);
+        long[] valores = new long[filas];
+        for (int i = 0; i < filas; i++) {
+            valores[i] = leerZigzag(bloque);
+        }
+        List<MovimientoArchivado> resultado = new ArrayList<>(filas);
+        anterior = 0;
+        for (int i = 0; i < filas; i++) {
+            anterior += leerZigzag(bloque);
+            resultado.add(new MovimientoArchivado(ids[i], cuentaId, fecha(fechas[i]), tipos[tiposFila[i]], valores[i], anterior));
+        }
+        return resultado;
+    }
+
+    private int buscar(long cuentaId) {
+        int bajo = 0;
+        int alto = cuentas - 1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            long actual = cuentaId(medio);
+            if (actual < cuentaId) {
+                bajo = medio + 1;
+            } else if (actual > cuentaId) {
+                alto = medio - 1;
+            } else {
+                return medio;
+            }
+        }
+        return -1;
+    }
+
+    static long micros(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + fecha.getNano() / 1_000;
+    }
+
+    static LocalDateTime fecha(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000), (int) Math.floorMod(micros, 1_000_000) * 1_000,
+                ZoneOffset.UTC);
+    }
+
+    private static long leerZigzag(ByteBuffer entrada) {
+        long valor = 0;
+        int desplazamiento = 0;
+        byte b;
+        do {
+            b = entrada.get();
+            valor |= (long) (b & 0x7F) << desplazamiento;
+            desplazamiento += 7;
+        } while (b < 0);
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static void escribirZigzag(ByteArrayOutputStream salida, long valor) {
+        long v = (valor << 1) ^ (valor >> 63);
+        while ((v & ~0x7FL) != 0) {
+            salida.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        salida.write((int) v);
+    }
+
+    /**
+     * Escribe un segmento en un archivo temporal y lo mueve a su nombre definitivo en {@link #terminar()}, ya
+     * sincronizado en disco; cerrar sin terminar descarta el temporal. Las filas deben llegar ordenadas por cuenta,
+     * fecha e id.
+     */
+    public static final class Escritor implements Closeable {
+        private final Path destino;
+        private final Path temporal;
+        private final FileChannel canal;
+        private final DataOutputStream salida;
+        private final ByteArrayOutputStream indice = new ByteArrayOutputStream();
+        private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        private final ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream fechas = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream tiposFila = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream valores = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream saldos = new ByteArrayOutputStream();
+        private long cuentaId = Long.MIN_VALUE;
+        private int filas;
+        private long anteriorId;
+        private long anteriorFecha;
+        private long anteriorSaldo;
+        private int cuentas;
+        private long movimientos;
+        private boolean terminado;
+
+        public Escritor(Path destino, YearMonth mes) throws IOException {
+            this.destino = destino;
+            this.temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+            this.canal = FileChannel.open(temporal, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            this.salida = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal), 1 << 16));
+            salida.writeInt(MAGIA);
+            salida.writeShort(VERSION);
+            salida.writeInt(mes.getYear() * 100 + mes.getMonthValue());
+            salida.writeByte(TIPOS.length);
+            for (TipoMovimiento tipo : TIPOS) {
+                byte[] nombre = tipo.name().getBytes(StandardCharsets.US_ASCII);
+                salida.writeByte(nombre.length);
+                salida.write(nombre);
+            }
+        }
+
+        public void agregar(MovimientoArchivado movimiento) throws IOException {
+            if (movimiento.cuentaId() != cuentaId) {
+                if (movimiento.cuentaId() < cuentaId) {
+                    throw new IllegalArgumentException("Movimientos fuera de orden de cuenta: " + movimiento.cuentaId());
+                }
+                cerrarBloque();
+                cuentaId = movimiento.cuentaId();
+            }
+            long micros = micros(movimiento.fecha());
+            escribirZigzag(ids, movimiento.movimientoId() - anteriorId);
+            escribirZigzag(fechas, micros - anteriorFecha);
+            tiposFila.write(movimiento.tipoMovimiento().ordinal());
+            escribirZigzag(valores, movimiento.valor());
+            escribirZigzag(saldos, movimiento.saldo() - anteriorSaldo);
+            anteriorId = movimiento.movimientoId();
+            anteriorFecha = micros;
+            anteriorSaldo = movimiento.saldo();
+            filas++;
+        }
+
+        private void cerrarBloque() throws IOException {
+            if (filas == 0) {
+                return;
+            }
+            ByteArrayOutputStream columnas = new ByteArrayOutputStream(ids.size() + fechas.size() + tiposFila.size()
+                    + valores.size() + saldos.size());
+            for (ByteArrayOutputStream columna : List.of(ids, fechas, tiposFila, valores, saldos)) {
+                columna.writeTo(columnas);
+                columna.reset();
+            }
+            byte[] plano = columnas.toByteArray();
+            deflater.reset();
+            deflater.setInput(plano);
+            deflater.finish();
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream(plano.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                comprimido.write(buffer, 0, deflater.deflate(buffer));
+            }
+            CRC32 crc = new CRC32();
+            crc.update(comprimido.toByteArray());
+
+            DataOutputStream entrada = new DataOutputStream(indice);
+            entrada.writeLong(cuentaId);
+            entrada.writeInt(filas);
+            entrada.writeLong(salida.size());
+            entrada.writeInt(comprimido.size());
+            entrada.writeInt(plano.length);
+            entrada.writeInt((int) crc.getValue());
+            comprimido.writeTo(salida);
+
+            cuentas++;
+            movimientos += filas;
+            filas = 0;
+            anteriorId = 0;
+            anteriorFecha = 0;
+            anteriorSaldo = 0;
+        }
+
+        public long movimientos() {
+            return movimientos + filas;
+        }
+
+        public void terminar() throws IOException {
+            cerrarBloque();
+            long inicioIndice = salida.size();
+            indice.writeTo(salida);
+            salida.writeLong(inicioIndice);
+            salida.writeInt(cuentas);
+            salida.writeLong(movimientos);
+            salida.writeInt(MAGIA);
+            salida.flush();
+            canal.force(true);
+            terminado = true;
+            close();
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            deflater.end();
+            salida.close();
+            if (!terminado) {
+                Files.deleteIfExists(temporal);
+            }
+        }
+    }
+}
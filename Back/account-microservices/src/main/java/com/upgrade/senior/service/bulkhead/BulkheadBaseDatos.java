@@ -0,0 +1,118 @@
+package com.upgrade.senior.service.bulkhead;
+
+import com.upgrade.senior.exception.GeneralException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limita cuántas peticiones usan la base a la vez por compartimento, antes de abrir la transacción. Reportes y
+ * registro de movimientos tienen permisos separados, así que una ráfaga de reportes lentos no agota el pool de
+ * conexiones que necesitan las lecturas rápidas. Quien espera un permiso solo estaciona su hilo (con hilos virtuales
+ * no ocupa un hilo de plataforma); si no lo obtiene en {@code max-wait-ms} recibe un 503.
+ */
+@Component
+public class BulkheadBaseDatos implements MeterBinder {
+
+    public static final String OCUPADO = "El servicio está ocupado, intente más tarde";
+
+    public enum Compartimento {
+        REPORTES, POSTING
+    }
+
+    private final boolean habilitado;
+    private final Map<Compartimento, Permisos> permisos = new EnumMap<>(Compartimento.class);
+
+    public BulkheadBaseDatos(@Value("${app.bulkhead.enabled:true}") boolean habilitado,
+                             @Value("${app.bulkhead.reportes.permits:4}") int permisosReportes,
+                             @Value("${app.bulkhead.reportes.max-wait-ms:10000}") long esperaReportesMs,
+                             @Value("${app.bulkhead.posting.permits:4}") int permisosPosting,
+                             @Value("${app.bulkhead.posting.max-wait-ms:2000}") long esperaPostingMs) {
+        this.habilitado = habilitado;
+        permisos.put(Compartimento.REPORTES, new Permisos(permisosReportes, esperaReportesMs));
+        permisos.put(Compartimento.POSTING, new Permisos(permisosPosting, esperaPostingMs));
+    }
+
+    public <T> T ejecutar(Compartimento compartimento, Supplier<T> accion) {
+        if (!habilitado) {
+            return accion.get();
+        }
+        Permisos p = permisos.get(compartimento);
+        try {
+            if (!p.semaforo.tryAcquire(p.esperaMs, TimeUnit.MILLISECONDS)) {
+                p.rechazos.increment();
+                throw new GeneralException(OCUPADO, 503);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeneralException(OCUPADO, 503);
+        }
+        try {
+            return accion.get();
+        } finally {
+            p.semaforo.release();
+        }
+    }
+
+    public void ejecutar(Compartimento compartimento, Runnable accion) {
+        ejecutar(compartimento, () -> {
+            accion.run();
+            return null;
+        });
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public int disponibles(Compartimento compartimento) {
+        return permisos.get(compartimento).semaforo.availablePermits();
+    }
+
+    public int enEspera(Compartimento compartimento) {
+        return permisos.get(compartimento).semaforo.getQueueLength();
+    }
+
+    public long rechazos(Compartimento compartimento) {
+        return permisos.get(compartimento).rechazos.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        permisos.forEach((compartimento, p) -> {
+            String tag = compartimento.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("bulkhead.permisos.disponibles", p.semaforo, Semaphore::availablePermits)
+                    .tag("compartimento", tag)
+                    .register(registry);
+            Gauge.builder("bulkhead.en.espera", p.semaforo, Semaphore::getQueueLength)
+                    .tag("compartimento", tag)
+                    .register(registry);
+            FunctionCounter.builder("bulkhead.rechazos", p.rechazos, LongAdder::sum)
+                    .tag("compartimento", tag)
+                    .register(registry);
+        });
+    }
+
+    private static final class Permisos {
+        private final Semaphore semaforo;
+        private final long esperaMs;
+        private final LongAdder rechazos = new LongAdder();
+
+        Permisos(int cantidad, long esperaMs) {
+            // Justo: los que esperan entran en orden de llegada
+            this.semaforo = new Semaphore(cantidad, true);
+            this.esperaMs = esperaMs;
+        }
+    }
+}
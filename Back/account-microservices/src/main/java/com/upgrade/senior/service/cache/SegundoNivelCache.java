@@ -0,0 +1,102 @@
+package com.upgrade.senior.service.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.upgrade.senior.service.dto.cache.RegionCacheMetricsDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regiones del cache de segundo nivel de Hibernate, sobre Caffeine vía JCache. Cada región se crea aquí con su
+ * tamaño máximo y TTL; Hibernate está configurado para fallar si pide una región que no existe, así ninguna queda
+ * sin límite.
+ */
+@Component
+public class SegundoNivelCache {
+
+    public static final String REGION_CLIENTE = "cliente";
+    public static final String REGION_CUENTA = "cuenta";
+    public static final String REGION_CUENTAS_POR_CLIENTE = "cuentas-por-cliente";
+    public static final String REGION_CONSULTAS = "default-query-results-region";
+    public static final String REGION_TIMESTAMPS = "default-update-timestamps-region";
+
+    private final CacheManager cacheManager;
+    private final Map<String, Region> regiones = new LinkedHashMap<>();
+
+    public SegundoNivelCache(@Value("${app.cache.l2.cliente.max-size:10000}") long clienteMax,
+                             @Value("${app.cache.l2.cliente.ttl-seconds:600}") long clienteTtl,
+                             @Value("${app.cache.l2.cuenta.max-size:50000}") long cuentaMax,
+                             @Value("${app.cache.l2.cuenta.ttl-seconds:300}") long cuentaTtl,
+                             @Value("${app.cache.l2.cuentas-por-cliente.max-size:10000}") long cuentasPorClienteMax,
+                             @Value("${app.cache.l2.cuentas-por-cliente.ttl-seconds:300}") long cuentasPorClienteTtl,
+                             @Value("${app.cache.l2.consultas.max-size:1000}") long consultasMax,
+                             @Value("${app.cache.l2.consultas.ttl-seconds:300}") long consultasTtl) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        this.cacheManager = provider.getCacheManager(URI.create("account-microservices-l2-" + System.identityHashCode(this)),
+                getClass().getClassLoader());
+        crear(REGION_CLIENTE, clienteMax, clienteTtl);
+        crear(REGION_CUENTA, cuentaMax, cuentaTtl);
+        crear(REGION_CUENTAS_POR_CLIENTE, cuentasPorClienteMax, cuentasPorClienteTtl);
+        crear(REGION_CONSULTAS, consultasMax, consultasTtl);
+        // Una entrada por tabla; Hibernate la necesita para saber si un resultado de consulta sigue vigente
+        crear(REGION_TIMESTAMPS, 0, 0);
+    }
+
+    private void crear(String nombre, long maxEntradas, long ttlSegundos) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setStoreByValue(false);
+        configuracion.setNativeStatisticsEnabled(true);
+        if (maxEntradas > 0) {
+            configuracion.setMaximumSize(OptionalLong.of(maxEntradas));
+        }
+        if (ttlSegundos > 0) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSegundos)));
+        }
+        regiones.put(nombre, new Region(cacheManager.createCache(nombre, configuracion), maxEntradas, ttlSegundos));
+    }
+
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    public List<RegionCacheMetricsDTO> metricas() {
+        List<RegionCacheMetricsDTO> metricas = new ArrayList<>(regiones.size());
+        regiones.forEach((nombre, region) -> {
+            com.github.benmanes.caffeine.cache.Cache<?, ?> cache = region.cache().unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CacheStats stats = cache.stats();
+            metricas.add(RegionCacheMetricsDTO.builder()
+                    .region(nombre)
+                    .entradas(cache.estimatedSize())
+                    .maxEntradas(region.maxEntradas())
+                    .ttlSegundos(region.ttlSegundos())
+                    .aciertos(stats.hitCount())
+                    .fallos(stats.missCount())
+                    .tasaAciertos(stats.hitRate())
+                    .desalojos(stats.evictionCount())
+                    .build());
+        });
+        return metricas;
+    }
+
+    @PreDestroy
+    void cerrar() {
+        cacheManager.close();
+    }
+
+    private record Region(Cache<Object, Object> cache, long maxEntradas, long ttlSegundos) {
+    }
+}
@@ -0,0 +1,305 @@
+package com.upgrade.senior.service.cuenta;
+
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Índice en memoria {@code numeroCuenta -> cuentaId} para resolver cuentas por clave primaria. Los números
+ * numéricos (hasta 18 dígitos, sin ceros a la izquierda) se guardan en una tabla de direccionamiento abierto sobre
+ * un {@code long[]}; el resto, en un mapa aparte.
+ * <p>
+ * El índice es solo una pista: cada cuenta resuelta se compara con el número pedido y, si no coincide o ya no
+ * existe, la entrada se descarta y se consulta por número. Así una entrada vieja (cuenta renombrada o eliminada
+ * desde otra instancia) nunca devuelve una cuenta equivocada.
+ */
+@Log4j2
+@Component
+public class IndiceNumeroCuenta {
+
+    private final CuentaRepository cuentaRepository;
+    private final boolean habilitado;
+    private final StampedLock lock = new StampedLock();
+    private final TablaNumeros tabla;
+    private final Map<String, Long> otros = new ConcurrentHashMap<>();
+
+    public IndiceNumeroCuenta(CuentaRepository cuentaRepository,
+                              @Value("${app.cuentas.indice.enabled:true}") boolean habilitado,
+                              @Value("${app.cuentas.indice.initial-capacity:1024}") int capacidadInicial) {
+        this.cuentaRepository = cuentaRepository;
+        this.habilitado = habilitado;
+        this.tabla = new TablaNumeros(capacidadInicial);
+    }
+
+    /**
+     * Carga todas las cuentas existentes; se llama al arrancar.
+     */
+    @Transactional(readOnly = true)
+    public int precargar() {
+        if (!habilitado) {
+            return 0;
+        }
+        int cargadas = 0;
+        try (Stream<Object[]> filas = cuentaRepository.streamNumerosCuenta()) {
+            for (Object[] fila : (Iterable<Object[]>) filas::iterator) {
+                registrar((String) fila[0], (Long) fila[1]);
+                cargadas++;
+            }
+        }
+        return cargadas;
+    }
+
+    public Optional<Cuenta> buscar(String numeroCuenta) {
+        return buscar(numeroCuenta, cuentaRepository::findById, cuentaRepository::findByNumeroCuenta);
+    }
+
+    /**
+     * Como {@link #buscar}, pero bloquea la fila con {@code SELECT ... FOR UPDATE} por clave primaria.
+     */
+    public Optional<Cuenta> buscarConLock(String numeroCuenta) {
+        return buscar(numeroCuenta, cuentaRepository::findWithLockByCuentaId, cuentaRepository::findWithLockByNumeroCuenta);
+    }
+
+    private Optional<Cuenta> buscar(String numeroCuenta, Function<Long, Optional<Cuenta>> porId,
+                                    Function<String, Optional<Cuenta>> porNumero) {
+        Long cuentaId = resolver(numeroCuenta);
+        if (cuentaId != null) {
+            Optional<Cuenta> cuenta = porId.apply(cuentaId);
+            if (cuenta.isPresent() && numeroCuenta.equals(cuenta.get().getNumeroCuenta())) {
+                return cuenta;
+            }
+            eliminar(numeroCuenta);
+        }
+        Optional<Cuenta> cuenta = porNumero.apply(numeroCuenta);
+        cuenta.ifPresent(c -> registrar(numeroCuenta, c.getCuentaId()));
+        return cuenta;
+    }
+
+    public Long resolver(String numeroCuenta) {
+        if (!habilitado || numeroCuenta == null) {
+            return null;
+        }
+        long clave = clave(numeroCuenta);
+        if (clave == 0) {
+            return otros.get(numeroCuenta);
+        }
+        long stamp = lock.tryOptimisticRead();
+        long cuentaId = tabla.obtener(clave);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                cuentaId = tabla.obtener(clave);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return cuentaId == 0 ? null : cuentaId;
+    }
+
+    public void registrar(String numeroCuenta, Long cuentaId) {
+        if (!habilitado || numeroCuenta == null || cuentaId == null) {
+            return;
+        }
+        long clave = clave(numeroCuenta);
+        if (clave == 0) {
+            otros.put(numeroCuenta, cuentaId);
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            tabla.poner(clave, cuentaId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void eliminar(String numeroCuenta) {
+        if (!habilitado || numeroCuenta == null) {
+            return;
+        }
+        long clave = clave(numeroCuenta);
+        if (clave == 0) {
+            otros.remove(numeroCuenta);
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            tabla.quitar(clave);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Registra una cuenta nueva. Dentro de una transacción se aplica solo si confirma.
+     */
+    public void cuentaCreada(String numeroCuenta, Long cuentaId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registrar(numeroCuenta, cuentaId);
+                }
+            });
+        } else {
+            registrar(numeroCuenta, cuentaId);
+        }
+    }
+
+    /**
+     * Quita una cuenta eliminada o renombrada. Dentro de una transacción se aplica al terminar.
+     */
+    public void cuentaEliminada(String numeroCuenta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eliminar(numeroCuenta);
+                }
+            });
+        } else {
+            eliminar(numeroCuenta);
+        }
+    }
+
+    public int tamano() {
+        long stamp = lock.readLock();
+        try {
+            return tabla.tamano + otros.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Clave numérica del número de cuenta, o 0 si no se puede representar sin ambigüedad en un {@code long}.
+     */
+    static long clave(String numeroCuenta) {
+        int largo = numeroCuenta.length();
+        if (largo == 0 || largo > 18 || numeroCuenta.charAt(0) < '1' || numeroCuenta.charAt(0) > '9') {
+            return 0;
+        }
+        long clave = 0;
+        for (int i = 0; i < largo; i++) {
+            char c = numeroCuenta.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            clave = clave * 10 + (c - '0');
+        }
+        return clave;
+    }
+
+    /**
+     * Tabla {@code long -> long} con sondeo lineal. Clave y valor van juntos en un único arreglo para que una
+     * lectura optimista vea siempre un arreglo de largo consistente; la clave 0 marca una celda libre.
+     */
+    private static final class TablaNumeros {
+        private long[] celdas;
+        private int mascara;
+        private int tamano;
+
+        TablaNumeros(int capacidadInicial) {
+            int capacidad = Integer.highestOneBit(Math.max(16, capacidadInicial) - 1) << 1;
+            celdas = new long[capacidad * 2];
+            mascara = capacidad - 1;
+        }
+
+        long obtener(long clave) {
+            long[] actuales = celdas;
+            int capacidad = actuales.length / 2;
+            int i = indice(clave, capacidad - 1);
+            for (int n = 0; n < capacidad; n++) {
+                long actual = actuales[2 * i];
+                if (actual == clave) {
+                    return actuales[2 * i + 1];
+                }
+                if (actual == 0) {
+                    return 0;
+                }
+                i = (i + 1) & (capacidad - 1);
+            }
+            return 0;
+        }
+
+        void poner(long clave, long valor) {
+            if ((tamano + 1) * 3L > (mascara + 1) * 2L) {
+                crecer();
+            }
+            int i = indice(clave, mascara);
+            while (celdas[2 * i] != 0 && celdas[2 * i] != clave) {
+                i = (i + 1) & mascara;
+            }
+            if (celdas[2 * i] == 0) {
+                tamano++;
+            }
+            celdas[2 * i + 1] = valor;
+            celdas[2 * i] = clave;
+        }
+
+        void quitar(long clave) {
+            int i = indice(clave, mascara);
+            while (celdas[2 * i] != clave) {
+                if (celdas[2 * i] == 0) {
+                    return;
+                }
+                i = (i + 1) & mascara;
+            }
+            // Borrado con desplazamiento hacia atrás: ninguna clave queda detrás de un hueco de su cadena
+            int j = i;
+            while (true) {
+                j = (j + 1) & mascara;
+                long siguiente = celdas[2 * j];
+                if (siguiente == 0) {
+                    break;
+                }
+                int ideal = indice(siguiente, mascara);
+                boolean fueraDeRango = i <= j ? (ideal <= i || ideal > j) : (ideal <= i && ideal > j);
+                if (fueraDeRango) {
+                    celdas[2 * i] = siguiente;
+                    celdas[2 * i + 1] = celdas[2 * j + 1];
+                    i = j;
+                }
+            }
+            celdas[2 * i] = 0;
+            celdas[2 * i + 1] = 0;
+            tamano--;
+        }
+
+        private void crecer() {
+            long[] anteriores = celdas;
+            int capacidad = (mascara + 1) * 2;
+            long[] nuevas = new long[capacidad * 2];
+            int nuevaMascara = capacidad - 1;
+            for (int k = 0; k < anteriores.length; k += 2) {
+                if (anteriores[k] != 0) {
+                    int i = indice(anteriores[k], nuevaMascara);
+                    while (nuevas[2 * i] != 0) {
+                        i = (i + 1) & nuevaMascara;
+                    }
+                    nuevas[2 * i] = anteriores[k];
+                    nuevas[2 * i + 1] = anteriores[k + 1];
+                }
+            }
+            mascara = nuevaMascara;
+            celdas = nuevas;
+        }
+
+        private static int indice(long clave, int mascara) {
+            long h = clave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.upgrade.senior.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class PaginaDTO<T> {
+    private List<T> contenido;
+    private int pagina;
+    private int tamano;
+    private long totalElementos;
+    private int totalPaginas;
+
+    public static <T> PaginaDTO<T> de(Page<T> page) {
+        return PaginaDTO.<T>builder()
+                .contenido(page.getContent())
+                .pagina(page.getNumber())
+                .tamano(page.getSize())
+                .totalElementos(page.getTotalElements())
+                .totalPaginas(page.getTotalPages())
+                .build();
+    }
+}
@@ -0,0 +1,21 @@
+package com.upgrade.senior.service.dto.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class RegionCacheMetricsDTO {
+    private String region;
+    private long entradas;
+    private long maxEntradas;
+    private long ttlSegundos;
+    private long aciertos;
+    private long fallos;
+    private double tasaAciertos;
+    private long desalojos;
+}
@@ -0,0 +1,22 @@
+package com.upgrade.senior.service.dto.cliente;
+
+import com.upgrade.senior.enums.Genero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class ClienteListadoDTO {
+    private Long clienteId;
+    private String nombre;
+    private Genero genero;
+    private Integer edad;
+    private String identificacion;
+    private String direccion;
+    private String telefono;
+    private Boolean estado;
+}
@@ -1,6 +1,7 @@
 package com.upgrade.senior.service.dto.cuenta;
 
 import com.upgrade.senior.enums.TipoCuenta;
+import com.upgrade.senior.money.Money;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -19,7 +20,7 @@ public class CuentaCreateDTO {
     private String numeroCuenta;
     @NotNull
     private TipoCuenta tipoCuenta;
-    private Double saldoInicial;
+    private Money saldoInicial;
     private Boolean estado=true;
     private Long clienteId;
 }
@@ -1,6 +1,7 @@
 package com.upgrade.senior.service.dto.cuenta;
 
 import com.upgrade.senior.enums.TipoCuenta;
+import com.upgrade.senior.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,7 +14,7 @@ import lombok.RequiredArgsConstructor;
 public class CuentaResponseDTO {
     private String numeroCuenta;
     private TipoCuenta tipoCuenta;
-    private Double saldoInicial;
+    private Money saldoInicial;
     private Boolean estado;
     private Long clienteId;
 }
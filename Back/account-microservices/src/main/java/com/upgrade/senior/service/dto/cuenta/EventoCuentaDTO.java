@@ -0,0 +1,22 @@
+package com.upgrade.senior.service.dto.cuenta;
+
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class EventoCuentaDTO {
+    private String numeroCuenta;
+    private Money saldo;
+    /**
+     * Secuencia de la cuenta a la que corresponde {@code saldo}: un evento que no la supera ya está reflejado.
+     */
+    private Long secuencia;
+    private MovimientoResponseDTO movimiento;
+}
@@ -0,0 +1,17 @@
+package com.upgrade.senior.service.dto.movimiento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class MovimientoBatchItemDTO {
+    private int indice;
+    private int codigo;
+    private String mensaje;
+    private MovimientoResponseDTO movimiento;
+}
@@ -0,0 +1,19 @@
+package com.upgrade.senior.service.dto.movimiento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class MovimientoBatchResponseDTO {
+    private int total;
+    private int exitosos;
+    private int fallidos;
+    private List<MovimientoBatchItemDTO> resultados;
+}
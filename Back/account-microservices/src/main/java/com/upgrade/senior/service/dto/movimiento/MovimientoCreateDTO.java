@@ -1,6 +1,7 @@
 package com.upgrade.senior.service.dto.movimiento;
 
 import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -19,5 +20,5 @@ public class MovimientoCreateDTO {
     private String numeroCuenta;
     @NotNull
     private TipoMovimiento tipoMovimiento;
-    private Double valor;
+    private Money valor;
 }
@@ -0,0 +1,17 @@
+package com.upgrade.senior.service.dto.movimiento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class MovimientoPaginaDTO {
+    private List<MovimientoResponseDTO> movimientos;
+    private String siguiente;
+}
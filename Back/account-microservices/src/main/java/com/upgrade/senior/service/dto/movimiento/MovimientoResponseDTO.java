@@ -1,6 +1,7 @@
 package com.upgrade.senior.service.dto.movimiento;
 
 import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +16,6 @@ public class MovimientoResponseDTO {
     private String numeroCuenta;
     private String fecha;
     private TipoMovimiento tipoMovimiento;
-    private Double valor;
-    private Double saldo;
+    private Money valor;
+    private Money saldo;
 }
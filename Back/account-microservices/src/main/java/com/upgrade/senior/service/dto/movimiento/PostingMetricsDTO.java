@@ -0,0 +1,27 @@
+package com.upgrade.senior.service.dto.movimiento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class PostingMetricsDTO {
+    private String estrategia;
+    private Map<String, Object> configuracion;
+    private long operaciones;
+    private long reintentos;
+    private long abortos;
+    private double tasaAbortos;
+    private double esperaPromedioMs;
+    private double esperaMaximaMs;
+    private long esperaTotalMs;
+    private long lotes;
+    private double tamanoPromedioLote;
+    private Map<String, Long> histogramaLotes;
+}
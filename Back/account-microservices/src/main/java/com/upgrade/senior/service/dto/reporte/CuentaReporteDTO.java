@@ -1,5 +1,6 @@
 package com.upgrade.senior.service.dto.reporte;
 
+import com.upgrade.senior.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,10 +15,10 @@ import java.util.List;
 public class CuentaReporteDTO {
     private String numeroCuenta;
     private String tipo;
-    private Double saldoInicial;
+    private Money saldoInicial;
     private Boolean estado;
     private List<MovimientoReporteDTO> movimientos;
-    private Double totalCreditos;
-    private Double totalDebitos;
-    private Double saldoFinal;
+    private Money totalCreditos;
+    private Money totalDebitos;
+    private Money saldoFinal;
 }
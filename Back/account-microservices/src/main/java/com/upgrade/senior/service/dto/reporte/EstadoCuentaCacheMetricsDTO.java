@@ -0,0 +1,22 @@
+package com.upgrade.senior.service.dto.reporte;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class EstadoCuentaCacheMetricsDTO {
+    private boolean habilitado;
+    private long entradas;
+    private long pesoBytes;
+    private long maxPesoBytes;
+    private long aciertos;
+    private long fallos;
+    private double tasaAciertos;
+    private long desalojos;
+    private long invalidaciones;
+}
@@ -1,6 +1,7 @@
 package com.upgrade.senior.service.dto.reporte;
 
 import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,6 +16,6 @@ import java.time.LocalDate;
 public class MovimientoReporteDTO {
     private LocalDate fecha;
     private TipoMovimiento tipoMovimiento;
-    private Double valor;
-    private Double saldoDisponible;
+    private Money valor;
+    private Money saldoDisponible;
 }
@@ -0,0 +1,19 @@
+package com.upgrade.senior.service.dto.reporte;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.file.Path;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class ReporteJobArchivoDTO {
+    private Path archivo;
+    private String contentType;
+    private String nombre;
+    private long tamanoBytes;
+}
@@ -0,0 +1,27 @@
+package com.upgrade.senior.service.dto.reporte;
+
+import com.upgrade.senior.enums.EstadoReporteJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@RequiredArgsConstructor
+public class ReporteJobResponseDTO {
+    private String id;
+    private EstadoReporteJob estado;
+    private Long clienteId;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private String formato;
+    private LocalDateTime creado;
+    private LocalDateTime finalizado;
+    private Long tamanoBytes;
+    private String error;
+}
@@ -0,0 +1,257 @@
+package com.upgrade.senior.service.evento;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.service.dto.cuenta.EventoCuentaDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Difunde por SSE los movimientos registrados a quienes siguen cada cuenta. Las suscripciones de una cuenta son un
+ * arreglo inmutable que se reemplaza al entrar o salir alguien: publicar es un {@code get} sin bloqueo y, si nadie
+ * sigue la cuenta, no cuesta nada más. El evento se serializa una sola vez para todos.
+ * <p>
+ * Cada suscripción tiene un buffer de {@code buffer-size} eventos que vacía un hilo virtual propio mientras haya
+ * pendientes, así un cliente lento no frena el registro de movimientos. Si el buffer se llena se cierra su stream (el
+ * {@code EventSource} del navegador reconecta solo) en vez de retener memoria sin límite. Cada {@code heartbeat-ms}
+ * se envía un comentario para que los proxies no corten la conexión y las caídas se detecten.
+ * <p>
+ * Los movimientos se publican después del commit y fuera de la sección que los serializa, así que dos movimientos
+ * seguidos de una cuenta pueden llegar en otro orden. Cada evento lleva la {@code secuencia} de la cuenta tras el
+ * movimiento: el cliente se queda con el saldo de la mayor que haya visto y descarta el resto.
+ */
+@Log4j2
+@Component
+public class EventosCuenta implements MeterBinder {
+
+    static final String SALDO = "saldo";
+    static final String MOVIMIENTO = "movimiento";
+
+    private final ConcurrentMap<String, Suscripcion[]> suscripciones = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final int capacidad;
+    private final long timeoutMs;
+    private final long latidoMs;
+    private final AtomicInteger activas = new AtomicInteger();
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder desbordados = new LongAdder();
+    private ExecutorService envios;
+    private ScheduledExecutorService latidos;
+
+    public EventosCuenta(ObjectMapper objectMapper,
+                         @Value("${app.eventos.buffer-size:64}") int capacidad,
+                         @Value("${app.eventos.timeout-ms:1800000}") long timeoutMs,
+                         @Value("${app.eventos.heartbeat-ms:15000}") long latidoMs) {
+        this.objectMapper = objectMapper;
+        this.capacidad = capacidad;
+        this.timeoutMs = timeoutMs;
+        this.latidoMs = latidoMs;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        envios = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("eventos-cuenta-", 0).factory());
+        if (latidoMs > 0) {
+            latidos = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("eventos-cuenta-latido").daemon().factory());
+            latidos.scheduleWithFixedDelay(this::latir, latidoMs, latidoMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        if (latidos != null) {
+            latidos.shutdownNow();
+        }
+        // Cerrar los streams deja terminar el apagado ordenado de Tomcat sin esperar al timeout de cada conexión
+        suscripciones.values().forEach(actuales -> Arrays.stream(actuales).forEach(Suscripcion::cerrar));
+        if (envios != null) {
+            envios.shutdown();
+        }
+    }
+
+    /**
+     * Abre el stream de la cuenta; el primer evento es el saldo actual con su secuencia. El saldo se lee ya suscrito:
+     * un movimiento concurrente puede llegar antes que el saldo, pero no se pierde.
+     */
+    public SseEmitter suscribir(String numeroCuenta, Supplier<EventoCuentaDTO> saldo) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Suscripcion suscripcion = new Suscripcion(numeroCuenta, emitter);
+        emitter.onCompletion(suscripcion::quitar);
+        emitter.onTimeout(suscripcion::cerrar);
+        emitter.onError(e -> suscripcion.quitar());
+        suscripciones.merge(numeroCuenta, new Suscripcion[]{suscripcion}, EventosCuenta::unir);
+        activas.incrementAndGet();
+        EventoCuentaDTO actual;
+        try {
+            actual = saldo.get();
+        } catch (RuntimeException e) {
+            suscripcion.quitar();
+            throw e;
+        }
+        suscripcion.encolar(new Evento(SALDO, null, json(actual)));
+        return emitter;
+    }
+
+    /**
+     * Avisa un movimiento ya confirmado; su saldo es el nuevo saldo de la cuenta y {@code secuencia} la de la cuenta
+     * tras aplicarlo.
+     */
+    public void publicar(MovimientoResponseDTO movimiento, Long secuencia) {
+        Suscripcion[] actuales = suscripciones.get(movimiento.getNumeroCuenta());
+        if (actuales == null) {
+            return;
+        }
+        Evento evento = new Evento(MOVIMIENTO, movimiento.getMovimientoId(),
+                json(new EventoCuentaDTO(movimiento.getNumeroCuenta(), movimiento.getSaldo(), secuencia, movimiento)));
+        for (Suscripcion suscripcion : actuales) {
+            suscripcion.encolar(evento);
+        }
+        publicados.increment();
+    }
+
+    public int activas() {
+        return activas.get();
+    }
+
+    private void latir() {
+        suscripciones.values().forEach(actuales -> Arrays.stream(actuales).forEach(s -> s.encolar(Evento.LATIDO)));
+    }
+
+    private String json(EventoCuentaDTO evento) {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento de la cuenta " + evento.getNumeroCuenta(), e);
+        }
+    }
+
+    private static Suscripcion[] unir(Suscripcion[] actuales, Suscripcion[] nuevas) {
+        Suscripcion[] resultado = Arrays.copyOf(actuales, actuales.length + nuevas.length);
+        System.arraycopy(nuevas, 0, resultado, actuales.length, nuevas.length);
+        return resultado;
+    }
+
+    private static Suscripcion[] sin(Suscripcion[] actuales, Suscripcion suscripcion) {
+        Suscripcion[] resultado = Arrays.stream(actuales).filter(s -> s != suscripcion).toArray(Suscripcion[]::new);
+        return resultado.length == 0 ? null : resultado;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("cuentas.eventos.suscripciones", activas, AtomicInteger::get)
+                .description("Streams SSE de cuentas abiertos")
+                .register(registry);
+        FunctionCounter.builder("cuentas.eventos.publicados", publicados, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("cuentas.eventos.desbordados", desbordados, LongAdder::sum)
+                .description("Streams cerrados porque el cliente no leía y se llenó su buffer")
+                .register(registry);
+    }
+
+    /**
+     * {@code nombre} nulo es un latido: se envía como comentario.
+     */
+    record Evento(String nombre, String id, String datos) {
+        static final Evento LATIDO = new Evento(null, null, null);
+
+        SseEmitter.SseEventBuilder armar() {
+            if (nombre == null) {
+                return SseEmitter.event().comment("");
+            }
+            SseEmitter.SseEventBuilder evento = SseEmitter.event().name(nombre).data(datos);
+            return id == null ? evento : evento.id(id);
+        }
+    }
+
+    final class Suscripcion {
+        private final String numeroCuenta;
+        private final SseEmitter emitter;
+        private final Queue<Evento> pendientes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger cantidad = new AtomicInteger();
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicBoolean cerrada = new AtomicBoolean();
+
+        Suscripcion(String numeroCuenta, SseEmitter emitter) {
+            this.numeroCuenta = numeroCuenta;
+            this.emitter = emitter;
+        }
+
+        void encolar(Evento evento) {
+            if (cerrada.get()) {
+                return;
+            }
+            if (cantidad.incrementAndGet() > capacidad) {
+                cantidad.decrementAndGet();
+                desbordados.increment();
+                log.debug("Buffer lleno en el stream de la cuenta {}: se cierra", numeroCuenta);
+                cerrar();
+                return;
+            }
+            pendientes.offer(evento);
+            if (enviando.compareAndSet(false, true)) {
+                envios.execute(this::vaciar);
+            }
+        }
+
+        private void vaciar() {
+            do {
+                for (Evento evento = pendientes.poll(); evento != null; evento = pendientes.poll()) {
+                    cantidad.decrementAndGet();
+                    if (cerrada.get()) {
+                        continue;
+                    }
+                    try {
+                        emitter.send(evento.armar());
+                    } catch (IOException | IllegalStateException e) {
+                        // El cliente se fue; el contenedor completa la petición
+                        quitar();
+                    }
+                }
+                enviando.set(false);
+            } while (!pendientes.isEmpty() && enviando.compareAndSet(false, true));
+        }
+
+        /**
+         * Saca la suscripción y completa el stream. Completar espera a un envío en curso, por eso no se hace en el
+         * hilo que publica.
+         */
+        void cerrar() {
+            if (quitar()) {
+                envios.execute(emitter::complete);
+            }
+        }
+
+        boolean quitar() {
+            if (!cerrada.compareAndSet(false, true)) {
+                return false;
+            }
+            suscripciones.computeIfPresent(numeroCuenta, (numero, actuales) -> sin(actuales, this));
+            activas.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.upgrade.senior.service.idempotencia;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.persistence.MovimientoIdempotencia;
+import com.upgrade.senior.repository.MovimientoIdempotenciaRepository;
+import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación de {@code POST /api/movimientos} por {@code Idempotency-Key}. Las claves recientes viven en un mapa
+ * en memoria acotado (Caffeine), así que un reintento de un cliente cuesta una búsqueda por hash; la tabla
+ * {@code movimiento_idempotencia} es el respaldo tras un reinicio o un desalojo, y la clave se inserta en la misma
+ * transacción que el movimiento para que una clave repetida revierta el segundo posting.
+ * <p>
+ * Una repetición devuelve el {@link MovimientoResponseDTO} original sin leer ni bloquear la cuenta. La misma clave con
+ * otro movimiento se rechaza con 422; mientras el original está en curso, las repeticiones lo esperan hasta
+ * {@code wait-ms} y luego reciben 409.
+ */
+@Log4j2
+@Component
+public class IdempotenciaMovimientos implements MeterBinder {
+
+    public static final int LARGO_MAXIMO_CLAVE = 100;
+
+    private final MovimientoIdempotenciaRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final Duration ttl;
+    private final long esperaMs;
+    private final long intervaloLimpiezaMs;
+    private final Cache<String, Entrada> cache;
+    private final LongAdder repeticiones = new LongAdder();
+    private final LongAdder rechazos = new LongAdder();
+    private ScheduledExecutorService limpieza;
+
+    public IdempotenciaMovimientos(MovimientoIdempotenciaRepository repository, ObjectMapper objectMapper,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.movimientos.idempotencia.enabled:true}") boolean habilitado,
+                                   @Value("${app.movimientos.idempotencia.max-entries:100000}") long maxEntradas,
+                                   @Value("${app.movimientos.idempotencia.ttl-hours:24}") long ttlHoras,
+                                   @Value("${app.movimientos.idempotencia.wait-ms:5000}") long esperaMs,
+                                   @Value("${app.movimientos.idempotencia.cleanup-interval-ms:600000}") long intervaloLimpiezaMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = habilitado;
+        this.ttl = Duration.ofHours(ttlHoras);
+        this.esperaMs = esperaMs;
+        this.intervaloLimpiezaMs = intervaloLimpiezaMs;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntradas)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Movimiento ya visto (o en curso) con su huella y el instante en que la clave vence.
+     */
+    record Entrada(String huella, CompletableFuture<MovimientoResponseDTO> respuesta, LocalDateTime expira) {
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        limpieza = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("idempotencia-limpieza").daemon().factory());
+        limpieza.scheduleWithFixedDelay(this::limpiarExpiradas, intervaloLimpiezaMs, intervaloLimpiezaMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (limpieza != null) {
+            limpieza.shutdownNow();
+        }
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Ejecuta {@code posting} una sola vez por clave. Sin clave, o con la deduplicación deshabilitada, lo ejecuta
+     * siempre. {@code posting} debe llamar a {@link #registrar} dentro de su transacción.
+     */
+    public MovimientoResponseDTO ejecutar(String clave, MovimientoCreateDTO dto, Supplier<MovimientoResponseDTO> posting) {
+        if (!habilitado || clave == null) {
+            return posting.get();
+        }
+        validarClave(clave);
+        String huella = huella(dto);
+        LocalDateTime ahora = LocalDateTime.now();
+        Entrada nueva = new Entrada(huella, new CompletableFuture<>(), ahora.plus(ttl));
+        Map<String, Entrada> mapa = cache.asMap();
+        Entrada existente;
+        while ((existente = mapa.putIfAbsent(clave, nueva)) != null) {
+            if (existente.expira().isAfter(ahora)) {
+                return repetir(existente, huella);
+            }
+            mapa.remove(clave, existente);
+        }
+
+        try {
+            MovimientoResponseDTO respuesta = buscarPersistida(clave, huella, ahora);
+            if (respuesta == null) {
+                try {
+                    respuesta = posting.get();
+                } catch (RuntimeException e) {
+                    // Otra instancia registró la clave primero: se revirtió este posting y se entrega el suyo
+                    respuesta = claveDuplicada(e) ? buscarPersistida(clave, huella, LocalDateTime.now()) : null;
+                    if (respuesta == null) {
+                        throw e;
+                    }
+                }
+            }
+            nueva.respuesta().complete(respuesta);
+            return respuesta;
+        } catch (RuntimeException e) {
+            // Un posting fallido no consume la clave: el cliente puede reintentar
+            mapa.remove(clave, nueva);
+            nueva.respuesta().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Guarda la respuesta de la clave. Dentro de una transacción se confirma o se revierte junto con el movimiento.
+     */
+    public void registrar(String clave, MovimientoCreateDTO dto, MovimientoResponseDTO respuesta) {
+        if (!habilitado || clave == null) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(respuesta);
+        } catch (JsonProcessingException e) {
+            throw new GeneralException("No se pudo registrar la Idempotency-Key: " + e.getOriginalMessage(), 500);
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            repository.insertar(clave, huella(dto), json, ahora, ahora.plus(ttl));
+        } else {
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.insertar(clave, huella(dto), json, ahora, ahora.plus(ttl)));
+        }
+    }
+
+    private MovimientoResponseDTO repetir(Entrada entrada, String huella) {
+        if (!entrada.huella().equals(huella)) {
+            rechazos.increment();
+            throw new GeneralException("La Idempotency-Key ya se usó con otro movimiento", 422);
+        }
+        try {
+            MovimientoResponseDTO respuesta = entrada.respuesta().get(esperaMs, TimeUnit.MILLISECONDS);
+            repeticiones.increment();
+            return respuesta;
+        } catch (ExecutionException e) {
+            // El original falló: la repetición concurrente recibe el mismo error
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new GeneralException("Error registrando el movimiento: " + e.getCause().getMessage(), 500);
+        } catch (TimeoutException e) {
+            throw new GeneralException("Hay un movimiento con la misma Idempotency-Key en proceso", 409);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeneralException("Registro del movimiento interrumpido", 503);
+        }
+    }
+
+    private MovimientoResponseDTO buscarPersistida(String clave, String huella, LocalDateTime ahora) {
+        MovimientoIdempotencia registro = repository.findById(clave).orElse(null);
+        if (registro == null) {
+            return null;
+        }
+        if (!registro.getExpira().isAfter(ahora)) {
+            transactionTemplate.executeWithoutResult(status -> repository.eliminarExpirada(clave, ahora));
+            return null;
+        }
+        if (!registro.getHuella().equals(huella)) {
+            rechazos.increment();
+            throw new GeneralException("La Idempotency-Key ya se usó con otro movimiento", 422);
+        }
+        try {
+            MovimientoResponseDTO respuesta = objectMapper.readValue(registro.getRespuesta(), MovimientoResponseDTO.class);
+            // Las siguientes repeticiones se resuelven en memoria hasta que la clave vence
+            cache.asMap().put(clave, new Entrada(huella, CompletableFuture.completedFuture(respuesta), registro.getExpira()));
+            repeticiones.increment();
+            return respuesta;
+        } catch (JsonProcessingException e) {
+            throw new GeneralException("Respuesta registrada ilegible para la Idempotency-Key: " + e.getOriginalMessage(), 500);
+        }
+    }
+
+    void limpiarExpiradas() {
+        try {
+            LocalDateTime ahora = LocalDateTime.now();
+            Integer eliminadas = transactionTemplate.execute(status -> repository.eliminarExpiradas(ahora));
+            cache.asMap().values().removeIf(entrada -> !entrada.expira().isAfter(ahora));
+            log.debug("Idempotency-Keys expiradas eliminadas: {}", eliminadas);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron eliminar las Idempotency-Keys expiradas", e);
+        }
+    }
+
+    private static void validarClave(String clave) {
+        if (clave.isBlank() || clave.length() > LARGO_MAXIMO_CLAVE) {
+            throw new GeneralException("La Idempotency-Key debe tener entre 1 y " + LARGO_MAXIMO_CLAVE + " caracteres", 400);
+        }
+    }
+
+    static String huella(MovimientoCreateDTO dto) {
+        return dto.getNumeroCuenta() + "|" + dto.getTipoMovimiento() + "|" + (dto.getValor() == null ? "" : dto.getValor().centavos());
+    }
+
+    private static boolean claveDuplicada(Throwable e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa instanceof DataIntegrityViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long repeticiones() {
+        return repeticiones.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("movimientos.idempotencia.repeticiones", repeticiones, LongAdder::sum)
+                .description("Movimientos repetidos con la misma Idempotency-Key respondidos sin volver a postear")
+                .register(registry);
+        FunctionCounter.builder("movimientos.idempotencia.rechazos", rechazos, LongAdder::sum)
+                .description("Idempotency-Keys reutilizadas con otro movimiento")
+                .register(registry);
+        Gauge.builder("movimientos.idempotencia.claves", cache, Cache::estimatedSize)
+                .register(registry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.upgrade.senior.service.impl;
+
+import com.upgrade.senior.service.CacheService;
+import com.upgrade.senior.service.cache.SegundoNivelCache;
+import com.upgrade.senior.service.dto.cache.RegionCacheMetricsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheServiceImpl implements CacheService {
+
+    private final SegundoNivelCache segundoNivelCache;
+
+    @Override
+    public List<RegionCacheMetricsDTO> obtenerMetricasSegundoNivel() {
+        return segundoNivelCache.metricas();
+    }
+}
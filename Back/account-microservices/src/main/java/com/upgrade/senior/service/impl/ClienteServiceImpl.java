@@ -1,25 +1,35 @@
 package com.upgrade.senior.service.impl;
 
+import com.upgrade.senior.datasource.RuteoLecturas;
 import com.upgrade.senior.exception.ClienteNotFoundException;
 import com.upgrade.senior.exception.GeneralException;
 import com.upgrade.senior.persistence.Cliente;
 import com.upgrade.senior.repository.ClienteRepository;
 import com.upgrade.senior.service.ClienteService;
+import com.upgrade.senior.service.dto.PaginaDTO;
+import com.upgrade.senior.service.dto.cliente.ClienteListadoDTO;
 import com.upgrade.senior.service.dto.cliente.ClienteRequestDTO;
 import com.upgrade.senior.service.dto.cliente.ClienteResponseDTO;
 import com.upgrade.senior.service.mapper.ClienteMapper;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class ClienteServiceImpl implements ClienteService {
 
+    private static final Set<String> ORDEN_PERMITIDO = Set.of("clienteId", "nombre", "identificacion", "edad", "estado");
     private final ClienteRepository clienteRepository;
     private final ClienteMapper clienteMapper;
+    private final EstadoCuentaCache estadoCuentaCache;
+    private final RuteoLecturas ruteoLecturas;
 
     @Override
     @Transactional
@@ -29,14 +39,15 @@ public class ClienteServiceImpl implements ClienteService {
         }
         Cliente cliente = clienteMapper.toEntity(clienteDTO);
         Cliente saved = clienteRepository.save(cliente);
+        ruteoLecturas.registrarEscritura(saved.getClienteId());
         return clienteMapper.toResponseDTO(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ClienteResponseDTO obtenerClientePorId(Long id) {
-        return clienteRepository.findById(id)
-                .map(clienteMapper::toResponseDTO).orElseThrow(() -> new ClienteNotFoundException(id));
+        return ruteoLecturas.leer(id, () -> clienteRepository.findById(id)
+                .map(clienteMapper::toResponseDTO).orElseThrow(() -> new ClienteNotFoundException(id)));
     }
 
     @Override
@@ -47,6 +58,21 @@ public class ClienteServiceImpl implements ClienteService {
                 .toList();
     }
 
+    /**
+     * Página de clientes leída con una proyección de solo las columnas del listado: no pasa por el contexto de
+     * persistencia ni lee la contraseña.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaDTO<ClienteListadoDTO> listarClientesPaginado(Boolean estado, Pageable pageable) {
+        for (Sort.Order orden : pageable.getSort()) {
+            if (!ORDEN_PERMITIDO.contains(orden.getProperty())) {
+                throw new GeneralException("No se puede ordenar por " + orden.getProperty(), 400);
+            }
+        }
+        return PaginaDTO.de(clienteRepository.findListado(estado, pageable));
+    }
+
     @Override
     @Transactional
     public ClienteResponseDTO actualizarCliente(Long id, ClienteRequestDTO clienteDTO) {
@@ -60,6 +86,8 @@ public class ClienteServiceImpl implements ClienteService {
                     return clienteRepository.save(existing);
                 })
                 .orElseThrow(() -> new ClienteNotFoundException(id));
+        estadoCuentaCache.invalidarCliente(id);
+        ruteoLecturas.registrarEscritura(id);
         return clienteMapper.toResponseDTO(updated);
     }
 
@@ -70,5 +98,7 @@ public class ClienteServiceImpl implements ClienteService {
             throw new ClienteNotFoundException(id);
         }
         clienteRepository.deleteById(id);
+        estadoCuentaCache.invalidarCliente(id);
+        ruteoLecturas.registrarEscritura(id);
     }
 }
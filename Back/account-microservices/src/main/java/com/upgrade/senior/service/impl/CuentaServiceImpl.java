@@ -1,5 +1,7 @@
 package com.upgrade.senior.service.impl;
 
+import com.upgrade.senior.datasource.RuteoLecturas;
+import com.upgrade.senior.enums.TipoCuenta;
 import com.upgrade.senior.exception.ClienteNotFoundException;
 import com.upgrade.senior.exception.CuentaNotFoundException;
 import com.upgrade.senior.exception.GeneralException;
@@ -7,21 +9,37 @@ import com.upgrade.senior.persistence.Cuenta;
 import com.upgrade.senior.repository.CuentaRepository;
 import com.upgrade.senior.repository.ClienteRepository;
 import com.upgrade.senior.service.CuentaService;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import com.upgrade.senior.service.dto.PaginaDTO;
 import com.upgrade.senior.service.dto.cuenta.CuentaCreateDTO;
 import com.upgrade.senior.service.dto.cuenta.CuentaResponseDTO;
+import com.upgrade.senior.service.dto.cuenta.EventoCuentaDTO;
+import com.upgrade.senior.service.evento.EventosCuenta;
 import com.upgrade.senior.service.mapper.CuentaMapper;
+import com.upgrade.senior.service.posting.LedgerEngine;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class CuentaServiceImpl implements CuentaService {
     public static final String CUENTA_NO_EXISTE = "El número de cuenta no existe";
+    private static final Set<String> ORDEN_PERMITIDO = Set.of("cuentaId", "numeroCuenta", "tipoCuenta", "saldoInicial", "estado");
     private final CuentaRepository cuentaRepository;
     private final ClienteRepository clienteRepository;
     private final CuentaMapper cuentaMapper;
+    private final LedgerEngine ledgerEngine;
+    private final EstadoCuentaCache estadoCuentaCache;
+    private final IndiceNumeroCuenta indiceNumeroCuenta;
+    private final RuteoLecturas ruteoLecturas;
+    private final EventosCuenta eventosCuenta;
 
     @Override
     @Transactional
@@ -35,6 +53,9 @@ public class CuentaServiceImpl implements CuentaService {
         Cuenta cuenta = cuentaMapper.toEntity(cuentaDTO);
         cuenta.setCliente(clienteRepository.findById(cuentaDTO.getClienteId()).orElseThrow());
         Cuenta saved = cuentaRepository.save(cuenta);
+        indiceNumeroCuenta.cuentaCreada(saved.getNumeroCuenta(), saved.getCuentaId());
+        estadoCuentaCache.invalidarCliente(cuentaDTO.getClienteId());
+        ruteoLecturas.registrarEscritura(cuentaDTO.getClienteId());
         return cuentaMapper.toResponseDTO(saved);
     }
 
@@ -48,7 +69,7 @@ public class CuentaServiceImpl implements CuentaService {
 
     @Override
     public CuentaResponseDTO obtenerCuentaPorNumeroCuenta(String numeroCuenta) {
-        return cuentaRepository.findByNumeroCuenta(numeroCuenta)
+        return indiceNumeroCuenta.buscar(numeroCuenta)
                 .map(cuentaMapper::toResponseDTO)
                 .orElseThrow(() -> new GeneralException(CUENTA_NO_EXISTE,412));
     }
@@ -56,24 +77,42 @@ public class CuentaServiceImpl implements CuentaService {
     @Override
     @Transactional(readOnly = true)
     public List<CuentaResponseDTO> listarCuentas() {
-        return cuentaRepository.findAll().stream().map(cuentaMapper::toResponseDTO).toList();
+        return ruteoLecturas.leer(null, () -> cuentaRepository.findAll().stream().map(cuentaMapper::toResponseDTO).toList());
     }
 
+    /**
+     * Página de cuentas leída con una proyección al DTO de respuesta, sin cargar entidades ni el proxy del cliente.
+     */
     @Override
     @Transactional(readOnly = true)
-    public List<CuentaResponseDTO> obtenerCuentasPorClienteId(Long clienteId) {
-        if (!clienteRepository.existsById(clienteId)) {
-            throw new ClienteNotFoundException(clienteId);
+    public PaginaDTO<CuentaResponseDTO> listarCuentasPaginado(Boolean estado, TipoCuenta tipoCuenta, Long clienteId,
+                                                               Pageable pageable) {
+        for (Sort.Order orden : pageable.getSort()) {
+            if (!ORDEN_PERMITIDO.contains(orden.getProperty())) {
+                throw new GeneralException("No se puede ordenar por " + orden.getProperty(), 400);
+            }
         }
-        return cuentaRepository.findByClienteClienteId(clienteId).stream()
-                .map(cuentaMapper::toResponseDTO).toList();
+        return PaginaDTO.de(cuentaRepository.findListado(estado, tipoCuenta, clienteId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CuentaResponseDTO> obtenerCuentasPorClienteId(Long clienteId) {
+        return ruteoLecturas.leer(clienteId, () -> {
+            if (!clienteRepository.existsById(clienteId)) {
+                throw new ClienteNotFoundException(clienteId);
+            }
+            return cuentaRepository.findByClienteClienteId(clienteId).stream()
+                    .map(cuentaMapper::toResponseDTO).toList();
+        });
     }
 
     @Override
     @Transactional
     public CuentaResponseDTO actualizarCuenta(String numeroCuenta, CuentaCreateDTO cuentaDTO) {
-        Cuenta cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta)
+        Cuenta cuenta = indiceNumeroCuenta.buscar(numeroCuenta)
                 .orElseThrow(() -> new GeneralException(CUENTA_NO_EXISTE,412));
+        invalidarEstadoCuenta(cuenta);
         cuentaMapper.updateEntityFromDto(cuentaDTO, cuenta);
         if (cuentaDTO.getClienteId() != null) {
             if (!clienteRepository.existsById(cuentaDTO.getClienteId())) {
@@ -82,24 +121,48 @@ public class CuentaServiceImpl implements CuentaService {
             cuenta.setCliente(clienteRepository.findById(cuentaDTO.getClienteId()).orElseThrow());
         }
         Cuenta updated = cuentaRepository.save(cuenta);
+        if (!numeroCuenta.equals(updated.getNumeroCuenta())) {
+            indiceNumeroCuenta.cuentaEliminada(numeroCuenta);
+            indiceNumeroCuenta.cuentaCreada(updated.getNumeroCuenta(), updated.getCuentaId());
+        }
+        ledgerEngine.invalidarPorId(cuenta.getCuentaId());
+        invalidarEstadoCuenta(updated);
         return cuentaMapper.toResponseDTO(updated);
     }
 
     @Override
     @Transactional
     public void eliminarCuenta(Long id) {
-        if (!cuentaRepository.existsById(id)) {
-            throw new CuentaNotFoundException(id);
-        }
+        Cuenta cuenta = cuentaRepository.findById(id).orElseThrow(() -> new CuentaNotFoundException(id));
+        invalidarEstadoCuenta(cuenta);
         cuentaRepository.deleteById(id);
+        indiceNumeroCuenta.cuentaEliminada(cuenta.getNumeroCuenta());
+        ledgerEngine.invalidarPorId(id);
     }
 
     @Override
     @Transactional
     public void eliminarCuentaByNumeroCuenta(String numeroCuenta) {
-        if (!cuentaRepository.existsByNumeroCuenta(numeroCuenta)) {
-            throw new GeneralException(CUENTA_NO_EXISTE,412);
+        Cuenta cuenta = indiceNumeroCuenta.buscar(numeroCuenta)
+                .orElseThrow(() -> new GeneralException(CUENTA_NO_EXISTE,412));
+        invalidarEstadoCuenta(cuenta);
+        cuentaRepository.delete(cuenta);
+        indiceNumeroCuenta.cuentaEliminada(numeroCuenta);
+        ledgerEngine.invalidar(numeroCuenta);
+    }
+
+    @Override
+    public SseEmitter suscribirEventos(String numeroCuenta) {
+        // Saldo y secuencia salen de la misma fila: los movimientos que no la superan ya están en el saldo
+        return eventosCuenta.suscribir(numeroCuenta, () -> indiceNumeroCuenta.buscar(numeroCuenta)
+                .map(cuenta -> new EventoCuentaDTO(numeroCuenta, cuenta.getSaldoInicial(), cuenta.getSecuencia(), null))
+                .orElseThrow(() -> new GeneralException(CUENTA_NO_EXISTE, 412)));
+    }
+
+    private void invalidarEstadoCuenta(Cuenta cuenta) {
+        if (cuenta.getCliente() != null) {
+            estadoCuentaCache.invalidarCliente(cuenta.getCliente().getClienteId());
+            ruteoLecturas.registrarEscritura(cuenta.getCliente().getClienteId());
         }
-        cuentaRepository.deleteByNumeroCuenta(numeroCuenta);
     }
 }
@@ -0,0 +1,89 @@
+package com.upgrade.senior.service.impl;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.FontFactory;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.service.dto.reporte.CuentaReporteDTO;
+import com.upgrade.senior.service.dto.reporte.MovimientoReporteDTO;
+
+import java.io.OutputStream;
+
+/**
+ * Escribe el estado de cuenta en PDF a medida que llegan los movimientos. Cada cuenta es una
+ * {@link PdfPTable} incompleta que se agrega al documento por bloques, de modo que iText emite las
+ * páginas terminadas al {@link OutputStream} y libera sus filas.
+ */
+final class EstadoCuentaPdfRenderer implements AutoCloseable {
+
+    private static final Font TITULO_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16, BaseColor.BLACK);
+    private static final Font SECCION_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.DARK_GRAY);
+    private static final Font LABEL_FONT = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.BLACK);
+    private static final Font NORMAL_FONT = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.BLACK);
+    private static final String[] COLUMNAS = {"Fecha", "Tipo", "Valor", "Saldo"};
+    private static final int FILAS_POR_BLOQUE = 100;
+
+    private final Document document = new Document();
+    private PdfPTable tabla;
+    private int filasPendientes;
+
+    EstadoCuentaPdfRenderer(OutputStream out, String fechaReporte, String cliente) throws DocumentException {
+        PdfWriter writer = PdfWriter.getInstance(document, out);
+        writer.setCloseStream(false);
+        document.open();
+        document.add(new Paragraph("Reporte Estado de Cuenta", TITULO_FONT));
+        document.add(new Paragraph("Fecha de reporte: " + fechaReporte, LABEL_FONT));
+        document.add(new Paragraph("Cliente: " + cliente, LABEL_FONT));
+    }
+
+    void inicioCuenta(String numeroCuenta, String tipo, Money saldoInicial, Boolean estado) throws DocumentException {
+        document.add(new Paragraph("\nCuenta: " + numeroCuenta, SECCION_FONT));
+        document.add(new Paragraph("Tipo: " + tipo, LABEL_FONT));
+        document.add(new Paragraph("Saldo Inicial: " + saldoInicial, LABEL_FONT));
+        document.add(new Paragraph("Estado: " + estado, LABEL_FONT));
+        document.add(new Paragraph("Movimientos:", LABEL_FONT));
+        tabla = new PdfPTable(COLUMNAS.length);
+        tabla.setWidthPercentage(100);
+        tabla.setSpacingBefore(4);
+        tabla.setHeaderRows(1);
+        tabla.setComplete(false);
+        for (String columna : COLUMNAS) {
+            PdfPCell celda = new PdfPCell(new Phrase(columna, LABEL_FONT));
+            celda.setBackgroundColor(BaseColor.LIGHT_GRAY);
+            tabla.addCell(celda);
+        }
+        filasPendientes = 0;
+    }
+
+    void movimiento(MovimientoReporteDTO movimiento) throws DocumentException {
+        tabla.addCell(new Phrase(String.valueOf(movimiento.getFecha()), NORMAL_FONT));
+        tabla.addCell(new Phrase(String.valueOf(movimiento.getTipoMovimiento()), NORMAL_FONT));
+        tabla.addCell(new Phrase(String.valueOf(movimiento.getValor()), NORMAL_FONT));
+        tabla.addCell(new Phrase(String.valueOf(movimiento.getSaldoDisponible()), NORMAL_FONT));
+        if (++filasPendientes >= FILAS_POR_BLOQUE) {
+            document.add(tabla);
+            filasPendientes = 0;
+        }
+    }
+
+    void finCuenta(CuentaReporteDTO cuenta) throws DocumentException {
+        tabla.setComplete(true);
+        document.add(tabla);
+        tabla = null;
+        document.add(new Paragraph("Total Créditos: " + cuenta.getTotalCreditos(), LABEL_FONT));
+        document.add(new Paragraph("Total Débitos: " + cuenta.getTotalDebitos(), LABEL_FONT));
+        document.add(new Paragraph("Saldo Final: " + cuenta.getSaldoFinal(), LABEL_FONT));
+    }
+
+    @Override
+    public void close() {
+        document.close();
+    }
+}
@@ -1,24 +1,64 @@
 package com.upgrade.senior.service.impl;
 
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.datasource.RuteoLecturas;
 import com.upgrade.senior.enums.TipoMovimiento;
 import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.money.MoneyJson;
 import com.upgrade.senior.persistence.Cuenta;
 import com.upgrade.senior.persistence.Movimiento;
 import com.upgrade.senior.repository.CuentaRepository;
 import com.upgrade.senior.repository.MovimientoRepository;
 import com.upgrade.senior.service.MovimientoService;
+import com.upgrade.senior.service.ResumenDiarioService;
+import com.upgrade.senior.service.archivo.ArchivoMovimientos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos.Compartimento;
+import com.upgrade.senior.service.dto.movimiento.MovimientoBatchItemDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoBatchResponseDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoPaginaDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.dto.movimiento.PostingMetricsDTO;
+import com.upgrade.senior.service.evento.EventosCuenta;
+import com.upgrade.senior.service.idempotencia.IdempotenciaMovimientos;
 import com.upgrade.senior.service.mapper.MovimientoMapper;
+import com.upgrade.senior.service.posting.LedgerEngine;
+import com.upgrade.senior.service.posting.PostingMetrics;
+import com.upgrade.senior.service.posting.PostingStrategy;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,76 +67,455 @@ public class MovimientoServiceImpl implements MovimientoService {
     private final MovimientoRepository movimientoRepository;
     private final CuentaRepository cuentaRepository;
     private final MovimientoMapper movimientoMapper;
+    private final PostingStrategy postingStrategy;
+    private final PostingMetrics postingMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final LedgerEngine ledgerEngine;
+    private final EstadoCuentaCache estadoCuentaCache;
+    private final ResumenDiarioService resumenDiarioService;
+    private final ObjectMapper objectMapper;
+    private final BulkheadBaseDatos bulkhead;
+    private final IdempotenciaMovimientos idempotencia;
+    private final RuteoLecturas ruteoLecturas;
+    private final ArchivoMovimientos archivoMovimientos;
+    private final EventosCuenta eventosCuenta;
+
+    @Value("${app.posting.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
+    @Value("${app.movimientos.pagina.default-size:50}")
+    private int tamanoPagina;
+
+    @Value("${app.movimientos.pagina.max-size:500}")
+    private int tamanoMaximoPagina;
+
+    @Value("${app.movimientos.export.fetch-size:1000}")
+    private int exportFetchSize;
 
     @Override
-    @Transactional
     public MovimientoResponseDTO crearMovimiento(MovimientoCreateDTO dto) {
-        Cuenta cuenta = cuentaRepository.findByNumeroCuenta(dto.getNumeroCuenta())
-                .orElseThrow(() -> new GeneralException("Cuenta no encontrada", 404));
+        return crearMovimiento(dto, null);
+    }
+
+    @Override
+    public MovimientoResponseDTO crearMovimiento(MovimientoCreateDTO dto, String claveIdempotencia) {
+        return idempotencia.ejecutar(claveIdempotencia, dto, () -> postear(dto, claveIdempotencia));
+    }
 
-        double saldoAnterior = cuenta.getSaldoInicial();
-        double valor = Math.abs(dto.getValor());
+    /**
+     * Los eventos de la cuenta salen con el movimiento ya confirmado, pero fuera de la sección serializada: pueden
+     * llegar en otro orden y llevan la secuencia de la cuenta para ordenarlos. Una respuesta repetida por idempotencia
+     * no llega hasta aquí y no se vuelve a avisar.
+     */
+    private MovimientoResponseDTO postear(MovimientoCreateDTO dto, String claveIdempotencia) {
+        Movimiento movimiento;
+        if (ledgerEngine.isHabilitado()) {
+            // La clave se inserta en la transacción del lote del ledger: si ya existe, solo este movimiento se revierte
+            movimiento = esperarLedger(ledgerEngine.post(dto.getNumeroCuenta(), cuenta -> aplicarMovimiento(cuenta, dto),
+                    claveIdempotencia == null ? null
+                            : registrado -> idempotencia.registrar(claveIdempotencia, dto, movimientoMapper.toResponseDTO(registrado))));
+            invalidarEstadoCuenta(movimiento.getCuenta());
+        } else if (postingStrategy.usaPermisoPropio()) {
+            movimiento = postingStrategy.post(dto.getNumeroCuenta(), cuenta -> registrarMovimiento(cuenta, dto, claveIdempotencia));
+        } else {
+            movimiento = bulkhead.ejecutar(Compartimento.POSTING,
+                    () -> postingStrategy.post(dto.getNumeroCuenta(), cuenta -> registrarMovimiento(cuenta, dto, claveIdempotencia)));
+        }
+        MovimientoResponseDTO respuesta = movimientoMapper.toResponseDTO(movimiento);
+        eventosCuenta.publicar(respuesta, movimiento.getSecuencia());
+        return respuesta;
+    }
+
+    private Movimiento registrarMovimiento(Cuenta cuenta, MovimientoCreateDTO dto, String claveIdempotencia) {
+        Movimiento movimiento = aplicarMovimiento(cuenta, dto);
+        cuentaRepository.save(cuenta);
+        movimientoRepository.save(movimiento);
+        resumenDiarioService.acumular(List.of(movimiento));
+        invalidarEstadoCuenta(cuenta);
+        if (claveIdempotencia != null) {
+            idempotencia.registrar(claveIdempotencia, dto, movimientoMapper.toResponseDTO(movimiento));
+        }
+        return movimiento;
+    }
+
+    private void invalidarEstadoCuenta(Cuenta cuenta) {
+        if (cuenta.getCliente() != null) {
+            estadoCuentaCache.invalidarCliente(cuenta.getCliente().getClienteId());
+            ruteoLecturas.registrarEscritura(cuenta.getCliente().getClienteId());
+        }
+    }
+
+    private Movimiento aplicarMovimiento(Cuenta cuenta, MovimientoCreateDTO dto) {
+        // En centavos: la única instancia nueva es el saldo resultante
+        long saldoAnterior = cuenta.getSaldoInicial().centavos();
+        long valor = dto.getValor() == null ? 0 : Math.abs(dto.getValor().centavos());
         if (valor == 0) {
             throw new GeneralException("El valor del movimiento debe ser mayor a cero", 400);
         }
-        double saldoNuevo;
+        long saldoNuevo;
 
         if (dto.getTipoMovimiento() == TipoMovimiento.DEBITO) {
             saldoNuevo = saldoAnterior - valor;
             if (saldoNuevo < 0) {
+                postingMetrics.registrarDebitoRechazado();
                 throw new GeneralException("Saldo insuficiente para el débito", 412);
             }
         } else if (dto.getTipoMovimiento() == TipoMovimiento.CREDITO) {
-            saldoNuevo = saldoAnterior + valor;
+            saldoNuevo = Math.addExact(saldoAnterior, valor);
         } else {
             throw new GeneralException("Tipo de movimiento inválido", 400);
         }
 
+        Money saldo = Money.deCentavos(saldoNuevo);
         Movimiento movimiento = movimientoMapper.toEntity(dto);
         movimiento.setCuenta(cuenta);
         movimiento.setFecha(LocalDateTime.now());
-        movimiento.setSaldo(saldoNuevo);
+        movimiento.setSaldo(saldo);
+        movimiento.setSecuencia(cuenta.getSecuencia() + 1);
 
-        cuenta.setSaldoInicial(saldoNuevo);
-        cuentaRepository.save(cuenta);
-        movimientoRepository.save(movimiento);
-        return movimientoMapper.toResponseDTO(movimiento);
+        cuenta.setSaldoInicial(saldo);
+        cuenta.setSecuencia(movimiento.getSecuencia());
+        return movimiento;
+    }
+
+    private Movimiento esperarLedger(CompletableFuture<Movimiento> futuro) {
+        try {
+            return futuro.get(ledgerEngine.getTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new GeneralException("Error registrando el movimiento: " + e.getCause().getMessage(), 500);
+        } catch (TimeoutException e) {
+            throw new GeneralException("No se confirmó el registro del movimiento a tiempo", 504);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeneralException("Registro del movimiento interrumpido", 503);
+        }
+    }
+
+    @Override
+    public MovimientoBatchResponseDTO crearMovimientosBatch(List<MovimientoCreateDTO> dtos) {
+        if (ledgerEngine.isHabilitado()) {
+            return crearMovimientosBatchLedger(dtos);
+        }
+        MovimientoBatchItemDTO[] resultados = new MovimientoBatchItemDTO[dtos.size()];
+        Map<String, List<Integer>> indicesPorCuenta = new LinkedHashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            MovimientoCreateDTO dto = dtos.get(i);
+            if (dto == null || dto.getNumeroCuenta() == null || dto.getNumeroCuenta().isBlank()) {
+                resultados[i] = itemFallido(i, 400, "El número de cuenta es obligatorio");
+            } else {
+                indicesPorCuenta.computeIfAbsent(dto.getNumeroCuenta(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        // Los lotes se confirman uno tras otro con una sola conexión: todo el batch ocupa un permiso
+        bulkhead.ejecutar(Compartimento.POSTING, () -> {
+            List<String> lote = new ArrayList<>();
+            int itemsLote = 0;
+            for (Map.Entry<String, List<Integer>> entry : indicesPorCuenta.entrySet()) {
+                lote.add(entry.getKey());
+                itemsLote += entry.getValue().size();
+                if (itemsLote >= batchChunkSize) {
+                    procesarLote(lote, indicesPorCuenta, dtos, resultados);
+                    lote = new ArrayList<>();
+                    itemsLote = 0;
+                }
+            }
+            if (!lote.isEmpty()) {
+                procesarLote(lote, indicesPorCuenta, dtos, resultados);
+            }
+        });
+
+        return respuestaBatch(resultados);
+    }
+
+    private MovimientoBatchResponseDTO crearMovimientosBatchLedger(List<MovimientoCreateDTO> dtos) {
+        MovimientoBatchItemDTO[] resultados = new MovimientoBatchItemDTO[dtos.size()];
+        List<CompletableFuture<Movimiento>> futuros = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            MovimientoCreateDTO dto = dtos.get(i);
+            if (dto == null || dto.getNumeroCuenta() == null || dto.getNumeroCuenta().isBlank()) {
+                resultados[i] = itemFallido(i, 400, "El número de cuenta es obligatorio");
+                futuros.add(null);
+            } else {
+                futuros.add(ledgerEngine.post(dto.getNumeroCuenta(), cuenta -> aplicarMovimiento(cuenta, dto)));
+            }
+        }
+        for (int i = 0; i < futuros.size(); i++) {
+            if (futuros.get(i) == null) {
+                continue;
+            }
+            try {
+                Movimiento movimiento = esperarLedger(futuros.get(i));
+                invalidarEstadoCuenta(movimiento.getCuenta());
+                resultados[i] = itemRegistrado(i, movimiento);
+            } catch (GeneralException ex) {
+                resultados[i] = itemFallido(i, ex.getStatusCode(), ex.getMessage());
+            } catch (RuntimeException ex) {
+                resultados[i] = itemFallido(i, 500, "Error registrando el movimiento: " + ex.getMessage());
+            }
+        }
+        return respuestaBatch(resultados);
+    }
+
+    private MovimientoBatchResponseDTO respuestaBatch(MovimientoBatchItemDTO[] resultados) {
+        int exitosos = (int) Arrays.stream(resultados).filter(r -> r.getMovimiento() != null).count();
+        return MovimientoBatchResponseDTO.builder()
+                .total(resultados.length)
+                .exitosos(exitosos)
+                .fallidos(resultados.length - exitosos)
+                .resultados(Arrays.asList(resultados))
+                .build();
+    }
+
+    private void procesarLote(List<String> numerosCuenta, Map<String, List<Integer>> indicesPorCuenta,
+                              List<MovimientoCreateDTO> dtos, MovimientoBatchItemDTO[] resultados) {
+        Map<Integer, Movimiento> registrados = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Cuenta> cuentas = cuentaRepository.findWithLockByNumeroCuentaIn(numerosCuenta).stream()
+                        .collect(Collectors.toMap(Cuenta::getNumeroCuenta, Function.identity()));
+                for (String numeroCuenta : numerosCuenta) {
+                    Cuenta cuenta = cuentas.get(numeroCuenta);
+                    for (int i : indicesPorCuenta.get(numeroCuenta)) {
+                        if (cuenta == null) {
+                            resultados[i] = itemFallido(i, 404, "Cuenta no encontrada");
+                            continue;
+                        }
+                        try {
+                            registrados.put(i, aplicarMovimiento(cuenta, dtos.get(i)));
+                            invalidarEstadoCuenta(cuenta);
+                        } catch (GeneralException ex) {
+                            resultados[i] = itemFallido(i, ex.getStatusCode(), ex.getMessage());
+                        }
+                    }
+                }
+                movimientoRepository.saveAll(registrados.values());
+                resumenDiarioService.acumular(registrados.values());
+            });
+        } catch (RuntimeException ex) {
+            for (String numeroCuenta : numerosCuenta) {
+                for (int i : indicesPorCuenta.get(numeroCuenta)) {
+                    if (resultados[i] == null || registrados.containsKey(i)) {
+                        resultados[i] = itemFallido(i, 500, "Error registrando el lote: " + ex.getMessage());
+                    }
+                }
+            }
+            return;
+        }
+        registrados.forEach((i, movimiento) -> resultados[i] = itemRegistrado(i, movimiento));
+    }
+
+    private MovimientoBatchItemDTO itemRegistrado(int indice, Movimiento movimiento) {
+        MovimientoResponseDTO respuesta = movimientoMapper.toResponseDTO(movimiento);
+        eventosCuenta.publicar(respuesta, movimiento.getSecuencia());
+        return MovimientoBatchItemDTO.builder()
+                .indice(indice)
+                .codigo(201)
+                .movimiento(respuesta)
+                .build();
+    }
+
+    private MovimientoBatchItemDTO itemFallido(int indice, int codigo, String mensaje) {
+        return MovimientoBatchItemDTO.builder()
+                .indice(indice)
+                .codigo(codigo)
+                .mensaje(mensaje)
+                .build();
+    }
+
+    @Override
+    public PostingMetricsDTO obtenerMetricasPosting() {
+        return postingMetrics.snapshot(postingStrategy.nombre(), postingStrategy.configuracion());
     }
 
-    private double getValorConSigno(Movimiento mov) {
+    private Money getValorConSigno(Movimiento mov) {
         if (mov.getTipoMovimiento() == TipoMovimiento.DEBITO) {
-            return -Math.abs(mov.getValor());
+            return mov.getValor().esNegativo() ? mov.getValor() : mov.getValor().negar();
         } else if (mov.getTipoMovimiento() == TipoMovimiento.CREDITO) {
-            return Math.abs(mov.getValor());
+            return mov.getValor().abs();
         }
         return mov.getValor();
     }
 
     @Override
-    public List<MovimientoResponseDTO> obtenerMovimientosPorCuenta(String numeroCuenta) {
-        return movimientoRepository.findByCuenta_NumeroCuenta(numeroCuenta)
-                .stream().map(mov -> {
-                    MovimientoResponseDTO dto = movimientoMapper.toResponseDTO(mov);
-                    dto.setValor(getValorConSigno(mov));
-                    return dto;
-                }).collect(Collectors.toList());
+    public MovimientoPaginaDTO obtenerMovimientosPorCuenta(String numeroCuenta, String cursor, Integer limite) {
+        Limit limit = limitePagina(limite);
+        Cursor desde = Cursor.decodificar(cursor);
+        ArchivoMovimientos.Vista archivo = archivoMovimientos.vista();
+        if (archivo.cubre(desde == null ? null : desde.fecha())) {
+            return pagina(paginaPorCuentaConArchivo(archivo, numeroCuenta, desde, limit), limit);
+        }
+        List<Movimiento> movimientos = desde == null
+                ? movimientoRepository.findPaginaPorCuenta(numeroCuenta, limit)
+                : movimientoRepository.findPaginaPorCuentaDesde(numeroCuenta, desde.fecha(), desde.movimientoId(), limit);
+        return pagina(movimientos, limit);
+    }
+
+    /**
+     * El cursor cae antes del corte: la página sigue en el archivo y, si no alcanza, continúa en la tabla desde el corte.
+     */
+    private List<Movimiento> paginaPorCuentaConArchivo(ArchivoMovimientos.Vista archivo, String numeroCuenta,
+                                                       Cursor desde, Limit limit) {
+        Cuenta cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta).orElse(null);
+        if (cuenta == null) {
+            return List.of();
+        }
+        List<Movimiento> movimientos = new ArrayList<>(archivo.pagina(cuenta, desde == null ? null : desde.fecha(),
+                desde == null ? null : desde.movimientoId(), limit.max()));
+        if (movimientos.size() < limit.max()) {
+            movimientos.addAll(movimientoRepository.findPaginaPorCuentaDesde(numeroCuenta, archivo.corte(), 0L,
+                    Limit.of(limit.max() - movimientos.size())));
+        }
+        return movimientos;
     }
 
     @Override
-    public List<MovimientoResponseDTO> obtenerMovimientosPorClienteYFechas(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+    public MovimientoPaginaDTO obtenerMovimientosPorClienteYFechas(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin,
+                                                                   String cursor, Integer limite) {
         LocalDate now = LocalDate.now();
         if (fechaInicio == null) fechaInicio = now;
         if (fechaFin == null) fechaFin = now;
         
         LocalDateTime inicio = fechaInicio.atStartOfDay();
         LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay();
-        
-        return movimientoRepository.findMovimientosPorClienteYFechas(clienteId, inicio, fin)
-                .stream().map(mov -> {
+        Limit limit = limitePagina(limite);
+        Cursor desde = Cursor.decodificar(cursor);
+        ArchivoMovimientos.Vista archivo = archivoMovimientos.vista();
+        if (archivo.cubre(inicio)) {
+            return pagina(paginaPorClienteConArchivo(archivo, clienteId, inicio, fin, desde, limit), limit);
+        }
+        List<Movimiento> movimientos = desde == null
+                ? movimientoRepository.findPaginaPorClienteYFechas(clienteId, inicio, fin, limit)
+                : movimientoRepository.findPaginaPorClienteYFechasDesde(clienteId, inicio, fin, desde.fecha(), desde.movimientoId(), limit);
+        return pagina(movimientos, limit);
+    }
+
+    /**
+     * Orden descendente: primero la tabla desde el corte, mientras el cursor no haya pasado a lo archivado, y después
+     * el archivo.
+     */
+    private List<Movimiento> paginaPorClienteConArchivo(ArchivoMovimientos.Vista archivo, Long clienteId,
+                                                        LocalDateTime inicio, LocalDateTime fin, Cursor desde, Limit limit) {
+        LocalDateTime corte = archivo.corte();
+        boolean cursorArchivado = desde != null && desde.fecha().isBefore(corte);
+        List<Movimiento> movimientos = new ArrayList<>();
+        if (fin.isAfter(corte) && !cursorArchivado) {
+            movimientos.addAll(desde == null
+                    ? movimientoRepository.findPaginaPorClienteYFechas(clienteId, corte, fin, limit)
+                    : movimientoRepository.findPaginaPorClienteYFechasDesde(clienteId, corte, fin, desde.fecha(),
+                    desde.movimientoId(), limit));
+        }
+        if (movimientos.size() < limit.max()) {
+            movimientos.addAll(archivo.paginaDescendente(cuentaRepository.findByClienteClienteId(clienteId), inicio,
+                    fin.isBefore(corte) ? fin : corte, cursorArchivado ? desde.fecha() : null,
+                    cursorArchivado ? desde.movimientoId() : null, limit.max() - movimientos.size()));
+        }
+        return movimientos;
+    }
+
+    /**
+     * Se pide una fila más que el tamaño de página: si llega, hay página siguiente y el cursor apunta a la última entregada.
+     */
+    private Limit limitePagina(Integer limite) {
+        int tamano = limite == null ? tamanoPagina : limite;
+        if (tamano <= 0) {
+            throw new GeneralException("El límite de la página debe ser mayor a cero", 400);
+        }
+        return Limit.of(Math.min(tamano, tamanoMaximoPagina) + 1);
+    }
+
+    private MovimientoPaginaDTO pagina(List<Movimiento> movimientos, Limit limit) {
+        int tamano = limit.max() - 1;
+        String siguiente = null;
+        if (movimientos.size() > tamano) {
+            movimientos = movimientos.subList(0, tamano);
+            Movimiento ultimo = movimientos.get(tamano - 1);
+            siguiente = new Cursor(ultimo.getFecha(), ultimo.getMovimientoId()).codificar();
+        }
+        return MovimientoPaginaDTO.builder()
+                .movimientos(movimientos.stream().map(mov -> {
                     MovimientoResponseDTO dto = movimientoMapper.toResponseDTO(mov);
                     dto.setValor(getValorConSigno(mov));
                     return dto;
-                }).collect(Collectors.toList());
+                }).collect(Collectors.toList()))
+                .siguiente(siguiente)
+                .build();
+    }
+
+    /**
+     * Escribe los movimientos del cliente como NDJSON, una línea por fila, a medida que llegan del cursor. No se
+     * materializan entidades ni DTOs, así la memoria no depende del rango. Lo archivado sale primero, un mes a la vez.
+     */
+    @Override
+    public void exportarMovimientosPorCliente(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, OutputStream out) {
+        LocalDate now = LocalDate.now();
+        if (fechaInicio == null) fechaInicio = now;
+        if (fechaFin == null) fechaFin = now;
+        LocalDateTime inicio = fechaInicio.atStartOfDay();
+        LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay();
+        bulkhead.ejecutar(Compartimento.REPORTES,
+                () -> transactionTemplate.executeWithoutResult(status -> escribirExportacion(clienteId, inicio, fin, out)));
+    }
+
+    private void escribirExportacion(Long clienteId, LocalDateTime inicio, LocalDateTime fin, OutputStream out) {
+        ArchivoMovimientos.Vista archivo = archivoMovimientos.vista();
+        try (Stream<Object[]> filas = movimientoRepository.streamExportacion(clienteId, archivo.inicioVivo(inicio), fin,
+                exportFetchSize);
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+            FilasExportacion exportacion = new FilasExportacion(json);
+            if (archivo.cubre(inicio)) {
+                Map<Long, String> numeros = cuentaRepository.findByClienteClienteId(clienteId).stream()
+                        .collect(Collectors.toMap(Cuenta::getCuentaId, Cuenta::getNumeroCuenta));
+                archivo.recorrerPorFecha(numeros.keySet(), inicio, fin, mov -> exportacion.escribir(mov.movimientoId(),
+                        numeros.get(mov.cuentaId()), mov.fecha(), mov.tipoMovimiento(), mov.valor(), mov.saldo()));
+            }
+            for (Iterator<Object[]> it = filas.iterator(); it.hasNext(); ) {
+                Object[] fila = it.next();
+                exportacion.escribir((Long) fila[0], (String) fila[1], (LocalDateTime) fila[2], (TipoMovimiento) fila[3],
+                        ((Money) fila[4]).centavos(), ((Money) fila[5]).centavos());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class FilasExportacion {
+        private final JsonGenerator json;
+        private boolean primera = true;
+
+        FilasExportacion(JsonGenerator json) {
+            this.json = json;
+        }
+
+        void escribir(Long movimientoId, String numeroCuenta, LocalDateTime fecha, TipoMovimiento tipo, long valor,
+                      long saldo) {
+            try {
+                long monto = Math.abs(valor);
+                json.writeStartObject();
+                json.writeStringField("movimientoId", String.valueOf(movimientoId));
+                json.writeStringField("numeroCuenta", numeroCuenta);
+                json.writeStringField("fecha", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(fecha));
+                json.writeStringField("tipoMovimiento", tipo.name());
+                json.writeFieldName("valor");
+                MoneyJson.escribir(tipo == TipoMovimiento.DEBITO ? -monto : monto, json);
+                json.writeFieldName("saldo");
+                MoneyJson.escribir(saldo, json);
+                json.writeEndObject();
+                json.writeRaw('\n');
+                if (primera) {
+                    // La primera fila sale de inmediato; el resto viaja con el buffer de la respuesta
+                    json.flush();
+                    primera = false;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
     @Override
@@ -111,10 +530,38 @@ public class MovimientoServiceImpl implements MovimientoService {
     }
 
     @Override
+    @Transactional
     public void eliminarMovimiento(Long id) {
-        if (!movimientoRepository.existsById(id)) {
-            throw new GeneralException(MOVIMIENTO_NO_ENCONTRADO, 404);
+        Movimiento movimiento = movimientoRepository.findById(id)
+                .orElseThrow(() -> new GeneralException(MOVIMIENTO_NO_ENCONTRADO, 404));
+        Cuenta cuenta = movimiento.getCuenta();
+        movimientoRepository.delete(movimiento);
+        resumenDiarioService.recalcularDia(cuenta.getCuentaId(), movimiento.getFecha().toLocalDate());
+        invalidarEstadoCuenta(cuenta);
+    }
+
+    /**
+     * Posición (fecha, movimientoId) de la última fila entregada, serializada como token opaco para el cliente.
+     */
+    private record Cursor(LocalDateTime fecha, Long movimientoId) {
+        private static final String SEPARADOR = "|";
+
+        String codificar() {
+            String valor = fecha + SEPARADOR + movimientoId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decodificar(String token) {
+            if (token == null || token.isBlank()) {
+                return null;
+            }
+            try {
+                String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separador = valor.indexOf(SEPARADOR);
+                return new Cursor(LocalDateTime.parse(valor.substring(0, separador)), Long.valueOf(valor.substring(separador + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new GeneralException("Cursor de paginación inválido", 400);
+            }
         }
-        movimientoRepository.deleteById(id);
     }
 }
@@ -0,0 +1,259 @@
+package com.upgrade.senior.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.enums.EstadoReporteJob;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.service.ReporteJobService;
+import com.upgrade.senior.service.ReporteService;
+import com.upgrade.senior.service.dto.reporte.ReporteJobArchivoDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobCreateDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobResponseDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Genera estados de cuenta fuera del hilo de la petición. Cada job corre en un hilo virtual; {@code max-in-flight}
+ * acota los jobs aceptados y no terminados y {@code concurrency} los que consultan la base a la vez. El resultado se
+ * escribe en el directorio de spool y se elimina, junto con el job, cuando vence el TTL.
+ */
+@Log4j2
+@Service
+public class ReporteJobServiceImpl implements ReporteJobService {
+
+    private static final String FORMATO_JSON = "json";
+    private static final String FORMATO_PDF = "pdf";
+    private static final String JOB_NO_ENCONTRADO = "Reporte no encontrado o expirado";
+
+    private final ReporteService reporteService;
+    private final ObjectMapper objectMapper;
+    private final Path directorioSpool;
+    private final long ttlMs;
+    private final long intervaloLimpiezaMs;
+    private final Semaphore enVuelo;
+    private final Semaphore concurrencia;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+    private ScheduledExecutorService limpieza;
+
+    public ReporteJobServiceImpl(ReporteService reporteService, ObjectMapper objectMapper,
+                                 @Value("${app.reportes.jobs.spool-dir:${java.io.tmpdir}/account-reportes}") Path directorioSpool,
+                                 @Value("${app.reportes.jobs.max-in-flight:100}") int maxEnVuelo,
+                                 @Value("${app.reportes.jobs.concurrency:4}") int concurrencia,
+                                 @Value("${app.reportes.jobs.ttl-minutes:60}") long ttlMinutos,
+                                 @Value("${app.reportes.jobs.cleanup-interval-ms:60000}") long intervaloLimpiezaMs) {
+        this.reporteService = reporteService;
+        this.objectMapper = objectMapper;
+        this.directorioSpool = directorioSpool;
+        this.ttlMs = TimeUnit.MINUTES.toMillis(ttlMinutos);
+        this.intervaloLimpiezaMs = intervaloLimpiezaMs;
+        this.enVuelo = new Semaphore(maxEnVuelo);
+        this.concurrencia = new Semaphore(concurrencia);
+    }
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        Files.createDirectories(directorioSpool);
+        // Los jobs viven en memoria: lo que quede en el spool de una ejecución anterior ya no es alcanzable
+        try (Stream<Path> archivos = Files.list(directorioSpool)) {
+            archivos.filter(this::esArchivoDeSpool).forEach(this::eliminar);
+        }
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("reporte-job-", 0).factory());
+        limpieza = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("reporte-job-limpieza").daemon().factory());
+        limpieza.scheduleWithFixedDelay(this::limpiarExpirados, intervaloLimpiezaMs, intervaloLimpiezaMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (limpieza != null) {
+            limpieza.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public ReporteJobResponseDTO crearJob(ReporteJobCreateDTO dto) {
+        if (dto == null || dto.getClienteId() == null) {
+            throw new GeneralException("El clienteId es obligatorio", 400);
+        }
+        String formato = dto.getFormato() == null ? FORMATO_JSON : dto.getFormato().toLowerCase();
+        if (!FORMATO_JSON.equals(formato) && !FORMATO_PDF.equals(formato)) {
+            throw new GeneralException("Formato no soportado: " + dto.getFormato(), 400);
+        }
+        reporteService.validarEstadoCuenta(dto.getClienteId(), dto.getFechaInicio(), dto.getFechaFin());
+        if (!enVuelo.tryAcquire()) {
+            throw new GeneralException("Hay demasiados reportes en proceso, intente más tarde", 503);
+        }
+        Job job = new Job(UUID.randomUUID().toString(), dto.getClienteId(), dto.getFechaInicio(), dto.getFechaFin(), formato);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> ejecutar(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            enVuelo.release();
+            throw new GeneralException("El servicio de reportes se está deteniendo", 503);
+        }
+        return job.toResponseDTO();
+    }
+
+    @Override
+    public ReporteJobResponseDTO obtenerJob(String id) {
+        return buscar(id).toResponseDTO();
+    }
+
+    @Override
+    public ReporteJobArchivoDTO obtenerResultado(String id) {
+        Job job = buscar(id);
+        if (job.estado == EstadoReporteJob.FALLIDO) {
+            throw new GeneralException("El reporte falló: " + job.error, 409);
+        }
+        if (job.estado != EstadoReporteJob.COMPLETADO) {
+            throw new GeneralException("El reporte aún no está disponible", 409);
+        }
+        if (!Files.isRegularFile(job.archivo)) {
+            throw new GeneralException(JOB_NO_ENCONTRADO, 404);
+        }
+        return ReporteJobArchivoDTO.builder()
+                .archivo(job.archivo)
+                .contentType(FORMATO_PDF.equals(job.formato) ? MediaType.APPLICATION_PDF_VALUE : MediaType.APPLICATION_JSON_VALUE)
+                .nombre("estado-cuenta-" + job.clienteId + "." + job.formato)
+                .tamanoBytes(job.tamanoBytes)
+                .build();
+    }
+
+    private Job buscar(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new GeneralException(JOB_NO_ENCONTRADO, 404);
+        }
+        return job;
+    }
+
+    private void ejecutar(Job job) {
+        Path parcial = directorioSpool.resolve(job.id + ".part");
+        try {
+            concurrencia.acquire();
+            try {
+                job.estado = EstadoReporteJob.EN_PROCESO;
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(parcial))) {
+                    if (FORMATO_PDF.equals(job.formato)) {
+                        reporteService.escribirEstadoCuentaPDF(job.clienteId, job.fechaInicio, job.fechaFin, out);
+                    } else {
+                        objectMapper.writeValue(out, reporteService.generarEstadoCuenta(job.clienteId, job.fechaInicio, job.fechaFin));
+                    }
+                }
+                Path destino = directorioSpool.resolve(job.id + "." + job.formato);
+                Files.move(parcial, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                job.archivo = destino;
+                job.tamanoBytes = Files.size(destino);
+                job.finalizado = LocalDateTime.now();
+                job.estado = EstadoReporteJob.COMPLETADO;
+            } finally {
+                concurrencia.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fallar(job, parcial, "Reporte cancelado");
+        } catch (Exception e) {
+            log.error("Error generando el reporte {}: {}", job.id, e.getMessage(), e);
+            fallar(job, parcial, e.getMessage());
+        } finally {
+            enVuelo.release();
+        }
+    }
+
+    private void fallar(Job job, Path parcial, String error) {
+        eliminar(parcial);
+        job.error = error;
+        job.finalizado = LocalDateTime.now();
+        job.estado = EstadoReporteJob.FALLIDO;
+    }
+
+    void limpiarExpirados() {
+        LocalDateTime limite = LocalDateTime.now().minus(ttlMs, ChronoUnit.MILLIS);
+        jobs.values().removeIf(job -> {
+            if (job.finalizado == null || job.finalizado.isAfter(limite)) {
+                return false;
+            }
+            if (job.archivo != null) {
+                eliminar(job.archivo);
+            }
+            return true;
+        });
+    }
+
+    private boolean esArchivoDeSpool(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        return nombre.endsWith(".part") || nombre.endsWith("." + FORMATO_JSON) || nombre.endsWith("." + FORMATO_PDF);
+    }
+
+    private void eliminar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar {} del spool de reportes: {}", archivo, e.getMessage());
+        }
+    }
+
+    private static final class Job {
+        private final String id;
+        private final Long clienteId;
+        private final LocalDate fechaInicio;
+        private final LocalDate fechaFin;
+        private final String formato;
+        private final LocalDateTime creado = LocalDateTime.now();
+        private volatile EstadoReporteJob estado = EstadoReporteJob.PENDIENTE;
+        private volatile LocalDateTime finalizado;
+        private volatile Path archivo;
+        private volatile long tamanoBytes;
+        private volatile String error;
+
+        Job(String id, Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, String formato) {
+            this.id = id;
+            this.clienteId = clienteId;
+            this.fechaInicio = fechaInicio;
+            this.fechaFin = fechaFin;
+            this.formato = formato;
+        }
+
+        ReporteJobResponseDTO toResponseDTO() {
+            return ReporteJobResponseDTO.builder()
+                    .id(id)
+                    .estado(estado)
+                    .clienteId(clienteId)
+                    .fechaInicio(fechaInicio)
+                    .fechaFin(fechaFin)
+                    .formato(formato)
+                    .creado(creado)
+                    .finalizado(finalizado)
+                    .tamanoBytes(estado == EstadoReporteJob.COMPLETADO ? tamanoBytes : null)
+                    .error(error)
+                    .build();
+        }
+    }
+}
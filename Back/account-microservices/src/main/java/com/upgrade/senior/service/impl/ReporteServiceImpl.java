@@ -1,150 +1,464 @@
 package com.upgrade.senior.service.impl;
 
 
+import com.upgrade.senior.datasource.RuteoLecturas;
 import com.upgrade.senior.enums.TipoMovimiento;
 import com.upgrade.senior.exception.ClienteNotFoundException;
 import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
 import com.upgrade.senior.persistence.Cliente;
 import com.upgrade.senior.persistence.Cuenta;
 import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.persistence.MovimientoResumenDiario;
 import com.upgrade.senior.repository.ClienteRepository;
 import com.upgrade.senior.repository.CuentaRepository;
 import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.repository.MovimientoResumenDiarioRepository;
 import com.upgrade.senior.service.ReporteService;
+import com.upgrade.senior.service.archivo.ArchivoMovimientos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos.Compartimento;
 import com.upgrade.senior.service.dto.reporte.CuentaReporteDTO;
 import com.upgrade.senior.service.dto.reporte.MovimientoReporteDTO;
 import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaPDFResponseDTO;
 import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
-import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
-import com.itextpdf.text.Paragraph;
-import com.itextpdf.text.pdf.PdfWriter;
-import com.itextpdf.text.Font;
-import com.itextpdf.text.FontFactory;
-import com.itextpdf.text.BaseColor;
-import lombok.RequiredArgsConstructor;
+import com.upgrade.senior.service.dto.reporte.EstadoCuentaCacheMetricsDTO;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 public class ReporteServiceImpl implements ReporteService {
 
     private final ClienteRepository clienteRepository;
     private final CuentaRepository cuentaRepository;
     private final MovimientoRepository movimientoRepository;
+    private final MovimientoResumenDiarioRepository resumenRepository;
+    private final EstadoCuentaCache estadoCuentaCache;
+    private final TransactionTemplate lectura;
+    private final BulkheadBaseDatos bulkhead;
+    private final RuteoLecturas ruteoLecturas;
+    private final ArchivoMovimientos archivoMovimientos;
+    private final EntityManager entityManager;
+    private final DistributionSummary movimientosPorEstadoCuenta;
+    private final DistributionSummary bytesPorPdf;
+
+    private static final String SIN_MOVIMIENTOS = "No existen movimientos para filtro de fechas seleccionados";
+
+    public ReporteServiceImpl(ClienteRepository clienteRepository, CuentaRepository cuentaRepository,
+                              MovimientoRepository movimientoRepository,
+                              MovimientoResumenDiarioRepository resumenRepository, EstadoCuentaCache estadoCuentaCache,
+                              PlatformTransactionManager transactionManager, BulkheadBaseDatos bulkhead,
+                              RuteoLecturas ruteoLecturas, ArchivoMovimientos archivoMovimientos,
+                              EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.clienteRepository = clienteRepository;
+        this.cuentaRepository = cuentaRepository;
+        this.movimientoRepository = movimientoRepository;
+        this.resumenRepository = resumenRepository;
+        this.estadoCuentaCache = estadoCuentaCache;
+        // Las consultas se abren solo en un fallo de cache: un acierto no toma conexión
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.bulkhead = bulkhead;
+        this.ruteoLecturas = ruteoLecturas;
+        this.archivoMovimientos = archivoMovimientos;
+        this.entityManager = entityManager;
+        // Solo se registran los reportes generados; los aciertos de cache no cuentan
+        this.movimientosPorEstadoCuenta = DistributionSummary.builder("reporte.estado.cuenta.movimientos")
+                .description("Movimientos recorridos por estado de cuenta generado")
+                .register(meterRegistry);
+        this.bytesPorPdf = DistributionSummary.builder("reporte.estado.cuenta.pdf")
+                .description("Tamaño de los PDF de estado de cuenta generados")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
 
     @Override
     public ReporteEstadoCuentaResponseDTO generarEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        Rango rango = Rango.de(fechaInicio, fechaFin);
+        EstadoCuentaCache.Clave clave = rango.clave(clienteId, EstadoCuentaCache.FORMATO_JSON);
+        ReporteEstadoCuentaResponseDTO response = estadoCuentaCache.obtener(clave, ReporteEstadoCuentaResponseDTO.class);
+        if (response != null) {
+            return response;
+        }
+        long generacion = estadoCuentaCache.generacion(clienteId);
+        response = bulkhead.ejecutar(Compartimento.REPORTES,
+                () -> ruteoLecturas.leerReporte(clienteId, () -> lectura.execute(status -> construirEstadoCuenta(clienteId, rango))));
+        estadoCuentaCache.guardar(clave, response, generacion);
+        return response;
+    }
+
+    private ReporteEstadoCuentaResponseDTO construirEstadoCuenta(Long clienteId, Rango rango) {
         Cliente cliente = clienteRepository.findById(clienteId).orElseThrow(() -> new ClienteNotFoundException(clienteId));
-        List<Cuenta> cuentas = cuentaRepository.findAll().stream()
-                .filter(c -> c.getCliente().getClienteId().equals(clienteId))
-                .collect(Collectors.toList());
-        
-        LocalDate now = LocalDate.now();
-        if (fechaInicio == null) fechaInicio = now;
-        if (fechaFin == null) fechaFin = now;
-        
-        final java.time.LocalDateTime inicio = fechaInicio.atStartOfDay();
-        final java.time.LocalDateTime fin = fechaFin.plusDays(1).atStartOfDay();
-        
         List<CuentaReporteDTO> cuentasReporte = new ArrayList<>();
-        for (Cuenta cuenta : cuentas) {
-            List<Movimiento> movimientos = movimientoRepository.findByCuenta_NumeroCuenta(cuenta.getNumeroCuenta())
-                    .stream()
-                    .filter(m -> !m.getFecha().isBefore(inicio) && m.getFecha().isBefore(fin))
-                    .collect(Collectors.toList());
-            List<MovimientoReporteDTO> movimientosDTO = new ArrayList<>();
-            double totalCreditos = 0;
-            double totalDebitos = 0;
-            double saldo = cuenta.getSaldoInicial();
-            if(movimientos.isEmpty()){
-                throw new GeneralException("No existen movimientos para filtro de fechas seleccionados", 404);
-            }
-            for (Movimiento mov : movimientos) {
-                MovimientoReporteDTO movDTO = MovimientoReporteDTO.builder()
-                        .fecha(mov.getFecha().toLocalDate())
-                        .tipoMovimiento(mov.getTipoMovimiento())
-                        .valor(mov.getTipoMovimiento() == TipoMovimiento.CREDITO ? Double.parseDouble("+" + mov.getValor()) :
-                                mov.getTipoMovimiento() == TipoMovimiento.DEBITO ? Double.parseDouble("-" + Math.abs(mov.getValor())) : mov.getValor())
-                        .saldoDisponible(mov.getSaldo())
-                        .build();
-                movimientosDTO.add(movDTO);
-                if (mov.getTipoMovimiento() == TipoMovimiento.CREDITO) {
-                    totalCreditos += mov.getValor();
-                } else if (mov.getTipoMovimiento() == TipoMovimiento.DEBITO) {
-                    totalDebitos += mov.getValor();
-                }
-                saldo = mov.getSaldo();
+        recorrerEstadoCuenta(clienteId, rango, true, new EstadoCuentaListener() {
+            @Override
+            public void finCuenta(CuentaReporteDTO cuenta) {
+                cuentasReporte.add(cuenta);
             }
-            CuentaReporteDTO cuentaDTO = CuentaReporteDTO.builder()
-                    .numeroCuenta(cuenta.getNumeroCuenta())
-                    .tipo(cuenta.getTipoCuenta().name())
-                    .saldoInicial(cuenta.getSaldoInicial())
-                    .estado(cuenta.getEstado())
-                    .movimientos(movimientosDTO)
-                    .totalCreditos(totalCreditos)
-                    .totalDebitos(totalDebitos)
-                    .saldoFinal(saldo)
-                    .build();
-            cuentasReporte.add(cuentaDTO);
+        });
+        if (cuentasReporte.size() < cuentaRepository.countByClienteClienteId(clienteId)) {
+            throw new GeneralException(SIN_MOVIMIENTOS, 404);
         }
         ReporteEstadoCuentaResponseDTO response = ReporteEstadoCuentaResponseDTO.builder()
-                .fechaReporte(LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")))
+                .fechaReporte(fechaReporte())
                 .cliente(cliente.getNombre())
                 .cuentas(cuentasReporte)
                 .build();
         return response;
     }
 
+    @Override
+    public ReporteEstadoCuentaResponseDTO generarResumenEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        Rango rango = Rango.de(fechaInicio, fechaFin);
+        EstadoCuentaCache.Clave clave = rango.clave(clienteId, EstadoCuentaCache.FORMATO_RESUMEN);
+        ReporteEstadoCuentaResponseDTO response = estadoCuentaCache.obtener(clave, ReporteEstadoCuentaResponseDTO.class);
+        if (response != null) {
+            return response;
+        }
+        long generacion = estadoCuentaCache.generacion(clienteId);
+        response = bulkhead.ejecutar(Compartimento.REPORTES,
+                () -> ruteoLecturas.leerReporte(clienteId, () -> lectura.execute(status -> construirResumen(clienteId, rango))));
+        estadoCuentaCache.guardar(clave, response, generacion);
+        return response;
+    }
+
+    /**
+     * Totales por cuenta desde {@code movimiento_resumen_diario}: lee una fila por cuenta y día del rango, sin
+     * recorrer los movimientos.
+     */
+    private ReporteEstadoCuentaResponseDTO construirResumen(Long clienteId, Rango rango) {
+        Cliente cliente = clienteRepository.findById(clienteId).orElseThrow(() -> new ClienteNotFoundException(clienteId));
+        List<CuentaReporteDTO> cuentasReporte = new ArrayList<>();
+        AcumuladorCuenta actual = null;
+        for (MovimientoResumenDiario dia : resumenRepository.findResumenPorClienteYFechas(clienteId, rango.desde(), rango.hasta())) {
+            Cuenta cuenta = dia.getCuenta();
+            if (actual == null || !actual.cuenta.getCuentaId().equals(cuenta.getCuentaId())) {
+                if (actual != null) {
+                    cuentasReporte.add(actual.construir());
+                }
+                actual = new AcumuladorCuenta(cuenta, false);
+            }
+            actual.agregar(dia);
+        }
+        if (actual != null) {
+            cuentasReporte.add(actual.construir());
+        }
+        if (cuentasReporte.size() < cuentaRepository.countByClienteClienteId(clienteId)) {
+            throw new GeneralException(SIN_MOVIMIENTOS, 404);
+        }
+        return ReporteEstadoCuentaResponseDTO.builder()
+                .fechaReporte(fechaReporte())
+                .cliente(cliente.getNombre())
+                .cuentas(cuentasReporte)
+                .build();
+    }
+
     @Override
     public ReporteEstadoCuentaPDFResponseDTO generarEstadoCuentaPDF(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
-        ReporteEstadoCuentaResponseDTO data = generarEstadoCuenta(clienteId, fechaInicio, fechaFin);
+        Rango rango = Rango.de(fechaInicio, fechaFin);
+        EstadoCuentaCache.Clave clave = rango.clave(clienteId, EstadoCuentaCache.FORMATO_PDF);
+        byte[] pdf = estadoCuentaCache.obtener(clave, byte[].class);
+        if (pdf == null) {
+            long generacion = estadoCuentaCache.generacion(clienteId);
+            pdf = renderizarPDF(generarEstadoCuenta(clienteId, fechaInicio, fechaFin));
+            bytesPorPdf.record(pdf.length);
+            estadoCuentaCache.guardar(clave, pdf, generacion);
+        }
+        String pdfBase64 = Base64.getEncoder().encodeToString(pdf);
+        ReporteEstadoCuentaPDFResponseDTO response = ReporteEstadoCuentaPDFResponseDTO.builder()
+                .pdfBase64(pdfBase64)
+                .build();
+        return response;
+    }
+
+    private byte[] renderizarPDF(ReporteEstadoCuentaResponseDTO data) {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (EstadoCuentaPdfRenderer pdf = new EstadoCuentaPdfRenderer(baos, data.getFechaReporte(), data.getCliente())) {
+            for (CuentaReporteDTO cuenta : data.getCuentas()) {
+                pdf.inicioCuenta(cuenta.getNumeroCuenta(), cuenta.getTipo(), cuenta.getSaldoInicial(), cuenta.getEstado());
+                for (MovimientoReporteDTO mov : cuenta.getMovimientos()) {
+                    pdf.movimiento(mov);
+                }
+                pdf.finCuenta(cuenta);
+            }
+        } catch (DocumentException e) {
+            throw new RuntimeException("Error generando PDF", e);
+        }
+        return baos.toByteArray();
+    }
+
+    @Override
+    public void validarEstadoCuenta(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin) {
+        Rango rango = Rango.de(fechaInicio, fechaFin);
+        // Un reporte en cache ya pasó esta validación y se invalida con cualquier cambio del cliente
+        if (estadoCuentaCache.contiene(rango.clave(clienteId, EstadoCuentaCache.FORMATO_PDF))
+                || estadoCuentaCache.contiene(rango.clave(clienteId, EstadoCuentaCache.FORMATO_JSON))) {
+            return;
+        }
+        ruteoLecturas.leerReporte(clienteId, () -> lectura.executeWithoutResult(status -> {
+            if (!clienteRepository.existsById(clienteId)) {
+                throw new ClienteNotFoundException(clienteId);
+            }
+            long conMovimientos = contarCuentasConMovimientos(clienteId, rango);
+            if (conMovimientos < cuentaRepository.countByClienteClienteId(clienteId)) {
+                throw new GeneralException(SIN_MOVIMIENTOS, 404);
+            }
+        }));
+    }
+
+    private long contarCuentasConMovimientos(Long clienteId, Rango rango) {
+        ArchivoMovimientos.Vista archivo = archivoMovimientos.vista();
+        if (!archivo.cubre(rango.inicio())) {
+            return movimientoRepository.contarCuentasConMovimientos(clienteId, rango.inicio(), rango.fin());
+        }
+        List<Long> cuentaIds = cuentaRepository.findByClienteClienteId(clienteId).stream().map(Cuenta::getCuentaId).toList();
+        Set<Long> conMovimientos = archivo.cuentasConMovimientos(cuentaIds, rango.inicio(), rango.fin());
+        conMovimientos.addAll(movimientoRepository.findCuentasConMovimientos(clienteId, archivo.inicioVivo(rango.inicio()), rango.fin()));
+        return conMovimientos.size();
+    }
+
+    @Override
+    public void escribirEstadoCuentaPDF(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, OutputStream out) {
+        Rango rango = Rango.de(fechaInicio, fechaFin);
+        EstadoCuentaCache.Clave clave = rango.clave(clienteId, EstadoCuentaCache.FORMATO_PDF);
         try {
-            Document document = new Document();
-            PdfWriter.getInstance(document, baos);
-            document.open();
-            Font tituloFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 16, BaseColor.BLACK);
-            Font seccionFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, BaseColor.DARK_GRAY);
-            Font labelFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 10, BaseColor.BLACK);
-            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 10, BaseColor.BLACK);
-            document.add(new Paragraph("Reporte Estado de Cuenta", tituloFont));
-            document.add(new Paragraph("Fecha de reporte: " + data.getFechaReporte(), labelFont));
-            document.add(new Paragraph("Cliente: " + data.getCliente(), labelFont));
-            for (var cuenta : data.getCuentas()) {
-                document.add(new Paragraph("\nCuenta: " + cuenta.getNumeroCuenta(), seccionFont));
-                document.add(new Paragraph("Tipo: " + cuenta.getTipo(), labelFont));
-                document.add(new Paragraph("Saldo Inicial: " + cuenta.getSaldoInicial(), labelFont));
-                document.add(new Paragraph("Estado: " + cuenta.getEstado(), labelFont));
-                document.add(new Paragraph("Total Créditos: " + cuenta.getTotalCreditos(), labelFont));
-                document.add(new Paragraph("Total Débitos: " + cuenta.getTotalDebitos(), labelFont));
-                document.add(new Paragraph("Saldo Final: " + cuenta.getSaldoFinal(), labelFont));
-                document.add(new Paragraph("Movimientos:", labelFont));
-                for (var mov : cuenta.getMovimientos()) {
-                    document.add(new Paragraph(
-                            "  - Fecha: " + mov.getFecha() +
-                                    ", Tipo: " + mov.getTipoMovimiento() +
-                                    ", Valor: " + mov.getValor() +
-                                    ", Saldo: " + mov.getSaldoDisponible(),
-                            normalFont));
+            byte[] pdf = estadoCuentaCache.obtener(clave, byte[].class);
+            if (pdf != null) {
+                out.write(pdf);
+                return;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long generacion = estadoCuentaCache.generacion(clienteId);
+        CopiaAcotada copia = new CopiaAcotada(out, estadoCuentaCache.getMaxEntradaBytes());
+        bulkhead.ejecutar(Compartimento.REPORTES,
+                () -> ruteoLecturas.leerReporte(clienteId, () -> lectura.executeWithoutResult(status -> escribirPDF(clienteId, rango, copia))));
+        bytesPorPdf.record(copia.escritos());
+        estadoCuentaCache.guardar(clave, copia.contenido(), generacion);
+    }
+
+    private void escribirPDF(Long clienteId, Rango rango, OutputStream out) {
+        Cliente cliente = clienteRepository.findById(clienteId).orElseThrow(() -> new ClienteNotFoundException(clienteId));
+        try (EstadoCuentaPdfRenderer pdf = new EstadoCuentaPdfRenderer(out, fechaReporte(), cliente.getNombre())) {
+            recorrerEstadoCuenta(clienteId, rango, false, new EstadoCuentaListener() {
+                @Override
+                public void inicioCuenta(Cuenta cuenta) throws DocumentException {
+                    pdf.inicioCuenta(cuenta.getNumeroCuenta(), cuenta.getTipoCuenta().name(), cuenta.getSaldoInicial(), cuenta.getEstado());
+                }
+
+                @Override
+                public void movimiento(MovimientoReporteDTO movimiento) throws DocumentException {
+                    pdf.movimiento(movimiento);
+                }
+
+                @Override
+                public void finCuenta(CuentaReporteDTO cuenta) throws DocumentException {
+                    pdf.finCuenta(cuenta);
                 }
+            });
+        } catch (DocumentException e) {
+            throw new RuntimeException("Error generando PDF", e);
+        }
+    }
+
+    @Override
+    public EstadoCuentaCacheMetricsDTO obtenerMetricasCache() {
+        return estadoCuentaCache.metricas();
+    }
+
+    /**
+     * Recorre en una sola pasada la consulta acotada por fechas y ordenada por cuenta, notificando cada
+     * cuenta y movimiento al listener. Con {@code conservarMovimientos=false} las cuentas se entregan sin
+     * la lista de movimientos, para que la memoria no dependa del historial; por lo mismo cada movimiento se saca del
+     * contexto de persistencia al procesarlo (el hint read-only no lo hace). Si el rango empieza antes del corte del
+     * archivo, los movimientos archivados se intercalan con la consulta, que entonces arranca en el corte.
+     */
+    private void recorrerEstadoCuenta(Long clienteId, Rango rango, boolean conservarMovimientos,
+                                      EstadoCuentaListener listener) {
+        ArchivoMovimientos.Vista archivo = archivoMovimientos.vista();
+        try (Stream<Movimiento> movimientos = movimientoRepository.streamEstadoCuenta(clienteId,
+                archivo.inicioVivo(rango.inicio()), rango.fin())) {
+            Iterator<Movimiento> it = archivo.cubre(rango.inicio())
+                    ? archivo.mezclar(cuentaRepository.findByClienteClienteId(clienteId), rango.inicio(), rango.fin(),
+                    movimientos.iterator())
+                    : movimientos.iterator();
+            AcumuladorCuenta actual = null;
+            long total = 0;
+            for (; it.hasNext(); total++) {
+                Movimiento mov = it.next();
+                if (actual == null || !actual.cuenta.getCuentaId().equals(mov.getCuenta().getCuentaId())) {
+                    if (actual != null) {
+                        listener.finCuenta(actual.construir());
+                    }
+                    actual = new AcumuladorCuenta(mov.getCuenta(), conservarMovimientos);
+                    listener.inicioCuenta(mov.getCuenta());
+                }
+                listener.movimiento(actual.agregar(mov));
+                entityManager.detach(mov);
+            }
+            if (actual != null) {
+                listener.finCuenta(actual.construir());
             }
-            document.close();
+            movimientosPorEstadoCuenta.record(total);
         } catch (DocumentException e) {
             throw new RuntimeException("Error generando PDF", e);
         }
-        String pdfBase64 = Base64.getEncoder().encodeToString(baos.toByteArray());
-        ReporteEstadoCuentaPDFResponseDTO response = ReporteEstadoCuentaPDFResponseDTO.builder()
-                .pdfBase64(pdfBase64)
-                .build();
-        return response;
+    }
+
+    private static String fechaReporte() {
+        return LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+    }
+
+    private interface EstadoCuentaListener {
+        default void inicioCuenta(Cuenta cuenta) throws DocumentException {
+        }
+
+        default void movimiento(MovimientoReporteDTO movimiento) throws DocumentException {
+        }
+
+        void finCuenta(CuentaReporteDTO cuenta) throws DocumentException;
+    }
+
+    private record Rango(LocalDate desde, LocalDate hasta) {
+        static Rango de(LocalDate fechaInicio, LocalDate fechaFin) {
+            LocalDate now = LocalDate.now();
+            if (fechaInicio == null) fechaInicio = now;
+            if (fechaFin == null) fechaFin = now;
+            return new Rango(fechaInicio, fechaFin);
+        }
+
+        LocalDateTime inicio() {
+            return desde.atStartOfDay();
+        }
+
+        LocalDateTime fin() {
+            return hasta.plusDays(1).atStartOfDay();
+        }
+
+        EstadoCuentaCache.Clave clave(Long clienteId, String formato) {
+            return EstadoCuentaCache.Clave.de(clienteId, desde, hasta, formato);
+        }
+    }
+
+    /**
+     * Pasa la salida al destino y conserva una copia mientras no supere el límite, para guardarla en cache.
+     */
+    private static final class CopiaAcotada extends FilterOutputStream {
+        private final int limite;
+        private ByteArrayOutputStream copia = new ByteArrayOutputStream();
+        private long escritos;
+
+        CopiaAcotada(OutputStream destino, int limite) {
+            super(destino);
+            this.limite = limite;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copiar(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copiar(b, off, len);
+        }
+
+        private void copiar(byte[] b, int off, int len) {
+            escritos += len;
+            if (copia == null) {
+                return;
+            }
+            if (copia.size() + len > limite) {
+                copia = null;
+            } else {
+                copia.write(b, off, len);
+            }
+        }
+
+        long escritos() {
+            return escritos;
+        }
+
+        byte[] contenido() {
+            return copia == null ? null : copia.toByteArray();
+        }
+    }
+
+    private static final class AcumuladorCuenta {
+        private final Cuenta cuenta;
+        private final List<MovimientoReporteDTO> movimientos;
+        // Totales en centavos: sumar no crea objetos por movimiento
+        private long totalCreditos;
+        private long totalDebitos;
+        private Money saldo;
+
+        AcumuladorCuenta(Cuenta cuenta, boolean conservarMovimientos) {
+            this.cuenta = cuenta;
+            this.movimientos = conservarMovimientos ? new ArrayList<>() : null;
+            this.saldo = cuenta.getSaldoInicial();
+        }
+
+        MovimientoReporteDTO agregar(Movimiento mov) {
+            Money valor = mov.getValor();
+            MovimientoReporteDTO movDTO = MovimientoReporteDTO.builder()
+                    .fecha(mov.getFecha().toLocalDate())
+                    .tipoMovimiento(mov.getTipoMovimiento())
+                    .valor(mov.getTipoMovimiento() == TipoMovimiento.DEBITO && !valor.esNegativo() ? valor.negar() : valor)
+                    .saldoDisponible(mov.getSaldo())
+                    .build();
+            if (movimientos != null) {
+                movimientos.add(movDTO);
+            }
+            if (mov.getTipoMovimiento() == TipoMovimiento.CREDITO) {
+                totalCreditos += valor.centavos();
+            } else if (mov.getTipoMovimiento() == TipoMovimiento.DEBITO) {
+                totalDebitos += valor.centavos();
+            }
+            saldo = mov.getSaldo();
+            return movDTO;
+        }
+
+        void agregar(MovimientoResumenDiario dia) {
+            totalCreditos += dia.getTotalCreditos().centavos();
+            totalDebitos += dia.getTotalDebitos().centavos();
+            saldo = dia.getSaldoCierre();
+        }
+
+        CuentaReporteDTO construir() {
+            return CuentaReporteDTO.builder()
+                    .numeroCuenta(cuenta.getNumeroCuenta())
+                    .tipo(cuenta.getTipoCuenta().name())
+                    .saldoInicial(cuenta.getSaldoInicial())
+                    .estado(cuenta.getEstado())
+                    .movimientos(movimientos != null ? movimientos : List.of())
+                    .totalCreditos(Money.deCentavos(totalCreditos))
+                    .totalDebitos(Money.deCentavos(totalDebitos))
+                    .saldoFinal(saldo)
+                    .build();
+        }
     }
 }
@@ -0,0 +1,154 @@
+package com.upgrade.senior.service.impl;
+
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.persistence.MovimientoResumenDiarioId;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.repository.MovimientoResumenDiarioRepository;
+import com.upgrade.senior.service.ResumenDiarioService;
+import com.upgrade.senior.service.archivo.ArchivoMovimientos;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Mantiene {@code movimiento_resumen_diario}: apertura, cierre, totales y cantidad de movimientos por cuenta y día.
+ * Se llama dentro de la transacción que registra o elimina los movimientos, así el resumen nunca queda desfasado.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResumenDiarioServiceImpl implements ResumenDiarioService {
+
+    private final MovimientoResumenDiarioRepository resumenRepository;
+    private final MovimientoRepository movimientoRepository;
+    private final ArchivoMovimientos archivoMovimientos;
+
+    /**
+     * Suma los movimientos nuevos al resumen de su día con un upsert por cuenta y día. Se esperan en el orden en que
+     * se aplicaron sobre cada cuenta; las cuentas pueden venir intercaladas.
+     */
+    @Override
+    public void acumular(Collection<Movimiento> movimientos) {
+        Map<MovimientoResumenDiarioId, AcumuladorDia> dias = new LinkedHashMap<>();
+        for (Movimiento mov : movimientos) {
+            Long cuentaId = mov.getCuenta().getCuentaId();
+            LocalDate fecha = mov.getFecha().toLocalDate();
+            dias.computeIfAbsent(new MovimientoResumenDiarioId(cuentaId, fecha), id -> new AcumuladorDia(cuentaId, fecha))
+                    .agregar(mov.getTipoMovimiento(), mov.getValor(), mov.getSaldo());
+        }
+        dias.values().forEach(this::guardar);
+    }
+
+    /**
+     * Recalcula el día desde los movimientos que quedan; si no queda ninguno, el día se elimina.
+     */
+    @Override
+    public void recalcularDia(Long cuentaId, LocalDate fecha) {
+        resumenRepository.eliminarDia(cuentaId, fecha);
+        acumular(movimientoRepository.findMovimientosPorCuentaYFechas(cuentaId, fecha.atStartOfDay(),
+                fecha.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Reconstruye la tabla completa en una pasada sobre los movimientos ordenados por cuenta y fecha. Los meses
+     * archivados van primero; el corte del archivo cae en un cambio de mes, así ningún día queda repartido.
+     */
+    @Override
+    @Transactional
+    public long reconstruir() {
+        resumenRepository.eliminarTodo();
+        Reconstruccion reconstruccion = new Reconstruccion();
+        ArchivoMovimientos.Vista archivo = archivoMovimientos.vista();
+        archivo.recorrerTodo(mov -> reconstruccion.agregar(mov.cuentaId(), mov.fecha(), mov.tipoMovimiento(),
+                Money.deCentavos(mov.valor()), Money.deCentavos(mov.saldo())));
+        LocalDateTime corte = archivo.corte();
+        try (Stream<Object[]> filas = movimientoRepository.streamResumenOrdenado()) {
+            for (Iterator<Object[]> it = filas.iterator(); it.hasNext(); ) {
+                Object[] fila = it.next();
+                LocalDateTime fecha = (LocalDateTime) fila[1];
+                // Archivado pero todavía no borrado de la tabla
+                if (corte == null || !fecha.isBefore(corte)) {
+                    reconstruccion.agregar((Long) fila[0], fecha, (TipoMovimiento) fila[2], (Money) fila[3], (Money) fila[4]);
+                }
+            }
+        }
+        return reconstruccion.terminar();
+    }
+
+    private final class Reconstruccion {
+        private AcumuladorDia actual;
+        private long dias;
+
+        void agregar(Long cuentaId, LocalDateTime fechaHora, TipoMovimiento tipo, Money valor, Money saldo) {
+            LocalDate fecha = fechaHora.toLocalDate();
+            if (actual == null || !actual.es(cuentaId, fecha)) {
+                dias += guardar(actual);
+                actual = new AcumuladorDia(cuentaId, fecha);
+            }
+            actual.agregar(tipo, valor, saldo);
+        }
+
+        long terminar() {
+            dias += guardar(actual);
+            actual = null;
+            return dias;
+        }
+    }
+
+    private int guardar(AcumuladorDia dia) {
+        if (dia == null) {
+            return 0;
+        }
+        resumenRepository.acumular(dia.cuentaId, dia.fecha, decimal(dia.saldoApertura), decimal(dia.saldoCierre),
+                decimal(dia.totalCreditos), decimal(dia.totalDebitos), dia.cantidad);
+        return 1;
+    }
+
+    private static BigDecimal decimal(long centavos) {
+        return BigDecimal.valueOf(centavos, Money.ESCALA);
+    }
+
+    private static final class AcumuladorDia {
+        private final Long cuentaId;
+        private final LocalDate fecha;
+        private long saldoApertura;
+        private long saldoCierre;
+        private long totalCreditos;
+        private long totalDebitos;
+        private int cantidad;
+
+        AcumuladorDia(Long cuentaId, LocalDate fecha) {
+            this.cuentaId = cuentaId;
+            this.fecha = fecha;
+        }
+
+        boolean es(Long cuentaId, LocalDate fecha) {
+            return this.cuentaId.equals(cuentaId) && this.fecha.equals(fecha);
+        }
+
+        void agregar(TipoMovimiento tipo, Money valor, Money saldo) {
+            long monto = Math.abs(valor.centavos());
+            long conSigno = tipo == TipoMovimiento.DEBITO ? -monto : monto;
+            if (cantidad == 0) {
+                saldoApertura = saldo.centavos() - conSigno;
+            }
+            if (tipo == TipoMovimiento.CREDITO) {
+                totalCreditos += monto;
+            } else if (tipo == TipoMovimiento.DEBITO) {
+                totalDebitos += monto;
+            }
+            saldoCierre = saldo.centavos();
+            cantidad++;
+        }
+    }
+}
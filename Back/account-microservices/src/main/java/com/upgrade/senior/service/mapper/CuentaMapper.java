@@ -9,8 +9,12 @@ import org.mapstruct.MappingConstants;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface CuentaMapper {
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "secuencia", ignore = true)
     Cuenta toEntity(CuentaCreateDTO dto);
 
+    @Mapping(target = "version", ignore = true) // La versión del bloqueo optimista solo la mueve Hibernate
+    @Mapping(target = "secuencia", ignore = true) // Solo la mueven los movimientos
     void updateEntityFromDto(CuentaCreateDTO dto, @org.mapstruct.MappingTarget Cuenta cuenta);
 
     @Mapping(target = "clienteId", source = "cliente.clienteId")
@@ -14,5 +14,6 @@ public interface MovimientoMapper {
     MovimientoResponseDTO toResponseDTO(Movimiento movimiento);
 
     @Mapping(target = "cuenta", ignore = true) // Se asigna en el servicio
+    @Mapping(target = "secuencia", ignore = true)
     Movimiento toEntity(MovimientoCreateDTO dto);
 }
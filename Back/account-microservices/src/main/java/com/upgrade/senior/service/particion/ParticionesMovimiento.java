@@ -0,0 +1,231 @@
+package com.upgrade.senior.service.particion;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Mantiene las particiones mensuales de {@code movimiento} en MySQL (ver {@code schema-mysql.sql}): parte
+ * {@code pmax} para que existan el mes actual y los {@code months-ahead} siguientes, y separa los meses completos
+ * anteriores a los últimos {@code retention-months}. Separar un mes es un {@code EXCHANGE PARTITION} contra una tabla
+ * vacía {@code movimiento_historico_AAAAMM} seguido de un {@code DROP PARTITION} de la partición ya vacía: ninguno de los
+ * dos recorre filas, y los movimientos quedan en esa tabla para archivarlos o eliminarlos.
+ * <p>
+ * Con {@code retention-months=0} no se separa nada. En H2, o si {@code movimiento} no está particionada, no hace nada.
+ */
+@Log4j2
+@Component
+public class ParticionesMovimiento implements MeterBinder {
+
+    static final String MAXIMA = "pmax";
+    private static final DateTimeFormatter NOMBRE = DateTimeFormatter.ofPattern("'p'yyyyMM");
+    private static final DateTimeFormatter SUFIJO = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String PARTICIONES = "SELECT partition_name FROM information_schema.partitions " +
+            "WHERE table_schema = DATABASE() AND table_name = ? AND partition_name IS NOT NULL " +
+            "ORDER BY partition_ordinal_position";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean habilitado;
+    private final int mesesAdelante;
+    private final int mesesRetencion;
+    private final long intervaloMs;
+    private final LongAdder creadas = new LongAdder();
+    private final LongAdder separadas = new LongAdder();
+    private volatile int mensuales;
+    private volatile boolean activa;
+    private ScheduledExecutorService mantenimiento;
+
+    public ParticionesMovimiento(JdbcTemplate jdbcTemplate,
+                                 @Value("${app.movimientos.particiones.enabled:true}") boolean habilitado,
+                                 @Value("${app.movimientos.particiones.months-ahead:3}") int mesesAdelante,
+                                 @Value("${app.movimientos.particiones.retention-months:0}") int mesesRetencion,
+                                 @Value("${app.movimientos.particiones.check-interval-ms:21600000}") long intervaloMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.habilitado = habilitado;
+        this.mesesAdelante = mesesAdelante;
+        this.mesesRetencion = mesesRetencion;
+        this.intervaloMs = intervaloMs;
+    }
+
+    /**
+     * Al quedar lista la aplicación, cuando el esquema y los datos iniciales ya se cargaron.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        String base = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equals(base)) {
+            log.info("Particiones de movimiento no disponibles en {}: se usa una tabla simple", base);
+            return;
+        }
+        if (particiones("movimiento").isEmpty()) {
+            log.warn("La tabla movimiento no está particionada; no se mantienen particiones");
+            return;
+        }
+        activa = true;
+        mantenimiento = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("particiones-movimiento").daemon().factory());
+        mantenimiento.scheduleWithFixedDelay(this::mantener, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (mantenimiento != null) {
+            mantenimiento.shutdownNow();
+        }
+    }
+
+    void mantener() {
+        try {
+            mantener(YearMonth.now());
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron mantener las particiones de movimiento: {}", e.getMessage());
+        }
+    }
+
+    void mantener(YearMonth actual) {
+        List<String> nombres = particiones("movimiento");
+        List<YearMonth> meses = nombres.stream().map(ParticionesMovimiento::mes).filter(Objects::nonNull).sorted().toList();
+        List<YearMonth> nuevos = crear(meses, nombres.contains(MAXIMA), actual);
+        List<YearMonth> vigentes = new ArrayList<>(meses);
+        vigentes.addAll(nuevos);
+        if (mesesRetencion > 0) {
+            YearMonth limite = actual.minusMonths(mesesRetencion);
+            for (YearMonth mes : meses) {
+                if (mes.isBefore(limite) && separar(mes)) {
+                    vigentes.remove(mes);
+                }
+            }
+        }
+        mensuales = vigentes.size();
+    }
+
+    private List<YearMonth> crear(List<YearMonth> meses, boolean conMaxima, YearMonth actual) {
+        YearMonth desde = meses.isEmpty() ? primerMes(actual) : meses.getLast().plusMonths(1);
+        YearMonth hasta = actual.plusMonths(mesesAdelante);
+        List<YearMonth> nuevos = new ArrayList<>();
+        for (YearMonth mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            nuevos.add(mes);
+        }
+        if (nuevos.isEmpty()) {
+            return nuevos;
+        }
+        String definiciones = nuevos.stream().map(ParticionesMovimiento::definicion).collect(Collectors.joining(", "));
+        // pmax queda vacía mientras haya meses creados por adelantado, así que partirla no mueve filas
+        jdbcTemplate.execute(conMaxima
+                ? "ALTER TABLE movimiento REORGANIZE PARTITION " + MAXIMA + " INTO (" + definiciones
+                + ", PARTITION " + MAXIMA + " VALUES LESS THAN MAXVALUE)"
+                : "ALTER TABLE movimiento ADD PARTITION (" + definiciones + ")");
+        creadas.add(nuevos.size());
+        log.info("Particiones de movimiento creadas de {} a {}", desde, hasta);
+        return nuevos;
+    }
+
+    /**
+     * Sin particiones mensuales todavía: desde el mes del movimiento más antiguo (datos iniciales) o el actual.
+     */
+    private YearMonth primerMes(YearMonth actual) {
+        LocalDateTime primera = jdbcTemplate.queryForObject("SELECT MIN(fecha) FROM movimiento", LocalDateTime.class);
+        return primera == null || YearMonth.from(primera).isAfter(actual) ? actual : YearMonth.from(primera);
+    }
+
+    /**
+     * Cada paso se puede repetir si una ejecución anterior se interrumpió a mitad.
+     */
+    private boolean separar(YearMonth mes) {
+        String particion = mes.format(NOMBRE);
+        String tabla = "movimiento_historico_" + mes.format(SUFIJO);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + tabla + " LIKE movimiento");
+        if (!particiones(tabla).isEmpty()) {
+            jdbcTemplate.execute("ALTER TABLE " + tabla + " REMOVE PARTITIONING");
+        }
+        if (vacia(tabla)) {
+            jdbcTemplate.execute("ALTER TABLE movimiento EXCHANGE PARTITION " + particion + " WITH TABLE " + tabla);
+        }
+        if (!vacia("movimiento PARTITION (" + particion + ")")) {
+            log.warn("No se separa {}: la partición y {} tienen movimientos", particion, tabla);
+            return false;
+        }
+        jdbcTemplate.execute("ALTER TABLE movimiento DROP PARTITION " + particion);
+        separadas.increment();
+        log.info("Partición {} separada en {}", particion, tabla);
+        return true;
+    }
+
+    /**
+     * Elimina las particiones de los meses anteriores a {@code limite}, ya archivados; sin particiones no hace nada.
+     */
+    public void eliminarMesesAnteriores(YearMonth limite) {
+        if (!activa) {
+            return;
+        }
+        for (String particion : particiones("movimiento")) {
+            YearMonth mes = mes(particion);
+            if (mes != null && mes.isBefore(limite)) {
+                jdbcTemplate.execute("ALTER TABLE movimiento DROP PARTITION " + particion);
+                log.info("Partición {} eliminada: el mes está archivado", particion);
+            }
+        }
+    }
+
+    private List<String> particiones(String tabla) {
+        return jdbcTemplate.queryForList(PARTICIONES, String.class, tabla);
+    }
+
+    private boolean vacia(String origen) {
+        return jdbcTemplate.queryForList("SELECT 1 FROM " + origen + " LIMIT 1", Integer.class).isEmpty();
+    }
+
+    static YearMonth mes(String particion) {
+        try {
+            return YearMonth.parse(particion, NOMBRE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    static String definicion(YearMonth mes) {
+        return "PARTITION " + mes.format(NOMBRE) + " VALUES LESS THAN (UNIX_TIMESTAMP('"
+                + mes.plusMonths(1).atDay(1) + " 00:00:00'))";
+    }
+
+    public int mensuales() {
+        return mensuales;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("movimientos.particiones", this, ParticionesMovimiento::mensuales)
+                .description("Particiones mensuales de movimiento")
+                .register(registry);
+        FunctionCounter.builder("movimientos.particiones.creadas", creadas, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder("movimientos.particiones.separadas", separadas, LongAdder::sum)
+                .description("Meses vencidos separados de movimiento")
+                .register(registry);
+    }
+}
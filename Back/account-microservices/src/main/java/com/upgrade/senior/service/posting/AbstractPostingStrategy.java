@@ -0,0 +1,29 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public abstract class AbstractPostingStrategy implements PostingStrategy {
+    public static final String CUENTA_NO_ENCONTRADA = "Cuenta no encontrada";
+    public static final String CONFLICTO_CONCURRENCIA = "No fue posible registrar el movimiento por concurrencia, intente nuevamente";
+
+    protected final CuentaRepository cuentaRepository;
+    protected final PostingMetrics postingMetrics;
+    protected final IndiceNumeroCuenta indiceNumeroCuenta;
+
+    protected Cuenta cargarCuenta(String numeroCuenta) {
+        return indiceNumeroCuenta.buscar(numeroCuenta)
+                .orElseThrow(() -> new GeneralException(CUENTA_NO_ENCONTRADA, 404));
+    }
+
+    protected GeneralException abortar(Throwable causa) {
+        postingMetrics.registrarAborto();
+        GeneralException ex = new GeneralException(CONFLICTO_CONCURRENCIA, 409);
+        ex.initCause(causa);
+        return ex;
+    }
+}
@@ -0,0 +1,223 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos.Compartimento;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Agrupa los movimientos concurrentes durante {@code window-ms} (o hasta {@code max-batch-size}) y los confirma en
+ * una sola transacción. Las cuentas del grupo se bloquean con {@code SELECT ... FOR UPDATE} ordenado por id, y cada
+ * solicitud recibe su propio resultado: un error de negocio solo afecta a su solicitud, porque el registro valida
+ * antes de escribir. Si el commit del grupo falla, cada solicitud se reintenta en su propia transacción.
+ * <p>
+ * El permiso {@code POSTING} del bulkhead lo toma el hilo confirmador, uno por grupo: si cada solicitud retuviera el
+ * suyo mientras espera, ningún grupo pasaría del número de permisos.
+ */
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "app.posting.strategy", havingValue = "group-commit")
+public class GroupCommitPostingStrategy extends AbstractPostingStrategy {
+
+    private final TransactionTemplate transactionTemplate;
+    private final BulkheadBaseDatos bulkhead;
+    private final long ventanaMs;
+    private final int tamanoMaximoLote;
+    private final long timeoutMs;
+    private final BlockingQueue<Solicitud<?>> cola;
+    private Thread confirmador;
+    private volatile boolean activo = true;
+
+    public GroupCommitPostingStrategy(CuentaRepository cuentaRepository, PostingMetrics postingMetrics,
+                                      IndiceNumeroCuenta indiceNumeroCuenta, TransactionTemplate transactionTemplate,
+                                      BulkheadBaseDatos bulkhead,
+                                      @Value("${app.posting.group-commit.window-ms:2}") long ventanaMs,
+                                      @Value("${app.posting.group-commit.max-batch-size:64}") int tamanoMaximoLote,
+                                      @Value("${app.posting.group-commit.queue-size:4096}") int capacidadCola,
+                                      @Value("${app.posting.group-commit.timeout-ms:5000}") long timeoutMs) {
+        super(cuentaRepository, postingMetrics, indiceNumeroCuenta);
+        this.transactionTemplate = transactionTemplate;
+        this.bulkhead = bulkhead;
+        this.ventanaMs = ventanaMs;
+        this.tamanoMaximoLote = tamanoMaximoLote;
+        this.timeoutMs = timeoutMs;
+        this.cola = new ArrayBlockingQueue<>(capacidadCola);
+    }
+
+    @PostConstruct
+    void iniciar() {
+        confirmador = Thread.ofPlatform().name("group-commit").daemon().start(this::confirmar);
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        confirmador.interrupt();
+        try {
+            confirmador.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String nombre() {
+        return "group-commit";
+    }
+
+    @Override
+    public Map<String, Object> configuracion() {
+        Map<String, Object> configuracion = new LinkedHashMap<>();
+        configuracion.put("windowMs", ventanaMs);
+        configuracion.put("maxBatchSize", tamanoMaximoLote);
+        configuracion.put("queueSize", cola.size() + cola.remainingCapacity());
+        return configuracion;
+    }
+
+    @Override
+    public boolean usaPermisoPropio() {
+        return true;
+    }
+
+    @Override
+    public <T> T post(String numeroCuenta, Function<Cuenta, T> posting) {
+        postingMetrics.registrarOperacion();
+        Solicitud<T> solicitud = new Solicitud<>(numeroCuenta, posting, new CompletableFuture<>(), System.nanoTime());
+        try {
+            if (!cola.offer(solicitud, timeoutMs, TimeUnit.MILLISECONDS)) {
+                postingMetrics.registrarAborto();
+                throw new GeneralException("La cola de movimientos está saturada, intente nuevamente", 503);
+            }
+            return solicitud.resultado().get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw abortar(e.getCause());
+        } catch (TimeoutException e) {
+            throw new GeneralException("No se confirmó el registro del movimiento a tiempo", 504);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw abortar(e);
+        }
+    }
+
+    private void confirmar() {
+        List<Solicitud<?>> grupo = new ArrayList<>(tamanoMaximoLote);
+        while (activo) {
+            try {
+                grupo.add(cola.take());
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ventanaMs);
+                while (grupo.size() < tamanoMaximoLote) {
+                    long restante = limite - System.nanoTime();
+                    Solicitud<?> siguiente = restante > 0 ? cola.poll(restante, TimeUnit.NANOSECONDS) : cola.poll();
+                    if (siguiente == null) {
+                        break;
+                    }
+                    grupo.add(siguiente);
+                }
+            } catch (InterruptedException e) {
+                cola.drainTo(grupo);
+                grupo.forEach(s -> s.resultado().completeExceptionally(new GeneralException("El registro de movimientos se está deteniendo", 503)));
+                return;
+            }
+            confirmarGrupo(grupo);
+            grupo.clear();
+        }
+    }
+
+    private void confirmarGrupo(List<Solicitud<?>> grupo) {
+        long ahora = System.nanoTime();
+        grupo.forEach(s -> postingMetrics.registrarEspera(ahora - s.encolado()));
+        postingMetrics.registrarLote(grupo.size());
+        try {
+            bulkhead.ejecutar(Compartimento.POSTING, () -> confirmarConPermiso(grupo));
+        } catch (GeneralException e) {
+            // Sin permiso a tiempo: el grupo completo recibe el 503
+            grupo.forEach(s -> {
+                postingMetrics.registrarAborto();
+                s.resultado().completeExceptionally(e);
+            });
+        }
+    }
+
+    private void confirmarConPermiso(List<Solicitud<?>> grupo) {
+        RuntimeException error = ejecutar(grupo);
+        if (error == null) {
+            return;
+        }
+        if (grupo.size() == 1) {
+            postingMetrics.registrarAborto();
+            grupo.get(0).resultado().completeExceptionally(error);
+            return;
+        }
+        log.warn("Falló el commit de un grupo de {} movimientos, se reintentan por separado: {}", grupo.size(), error.getMessage());
+        for (Solicitud<?> solicitud : grupo) {
+            postingMetrics.registrarReintento();
+            RuntimeException errorIndividual = ejecutar(List.of(solicitud));
+            if (errorIndividual != null) {
+                postingMetrics.registrarAborto();
+                solicitud.resultado().completeExceptionally(errorIndividual);
+            }
+        }
+    }
+
+    private RuntimeException ejecutar(List<Solicitud<?>> grupo) {
+        List<Runnable> notificaciones = new ArrayList<>(grupo.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<String> numerosCuenta = grupo.stream().map(Solicitud::numeroCuenta)
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+                Map<String, Cuenta> cuentas = cuentaRepository.findWithLockByNumeroCuentaIn(numerosCuenta).stream()
+                        .collect(Collectors.toMap(Cuenta::getNumeroCuenta, Function.identity()));
+                for (Solicitud<?> solicitud : grupo) {
+                    notificaciones.add(solicitud.ejecutar(cuentas.get(solicitud.numeroCuenta())));
+                }
+            });
+        } catch (RuntimeException e) {
+            return e;
+        }
+        notificaciones.forEach(Runnable::run);
+        return null;
+    }
+
+    private record Solicitud<T>(String numeroCuenta, Function<Cuenta, T> posting,
+                                CompletableFuture<T> resultado, long encolado) {
+
+        Runnable ejecutar(Cuenta cuenta) {
+            if (cuenta == null) {
+                return () -> resultado.completeExceptionally(new GeneralException(CUENTA_NO_ENCONTRADA, 404));
+            }
+            try {
+                T valor = posting.apply(cuenta);
+                return () -> resultado.complete(valor);
+            } catch (GeneralException e) {
+                return () -> resultado.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,532 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.service.ResumenDiarioService;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Motor de saldos en memoria con un único escritor por shard. Cada cuenta se asigna a un shard por el hash de
+ * {@code numeroCuenta}; el hilo escritor del shard consume su buffer circular acotado, mantiene el saldo autoritativo
+ * de sus cuentas sin locks y entrega cada movimiento al hilo persistidor del shard, que los escribe en orden y por
+ * lotes en {@code movimiento}/{@code cuenta}. El futuro del llamador se completa cuando su movimiento está en base.
+ * El escritor no lee la base: una cuenta que no está en memoria se carga en un hilo virtual aparte y vuelve por el
+ * buffer; sus movimientos esperan esa carga sin frenar al resto del shard.
+ * <p>
+ * Si un lote falla al persistir, las cuentas afectadas se invalidan y se recargan desde la base; los movimientos ya
+ * calculados sobre el saldo descartado se rechazan. El saldo se escribe contra la versión que el ledger espera en la
+ * fila: si otra transacción la movió (una edición manual de la cuenta), el lote falla con 409 y la cuenta se recarga
+ * en vez de pisar ese cambio. La escritura pasa por la entidad gestionada para que la caché de segundo nivel actualice
+ * solo esa cuenta; un {@code UPDATE} masivo vaciaría la región completa en cada lote. Lo que deba confirmarse junto con un movimiento (su Idempotency-Key) viaja con él y se
+ * escribe en la misma transacción del lote. Se activa con {@code app.posting.ledger.enabled}.
+ */
+@Log4j2
+@Component
+public class LedgerEngine {
+
+    private final EntityManager entityManager;
+    private final MovimientoRepository movimientoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ResumenDiarioService resumenDiarioService;
+    private final IndiceNumeroCuenta indiceNumeroCuenta;
+    private final boolean habilitado;
+    private final int numeroShards;
+    private final int capacidadRing;
+    private final int tamanoLote;
+    private final long timeoutMs;
+    private final AtomicLong epocas = new AtomicLong();
+    private Shard[] shards;
+    private ExecutorService cargas;
+
+    public LedgerEngine(EntityManager entityManager, MovimientoRepository movimientoRepository,
+                        TransactionTemplate transactionTemplate, ResumenDiarioService resumenDiarioService,
+                        IndiceNumeroCuenta indiceNumeroCuenta,
+                        @Value("${app.posting.ledger.enabled:false}") boolean habilitado,
+                        @Value("${app.posting.ledger.shards:0}") int numeroShards,
+                        @Value("${app.posting.ledger.ring-size:1024}") int capacidadRing,
+                        @Value("${app.posting.ledger.persist-batch-size:200}") int tamanoLote,
+                        @Value("${app.posting.ledger.timeout-ms:5000}") long timeoutMs) {
+        this.entityManager = entityManager;
+        this.movimientoRepository = movimientoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.resumenDiarioService = resumenDiarioService;
+        this.indiceNumeroCuenta = indiceNumeroCuenta;
+        this.habilitado = habilitado;
+        this.numeroShards = numeroShards > 0 ? numeroShards : Runtime.getRuntime().availableProcessors();
+        this.capacidadRing = capacidadRing;
+        this.tamanoLote = tamanoLote;
+        this.timeoutMs = timeoutMs;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        cargas = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ledger-carga-", 0).factory());
+        shards = new Shard[numeroShards];
+        for (int i = 0; i < numeroShards; i++) {
+            shards[i] = new Shard(i);
+        }
+        log.info("Ledger en memoria iniciado con {} shards", numeroShards);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (shards == null) {
+            return;
+        }
+        for (Shard shard : shards) {
+            shard.detener();
+        }
+        cargas.shutdownNow();
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public CompletableFuture<Movimiento> post(String numeroCuenta, Function<Cuenta, Movimiento> aplicar) {
+        return post(numeroCuenta, aplicar, null);
+    }
+
+    /**
+     * {@code alPersistir} corre en la transacción del lote, con el movimiento ya insertado; si falla, ese movimiento
+     * (y los posteriores de su cuenta) se revierte y el futuro recibe su error, mientras el resto del lote se confirma.
+     */
+    public CompletableFuture<Movimiento> post(String numeroCuenta, Function<Cuenta, Movimiento> aplicar,
+                                              Consumer<Movimiento> alPersistir) {
+        CompletableFuture<Movimiento> resultado = new CompletableFuture<>();
+        Posting posting = new Posting(numeroCuenta, aplicar, alPersistir, resultado);
+        try {
+            if (!shardPara(numeroCuenta).ring.offer(posting, timeoutMs, TimeUnit.MILLISECONDS)) {
+                resultado.completeExceptionally(new GeneralException("El motor de movimientos está saturado, intente nuevamente", 503));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultado.completeExceptionally(e);
+        }
+        return resultado;
+    }
+
+    public void invalidar(String numeroCuenta) {
+        if (habilitado) {
+            despuesDelCommit(() -> encolar(shardPara(numeroCuenta), new Invalidacion(numeroCuenta, null)));
+        }
+    }
+
+    public void invalidarPorId(Long cuentaId) {
+        if (habilitado) {
+            despuesDelCommit(() -> {
+                for (Shard shard : shards) {
+                    encolar(shard, new Invalidacion(null, cuentaId));
+                }
+            });
+        }
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    private void encolar(Shard shard, Comando comando) {
+        try {
+            shard.ring.put(comando);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Shard shardPara(String numeroCuenta) {
+        return shards[Math.floorMod(numeroCuenta.hashCode(), shards.length)];
+    }
+
+    private sealed interface Comando permits Posting, Invalidacion, Carga {
+    }
+
+    private record Posting(String numeroCuenta, Function<Cuenta, Movimiento> aplicar, Consumer<Movimiento> alPersistir,
+                           CompletableFuture<Movimiento> resultado) implements Comando {
+    }
+
+    private record Invalidacion(String numeroCuenta, Long cuentaId) implements Comando {
+    }
+
+    /**
+     * Resultado de leer la cuenta fuera del escritor; {@code error} si la lectura falló.
+     */
+    private record Carga(String numeroCuenta, Optional<Cuenta> cuenta, RuntimeException error) implements Comando {
+    }
+
+    /**
+     * Postings de una cuenta que se está cargando. {@code invalidada} si llegó una invalidación durante la carga: lo
+     * leído puede ser anterior a ese cambio y se vuelve a cargar.
+     */
+    private static final class Espera {
+        private final List<Posting> postings = new ArrayList<>();
+        private boolean invalidada;
+    }
+
+    private record EstadoCuenta(Cuenta cuenta, long epoca, long version) {
+    }
+
+    /**
+     * {@code version} es la de la fila al cargar la cuenta en esta época.
+     */
+    private record Pendiente(String numeroCuenta, long epoca, long version, Movimiento movimiento,
+                             Consumer<Movimiento> alPersistir, CompletableFuture<Movimiento> resultado) {
+    }
+
+    private static final class FalloRegistro extends RuntimeException {
+        private final transient Pendiente pendiente;
+
+        FalloRegistro(Pendiente pendiente, RuntimeException causa) {
+            super(causa);
+            this.pendiente = pendiente;
+        }
+
+        @Override
+        public synchronized RuntimeException getCause() {
+            return (RuntimeException) super.getCause();
+        }
+    }
+
+    private record VersionCuenta(long epoca, long version) {
+    }
+
+    private record SaldoFinal(Long cuentaId, long epoca, long version, Money saldo, long secuencia) {
+    }
+
+    private final class Shard {
+        private final BlockingQueue<Comando> ring = new ArrayBlockingQueue<>(capacidadRing);
+        private final BlockingQueue<Pendiente> porPersistir = new LinkedBlockingQueue<>();
+        // Solo accedido por el hilo escritor
+        private final Map<String, EstadoCuenta> cuentas = new HashMap<>();
+        // Solo accedido por el hilo escritor: cuentas con una carga en curso
+        private final Map<String, Espera> esperas = new HashMap<>();
+        // Solo accedido por el hilo persistidor
+        private final Map<String, Long> epocaMinima = new HashMap<>();
+        // Solo accedido por el hilo persistidor: versión de la fila tras el último lote confirmado de cada cuenta
+        private final Map<String, VersionCuenta> versiones = new HashMap<>();
+        private final Thread escritor;
+        private final Thread persistidor;
+        private volatile boolean activo = true;
+
+        Shard(int indice) {
+            escritor = Thread.ofPlatform().name("ledger-escritor-" + indice).daemon().start(this::escribir);
+            persistidor = Thread.ofPlatform().name("ledger-persistidor-" + indice).daemon().start(this::persistir);
+        }
+
+        private void escribir() {
+            while (activo) {
+                Comando comando;
+                try {
+                    comando = ring.take();
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (comando instanceof Posting posting) {
+                    aplicar(posting);
+                } else if (comando instanceof Carga carga) {
+                    instalar(carga);
+                } else if (comando instanceof Invalidacion invalidacion) {
+                    if (invalidacion.numeroCuenta() != null) {
+                        cuentas.remove(invalidacion.numeroCuenta());
+                        Espera espera = esperas.get(invalidacion.numeroCuenta());
+                        if (espera != null) {
+                            espera.invalidada = true;
+                        }
+                    } else {
+                        cuentas.values().removeIf(e -> invalidacion.cuentaId().equals(e.cuenta().getCuentaId()));
+                        // El id de una cuenta en carga aún no se conoce
+                        esperas.values().forEach(espera -> espera.invalidada = true);
+                    }
+                }
+            }
+            ring.forEach(this::rechazar);
+            esperas.values().forEach(espera -> espera.postings.forEach(this::rechazar));
+        }
+
+        private void aplicar(Posting posting) {
+            EstadoCuenta estado = cuentas.get(posting.numeroCuenta());
+            if (estado != null) {
+                aplicar(estado, posting);
+                return;
+            }
+            Espera espera = esperas.get(posting.numeroCuenta());
+            if (espera == null) {
+                espera = new Espera();
+                esperas.put(posting.numeroCuenta(), espera);
+                cargar(posting.numeroCuenta());
+            }
+            espera.postings.add(posting);
+        }
+
+        private void cargar(String numeroCuenta) {
+            try {
+                cargas.execute(() -> {
+                    Carga carga;
+                    try {
+                        carga = new Carga(numeroCuenta, indiceNumeroCuenta.buscar(numeroCuenta), null);
+                    } catch (RuntimeException e) {
+                        carga = new Carga(numeroCuenta, Optional.empty(), e);
+                    }
+                    encolar(this, carga);
+                });
+            } catch (RejectedExecutionException e) {
+                // El motor se está deteniendo: la espera se rechaza al salir del escritor
+                log.debug("Carga de la cuenta {} rechazada durante el apagado", numeroCuenta);
+            }
+        }
+
+        private void instalar(Carga carga) {
+            Espera espera = esperas.remove(carga.numeroCuenta());
+            if (espera == null) {
+                return;
+            }
+            if (espera.invalidada) {
+                espera.invalidada = false;
+                esperas.put(carga.numeroCuenta(), espera);
+                cargar(carga.numeroCuenta());
+                return;
+            }
+            if (carga.error() != null || carga.cuenta().isEmpty()) {
+                RuntimeException error = carga.error() != null ? carga.error()
+                        : new GeneralException(AbstractPostingStrategy.CUENTA_NO_ENCONTRADA, 404);
+                espera.postings.forEach(posting -> posting.resultado().completeExceptionally(error));
+                return;
+            }
+            Cuenta cuenta = carga.cuenta().get();
+            EstadoCuenta estado = new EstadoCuenta(cuenta, epocas.incrementAndGet(), cuenta.getVersion());
+            cuentas.put(carga.numeroCuenta(), estado);
+            espera.postings.forEach(posting -> aplicar(estado, posting));
+        }
+
+        private void aplicar(EstadoCuenta estado, Posting posting) {
+            try {
+                Movimiento movimiento = posting.aplicar().apply(estado.cuenta());
+                porPersistir.add(new Pendiente(posting.numeroCuenta(), estado.epoca(), estado.version(), movimiento,
+                        posting.alPersistir(), posting.resultado()));
+            } catch (RuntimeException e) {
+                posting.resultado().completeExceptionally(e);
+            }
+        }
+
+        private void persistir() {
+            List<Pendiente> lote = new ArrayList<>(tamanoLote);
+            while (activo || !porPersistir.isEmpty()) {
+                try {
+                    Pendiente primero = porPersistir.poll(100, TimeUnit.MILLISECONDS);
+                    if (primero == null) {
+                        continue;
+                    }
+                    lote.add(primero);
+                } catch (InterruptedException e) {
+                    if (porPersistir.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                porPersistir.drainTo(lote, tamanoLote - 1);
+                persistirLote(lote);
+                lote.clear();
+            }
+        }
+
+        private void persistirLote(List<Pendiente> lote) {
+            List<Pendiente> validos = new ArrayList<>(lote.size());
+            for (Pendiente pendiente : lote) {
+                if (pendiente.epoca() < epocaMinima.getOrDefault(pendiente.numeroCuenta(), 0L)) {
+                    pendiente.resultado().completeExceptionally(new GeneralException(AbstractPostingStrategy.CONFLICTO_CONCURRENCIA, 409));
+                } else {
+                    validos.add(pendiente);
+                }
+            }
+            if (validos.isEmpty()) {
+                return;
+            }
+            // Movimientos que salen del lote con el error que recibirá su llamador
+            Map<Pendiente, RuntimeException> descartados = new LinkedHashMap<>();
+            while (!validos.isEmpty()) {
+                Map<String, SaldoFinal> saldos = saldosFinales(validos);
+                Map<String, Cuenta> filas;
+                try {
+                    filas = confirmar(validos, saldos);
+                } catch (FalloRegistro fallo) {
+                    validos = descartar(validos, fallo, descartados);
+                    // El intento revertido ya asignó ids: el siguiente los vuelve a generar
+                    validos.forEach(pendiente -> pendiente.movimiento().setMovimientoId(null));
+                    continue;
+                } catch (RuntimeException e) {
+                    if (e instanceof GeneralException) {
+                        log.warn("Lote del ledger rechazado ({} movimientos): una cuenta cambió fuera del ledger", validos.size());
+                    } else {
+                        log.error("Error persistiendo lote del ledger ({} movimientos): {}", validos.size(), e.getMessage(), e);
+                    }
+                    for (Pendiente pendiente : validos) {
+                        epocaMinima.merge(pendiente.numeroCuenta(), pendiente.epoca() + 1, Math::max);
+                        versiones.remove(pendiente.numeroCuenta());
+                        descartados.put(pendiente, e);
+                    }
+                    break;
+                }
+                // Hibernate deja en la entidad la versión con la que se escribió la fila
+                filas.forEach((numeroCuenta, fila) -> versiones.put(numeroCuenta,
+                        new VersionCuenta(saldos.get(numeroCuenta).epoca(), fila.getVersion())));
+                validos.forEach(pendiente -> pendiente.resultado().complete(pendiente.movimiento()));
+                break;
+            }
+            if (!descartados.isEmpty()) {
+                // La invalidación se encola antes de notificar el error para que un reintento inmediato vea la cuenta recargada
+                descartados.keySet().stream().map(Pendiente::numeroCuenta).distinct()
+                        .forEach(numeroCuenta -> encolar(this, new Invalidacion(numeroCuenta, null)));
+                descartados.forEach((pendiente, error) -> pendiente.resultado().completeExceptionally(error));
+            }
+        }
+
+        private Map<String, SaldoFinal> saldosFinales(List<Pendiente> validos) {
+            Map<String, SaldoFinal> saldos = new LinkedHashMap<>();
+            for (Pendiente pendiente : validos) {
+                // La versión esperada es la del primer movimiento de la cuenta en el lote; saldo y secuencia, los del último
+                Movimiento movimiento = pendiente.movimiento();
+                saldos.merge(pendiente.numeroCuenta(),
+                        new SaldoFinal(movimiento.getCuenta().getCuentaId(), pendiente.epoca(), versionEsperada(pendiente),
+                                movimiento.getSaldo(), movimiento.getSecuencia()),
+                        (primero, ultimo) -> new SaldoFinal(primero.cuentaId(), primero.epoca(), primero.version(),
+                                ultimo.saldo(), ultimo.secuencia()));
+            }
+            return saldos;
+        }
+
+        private Map<String, Cuenta> confirmar(List<Pendiente> validos, Map<String, SaldoFinal> saldos) {
+            Map<String, Cuenta> filas = new HashMap<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> confirmarEnTransaccion(validos, saldos, filas));
+            } catch (OptimisticLockingFailureException e) {
+                // Otra transacción movió la fila entre la lectura y el commit
+                GeneralException conflicto = new GeneralException(AbstractPostingStrategy.CONFLICTO_CONCURRENCIA, 409);
+                conflicto.initCause(e);
+                throw conflicto;
+            }
+            return filas;
+        }
+
+        private void confirmarEnTransaccion(List<Pendiente> validos, Map<String, SaldoFinal> saldos,
+                                            Map<String, Cuenta> filas) {
+            saldos.forEach((numeroCuenta, saldo) -> {
+                // Suele salir de la caché de segundo nivel; el UPDATE del flush vuelve a comprobar la versión
+                Cuenta fila = entityManager.find(Cuenta.class, saldo.cuentaId());
+                if (fila == null || fila.getVersion() != saldo.version()) {
+                    throw new GeneralException(AbstractPostingStrategy.CONFLICTO_CONCURRENCIA, 409);
+                }
+                fila.setSaldoInicial(saldo.saldo());
+                fila.setSecuencia(saldo.secuencia());
+                filas.put(numeroCuenta, fila);
+            });
+            List<Movimiento> movimientos = validos.stream().map(Pendiente::movimiento).toList();
+            movimientoRepository.saveAll(movimientos);
+            resumenDiarioService.acumular(movimientos);
+            for (Pendiente pendiente : validos) {
+                if (pendiente.alPersistir() != null) {
+                    try {
+                        pendiente.alPersistir().accept(pendiente.movimiento());
+                    } catch (RuntimeException e) {
+                        throw new FalloRegistro(pendiente, e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Saca del lote el movimiento cuyo registro falló y los posteriores de su cuenta, que se calcularon sobre él.
+         * Los anteriores y los de otras cuentas siguen siendo válidos y se reintentan.
+         */
+        private List<Pendiente> descartar(List<Pendiente> validos, FalloRegistro fallo,
+                                          Map<Pendiente, RuntimeException> descartados) {
+            Pendiente fallido = fallo.pendiente;
+            epocaMinima.merge(fallido.numeroCuenta(), fallido.epoca() + 1, Math::max);
+            List<Pendiente> restantes = new ArrayList<>(validos.size());
+            boolean posterior = false;
+            for (Pendiente pendiente : validos) {
+                if (pendiente == fallido) {
+                    posterior = true;
+                    descartados.put(pendiente, fallo.getCause());
+                } else if (posterior && pendiente.numeroCuenta().equals(fallido.numeroCuenta())) {
+                    descartados.put(pendiente, new GeneralException(AbstractPostingStrategy.CONFLICTO_CONCURRENCIA, 409));
+                } else {
+                    restantes.add(pendiente);
+                }
+            }
+            return restantes;
+        }
+
+        /**
+         * La versión que dejó el último lote confirmado de la cuenta, o la de la carga si es el primero de su época.
+         */
+        private long versionEsperada(Pendiente pendiente) {
+            VersionCuenta confirmada = versiones.get(pendiente.numeroCuenta());
+            return confirmada != null && confirmada.epoca() == pendiente.epoca() ? confirmada.version() : pendiente.version();
+        }
+
+        private void rechazar(Comando comando) {
+            if (comando instanceof Posting posting) {
+                posting.resultado().completeExceptionally(new GeneralException("El motor de movimientos se está deteniendo", 503));
+            }
+        }
+
+        void detener() {
+            activo = false;
+            escritor.interrupt();
+            persistidor.interrupt();
+            try {
+                escritor.join(timeoutMs);
+                persistidor.join(timeoutMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
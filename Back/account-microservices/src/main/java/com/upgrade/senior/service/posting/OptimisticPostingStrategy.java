@@ -0,0 +1,81 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Confía en la columna {@code version} de {@link Cuenta}: si otra transacción modificó la cuenta
+ * entre la lectura y el commit, se reintenta con backoff exponencial hasta {@code max-attempts}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.posting.strategy", havingValue = "optimistic")
+public class OptimisticPostingStrategy extends AbstractPostingStrategy {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxIntentos;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+
+    public OptimisticPostingStrategy(CuentaRepository cuentaRepository, PostingMetrics postingMetrics,
+                                     IndiceNumeroCuenta indiceNumeroCuenta, TransactionTemplate transactionTemplate,
+                                     @Value("${app.posting.optimistic.max-attempts:5}") int maxIntentos,
+                                     @Value("${app.posting.optimistic.backoff-base-ms:5}") long backoffBaseMs,
+                                     @Value("${app.posting.optimistic.backoff-max-ms:200}") long backoffMaxMs) {
+        super(cuentaRepository, postingMetrics, indiceNumeroCuenta);
+        this.transactionTemplate = transactionTemplate;
+        this.maxIntentos = maxIntentos;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+    }
+
+    @Override
+    public String nombre() {
+        return "optimistic";
+    }
+
+    @Override
+    public Map<String, Object> configuracion() {
+        return Map.of("maxAttempts", maxIntentos, "backoffBaseMs", backoffBaseMs, "backoffMaxMs", backoffMaxMs);
+    }
+
+    @Override
+    public <T> T post(String numeroCuenta, Function<Cuenta, T> posting) {
+        postingMetrics.registrarOperacion();
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(status -> posting.apply(cargarCuenta(numeroCuenta)));
+            } catch (OptimisticLockingFailureException e) {
+                if (intento >= maxIntentos) {
+                    throw abortar(e);
+                }
+                postingMetrics.registrarReintento();
+                esperar(intento, e);
+            }
+        }
+    }
+
+    private void esperar(int intento, OptimisticLockingFailureException causa) {
+        long tope = Math.min(backoffMaxMs, backoffBaseMs << Math.min(intento - 1, 20));
+        long pausa = ThreadLocalRandom.current().nextLong(tope + 1);
+        long inicio = System.nanoTime();
+        try {
+            TimeUnit.MILLISECONDS.sleep(pausa);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw abortar(causa);
+        } finally {
+            postingMetrics.registrarEspera(System.nanoTime() - inicio);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Function;
+
+/**
+ * Bloquea la fila de la cuenta con {@code SELECT ... FOR UPDATE} durante la transacción.
+ * Es correcta aunque existan varias instancias del servicio.
+ */
+@Component
+@ConditionalOnProperty(name = "app.posting.strategy", havingValue = "pessimistic", matchIfMissing = true)
+public class PessimisticPostingStrategy extends AbstractPostingStrategy {
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PessimisticPostingStrategy(CuentaRepository cuentaRepository, PostingMetrics postingMetrics,
+                                      IndiceNumeroCuenta indiceNumeroCuenta, TransactionTemplate transactionTemplate) {
+        super(cuentaRepository, postingMetrics, indiceNumeroCuenta);
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public String nombre() {
+        return "pessimistic";
+    }
+
+    @Override
+    public <T> T post(String numeroCuenta, Function<Cuenta, T> posting) {
+        postingMetrics.registrarOperacion();
+        try {
+            return transactionTemplate.execute(status -> posting.apply(cargarCuenta(numeroCuenta)));
+        } catch (PessimisticLockingFailureException e) {
+            throw abortar(e);
+        }
+    }
+
+    @Override
+    protected Cuenta cargarCuenta(String numeroCuenta) {
+        long inicio = System.nanoTime();
+        Cuenta cuenta = indiceNumeroCuenta.buscarConLock(numeroCuenta)
+                .orElseThrow(() -> new GeneralException(CUENTA_NO_ENCONTRADA, 404));
+        postingMetrics.registrarEspera(System.nanoTime() - inicio);
+        return cuenta;
+    }
+}
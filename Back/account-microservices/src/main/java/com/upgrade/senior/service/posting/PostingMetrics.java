@@ -0,0 +1,115 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.service.dto.movimiento.PostingMetricsDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class PostingMetrics implements MeterBinder {
+    private final LongAdder operaciones = new LongAdder();
+    private final LongAdder reintentos = new LongAdder();
+    private final LongAdder abortos = new LongAdder();
+    private final LongAdder esperas = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final LongAccumulator esperaMaxNanos = new LongAccumulator(Long::max, 0);
+    private final LongAdder debitosRechazados = new LongAdder();
+    private final LongAdder lotes = new LongAdder();
+    private final LongAdder solicitudesEnLotes = new LongAdder();
+    // Cubetas de potencias de dos: <=1, <=2, <=4, ... <=1024 y >1024
+    private final LongAdder[] histogramaLotes = new LongAdder[12];
+
+    public PostingMetrics() {
+        for (int i = 0; i < histogramaLotes.length; i++) {
+            histogramaLotes[i] = new LongAdder();
+        }
+    }
+
+    public void registrarOperacion() {
+        operaciones.increment();
+    }
+
+    public void registrarReintento() {
+        reintentos.increment();
+    }
+
+    public void registrarAborto() {
+        abortos.increment();
+    }
+
+    public void registrarDebitoRechazado() {
+        debitosRechazados.increment();
+    }
+
+    public void registrarEspera(long nanos) {
+        esperas.increment();
+        esperaTotalNanos.add(nanos);
+        esperaMaxNanos.accumulate(nanos);
+    }
+
+    public void registrarLote(int tamano) {
+        lotes.increment();
+        solicitudesEnLotes.add(tamano);
+        int cubeta = 32 - Integer.numberOfLeadingZeros(Math.max(tamano, 1) - 1);
+        histogramaLotes[Math.min(cubeta, histogramaLotes.length - 1)].increment();
+    }
+
+    /**
+     * Publica los mismos contadores en Micrometer, leyéndolos al momento de cada scrape.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("posting.operaciones", operaciones, LongAdder::sum).register(registry);
+        FunctionCounter.builder("posting.reintentos", reintentos, LongAdder::sum).register(registry);
+        FunctionCounter.builder("posting.abortos", abortos, LongAdder::sum).register(registry);
+        FunctionCounter.builder("movimientos.debitos.rechazados", debitosRechazados, LongAdder::sum)
+                .description("Débitos rechazados por saldo insuficiente")
+                .register(registry);
+        FunctionTimer.builder("posting.espera.lock", this, m -> m.esperas.sum(), m -> m.esperaTotalNanos.sum(),
+                TimeUnit.NANOSECONDS).register(registry);
+        Gauge.builder("posting.espera.lock.max", esperaMaxNanos, max -> max.get() / 1e9)
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("posting.lotes", lotes, LongAdder::sum).register(registry);
+        FunctionCounter.builder("posting.lotes.solicitudes", solicitudesEnLotes, LongAdder::sum).register(registry);
+    }
+
+    public PostingMetricsDTO snapshot(String estrategia) {
+        return snapshot(estrategia, Map.of());
+    }
+
+    public PostingMetricsDTO snapshot(String estrategia, Map<String, Object> configuracion) {
+        long totalOperaciones = operaciones.sum();
+        long totalAbortos = abortos.sum();
+        long totalEsperas = esperas.sum();
+        long esperaTotal = esperaTotalNanos.sum();
+        long totalLotes = lotes.sum();
+        Map<String, Long> histograma = new LinkedHashMap<>();
+        for (int i = 0; i < histogramaLotes.length; i++) {
+            histograma.put(i == histogramaLotes.length - 1 ? ">" + (1 << (i - 1)) : "<=" + (1 << i), histogramaLotes[i].sum());
+        }
+        return PostingMetricsDTO.builder()
+                .estrategia(estrategia)
+                .configuracion(configuracion)
+                .operaciones(totalOperaciones)
+                .reintentos(reintentos.sum())
+                .abortos(totalAbortos)
+                .tasaAbortos(totalOperaciones == 0 ? 0.0 : (double) totalAbortos / totalOperaciones)
+                .esperaPromedioMs(totalEsperas == 0 ? 0.0 : (double) esperaTotal / totalEsperas / TimeUnit.MILLISECONDS.toNanos(1))
+                .esperaMaximaMs((double) esperaMaxNanos.get() / TimeUnit.MILLISECONDS.toNanos(1))
+                .esperaTotalMs(esperaTotal / TimeUnit.MILLISECONDS.toNanos(1))
+                .lotes(totalLotes)
+                .tamanoPromedioLote(totalLotes == 0 ? 0.0 : (double) solicitudesEnLotes.sum() / totalLotes)
+                .histogramaLotes(histograma)
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.persistence.Cuenta;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Controla cómo se serializan las actualizaciones de saldo de una misma cuenta.
+ * La implementación activa se elige con {@code app.posting.strategy}.
+ */
+public interface PostingStrategy {
+
+    String nombre();
+
+    default Map<String, Object> configuracion() {
+        return Map.of();
+    }
+
+    /**
+     * {@code true} si la estrategia toma el permiso {@code POSTING} del bulkhead por su cuenta, donde abre la
+     * transacción. Quien llama no debe retener otro mientras espera su resultado.
+     */
+    default boolean usaPermisoPropio() {
+        return false;
+    }
+
+    <T> T post(String numeroCuenta, Function<Cuenta, T> posting);
+}
@@ -0,0 +1,88 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Serializa los movimientos de una cuenta con un arreglo fijo de locks indexado por el hash de
+ * {@code numeroCuenta}. El lock se toma antes de abrir la transacción y se libera después del commit.
+ * Solo serializa dentro de una instancia; si otro escritor (p. ej. el endpoint batch) modifica la cuenta
+ * en paralelo, la columna {@code version} detecta el conflicto y el movimiento se aborta.
+ */
+@Component
+@ConditionalOnProperty(name = "app.posting.strategy", havingValue = "striped")
+public class StripedLockPostingStrategy extends AbstractPostingStrategy {
+
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] locks;
+    private final long lockTimeoutMs;
+
+    public StripedLockPostingStrategy(CuentaRepository cuentaRepository, PostingMetrics postingMetrics,
+                                      IndiceNumeroCuenta indiceNumeroCuenta, TransactionTemplate transactionTemplate,
+                                      @Value("${app.posting.striped.stripes:64}") int stripes,
+                                      @Value("${app.posting.striped.lock-timeout-ms:2000}") long lockTimeoutMs) {
+        super(cuentaRepository, postingMetrics, indiceNumeroCuenta);
+        this.transactionTemplate = transactionTemplate;
+        this.locks = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.lockTimeoutMs = lockTimeoutMs;
+    }
+
+    @Override
+    public String nombre() {
+        return "striped";
+    }
+
+    @Override
+    public Map<String, Object> configuracion() {
+        return Map.of("stripes", locks.length, "lockTimeoutMs", lockTimeoutMs);
+    }
+
+    @Override
+    public <T> T post(String numeroCuenta, Function<Cuenta, T> posting) {
+        postingMetrics.registrarOperacion();
+        ReentrantLock lock = lockPara(numeroCuenta);
+        adquirir(lock);
+        try {
+            return transactionTemplate.execute(status -> posting.apply(cargarCuenta(numeroCuenta)));
+        } catch (OptimisticLockingFailureException e) {
+            throw abortar(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    ReentrantLock lockPara(String numeroCuenta) {
+        int h = numeroCuenta.hashCode();
+        return locks[(h ^ (h >>> 16)) & (locks.length - 1)];
+    }
+
+    private void adquirir(ReentrantLock lock) {
+        long inicio = System.nanoTime();
+        boolean adquirido;
+        try {
+            adquirido = lock.tryLock(lockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw abortar(e);
+        } finally {
+            postingMetrics.registrarEspera(System.nanoTime() - inicio);
+        }
+        if (!adquirido) {
+            throw abortar(null);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.upgrade.senior.service.reporte;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.upgrade.senior.service.dto.reporte.CuentaReporteDTO;
+import com.upgrade.senior.service.dto.reporte.EstadoCuentaCacheMetricsDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache acotado por peso (W-TinyLFU) de estados de cuenta ya generados: el DTO JSON y los bytes del PDF, por cliente,
+ * rango y formato. Cualquier cambio sobre las cuentas o movimientos de un cliente invalida solo sus entradas, al
+ * confirmar la transacción.
+ * <p>
+ * Cada cliente tiene una generación que avanza con cada invalidación; un reporte calculado mientras su cliente se
+ * invalidaba no se guarda, para no dejar en cache datos leídos antes del commit.
+ */
+@Component
+public class EstadoCuentaCache {
+
+    public static final String FORMATO_JSON = "json";
+    public static final String FORMATO_PDF = "pdf";
+    public static final String FORMATO_RESUMEN = "resumen";
+    private static final int PESO_BASE = 256;
+    private static final int PESO_MOVIMIENTO = 128;
+
+    private final boolean habilitado;
+    private final long maxPesoBytes;
+    private final int maxEntradaBytes;
+    private final Cache<Clave, Object> cache;
+    private final Map<Long, Long> generaciones = new ConcurrentHashMap<>();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    public EstadoCuentaCache(@Value("${app.reportes.cache.enabled:true}") boolean habilitado,
+                             @Value("${app.reportes.cache.max-weight-bytes:67108864}") long maxPesoBytes,
+                             @Value("${app.reportes.cache.max-entry-bytes:4194304}") int maxEntradaBytes,
+                             @Value("${app.reportes.cache.ttl-minutes:30}") long ttlMinutos) {
+        this.habilitado = habilitado;
+        this.maxPesoBytes = maxPesoBytes;
+        this.maxEntradaBytes = maxEntradaBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxPesoBytes)
+                .weigher((Clave clave, Object valor) -> peso(valor))
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .recordStats()
+                .build();
+    }
+
+    public record Clave(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, String formato, LocalDate fechaReporte) {
+        public static Clave de(Long clienteId, LocalDate fechaInicio, LocalDate fechaFin, String formato) {
+            return new Clave(clienteId, fechaInicio, fechaFin, formato, LocalDate.now());
+        }
+    }
+
+    public <T> T obtener(Clave clave, Class<T> tipo) {
+        if (!habilitado) {
+            return null;
+        }
+        Object valor = cache.getIfPresent(clave);
+        return tipo.isInstance(valor) ? tipo.cast(valor) : null;
+    }
+
+    public boolean contiene(Clave clave) {
+        return habilitado && cache.asMap().containsKey(clave);
+    }
+
+    /**
+     * Generación actual del cliente; se lee antes de consultar la base y se pasa a {@link #guardar}.
+     */
+    public long generacion(Long clienteId) {
+        return generaciones.getOrDefault(clienteId, 0L);
+    }
+
+    public void guardar(Clave clave, Object valor, long generacion) {
+        if (!habilitado || valor == null || peso(valor) > maxEntradaBytes || generacion(clave.clienteId()) != generacion) {
+            return;
+        }
+        cache.put(clave, valor);
+        if (generacion(clave.clienteId()) != generacion) {
+            cache.invalidate(clave);
+        }
+    }
+
+    public int getMaxEntradaBytes() {
+        return maxEntradaBytes;
+    }
+
+    /**
+     * Invalida los estados de cuenta del cliente. Dentro de una transacción se aplica después del commit.
+     */
+    public void invalidarCliente(Long clienteId) {
+        if (!habilitado || clienteId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidarAhora(clienteId);
+                }
+            });
+        } else {
+            invalidarAhora(clienteId);
+        }
+    }
+
+    private void invalidarAhora(Long clienteId) {
+        generaciones.merge(clienteId, 1L, Long::sum);
+        cache.asMap().keySet().removeIf(clave -> clave.clienteId().equals(clienteId));
+        invalidaciones.increment();
+    }
+
+    public EstadoCuentaCacheMetricsDTO metricas() {
+        CacheStats stats = cache.stats();
+        long peso = cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+        return EstadoCuentaCacheMetricsDTO.builder()
+                .habilitado(habilitado)
+                .entradas(cache.estimatedSize())
+                .pesoBytes(peso)
+                .maxPesoBytes(maxPesoBytes)
+                .aciertos(stats.hitCount())
+                .fallos(stats.missCount())
+                .tasaAciertos(stats.hitRate())
+                .desalojos(stats.evictionCount())
+                .invalidaciones(invalidaciones.sum())
+                .build();
+    }
+
+    private static int peso(Object valor) {
+        if (valor instanceof byte[] bytes) {
+            return PESO_BASE + bytes.length;
+        }
+        if (valor instanceof ReporteEstadoCuentaResponseDTO reporte && reporte.getCuentas() != null) {
+            long movimientos = 0;
+            for (CuentaReporteDTO cuenta : reporte.getCuentas()) {
+                movimientos += cuenta.getMovimientos() == null ? 0 : cuenta.getMovimientos().size();
+            }
+            return (int) Math.min(Integer.MAX_VALUE, PESO_BASE * (1L + reporte.getCuentas().size()) + PESO_MOVIMIENTO * movimientos);
+        }
+        return PESO_BASE;
+    }
+}
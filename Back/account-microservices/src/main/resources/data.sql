@@ -20,6 +20,21 @@ INSERT IGNORE INTO movimiento (movimiento_id, cuenta_id, fecha, tipo_movimiento,
                                                                                             (3, 3, '2022-02-08 11:00:00', 'CREDITO', 600, 600),
                                                                                             (4, 4, '2022-02-08 12:00:00', 'CREDITO', 150, 690);
 
+-- Resumen diario de los movimientos de ejemplo (uno por cuenta y día)
+INSERT IGNORE INTO movimiento_resumen_diario (cuenta_id, fecha, saldo_apertura, saldo_cierre, total_creditos, total_debitos, cantidad)
+SELECT cuenta_id, CAST(fecha AS DATE),
+       saldo - CASE WHEN tipo_movimiento = 'CREDITO' THEN valor ELSE -valor END, saldo,
+       CASE WHEN tipo_movimiento = 'CREDITO' THEN valor ELSE 0 END,
+       CASE WHEN tipo_movimiento = 'DEBITO' THEN valor ELSE 0 END, 1
+FROM movimiento WHERE movimiento_id <= 4;
+
+-- Inicialización del generador de IDs de movimiento (bloques pooled-lo de 50) por encima del máximo existente
+INSERT IGNORE INTO generador_id (nombre_secuencia, siguiente_valor)
+SELECT 'movimiento', COALESCE(MAX(movimiento_id), 0) + 1 FROM movimiento;
+
+-- Latido para medir el retraso de la réplica de lectura
+INSERT IGNORE INTO replica_latido (id, instante) VALUES (1, 0);
+
 -- Ajuste de la secuencia para cliente_id, cuenta_id y movimiento_id
 -- H2 (comentado)
 -- ALTER TABLE cliente ALTER COLUMN cliente_id RESTART WITH (SELECT MAX(cliente_id) + 1 FROM cliente);
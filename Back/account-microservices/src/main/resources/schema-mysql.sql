@@ -0,0 +1,20 @@
+-- Solo MySQL (spring.sql.init.platform=mysql): se ejecuta antes que schema.sql, que deja movimiento como tabla simple
+-- en H2. Particiones mensuales por RANGE sobre UNIX_TIMESTAMP(fecha); las consultas con rango sobre m.fecha solo leen
+-- los meses que tocan. ParticionesMovimiento parte pmax en los meses siguientes y separa los vencidos.
+-- MySQL no admite claves foráneas en tablas particionadas y exige la columna de partición en cada clave única: la PK
+-- incluye fecha y la relación con cuenta la mantiene JPA (cascada desde Cuenta).
+-- Una base existente con movimiento sin particionar no se convierte aquí (ALTER TABLE ... PARTITION BY copia la tabla).
+CREATE TABLE IF NOT EXISTS movimiento (
+                            movimiento_id BIGINT AUTO_INCREMENT,
+                            cuenta_id BIGINT NOT NULL,
+                            fecha TIMESTAMP NOT NULL,
+                            tipo_movimiento VARCHAR(20) NOT NULL,
+                            valor DECIMAL(15,2) NOT NULL,
+                            saldo DECIMAL(15,2) NOT NULL,
+                            PRIMARY KEY (movimiento_id, fecha),
+                            INDEX idx_movimiento_cuenta_fecha (cuenta_id, fecha, movimiento_id),
+                            INDEX idx_movimiento_fecha (fecha, movimiento_id)
+)
+PARTITION BY RANGE (UNIX_TIMESTAMP(fecha)) (
+                            PARTITION pmax VALUES LESS THAN MAXVALUE
+);
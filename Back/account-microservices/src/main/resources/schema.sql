@@ -17,10 +17,13 @@ CREATE TABLE IF NOT EXISTS cuenta (
                         tipo_cuenta VARCHAR(20) NOT NULL,
                         saldo_inicial DECIMAL(15,2) NOT NULL,
                         estado BOOLEAN NOT NULL,
+                        secuencia BIGINT NOT NULL DEFAULT 0,
+                        version BIGINT NOT NULL DEFAULT 0,
                         cliente_id BIGINT NOT NULL,
                         CONSTRAINT fk_cuenta_cliente FOREIGN KEY (cliente_id) REFERENCES cliente(cliente_id)
 );
 
+-- En MySQL movimiento ya existe particionada (schema-mysql.sql); esta definicion aplica a H2
 CREATE TABLE IF NOT EXISTS movimiento (
                             movimiento_id BIGINT AUTO_INCREMENT PRIMARY KEY,
                             cuenta_id BIGINT NOT NULL,
@@ -28,7 +31,39 @@ CREATE TABLE IF NOT EXISTS movimiento (
                             tipo_movimiento VARCHAR(20) NOT NULL,
                             valor DECIMAL(15,2) NOT NULL,
                             saldo DECIMAL(15,2) NOT NULL,
+                            INDEX idx_movimiento_cuenta_fecha (cuenta_id, fecha, movimiento_id),
+                            INDEX idx_movimiento_fecha (fecha, movimiento_id),
                             CONSTRAINT fk_movimiento_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id)
 );
 
+CREATE TABLE IF NOT EXISTS movimiento_resumen_diario (
+                            cuenta_id BIGINT NOT NULL,
+                            fecha DATE NOT NULL,
+                            saldo_apertura DECIMAL(15,2) NOT NULL,
+                            saldo_cierre DECIMAL(15,2) NOT NULL,
+                            total_creditos DECIMAL(15,2) NOT NULL,
+                            total_debitos DECIMAL(15,2) NOT NULL,
+                            cantidad INT NOT NULL,
+                            PRIMARY KEY (cuenta_id, fecha),
+                            CONSTRAINT fk_resumen_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS generador_id (
+                            nombre_secuencia VARCHAR(50) PRIMARY KEY,
+                            siguiente_valor BIGINT NOT NULL
+);
 
+
+CREATE TABLE IF NOT EXISTS movimiento_idempotencia (
+                            clave VARCHAR(100) PRIMARY KEY,
+                            huella VARCHAR(80) NOT NULL,
+                            respuesta TEXT NOT NULL,
+                            creado TIMESTAMP NOT NULL,
+                            expira TIMESTAMP NOT NULL,
+                            INDEX idx_movimiento_idempotencia_expira (expira)
+);
+
+CREATE TABLE IF NOT EXISTS replica_latido (
+                            id INT PRIMARY KEY,
+                            instante BIGINT NOT NULL
+);
@@ -0,0 +1,42 @@
+package com.upgrade.senior.benchmark;
+
+import com.upgrade.senior.AccountMicroservicesApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Levanta la aplicación completa en un puerto libre sobre una base H2 en memoria (modo MySQL), con el mismo
+ * {@code schema.sql} y {@code data.sql} que producción. Cada nombre es una base distinta.
+ */
+final class AplicacionH2 {
+
+    private AplicacionH2() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String nombre, List<String> propiedades) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + nombre + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.sql.init.platform=h2",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN"));
+        // Las propiedades del llamador van al final y tienen prioridad
+        args.addAll(propiedades);
+        return new SpringApplicationBuilder(AccountMicroservicesApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+
+    static String url(ConfigurableApplicationContext ctx) {
+        return "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port");
+    }
+}
@@ -0,0 +1,175 @@
+package com.upgrade.senior.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compara el modo de hilos de plataforma con el modo de hilos virtuales + bulkhead bajo una mezcla de reportes lentos,
+ * lecturas rápidas y registro de movimientos. Cada modo levanta la aplicación sobre su propia base H2 en memoria,
+ * carga {@code bench.movimientos} movimientos para que el estado de cuenta del cliente 2 sea costoso y mide durante
+ * {@code bench.segundos}.
+ * <p>
+ * Se ejecuta con {@code gradle benchmarkHilos}; los parámetros se pasan como {@code -Dbench.xxx=valor}. No es una
+ * prueba: no corre con {@code gradle test}.
+ */
+public final class ModoHilosBenchmark {
+
+    private static final String REPORTE = "/api/reportes/estado-cuenta?clienteId=2&fechaInicio=2023-01-01&fechaFin=2023-12-31";
+    private static final String LECTURA = "/api/movimientos/cuenta/478758?limite=20";
+    private static final String POSTING = "/api/movimientos";
+    private static final String POSTING_BODY = "{\"numeroCuenta\":\"495878\",\"tipoMovimiento\":\"CREDITO\",\"valor\":1}";
+
+    private ModoHilosBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> modos = Arrays.asList(System.getProperty("bench.modos", "plataforma,virtual,virtual-bulkhead").split(","));
+        int segundos = Integer.getInteger("bench.segundos", 20);
+        int calentamiento = Integer.getInteger("bench.calentamiento", 5);
+        int movimientos = Integer.getInteger("bench.movimientos", 20000);
+        int usuariosReporte = Integer.getInteger("bench.reportes", 64);
+        int usuariosLectura = Integer.getInteger("bench.lecturas", 16);
+        int usuariosPosting = Integer.getInteger("bench.postings", 8);
+
+        System.out.printf("Reportes=%d lecturas=%d postings=%d usuarios, %d movimientos, %d s por modo%n",
+                usuariosReporte, usuariosLectura, usuariosPosting, movimientos, segundos);
+        List<String> resultados = new ArrayList<>();
+        for (String modo : modos) {
+            boolean virtual = modo.startsWith("virtual");
+            boolean bulkhead = modo.endsWith("bulkhead");
+            try (ConfigurableApplicationContext ctx = AplicacionH2.iniciar("bench-" + modo, List.of(
+                    "--app.reportes.cache.enabled=false",
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    "--app.bulkhead.enabled=" + bulkhead))) {
+                cargarMovimientos(ctx.getBean(JdbcTemplate.class), movimientos);
+                Carga carga = new Carga(AplicacionH2.url(ctx));
+                carga.ejecutar(usuariosReporte, usuariosLectura, usuariosPosting, Duration.ofSeconds(calentamiento));
+                carga.reiniciar();
+                carga.ejecutar(usuariosReporte, usuariosLectura, usuariosPosting, Duration.ofSeconds(segundos));
+                resultados.add(carga.resumen(modo, segundos));
+            }
+        }
+        System.out.println();
+        System.out.printf("%-18s %-9s %9s %8s %8s %8s %8s %7s %7s%n",
+                "modo", "tipo", "ok", "req/s", "p50 ms", "p99 ms", "max ms", "503", "error");
+        resultados.forEach(System.out::print);
+    }
+
+    private static void cargarMovimientos(JdbcTemplate jdbc, int cantidad) {
+        List<Object[]> filas = new ArrayList<>(cantidad);
+        LocalDateTime inicio = LocalDateTime.of(2023, 1, 1, 0, 0);
+        for (int i = 0; i < cantidad; i++) {
+            long cuentaId = i % 2 == 0 ? 2L : 4L;
+            filas.add(new Object[]{1_000_000L + i, cuentaId, Timestamp.valueOf(inicio.plusMinutes(i * 20L)), "CREDITO", 1.0, 1000.0 + i});
+        }
+        jdbc.batchUpdate("INSERT INTO movimiento (movimiento_id, cuenta_id, fecha, tipo_movimiento, valor, saldo) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", filas);
+    }
+
+    private static final class Carga {
+        private final String base;
+        private final HttpClient http = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        private Medicion reportes = new Medicion();
+        private Medicion lecturas = new Medicion();
+        private Medicion postings = new Medicion();
+
+        Carga(String base) {
+            this.base = base;
+        }
+
+        void reiniciar() {
+            reportes = new Medicion();
+            lecturas = new Medicion();
+            postings = new Medicion();
+        }
+
+        void ejecutar(int usuariosReporte, int usuariosLectura, int usuariosPosting, Duration duracion) throws InterruptedException {
+            long fin = System.nanoTime() + duracion.toNanos();
+            HttpRequest reporte = HttpRequest.newBuilder(URI.create(base + REPORTE)).timeout(Duration.ofSeconds(60)).build();
+            HttpRequest lectura = HttpRequest.newBuilder(URI.create(base + LECTURA)).timeout(Duration.ofSeconds(60)).build();
+            HttpRequest posting = HttpRequest.newBuilder(URI.create(base + POSTING)).timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(POSTING_BODY)).build();
+            try (ExecutorService usuarios = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < usuariosReporte; i++) {
+                    usuarios.execute(() -> bucle(reporte, reportes, fin));
+                }
+                for (int i = 0; i < usuariosLectura; i++) {
+                    usuarios.execute(() -> bucle(lectura, lecturas, fin));
+                }
+                for (int i = 0; i < usuariosPosting; i++) {
+                    usuarios.execute(() -> bucle(posting, postings, fin));
+                }
+            }
+        }
+
+        private void bucle(HttpRequest request, Medicion medicion, long fin) {
+            List<Long> latencias = new ArrayList<>();
+            while (System.nanoTime() < fin) {
+                long inicio = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() < 300) {
+                        latencias.add(System.nanoTime() - inicio);
+                    } else if (response.statusCode() == 503) {
+                        medicion.rechazos.incrementAndGet();
+                    } else {
+                        medicion.errores.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    medicion.errores.incrementAndGet();
+                }
+            }
+            medicion.agregar(latencias);
+        }
+
+        String resumen(String modo, int segundos) {
+            return reportes.linea(modo, "reporte", segundos)
+                    + lecturas.linea(modo, "lectura", segundos)
+                    + postings.linea(modo, "posting", segundos);
+        }
+    }
+
+    private static final class Medicion {
+        private final List<Long> latencias = new ArrayList<>();
+        private final AtomicLong rechazos = new AtomicLong();
+        private final AtomicLong errores = new AtomicLong();
+
+        synchronized void agregar(List<Long> nuevas) {
+            latencias.addAll(nuevas);
+        }
+
+        synchronized String linea(String modo, String tipo, int segundos) {
+            long[] ordenadas = latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+            return String.format(Locale.ROOT, "%-18s %-9s %9d %8.1f %8.1f %8.1f %8.1f %7d %7d%n", modo, tipo,
+                    ordenadas.length, ordenadas.length / (double) segundos, percentil(ordenadas, 0.50),
+                    percentil(ordenadas, 0.99), ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1] / 1e6,
+                    rechazos.get(), errores.get());
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            return ordenadas[Math.min(ordenadas.length - 1, (int) Math.ceil(p * ordenadas.length) - 1)] / 1e6;
+        }
+    }
+}
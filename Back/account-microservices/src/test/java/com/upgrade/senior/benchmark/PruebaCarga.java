@@ -0,0 +1,288 @@
+package com.upgrade.senior.benchmark;
+
+import com.upgrade.senior.service.ResumenDiarioService;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Prueba de carga de punta a punta sobre H2: levanta la aplicación, siembra {@code carga.clientes} clientes con
+ * {@code carga.cuentas-por-cliente} cuentas y {@code carga.movimientos-por-cuenta} movimientos cada una, y lanza los
+ * escenarios a tasa de llegada constante (modelo abierto).
+ * <p>
+ * Cada llegada sale a su hora programada aunque las anteriores no hayan terminado, y la latencia se mide desde esa
+ * hora: si el servidor se atrasa, la espera queda en el histograma en vez de frenar la carga. Se ejecuta con
+ * {@code gradle pruebaCarga}; los parámetros se pasan como {@code -Dcarga.xxx=valor}, la tasa de cada escenario con
+ * {@code -Dcarga.tasa.<escenario>=req/s} (0 lo desactiva) y propiedades extra de la aplicación con
+ * {@code -Dcarga.args="--app.bulkhead.enabled=false ..."}. Los histogramas HDR completos quedan en
+ * {@code carga.salida}.
+ */
+public final class PruebaCarga {
+
+    private static final String DESDE = "2024-01-01";
+    private static final String HASTA = "2024-12-31";
+    private static final long PRIMER_ID = 100_000L;
+
+    private PruebaCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clientes = Integer.getInteger("carga.clientes", 200);
+        int cuentasPorCliente = Integer.getInteger("carga.cuentas-por-cliente", 2);
+        int movimientosPorCuenta = Integer.getInteger("carga.movimientos-por-cuenta", 100);
+        int cuentasCalientes = Integer.getInteger("carga.cuentas-calientes", 5);
+        int segundos = Integer.getInteger("carga.segundos", 30);
+        int calentamiento = Integer.getInteger("carga.calentamiento", 5);
+        int maxEnVuelo = Integer.getInteger("carga.max-en-vuelo", 5000);
+        Path salida = Path.of(System.getProperty("carga.salida", "build/carga"));
+        List<String> propiedades = Arrays.stream(System.getProperty("carga.args", "").split("\\s+"))
+                .filter(arg -> !arg.isBlank())
+                .toList();
+
+        try (ConfigurableApplicationContext ctx = AplicacionH2.iniciar("carga", propiedades)) {
+            long inicioSiembra = System.nanoTime();
+            Dataset datos = sembrar(ctx.getBean(JdbcTemplate.class), clientes, cuentasPorCliente, movimientosPorCuenta);
+            ctx.getBean(ResumenDiarioService.class).reconstruir();
+            System.out.printf("Sembrados %d clientes, %d cuentas, %d movimientos en %d ms%n", clientes,
+                    datos.cuentas().length, (long) datos.cuentas().length * movimientosPorCuenta,
+                    (System.nanoTime() - inicioSiembra) / 1_000_000);
+
+            String base = AplicacionH2.url(ctx);
+            int calientes = Math.min(cuentasCalientes, datos.cuentas().length);
+            List<Escenario> escenarios = new ArrayList<>();
+            agregar(escenarios, "posting-caliente", 50, () -> posting(base, datos.cuentas()[aleatorio(calientes)]));
+            agregar(escenarios, "posting-frio", 50, () -> posting(base, datos.cuentas()[aleatorio(datos.cuentas().length)]));
+            agregar(escenarios, "listado", 100, () -> HttpRequest.newBuilder(URI.create(base + "/api/movimientos/cuenta/"
+                    + datos.cuentas()[aleatorio(datos.cuentas().length)] + "?limite=50")).build());
+            agregar(escenarios, "estado-json", 10, () -> HttpRequest.newBuilder(URI.create(base
+                    + "/api/reportes/estado-cuenta?clienteId=" + datos.cliente(aleatorio(clientes))
+                    + "&fechaInicio=" + DESDE + "&fechaFin=" + HASTA)).build());
+            agregar(escenarios, "estado-pdf", 2, () -> HttpRequest.newBuilder(URI.create(base
+                    + "/api/reportes/estado-cuenta?formato=pdf&clienteId=" + datos.cliente(aleatorio(clientes))
+                    + "&fechaInicio=" + DESDE + "&fechaFin=" + HASTA)).header("Accept", "application/pdf").build());
+
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            ejecutar(http, escenarios, Duration.ofSeconds(calentamiento), maxEnVuelo);
+            escenarios.forEach(Escenario::reiniciar);
+            ejecutar(http, escenarios, Duration.ofSeconds(segundos), maxEnVuelo);
+
+            System.out.println();
+            System.out.printf("%-17s %8s %8s %9s %9s %9s %9s %7s %7s %9s%n", "escenario", "tasa", "ok/s",
+                    "p50 ms", "p99 ms", "p999 ms", "max ms", "error%", "503", "omitidas");
+            Files.createDirectories(salida);
+            for (Escenario escenario : escenarios) {
+                System.out.print(escenario.resumen(segundos));
+                escenario.escribirHistograma(salida.resolve(escenario.nombre + ".hgrm"));
+            }
+            System.out.println("Histogramas en " + salida.toAbsolutePath());
+        }
+    }
+
+    private static void agregar(List<Escenario> escenarios, String nombre, int tasaPorDefecto, Supplier<HttpRequest> request) {
+        int tasa = Integer.getInteger("carga.tasa." + nombre, tasaPorDefecto);
+        if (tasa > 0) {
+            escenarios.add(new Escenario(nombre, tasa, request));
+        }
+    }
+
+    private static int aleatorio(int limite) {
+        return ThreadLocalRandom.current().nextInt(limite);
+    }
+
+    private static HttpRequest posting(String base, String numeroCuenta) {
+        // Créditos y débitos por igual y de montos chicos: el saldo sembrado alcanza para toda la prueba
+        String tipo = ThreadLocalRandom.current().nextBoolean() ? "CREDITO" : "DEBITO";
+        String body = "{\"numeroCuenta\":\"" + numeroCuenta + "\",\"tipoMovimiento\":\"" + tipo + "\",\"valor\":"
+                + (1 + aleatorio(20)) + "}";
+        return HttpRequest.newBuilder(URI.create(base + "/api/movimientos"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Un hilo de plataforma por escenario marca las llegadas; cada petición corre en su propio hilo virtual.
+     */
+    private static void ejecutar(HttpClient http, List<Escenario> escenarios, Duration duracion, int maxEnVuelo)
+            throws InterruptedException {
+        AtomicInteger enVuelo = new AtomicInteger();
+        long inicio = System.nanoTime();
+        long fin = inicio + duracion.toNanos();
+        try (ExecutorService peticiones = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> generadores = new ArrayList<>();
+            for (Escenario escenario : escenarios) {
+                generadores.add(Thread.ofPlatform().name("carga-" + escenario.nombre).start(() -> {
+                    long intervalo = 1_000_000_000L / escenario.tasa;
+                    for (long programada = inicio; programada < fin; programada += intervalo) {
+                        long espera = programada - System.nanoTime();
+                        if (espera > 0) {
+                            LockSupport.parkNanos(espera);
+                        }
+                        if (enVuelo.incrementAndGet() > maxEnVuelo) {
+                            enVuelo.decrementAndGet();
+                            escenario.omitidas.increment();
+                            continue;
+                        }
+                        long hora = programada;
+                        peticiones.execute(() -> {
+                            try {
+                                escenario.enviar(http, hora);
+                            } finally {
+                                enVuelo.decrementAndGet();
+                            }
+                        });
+                    }
+                }));
+            }
+            for (Thread generador : generadores) {
+                generador.join();
+            }
+        }
+    }
+
+    /**
+     * Siembra con ids propios desde {@link #PRIMER_ID} y adelanta el generador de ids de movimientos para que los
+     * registros de la prueba no choquen con los sembrados.
+     */
+    private static Dataset sembrar(JdbcTemplate jdbc, int clientes, int cuentasPorCliente, int movimientosPorCuenta) {
+        List<Object[]> filasClientes = new ArrayList<>(clientes);
+        List<Object[]> filasCuentas = new ArrayList<>(clientes * cuentasPorCliente);
+        String[] cuentas = new String[clientes * cuentasPorCliente];
+        for (int c = 0; c < clientes; c++) {
+            long clienteId = PRIMER_ID + c;
+            filasClientes.add(new Object[]{clienteId, "Cliente " + c, c % 2 == 0 ? "FEMENINO" : "MASCULINO", 30,
+                    "CARGA" + clienteId, "Direccion " + c, "0990000000", "1234", true});
+            for (int k = 0; k < cuentasPorCliente; k++) {
+                int indice = c * cuentasPorCliente + k;
+                cuentas[indice] = String.format("9%07d", indice);
+                filasCuentas.add(new Object[]{PRIMER_ID + indice, cuentas[indice], k % 2 == 0 ? "AHORRO" : "CORRIENTE",
+                        1_000_000 + 10.0 * movimientosPorCuenta, true, clienteId});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO cliente (cliente_id, nombre, genero, edad, identificacion, direccion, telefono, " +
+                "contrasena, estado) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", filasClientes);
+        jdbc.batchUpdate("INSERT INTO cuenta (cuenta_id, numero_cuenta, tipo_cuenta, saldo_inicial, estado, cliente_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", filasCuentas);
+
+        long movimientoId = PRIMER_ID;
+        LocalDateTime desde = LocalDateTime.of(2024, 1, 1, 0, 0);
+        // Repartidos a lo largo de 2024, que es el rango que piden los estados de cuenta
+        long pasoMinutos = Math.max(1, 525_600L / movimientosPorCuenta);
+        List<Object[]> lote = new ArrayList<>(10_000);
+        for (int indice = 0; indice < cuentas.length; indice++) {
+            for (int m = 0; m < movimientosPorCuenta; m++) {
+                lote.add(new Object[]{movimientoId++, PRIMER_ID + indice, Timestamp.valueOf(desde.plusMinutes(m * pasoMinutos)),
+                        "CREDITO", 10.0, 1_000_000 + 10.0 * (m + 1)});
+                if (lote.size() == 10_000) {
+                    insertarMovimientos(jdbc, lote);
+                }
+            }
+        }
+        insertarMovimientos(jdbc, lote);
+        jdbc.update("UPDATE generador_id SET siguiente_valor = ? WHERE nombre_secuencia = 'movimiento'", movimientoId + 100);
+        return new Dataset(cuentas);
+    }
+
+    private static void insertarMovimientos(JdbcTemplate jdbc, List<Object[]> lote) {
+        jdbc.batchUpdate("INSERT INTO movimiento (movimiento_id, cuenta_id, fecha, tipo_movimiento, valor, saldo) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", lote);
+        lote.clear();
+    }
+
+    private record Dataset(String[] cuentas) {
+        long cliente(int indice) {
+            return PRIMER_ID + indice;
+        }
+    }
+
+    private static final class Escenario {
+        private final String nombre;
+        private final int tasa;
+        private final Supplier<HttpRequest> request;
+        // Microsegundos, con 3 dígitos significativos
+        private volatile Histogram latencias = new ConcurrentHistogram(3);
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder rechazos = new LongAdder();
+        private final LongAdder omitidas = new LongAdder();
+
+        Escenario(String nombre, int tasa, Supplier<HttpRequest> request) {
+            this.nombre = nombre;
+            this.tasa = tasa;
+            this.request = request;
+        }
+
+        void enviar(HttpClient http, long programada) {
+            try {
+                HttpResponse<Void> response = http.send(request.get(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() < 300) {
+                    latencias.recordValue((System.nanoTime() - programada) / 1000);
+                } else if (response.statusCode() == 503) {
+                    rechazos.increment();
+                } else {
+                    errores.increment();
+                }
+            } catch (IOException e) {
+                errores.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errores.increment();
+            }
+        }
+
+        void reiniciar() {
+            latencias = new ConcurrentHistogram(3);
+            errores.reset();
+            rechazos.reset();
+            omitidas.reset();
+        }
+
+        String resumen(int segundos) {
+            long ok = latencias.getTotalCount();
+            long fallidas = errores.sum() + rechazos.sum();
+            double tasaError = ok + fallidas == 0 ? 0 : 100.0 * fallidas / (ok + fallidas);
+            return String.format(Locale.ROOT, "%-17s %8d %8.1f %9.2f %9.2f %9.2f %9.2f %7.2f %7d %9d%n", nombre, tasa,
+                    ok / (double) segundos, ms(latencias.getValueAtPercentile(50)), ms(latencias.getValueAtPercentile(99)),
+                    ms(latencias.getValueAtPercentile(99.9)), ms(latencias.getMaxValue()), tasaError, rechazos.sum(),
+                    omitidas.sum());
+        }
+
+        void escribirHistograma(Path archivo) throws IOException {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(archivo))) {
+                // Escala 1000: el archivo queda en milisegundos
+                latencias.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+
+        private static double ms(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
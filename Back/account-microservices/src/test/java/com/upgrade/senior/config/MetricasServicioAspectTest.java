@@ -0,0 +1,49 @@
+package com.upgrade.senior.config;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.service.impl.ResumenDiarioServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricasServicioAspectTest {
+    @Mock
+    private ResumenDiarioServiceImpl resumenDiarioService;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private ResumenDiarioServiceImpl proxy() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(resumenDiarioService);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MetricasServicioAspect(registry));
+        return factory.getProxy();
+    }
+
+    @Test
+    void testMideMetodoDeServicio() {
+        when(resumenDiarioService.reconstruir()).thenReturn(3L);
+        assertEquals(3L, proxy().reconstruir());
+        assertEquals(1, registry.get(MetricasServicioAspect.TIMER)
+                .tags("metodo", "reconstruir", "excepcion", "none")
+                .timer().count());
+    }
+
+    @Test
+    void testEtiquetaLaExcepcion() {
+        doThrow(new GeneralException("Cuenta no encontrada", 404)).when(resumenDiarioService).recalcularDia(any(), any());
+        ResumenDiarioServiceImpl servicio = proxy();
+        assertThrows(GeneralException.class, () -> servicio.recalcularDia(1L, LocalDate.now()));
+        assertEquals(1, registry.get(MetricasServicioAspect.TIMER)
+                .tags("metodo", "recalcularDia", "excepcion", "GeneralException")
+                .timer().count());
+    }
+}
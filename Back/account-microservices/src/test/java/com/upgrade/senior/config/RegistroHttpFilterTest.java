@@ -0,0 +1,141 @@
+package com.upgrade.senior.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroHttpFilterTest {
+
+    private static final String CUERPO = "{\"numeroCuenta\":\"478758\",\"tipoMovimiento\":\"CREDITO\",\"valor\":100.0}";
+
+    private static RegistroHttpFilter filtro(int maximoBytes, int capacidad, String muestreo) {
+        // Sin iniciar(): los registros quedan en la cola para inspeccionarlos
+        return new RegistroHttpFilter(true, true, maximoBytes, capacidad, 1.0, muestreo);
+    }
+
+    private static MockHttpServletRequest post(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContentType("application/json");
+        request.setContent(CUERPO.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockFilterChain eco(String contentType, byte[] respuesta) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.getInputStream().readAllBytes();
+                resp.setStatus(201);
+                resp.setContentType(contentType);
+                resp.getOutputStream().write(respuesta);
+            }
+        });
+    }
+
+    @Test
+    void testRegistraStatusTiempoYCuerpos() throws Exception {
+        RegistroHttpFilter filtro = filtro(1024, 16, "");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] respuesta = "{\"id\":1,\"descripcion\":\"Depósito\"}".getBytes(StandardCharsets.UTF_8);
+
+        filtro.doFilter(post("/api/movimientos"), response, eco("application/json", respuesta));
+
+        assertArrayEquals(respuesta, response.getContentAsByteArray());
+        RegistroHttpFilter.Registro registro = filtro.siguiente();
+        assertNotNull(registro);
+        assertEquals(201, registro.status());
+        String mensaje = registro.mensaje(1024);
+        assertTrue(mensaje.startsWith("[POST] /api/movimientos - 201 ("));
+        assertTrue(mensaje.contains("Request: " + CUERPO));
+        assertTrue(mensaje.contains("Response: {\"id\":1,\"descripcion\":\"Depósito\"}"));
+    }
+
+    @Test
+    void testNoRegistraElCuerpoDeRespuestasAsincronas() throws Exception {
+        RegistroHttpFilter filtro = filtro(1024, 16, "");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cuentas/cuenta/478758/eventos");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.startAsync();
+                resp.setContentType("text/event-stream");
+                resp.getOutputStream().write("event:saldo\ndata:{}\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        }));
+
+        String mensaje = filtro.siguiente().mensaje(1024);
+        assertTrue(mensaje.startsWith("[GET] /api/cuentas/cuenta/478758/eventos - 200 ("));
+        assertFalse(mensaje.contains("Response:"));
+    }
+
+    @Test
+    void testTruncaCuerposSinRecortarLaRespuesta() throws Exception {
+        RegistroHttpFilter filtro = filtro(16, 16, "");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] respuesta = "x".repeat(5000).getBytes(StandardCharsets.UTF_8);
+
+        filtro.doFilter(post("/api/movimientos"), response, eco("application/json", respuesta));
+
+        assertEquals(5000, response.getContentAsByteArray().length);
+        String mensaje = filtro.siguiente().mensaje(16);
+        assertTrue(mensaje.contains("Request: " + CUERPO.substring(0, 16) + "... (" + CUERPO.length() + " bytes)"));
+        assertTrue(mensaje.contains("Response: " + "x".repeat(16) + "... (5000 bytes)"));
+    }
+
+    @Test
+    void testResumeCuerposBinarios() throws Exception {
+        RegistroHttpFilter filtro = filtro(64, 16, "");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reportes/estado-cuenta");
+        request.setQueryString("clienteId=1&formato=pdf");
+
+        filtro.doFilter(request, new MockHttpServletResponse(), eco("application/pdf", new byte[300]));
+
+        String mensaje = filtro.siguiente().mensaje(64);
+        assertTrue(mensaje.startsWith("[GET] /api/reportes/estado-cuenta?clienteId=1&formato=pdf - 201"));
+        assertTrue(mensaje.endsWith("Response: <application/pdf, 300 bytes>"));
+    }
+
+    @Test
+    void testMuestreoPorRuta() throws Exception {
+        RegistroHttpFilter filtro = filtro(64, 16, "/actuator/**:0, /api/reportes/**:1");
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/actuator/prometheus"), new MockHttpServletResponse(),
+                eco("text/plain", new byte[10]));
+        assertNull(filtro.siguiente());
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/reportes/cache/metricas"), new MockHttpServletResponse(),
+                eco("application/json", new byte[10]));
+        assertNotNull(filtro.siguiente());
+    }
+
+    @Test
+    void testDescartaConColaLlena() throws Exception {
+        RegistroHttpFilter filtro = filtro(64, 1, "");
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filtro.doFilter(post("/api/movimientos"), response, eco("application/json", new byte[10]));
+            assertEquals(201, response.getStatus());
+        }
+
+        assertEquals(1, filtro.pendientes());
+        assertEquals(2, filtro.descartados());
+    }
+
+    @Test
+    void testMuestreoInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> filtro(64, 1, "/api/**"));
+    }
+}
@@ -0,0 +1,35 @@
+package com.upgrade.senior.controller;
+
+import com.upgrade.senior.service.CacheService;
+import com.upgrade.senior.service.dto.cache.RegionCacheMetricsDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CacheController.class)
+class CacheControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private CacheService cacheService;
+
+    @Test
+    @DisplayName("GET /api/cache/segundo-nivel/metricas")
+    void testGetMetricasSegundoNivel() throws Exception {
+        when(cacheService.obtenerMetricasSegundoNivel()).thenReturn(List.of(
+                RegionCacheMetricsDTO.builder().region("cliente").aciertos(3).fallos(1).tasaAciertos(0.75).build()));
+        mockMvc.perform(get("/api/cache/segundo-nivel/metricas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].region").value("cliente"))
+                .andExpect(jsonPath("$[0].tasaAciertos").value(0.75));
+    }
+}
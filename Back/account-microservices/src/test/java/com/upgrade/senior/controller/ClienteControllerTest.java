@@ -2,6 +2,8 @@ package com.upgrade.senior.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upgrade.senior.service.ClienteService;
+import com.upgrade.senior.service.dto.PaginaDTO;
+import com.upgrade.senior.service.dto.cliente.ClienteListadoDTO;
 import com.upgrade.senior.service.dto.cliente.ClienteRequestDTO;
 import com.upgrade.senior.service.dto.cliente.ClienteResponseDTO;
 import org.junit.jupiter.api.DisplayName;
@@ -68,6 +70,21 @@ class ClienteControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @DisplayName("GET /api/clientes/pagina")
+    void testGetClientesPaginado() throws Exception {
+        PaginaDTO<ClienteListadoDTO> pagina = PaginaDTO.<ClienteListadoDTO>builder()
+                .contenido(Collections.emptyList()).pagina(2).tamano(10).build();
+        when(clienteService.listarClientesPaginado(eq(false), any())).thenReturn(pagina);
+        mockMvc.perform(get("/api/clientes/pagina").param("estado", "false")
+                        .param("page", "2").param("size", "10").param("sort", "nombre,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagina").value(2));
+        verify(clienteService).listarClientesPaginado(eq(false),
+                argThat(p -> p.getPageNumber() == 2 && p.getPageSize() == 10
+                        && p.getSort().getOrderFor("nombre").isDescending()));
+    }
+
     @Test
     @DisplayName("PUT /api/clientes/{clienteId}")
     void testUpdateCliente() throws Exception {
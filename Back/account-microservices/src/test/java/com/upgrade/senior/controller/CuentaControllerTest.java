@@ -1,19 +1,29 @@
 package com.upgrade.senior.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.enums.TipoCuenta;
+import com.upgrade.senior.money.Money;
 import com.upgrade.senior.service.CuentaService;
+import com.upgrade.senior.service.dto.PaginaDTO;
 import com.upgrade.senior.service.dto.cuenta.CuentaCreateDTO;
 import com.upgrade.senior.service.dto.cuenta.CuentaResponseDTO;
+import com.upgrade.senior.service.dto.cuenta.EventoCuentaDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.evento.EventosCuenta;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Collections;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -41,6 +51,19 @@ class CuentaControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @DisplayName("GET /api/cuentas/pagina")
+    void testGetCuentasPaginado() throws Exception {
+        PaginaDTO<CuentaResponseDTO> pagina = PaginaDTO.<CuentaResponseDTO>builder()
+                .contenido(Collections.emptyList()).tamano(20).build();
+        when(cuentaService.listarCuentasPaginado(isNull(), eq(TipoCuenta.CORRIENTE), eq(1L), any())).thenReturn(pagina);
+        mockMvc.perform(get("/api/cuentas/pagina").param("tipoCuenta", "CORRIENTE").param("clienteId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tamano").value(20));
+        verify(cuentaService).listarCuentasPaginado(isNull(), eq(TipoCuenta.CORRIENTE), eq(1L),
+                argThat(p -> p.getPageSize() == 20 && p.getSort().getOrderFor("cuentaId") != null));
+    }
+
     @Test
     @DisplayName("DELETE /api/cuentas/{cuentaId}")
     void testDeleteCuenta() throws Exception {
@@ -90,4 +113,42 @@ class CuentaControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/cuentas/cuenta/{numeroCuenta}/eventos")
+    void testEventosCuenta() throws Exception {
+        EventosCuenta eventos = new EventosCuenta(objectMapper, 16, 0, 0);
+        ReflectionTestUtils.invokeMethod(eventos, "iniciar");
+        try {
+            when(cuentaService.suscribirEventos("478758"))
+                    .thenAnswer(inv -> eventos.suscribir("478758", () -> new EventoCuentaDTO("478758", Money.de("100.00"), 3L, null)));
+            MvcResult resultado = mockMvc.perform(get("/api/cuentas/cuenta/478758/eventos"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            eventos.publicar(MovimientoResponseDTO.builder().movimientoId("9").numeroCuenta("225487").saldo(Money.de("1")).build(), 1L);
+            eventos.publicar(MovimientoResponseDTO.builder().movimientoId("7").numeroCuenta("478758").saldo(Money.de("125.50")).build(), 4L);
+
+            String contenido = esperar(resultado, "id:7");
+            assertTrue(contenido.startsWith("event:saldo\ndata:{\"numeroCuenta\":\"478758\",\"saldo\":100.00,\"secuencia\":3"));
+            assertTrue(contenido.contains("event:movimiento\ndata:{\"numeroCuenta\":\"478758\",\"saldo\":125.50,\"secuencia\":4"));
+            assertFalse(contenido.contains("225487"));
+            assertTrue(resultado.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        } finally {
+            ReflectionTestUtils.invokeMethod(eventos, "detener");
+        }
+    }
+
+    /**
+     * Los eventos se envían en otro hilo: espera a que el contenido incluya el texto.
+     */
+    private static String esperar(MvcResult resultado, String texto) throws Exception {
+        long limite = System.currentTimeMillis() + 5000;
+        String contenido = resultado.getResponse().getContentAsString();
+        while (!contenido.contains(texto) && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+            contenido = resultado.getResponse().getContentAsString();
+        }
+        return contenido;
+    }
+}
@@ -2,8 +2,11 @@ package com.upgrade.senior.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.upgrade.senior.service.MovimientoService;
+import com.upgrade.senior.service.dto.movimiento.MovimientoBatchResponseDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoPaginaDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.dto.movimiento.PostingMetricsDTO;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,7 +16,9 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -41,19 +46,48 @@ class MovimientoControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @DisplayName("POST /api/movimientos con Idempotency-Key")
+    void testCreateMovimientoConIdempotencyKey() throws Exception {
+        MovimientoResponseDTO response = MovimientoResponseDTO.builder().movimientoId("10").build();
+        when(movimientoService.crearMovimiento(any(MovimientoCreateDTO.class), eq("pago-42"))).thenReturn(response);
+        mockMvc.perform(post("/api/movimientos")
+                        .header("Idempotency-Key", "pago-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new MovimientoCreateDTO())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.movimientoId").value("10"));
+        verify(movimientoService, never()).crearMovimiento(any(MovimientoCreateDTO.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/movimientos/batch")
+    void testCreateMovimientosBatch() throws Exception {
+        MovimientoBatchResponseDTO response = MovimientoBatchResponseDTO.builder().total(1).exitosos(1).build();
+        when(movimientoService.crearMovimientosBatch(anyList())).thenReturn(response);
+        mockMvc.perform(post("/api/movimientos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new MovimientoCreateDTO()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.exitosos").value(1));
+    }
+
     @Test
     @DisplayName("GET /api/movimientos/cuenta/{numeroCuenta}")
     void testGetByCuenta() throws Exception {
-        when(movimientoService.obtenerMovimientosPorCuenta("123")).thenReturn(Collections.emptyList());
-        mockMvc.perform(get("/api/movimientos/cuenta/123"))
+        MovimientoPaginaDTO pagina = MovimientoPaginaDTO.builder().movimientos(Collections.emptyList()).siguiente("abc").build();
+        when(movimientoService.obtenerMovimientosPorCuenta("123", "xyz", 20)).thenReturn(pagina);
+        mockMvc.perform(get("/api/movimientos/cuenta/123").param("cursor", "xyz").param("limite", "20"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.siguiente").value("abc"));
     }
 
     @Test
     @DisplayName("GET /api/movimientos/cliente/{clienteId}")
     void testGetByClienteAndDates() throws Exception {
-        when(movimientoService.obtenerMovimientosPorClienteYFechas(eq(1L), any(), any())).thenReturn(Collections.emptyList());
+        when(movimientoService.obtenerMovimientosPorClienteYFechas(eq(1L), any(), any(), isNull(), isNull()))
+                .thenReturn(MovimientoPaginaDTO.builder().movimientos(Collections.emptyList()).build());
         mockMvc.perform(get("/api/movimientos/cliente/1"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
@@ -69,6 +103,15 @@ class MovimientoControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    @DisplayName("GET /api/movimientos/posting/metricas")
+    void testGetMetricasPosting() throws Exception {
+        when(movimientoService.obtenerMetricasPosting()).thenReturn(PostingMetricsDTO.builder().estrategia("pessimistic").build());
+        mockMvc.perform(get("/api/movimientos/posting/metricas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estrategia").value("pessimistic"));
+    }
+
     @Test
     @DisplayName("DELETE /api/movimientos/{id}")
     void testDelete() throws Exception {
@@ -76,4 +119,18 @@ class MovimientoControllerTest {
         mockMvc.perform(delete("/api/movimientos/1"))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /api/movimientos/cliente/{clienteId}/export")
+    void testExportByClienteAndDates() throws Exception {
+        doAnswer(inv -> {
+            inv.<java.io.OutputStream>getArgument(3).write("{\"movimientoId\":\"1\"}\n".getBytes());
+            return null;
+        }).when(movimientoService).exportarMovimientosPorCliente(eq(1L), any(), any(), any());
+        mockMvc.perform(get("/api/movimientos/cliente/1/export").param("fechaInicio", "2024-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", containsString("movimientos-cliente-1.ndjson")))
+                .andExpect(content().string("{\"movimientoId\":\"1\"}\n"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.upgrade.senior.controller;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.service.ReporteService;
+import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaPDFResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReporteController.class)
+class ReporteControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private ReporteService reporteService;
+
+    @Test
+    @DisplayName("GET /api/reportes/estado-cuenta?formato=pdf (Base64)")
+    void testGetEstadoCuentaPdfBase64() throws Exception {
+        when(reporteService.generarEstadoCuentaPDF(eq(1L), any(), any()))
+                .thenReturn(ReporteEstadoCuentaPDFResponseDTO.builder().pdfBase64("JVBERg==").build());
+        mockMvc.perform(get("/api/reportes/estado-cuenta").param("clienteId", "1").param("formato", "pdf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.pdfBase64").value("JVBERg=="));
+        verify(reporteService, never()).escribirEstadoCuentaPDF(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/reportes/estado-cuenta?formato=pdf (application/pdf)")
+    void testGetEstadoCuentaPdfStream() throws Exception {
+        doAnswer(inv -> {
+            inv.getArgument(3, OutputStream.class).write("%PDF-1.4".getBytes());
+            return null;
+        }).when(reporteService).escribirEstadoCuentaPDF(eq(1L), any(), any(), any());
+        mockMvc.perform(get("/api/reportes/estado-cuenta").param("clienteId", "1").param("formato", "pdf")
+                        .accept(MediaType.APPLICATION_PDF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().string("%PDF-1.4"));
+        verify(reporteService).validarEstadoCuenta(eq(1L), any(), any());
+        verify(reporteService, never()).generarEstadoCuentaPDF(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/reportes/estado-cuenta?formato=pdf (application/pdf) sin movimientos")
+    void testGetEstadoCuentaPdfStreamSinMovimientos() throws Exception {
+        doThrow(new GeneralException("No existen movimientos para filtro de fechas seleccionados", 404))
+                .when(reporteService).validarEstadoCuenta(eq(1L), any(), any());
+        mockMvc.perform(get("/api/reportes/estado-cuenta").param("clienteId", "1").param("formato", "pdf")
+                        .accept(MediaType.APPLICATION_PDF))
+                .andExpect(status().isNotFound());
+        verify(reporteService, never()).escribirEstadoCuentaPDF(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/reportes/estado-cuenta?formato=pdf (application/pdf) rechazado antes de escribir")
+    void testGetEstadoCuentaPdfStreamOcupado() throws Exception {
+        doThrow(new GeneralException("El servicio está ocupado, intente más tarde", 503))
+                .when(reporteService).escribirEstadoCuentaPDF(eq(1L), any(), any(), any());
+        mockMvc.perform(get("/api/reportes/estado-cuenta").param("clienteId", "1").param("formato", "pdf")
+                        .accept(MediaType.APPLICATION_PDF))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().doesNotExist("Content-Disposition"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.upgrade.senior.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.enums.EstadoReporteJob;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.service.ReporteJobService;
+import com.upgrade.senior.service.dto.reporte.ReporteJobArchivoDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobCreateDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobResponseDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ReporteJobController.class)
+class ReporteJobControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private ReporteJobService reporteJobService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("POST /api/reportes/jobs")
+    void testCreateJob() throws Exception {
+        ReporteJobResponseDTO response = ReporteJobResponseDTO.builder().id("abc").estado(EstadoReporteJob.PENDIENTE).build();
+        when(reporteJobService.crearJob(any(ReporteJobCreateDTO.class))).thenReturn(response);
+        mockMvc.perform(post("/api/reportes/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ReporteJobCreateDTO.builder().clienteId(1L).formato("pdf").build())))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/reportes/jobs/abc"))
+                .andExpect(jsonPath("$.estado").value("PENDIENTE"));
+    }
+
+    @Test
+    @DisplayName("GET /api/reportes/jobs/{id}")
+    void testGetJobNoEncontrado() throws Exception {
+        when(reporteJobService.obtenerJob("abc")).thenThrow(new GeneralException("Reporte no encontrado o expirado", 404));
+        mockMvc.perform(get("/api/reportes/jobs/abc"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/reportes/jobs/{id}/result")
+    void testGetResult() throws Exception {
+        Path archivo = Files.writeString(tempDir.resolve("abc.pdf"), "%PDF-1.4");
+        when(reporteJobService.obtenerResultado("abc")).thenReturn(ReporteJobArchivoDTO.builder()
+                .archivo(archivo).contentType("application/pdf").nombre("estado-cuenta-1.pdf").tamanoBytes(8).build());
+        mockMvc.perform(get("/api/reportes/jobs/abc/result"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"estado-cuenta-1.pdf\""))
+                .andExpect(content().string("%PDF-1.4"));
+    }
+
+    @Test
+    @DisplayName("GET /api/reportes/jobs/{id}/result con sendfile")
+    void testGetResultSendfile() throws Exception {
+        Path archivo = Files.writeString(tempDir.resolve("abc.pdf"), "%PDF-1.4");
+        when(reporteJobService.obtenerResultado("abc")).thenReturn(ReporteJobArchivoDTO.builder()
+                .archivo(archivo).contentType("application/pdf").nombre("estado-cuenta-1.pdf").tamanoBytes(8).build());
+        mockMvc.perform(get("/api/reportes/jobs/abc/result").requestAttr(ReporteJobController.SENDFILE_SUPPORT, Boolean.TRUE))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute(ReporteJobController.SENDFILE_FILENAME, archivo.toAbsolutePath().toString()))
+                .andExpect(request().attribute(ReporteJobController.SENDFILE_END, 8L))
+                .andExpect(content().string(""));
+    }
+}
@@ -0,0 +1,98 @@
+package com.upgrade.senior.datasource;
+
+import com.upgrade.senior.datasource.RuteoDataSource.Destino;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ruteo sobre bases H2 separadas: cada una responde su nombre, así se ve qué pool atendió cada transacción.
+ */
+class RuteoDataSourceTest {
+
+    private final DataSource primaria = base("primaria");
+    private final DataSource replica = base("replica");
+    private final DataSource reportes = base("reportes");
+
+    private static DataSource base(String nombre) {
+        DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:ruteo_" + nombre + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(ds);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS origen (nombre VARCHAR(20))");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS replica_latido (id INT PRIMARY KEY, instante BIGINT NOT NULL)");
+        jdbc.update("DELETE FROM origen");
+        jdbc.update("INSERT INTO origen VALUES (?)", nombre);
+        jdbc.update("MERGE INTO replica_latido KEY (id) VALUES (1, 0)");
+        return ds;
+    }
+
+    private static String origen(DataSource dataSource, boolean soloLectura) {
+        TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        tx.setReadOnly(soloLectura);
+        return tx.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT nombre FROM origen", String.class));
+    }
+
+    private DataSource ruteado(RuteoLecturas ruteo, DataSource replica) {
+        return new LazyConnectionDataSourceProxy(new RuteoDataSource(ruteo, primaria, reportes, replica));
+    }
+
+    @Test
+    void testLecturasDeclaradasVanALaReplica() {
+        RuteoLecturas ruteo = new RuteoLecturas(primaria, replica, 60000, 100, false, 0, 0);
+        DataSource ds = ruteado(ruteo, replica);
+
+        assertEquals("replica", ruteo.leer(null, () -> origen(ds, true)));
+        assertEquals("reportes", ruteo.leerReporte(1L, () -> origen(ds, true)));
+        // Escrituras y lecturas no declaradas (p. ej. las de un posting) quedan en la primaria
+        assertEquals("primaria", ruteo.leer(null, () -> origen(ds, false)));
+        assertEquals("primaria", origen(ds, true));
+        assertEquals(1, ruteo.conexiones(Destino.REPLICA));
+        assertEquals(1, ruteo.conexiones(Destino.REPORTES));
+    }
+
+    @Test
+    void testLecturasPropiasTrasUnCambioDelCliente() {
+        RuteoLecturas ruteo = new RuteoLecturas(primaria, replica, 60000, 100, false, 0, 0);
+        DataSource ds = ruteado(ruteo, replica);
+
+        ruteo.registrarEscritura(7L);
+
+        assertEquals("primaria", ruteo.leer(7L, () -> origen(ds, true)));
+        assertEquals("primaria", ruteo.leerReporte(7L, () -> origen(ds, true)));
+        assertEquals("replica", ruteo.leer(8L, () -> origen(ds, true)));
+    }
+
+    @Test
+    void testReplicaAtrasadaUsaLaPrimaria() {
+        // La réplica es otra base: el latido escrito en la primaria nunca le llega
+        RuteoLecturas ruteo = new RuteoLecturas(primaria, replica, 60000, 100, true, 1000, 500);
+        DataSource ds = ruteado(ruteo, replica);
+        assertEquals("primaria", ruteo.leer(null, () -> origen(ds, true)));
+
+        ruteo.medirRetraso();
+        assertFalse(ruteo.isReplicaAlDia());
+        assertEquals("primaria", ruteo.leer(null, () -> origen(ds, true)));
+
+        // Misma base como réplica: el latido se ve enseguida
+        RuteoLecturas alDia = new RuteoLecturas(primaria, primaria, 60000, 100, true, 1000, 500);
+        alDia.medirRetraso();
+        assertTrue(alDia.isReplicaAlDia());
+        assertEquals(Destino.REPLICA, alDia.leer(null, () -> alDia.destino(true)));
+    }
+
+    @Test
+    void testSinReplica() {
+        RuteoLecturas ruteo = new RuteoLecturas(primaria, null, 60000, 100, true, 1000, 500);
+        DataSource ds = ruteado(ruteo, null);
+
+        assertEquals("primaria", ruteo.leer(null, () -> origen(ds, true)));
+        assertEquals("reportes", ruteo.leerReporte(null, () -> origen(ds, true)));
+        assertFalse(ruteo.isReplicaAlDia());
+    }
+}
@@ -0,0 +1,62 @@
+package com.upgrade.senior.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testAritmeticaExactaEnCentavos() {
+        Money saldo = Money.de("0.10").sumar(Money.de("0.20"));
+        assertEquals(Money.de("0.30"), saldo);
+        assertEquals(30, saldo.centavos());
+        assertEquals(Money.de("-0.05"), Money.de("0.25").restar(Money.de("0.30")));
+        assertEquals(Money.de("12.5"), Money.de("12.50"));
+        assertSame(Money.CERO, Money.de("125.50").restar(Money.de("125.50")));
+        assertThrows(ArithmeticException.class, () -> Money.deCentavos(Long.MAX_VALUE).sumar(Money.deCentavos(1)));
+    }
+
+    @Test
+    void testRechazaMasDeDosDecimales() {
+        assertThrows(ArithmeticException.class, () -> Money.de("10.005"));
+    }
+
+    @Test
+    void testTextoConDosDecimales() {
+        assertEquals("125.50", Money.de("125.5").toString());
+        assertEquals("0.05", Money.deCentavos(5).toString());
+        assertEquals("-0.05", Money.deCentavos(-5).toString());
+        assertEquals("-2000.00", Money.de("-2000").toString());
+        assertEquals("-92233720368547758.08", Money.deCentavos(Long.MIN_VALUE).toString());
+        assertEquals(new BigDecimal("125.50"), Money.de("125.5").toBigDecimal());
+    }
+
+    @Test
+    void testJson() throws Exception {
+        MovimientoCreateDTO dto = objectMapper.readValue(
+                "{\"numeroCuenta\":\"478758\",\"tipoMovimiento\":\"CREDITO\",\"valor\":125.5}", MovimientoCreateDTO.class);
+        assertEquals(Money.de("125.50"), dto.getValor());
+        assertEquals(Money.de("7"), objectMapper.readValue("\"7\"", Money.class));
+        assertTrue(objectMapper.writeValueAsString(new MovimientoCreateDTO("478758", TipoMovimiento.DEBITO, Money.de("-3.1")))
+                .contains("\"valor\":-3.10"));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("10.005", Money.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("\"diez\"", Money.class));
+    }
+
+    @Test
+    void testConverter() {
+        MoneyConverter converter = new MoneyConverter();
+        assertEquals(new BigDecimal("600.00"), converter.convertToDatabaseColumn(Money.de("600")));
+        assertEquals(Money.de("600"), converter.convertToEntityAttribute(new BigDecimal("600.00")));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,181 @@
+package com.upgrade.senior.service.archivo;
+
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.service.particion.ParticionesMovimiento;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ArchivoMovimientosTest {
+
+    private static final LocalDateTime MARZO = LocalDateTime.of(2022, 3, 1, 0, 0);
+
+    @TempDir
+    Path directorio;
+
+    private final MovimientoRepository movimientoRepository = mock(MovimientoRepository.class);
+    private final ParticionesMovimiento particiones = mock(ParticionesMovimiento.class);
+    private final Cuenta cuenta3 = cuenta(3L);
+    private final Cuenta cuenta7 = cuenta(7L);
+
+    private ArchivoMovimientos archivo(int retencion) throws IOException {
+        ArchivoMovimientos archivo = new ArchivoMovimientos(movimientoRepository, particiones,
+                mock(PlatformTransactionManager.class), directorio, retencion, 60000, 2);
+        archivo.cargar();
+        return archivo;
+    }
+
+    /**
+     * Enero y febrero de 2022 archivados: la cuenta 3 tiene movimientos en ambos meses y la 7 solo en febrero.
+     */
+    private void escribirSegmentos() throws IOException {
+        segmento(YearMonth.of(2022, 1),
+                fila(1, 3, LocalDateTime.of(2022, 1, 10, 8, 0), 100),
+                fila(2, 3, LocalDateTime.of(2022, 1, 20, 8, 0), 200));
+        segmento(YearMonth.of(2022, 2),
+                fila(3, 3, LocalDateTime.of(2022, 2, 5, 8, 0), 300),
+                fila(4, 7, LocalDateTime.of(2022, 2, 5, 9, 0), 400),
+                fila(5, 7, LocalDateTime.of(2022, 2, 27, 9, 0), 500));
+    }
+
+    @Test
+    void testCargaLosSegmentosYDescartaLosIncompletos() throws IOException {
+        escribirSegmentos();
+        Files.writeString(directorio.resolve("movimientos-202203.seg.tmp"), "incompleto");
+
+        ArchivoMovimientos.Vista vista = archivo(0).vista();
+
+        assertEquals(MARZO, vista.corte());
+        assertTrue(vista.cubre(null));
+        assertTrue(vista.cubre(LocalDateTime.of(2022, 2, 28, 23, 59)));
+        assertFalse(vista.cubre(MARZO));
+        assertEquals(MARZO, vista.inicioVivo(LocalDateTime.of(2021, 6, 1, 0, 0)));
+        assertEquals(MARZO.plusDays(3), vista.inicioVivo(MARZO.plusDays(3)));
+        assertFalse(Files.exists(directorio.resolve("movimientos-202203.seg.tmp")));
+    }
+
+    @Test
+    void testSinSegmentosLasLecturasVanSoloALaTabla() throws IOException {
+        ArchivoMovimientos.Vista vista = archivo(0).vista();
+
+        assertNull(vista.corte());
+        assertFalse(vista.cubre(null));
+        assertEquals(MARZO, vista.inicioVivo(MARZO));
+        assertFalse(ArchivoMovimientos.sinArchivo().vista().cubre(null));
+    }
+
+    @Test
+    void testMezclaArchivoYTablaPorCuentaYFecha() throws IOException {
+        escribirSegmentos();
+        ArchivoMovimientos.Vista vista = archivo(0).vista();
+        Iterator<Movimiento> vivos = List.of(
+                vivo(10, cuenta3, MARZO.plusDays(1)),
+                vivo(11, cuenta7, MARZO.plusDays(2))).iterator();
+
+        List<Long> ids = new ArrayList<>();
+        vista.mezclar(List.of(cuenta7, cuenta3), LocalDateTime.of(2022, 1, 15, 0, 0), MARZO.plusMonths(1), vivos)
+                .forEachRemaining(m -> ids.add(m.getMovimientoId()));
+
+        assertEquals(List.of(2L, 3L, 10L, 4L, 5L, 11L), ids);
+    }
+
+    @Test
+    void testPaginasSobreElArchivo() throws IOException {
+        escribirSegmentos();
+        ArchivoMovimientos.Vista vista = archivo(0).vista();
+
+        List<Movimiento> primera = vista.pagina(cuenta3, null, null, 2);
+        assertEquals(List.of(1L, 2L), ids(primera));
+        Movimiento ultimo = primera.getLast();
+        assertEquals(List.of(3L), ids(vista.pagina(cuenta3, ultimo.getFecha(), ultimo.getMovimientoId(), 2)));
+        assertEquals(Money.deCentavos(200), ultimo.getValor());
+        assertSame(cuenta3, ultimo.getCuenta());
+
+        List<Movimiento> recientes = vista.paginaDescendente(List.of(cuenta3, cuenta7), null, MARZO, null, null, 3);
+        assertEquals(List.of(5L, 4L, 3L), ids(recientes));
+        Movimiento desde = recientes.getLast();
+        assertEquals(List.of(2L), ids(vista.paginaDescendente(List.of(cuenta3, cuenta7),
+                LocalDateTime.of(2022, 1, 15, 0, 0), MARZO, desde.getFecha(), desde.getMovimientoId(), 3)));
+        assertEquals(Set.of(3L), vista.cuentasConMovimientos(List.of(3L, 7L), null, LocalDateTime.of(2022, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void testArchivaLosMesesVencidosYBorraEnLaEjecucionSiguiente() throws IOException {
+        when(movimientoRepository.findPrimeraFecha()).thenReturn(LocalDateTime.of(2022, 1, 10, 8, 0));
+        when(movimientoRepository.streamArchivo(any(), any())).thenAnswer(inv -> {
+            LocalDateTime inicio = inv.getArgument(0);
+            return inicio.getMonthValue() == 1
+                    ? Stream.<Object[]>of(filaTabla(1, 3, LocalDateTime.of(2022, 1, 10, 8, 0), 100))
+                    : Stream.<Object[]>empty();
+        });
+        when(movimientoRepository.existsByFechaBefore(MARZO)).thenReturn(true);
+        when(movimientoRepository.eliminarAnteriores(MARZO, 2)).thenReturn(2, 1);
+        ArchivoMovimientos archivo = archivo(1);
+
+        archivo.archivar(YearMonth.of(2022, 4));
+
+        assertEquals(MARZO, archivo.vista().corte());
+        assertTrue(Files.exists(directorio.resolve("movimientos-202201.seg")));
+        assertTrue(Files.exists(directorio.resolve("movimientos-202202.seg")));
+        assertEquals(List.of(1L), ids(archivo.vista().pagina(cuenta3, null, null, 10)));
+        // Las lecturas en curso pueden tener la vista anterior: la tabla no se toca todavía
+        verify(movimientoRepository, never()).eliminarAnteriores(any(), anyInt());
+
+        archivo.archivar(YearMonth.of(2022, 4));
+
+        verify(particiones).eliminarMesesAnteriores(YearMonth.of(2022, 3));
+        verify(movimientoRepository, times(2)).eliminarAnteriores(MARZO, 2);
+        verify(movimientoRepository, times(2)).streamArchivo(any(), any());
+    }
+
+    private void segmento(YearMonth mes, MovimientoArchivado... filas) throws IOException {
+        Path ruta = directorio.resolve("movimientos-" + mes.getYear() + String.format("%02d", mes.getMonthValue()) + ".seg");
+        try (SegmentoMovimientos.Escritor escritor = new SegmentoMovimientos.Escritor(ruta, mes)) {
+            for (MovimientoArchivado fila : filas) {
+                escritor.agregar(fila);
+            }
+            escritor.terminar();
+        }
+    }
+
+    private static MovimientoArchivado fila(long id, long cuentaId, LocalDateTime fecha, long valor) {
+        return new MovimientoArchivado(id, cuentaId, fecha, TipoMovimiento.CREDITO, valor, valor * 10);
+    }
+
+    private static Object[] filaTabla(long id, long cuentaId, LocalDateTime fecha, long valor) {
+        return new Object[]{id, cuentaId, fecha, TipoMovimiento.CREDITO, Money.deCentavos(valor), Money.deCentavos(valor)};
+    }
+
+    private static Movimiento vivo(long id, Cuenta cuenta, LocalDateTime fecha) {
+        return fila(id, cuenta.getCuentaId(), fecha, 1).aMovimiento(cuenta);
+    }
+
+    private static Cuenta cuenta(Long id) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(id);
+        return cuenta;
+    }
+
+    private static List<Long> ids(List<Movimiento> movimientos) {
+        return movimientos.stream().map(Movimiento::getMovimientoId).toList();
+    }
+}
@@ -0,0 +1,86 @@
+package com.upgrade.senior.service.archivo;
+
+import com.upgrade.senior.enums.TipoMovimiento;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentoMovimientosTest {
+
+    private static final YearMonth FEBRERO = YearMonth.of(2022, 2);
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testLeeLoEscritoPorCuenta() throws IOException {
+        List<MovimientoArchivado> cuenta3 = List.of(
+                new MovimientoArchivado(10, 3, LocalDateTime.of(2022, 2, 1, 9, 0, 0, 123_456_000), TipoMovimiento.CREDITO, 150_000, 250_000),
+                new MovimientoArchivado(14, 3, LocalDateTime.of(2022, 2, 1, 9, 0), TipoMovimiento.DEBITO, 300_000, 0),
+                new MovimientoArchivado(12, 3, LocalDateTime.of(2022, 2, 28, 23, 59, 59), TipoMovimiento.CREDITO, 1, 1));
+        List<MovimientoArchivado> cuenta7 = List.of(
+                new MovimientoArchivado(11, 7, LocalDateTime.of(2022, 2, 15, 12, 30), TipoMovimiento.DEBITO, -5_025, 94_975));
+        Path ruta = directorio.resolve("movimientos-202202.seg");
+
+        try (SegmentoMovimientos.Escritor escritor = new SegmentoMovimientos.Escritor(ruta, FEBRERO)) {
+            cuenta3.forEach(m -> agregar(escritor, m));
+            cuenta7.forEach(m -> agregar(escritor, m));
+            escritor.terminar();
+        }
+        SegmentoMovimientos segmento = SegmentoMovimientos.abrir(ruta);
+
+        assertEquals(FEBRERO, segmento.mes());
+        assertEquals(4, segmento.movimientos());
+        assertEquals(2, segmento.cuentas());
+        assertEquals(cuenta3, segmento.leer(3));
+        assertEquals(cuenta7, segmento.leer(7));
+        assertTrue(segmento.leer(5).isEmpty());
+        assertFalse(segmento.contiene(5));
+        assertFalse(Files.exists(directorio.resolve("movimientos-202202.seg.tmp")));
+    }
+
+    @Test
+    void testCuentasFueraDeOrdenNoDejanSegmento() throws IOException {
+        Path ruta = directorio.resolve("movimientos-202202.seg");
+        try (SegmentoMovimientos.Escritor escritor = new SegmentoMovimientos.Escritor(ruta, FEBRERO)) {
+            agregar(escritor, new MovimientoArchivado(1, 7, LocalDateTime.of(2022, 2, 1, 0, 0), TipoMovimiento.CREDITO, 100, 100));
+            assertThrows(IllegalArgumentException.class, () -> escritor.agregar(
+                    new MovimientoArchivado(2, 3, LocalDateTime.of(2022, 2, 1, 0, 0), TipoMovimiento.CREDITO, 100, 100)));
+        }
+        try (var archivos = Files.list(directorio)) {
+            assertEquals(0, archivos.count());
+        }
+    }
+
+    @Test
+    void testDetectaBloquesCorruptos() throws IOException {
+        Path ruta = directorio.resolve("movimientos-202202.seg");
+        try (SegmentoMovimientos.Escritor escritor = new SegmentoMovimientos.Escritor(ruta, FEBRERO)) {
+            agregar(escritor, new MovimientoArchivado(1, 3, LocalDateTime.of(2022, 2, 1, 0, 0), TipoMovimiento.CREDITO, 100, 100));
+            escritor.terminar();
+        }
+        byte[] bytes = Files.readAllBytes(ruta);
+        // Último byte del único bloque, justo antes del índice (una entrada) y el pie
+        bytes[bytes.length - 24 - 32 - 1] ^= 0x5A;
+        Files.write(ruta, bytes);
+
+        SegmentoMovimientos segmento = SegmentoMovimientos.abrir(ruta);
+        assertThrows(IllegalStateException.class, () -> segmento.leer(3));
+    }
+
+    private static void agregar(SegmentoMovimientos.Escritor escritor, MovimientoArchivado movimiento) {
+        try {
+            escritor.agregar(movimiento);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.upgrade.senior.service.bulkhead;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos.Compartimento;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadBaseDatosTest {
+
+    private final BulkheadBaseDatos bulkhead = new BulkheadBaseDatos(true, 1, 50, 2, 50);
+
+    @Test
+    void testRechazaCuandoNoHayPermisoATiempo() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch salir = new CountDownLatch(1);
+        Thread reporte = Thread.ofVirtual().start(() -> bulkhead.ejecutar(Compartimento.REPORTES, () -> {
+            dentro.countDown();
+            try {
+                salir.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        dentro.await();
+
+        GeneralException ex = assertThrows(GeneralException.class,
+                () -> bulkhead.ejecutar(Compartimento.REPORTES, () -> "otro"));
+        assertEquals(503, ex.getStatusCode());
+        assertEquals(1, bulkhead.rechazos(Compartimento.REPORTES));
+        // El compartimento de posting no se ve afectado
+        assertEquals("ok", bulkhead.ejecutar(Compartimento.POSTING, () -> "ok"));
+
+        salir.countDown();
+        reporte.join();
+        assertEquals(1, bulkhead.disponibles(Compartimento.REPORTES));
+    }
+
+    @Test
+    void testLiberaElPermisoSiLaAccionFalla() {
+        assertThrows(IllegalStateException.class, () -> bulkhead.ejecutar(Compartimento.POSTING, () -> {
+            throw new IllegalStateException("falla");
+        }));
+        assertEquals(2, bulkhead.disponibles(Compartimento.POSTING));
+    }
+
+    @Test
+    void testDeshabilitado_noLimita() {
+        BulkheadBaseDatos deshabilitado = new BulkheadBaseDatos(false, 0, 0, 0, 0);
+        assertEquals("ok", deshabilitado.ejecutar(Compartimento.REPORTES, () -> "ok"));
+    }
+
+    @Test
+    void testPublicaMetricasPorCompartimento() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        bulkhead.bindTo(registry);
+        assertThrows(GeneralException.class, () -> bulkhead.ejecutar(Compartimento.REPORTES, () -> {
+            bulkhead.ejecutar(Compartimento.REPORTES, () -> "anidado");
+            return null;
+        }));
+        assertEquals(1.0, registry.get("bulkhead.rechazos").tag("compartimento", "reportes").functionCounter().count());
+        assertEquals(2.0, registry.get("bulkhead.permisos.disponibles").tag("compartimento", "posting").gauge().value());
+    }
+}
@@ -0,0 +1,52 @@
+package com.upgrade.senior.service.cache;
+
+import com.upgrade.senior.service.dto.cache.RegionCacheMetricsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegundoNivelCacheTest {
+
+    private final SegundoNivelCache cache = new SegundoNivelCache(2, 60, 100, 60, 100, 60, 100, 60);
+
+    @AfterEach
+    void tearDown() {
+        cache.cerrar();
+    }
+
+    @Test
+    void testCreaLasRegionesQueUsaHibernate() {
+        for (String region : List.of(SegundoNivelCache.REGION_CLIENTE, SegundoNivelCache.REGION_CUENTA,
+                SegundoNivelCache.REGION_CUENTAS_POR_CLIENTE, SegundoNivelCache.REGION_CONSULTAS,
+                SegundoNivelCache.REGION_TIMESTAMPS)) {
+            assertNotNull(cache.getCacheManager().getCache(region), region);
+        }
+    }
+
+    @Test
+    void testMetricas_porRegion() {
+        Cache<Object, Object> clientes = cache.getCacheManager().getCache(SegundoNivelCache.REGION_CLIENTE);
+        clientes.put(1L, "a");
+        clientes.get(1L);
+        clientes.get(2L);
+
+        Map<String, RegionCacheMetricsDTO> metricas = cache.metricas().stream()
+                .collect(Collectors.toMap(RegionCacheMetricsDTO::getRegion, Function.identity()));
+
+        RegionCacheMetricsDTO cliente = metricas.get(SegundoNivelCache.REGION_CLIENTE);
+        assertEquals(1, cliente.getEntradas());
+        assertEquals(2, cliente.getMaxEntradas());
+        assertEquals(60, cliente.getTtlSegundos());
+        assertEquals(1, cliente.getAciertos());
+        assertEquals(1, cliente.getFallos());
+        assertEquals(0.5, cliente.getTasaAciertos());
+        assertEquals(0, metricas.get(SegundoNivelCache.REGION_TIMESTAMPS).getMaxEntradas());
+    }
+}
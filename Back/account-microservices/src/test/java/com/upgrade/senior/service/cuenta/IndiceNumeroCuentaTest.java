@@ -0,0 +1,91 @@
+package com.upgrade.senior.service.cuenta;
+
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndiceNumeroCuentaTest {
+    @Mock
+    private CuentaRepository cuentaRepository;
+    private IndiceNumeroCuenta indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceNumeroCuenta(cuentaRepository, true, 16);
+    }
+
+    private static Cuenta cuenta(Long id, String numero) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(id);
+        cuenta.setNumeroCuenta(numero);
+        return cuenta;
+    }
+
+    @Test
+    void testPrecargar_yResolver() {
+        when(cuentaRepository.streamNumerosCuenta()).thenReturn(Stream.of(
+                new Object[]{"478758", 1L}, new Object[]{"CTA-9", 2L}, new Object[]{"007", 3L}));
+        assertEquals(3, indice.precargar());
+        assertEquals(1L, indice.resolver("478758"));
+        assertEquals(2L, indice.resolver("CTA-9"));
+        assertEquals(3L, indice.resolver("007"));
+        assertNull(indice.resolver("7"));
+        assertEquals(3, indice.tamano());
+    }
+
+    @Test
+    void testRegistrarYEliminar_muchasCuentas() {
+        for (long i = 1; i <= 5000; i++) {
+            indice.registrar(String.valueOf(100000 + i), i);
+        }
+        for (long i = 1; i <= 5000; i += 2) {
+            indice.eliminar(String.valueOf(100000 + i));
+        }
+        assertEquals(2500, indice.tamano());
+        for (long i = 1; i <= 5000; i++) {
+            assertEquals(i % 2 == 0 ? Long.valueOf(i) : null, indice.resolver(String.valueOf(100000 + i)));
+        }
+    }
+
+    @Test
+    void testBuscar_usaClavePrimariaDespuesDelPrimerAcceso() {
+        Cuenta cuenta = cuenta(5L, "123");
+        when(cuentaRepository.findByNumeroCuenta("123")).thenReturn(Optional.of(cuenta));
+        when(cuentaRepository.findById(5L)).thenReturn(Optional.of(cuenta));
+        assertSame(cuenta, indice.buscar("123").orElseThrow());
+        assertSame(cuenta, indice.buscar("123").orElseThrow());
+        verify(cuentaRepository, times(1)).findByNumeroCuenta("123");
+        verify(cuentaRepository, times(1)).findById(5L);
+    }
+
+    @Test
+    void testBuscar_entradaVieja_consultaPorNumero() {
+        indice.registrar("123", 5L);
+        when(cuentaRepository.findById(5L)).thenReturn(Optional.of(cuenta(5L, "999")));
+        when(cuentaRepository.findByNumeroCuenta("123")).thenReturn(Optional.empty());
+        assertTrue(indice.buscar("123").isEmpty());
+        assertNull(indice.resolver("123"));
+    }
+
+    @Test
+    void testDeshabilitado_siempreConsultaPorNumero() {
+        IndiceNumeroCuenta deshabilitado = new IndiceNumeroCuenta(cuentaRepository, false, 16);
+        Cuenta cuenta = cuenta(5L, "123");
+        when(cuentaRepository.findByNumeroCuenta("123")).thenReturn(Optional.of(cuenta));
+        deshabilitado.buscar("123");
+        deshabilitado.buscar("123");
+        verify(cuentaRepository, times(2)).findByNumeroCuenta("123");
+        verify(cuentaRepository, never()).findById(any());
+    }
+}
@@ -0,0 +1,104 @@
+package com.upgrade.senior.service.evento;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.service.dto.cuenta.EventoCuentaDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class EventosCuentaTest {
+
+    private final ObjectMapper objectMapper = spy(new ObjectMapper());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<Runnable> envios = new ArrayList<>();
+    private EventosCuenta eventos;
+
+    @BeforeEach
+    void setUp() {
+        eventos = new EventosCuenta(objectMapper, 2, 0, 0);
+        // Los envíos quedan pendientes hasta ejecutarlos a mano: así un cliente "no lee"
+        ExecutorService executor = mock(ExecutorService.class);
+        doAnswer(inv -> envios.add(inv.getArgument(0))).when(executor).execute(any());
+        ReflectionTestUtils.setField(eventos, "envios", executor);
+        eventos.bindTo(registry);
+    }
+
+    private static MovimientoResponseDTO movimiento(String numeroCuenta, String id) {
+        return MovimientoResponseDTO.builder().movimientoId(id).numeroCuenta(numeroCuenta).saldo(Money.de("125.50")).build();
+    }
+
+    private static EventoCuentaDTO saldo(String numeroCuenta, String saldo) {
+        return new EventoCuentaDTO(numeroCuenta, Money.de(saldo), 0L, null);
+    }
+
+    private void enviarPendientes() {
+        List<Runnable> pendientes = List.copyOf(envios);
+        envios.clear();
+        pendientes.forEach(Runnable::run);
+    }
+
+    @Test
+    void testPublicaSoloALasSuscripcionesDeLaCuenta() throws Exception {
+        eventos.suscribir("478758", () -> saldo("478758", "100"));
+        eventos.suscribir("478758", () -> saldo("478758", "100"));
+        eventos.suscribir("225487", () -> saldo("225487", "50"));
+        assertEquals(3, eventos.activas());
+        enviarPendientes();
+
+        eventos.publicar(movimiento("478758", "7"), 7L);
+
+        assertEquals(2, envios.size());
+        assertEquals(1.0, registry.get("cuentas.eventos.publicados").functionCounter().count());
+        // Se serializa una vez por evento, no por suscriptor
+        verify(objectMapper, times(4)).writeValueAsString(any());
+    }
+
+    @Test
+    void testSinSuscriptoresNoSerializa() throws Exception {
+        eventos.publicar(movimiento("478758", "7"), 7L);
+
+        assertTrue(envios.isEmpty());
+        verify(objectMapper, never()).writeValueAsString(any());
+        assertEquals(0.0, registry.get("cuentas.eventos.publicados").functionCounter().count());
+    }
+
+    @Test
+    void testCierraElStreamDeUnClienteQueNoLee() {
+        eventos.suscribir("478758", () -> saldo("478758", "100"));
+        eventos.publicar(movimiento("478758", "7"), 7L);
+
+        // El saldo inicial y el primer movimiento llenan el buffer de dos eventos
+        eventos.publicar(movimiento("478758", "8"), 8L);
+
+        assertEquals(0, eventos.activas());
+        assertEquals(1.0, registry.get("cuentas.eventos.desbordados").functionCounter().count());
+        // Un envío vacía el buffer y el otro completa el stream, fuera del hilo que publica
+        assertEquals(2, envios.size());
+        enviarPendientes();
+        eventos.publicar(movimiento("478758", "9"), 9L);
+        assertTrue(envios.isEmpty());
+    }
+
+    @Test
+    void testCuentaInexistenteNoDejaSuscripcion() {
+        assertThrows(GeneralException.class, () -> eventos.suscribir("000000", () -> {
+            throw new GeneralException("El número de cuenta no existe", 412);
+        }));
+
+        assertEquals(0, eventos.activas());
+        eventos.publicar(movimiento("000000", "1"), 1L);
+        assertTrue(envios.isEmpty());
+    }
+}
@@ -0,0 +1,168 @@
+package com.upgrade.senior.service.idempotencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.MovimientoIdempotencia;
+import com.upgrade.senior.repository.MovimientoIdempotenciaRepository;
+import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IdempotenciaMovimientosTest {
+
+    private static final MovimientoCreateDTO DEBITO = new MovimientoCreateDTO("478758", TipoMovimiento.DEBITO, Money.de("575"));
+
+    private final MovimientoIdempotenciaRepository repository = mock(MovimientoIdempotenciaRepository.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final IdempotenciaMovimientos idempotencia = new IdempotenciaMovimientos(repository, objectMapper,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), true, 100, 24, 2000, 60000);
+    private final AtomicInteger postings = new AtomicInteger();
+
+    private MovimientoResponseDTO postear() {
+        postings.incrementAndGet();
+        return MovimientoResponseDTO.builder().movimientoId("9").numeroCuenta("478758")
+                .tipoMovimiento(TipoMovimiento.DEBITO).valor(Money.de("-575")).saldo(Money.de("1425")).build();
+    }
+
+    private MovimientoIdempotencia persistida(MovimientoResponseDTO respuesta, LocalDateTime expira) throws Exception {
+        MovimientoIdempotencia registro = new MovimientoIdempotencia();
+        registro.setClave("k1");
+        registro.setHuella(IdempotenciaMovimientos.huella(DEBITO));
+        registro.setRespuesta(objectMapper.writeValueAsString(respuesta));
+        registro.setCreado(LocalDateTime.now().minusHours(1));
+        registro.setExpira(expira);
+        return registro;
+    }
+
+    @Test
+    void testRepeticionDevuelveLaRespuestaOriginalSinPostear() {
+        MovimientoResponseDTO original = idempotencia.ejecutar("k1", DEBITO, this::postear);
+        MovimientoResponseDTO repetida = idempotencia.ejecutar("k1", DEBITO, this::postear);
+
+        assertSame(original, repetida);
+        assertEquals(1, postings.get());
+        assertEquals(1, idempotencia.repeticiones());
+        // Sin clave no hay deduplicación
+        idempotencia.ejecutar(null, DEBITO, this::postear);
+        assertEquals(2, postings.get());
+        verify(repository, times(1)).findById("k1");
+    }
+
+    @Test
+    void testMismaClaveConOtroMovimiento() {
+        idempotencia.ejecutar("k1", DEBITO, this::postear);
+        MovimientoCreateDTO otro = new MovimientoCreateDTO("478758", TipoMovimiento.DEBITO, Money.de("57.50"));
+
+        GeneralException ex = assertThrows(GeneralException.class, () -> idempotencia.ejecutar("k1", otro, this::postear));
+        assertEquals(422, ex.getStatusCode());
+        assertEquals(1, postings.get());
+    }
+
+    @Test
+    void testClaveInvalida() {
+        GeneralException ex = assertThrows(GeneralException.class,
+                () -> idempotencia.ejecutar("x".repeat(IdempotenciaMovimientos.LARGO_MAXIMO_CLAVE + 1), DEBITO, this::postear));
+        assertEquals(400, ex.getStatusCode());
+        assertThrows(GeneralException.class, () -> idempotencia.ejecutar(" ", DEBITO, this::postear));
+        assertEquals(0, postings.get());
+    }
+
+    @Test
+    void testRespuestaPersistidaSeRepiteSinPostear() throws Exception {
+        MovimientoResponseDTO original = postear();
+        when(repository.findById("k1")).thenReturn(Optional.of(persistida(original, LocalDateTime.now().plusHours(1))));
+
+        assertEquals(original, idempotencia.ejecutar("k1", DEBITO, this::postear));
+        assertEquals(original, idempotencia.ejecutar("k1", DEBITO, this::postear));
+
+        assertEquals(1, postings.get());
+        // La segunda repetición ya se resolvió en memoria
+        verify(repository, times(1)).findById("k1");
+    }
+
+    @Test
+    void testRespuestaPersistidaVencidaSeElimina() throws Exception {
+        when(repository.findById("k1")).thenReturn(Optional.of(persistida(postear(), LocalDateTime.now().minusMinutes(1))));
+
+        idempotencia.ejecutar("k1", DEBITO, this::postear);
+
+        assertEquals(2, postings.get());
+        verify(repository).eliminarExpirada(eq("k1"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testPostingFallidoLiberaLaClave() {
+        GeneralException ex = assertThrows(GeneralException.class, () -> idempotencia.ejecutar("k1", DEBITO, () -> {
+            throw new GeneralException("Saldo insuficiente para el débito", 412);
+        }));
+        assertEquals(412, ex.getStatusCode());
+
+        idempotencia.ejecutar("k1", DEBITO, this::postear);
+        assertEquals(1, postings.get());
+    }
+
+    @Test
+    void testClaveRegistradaPorOtraInstancia() throws Exception {
+        MovimientoResponseDTO ganador = postear();
+        when(repository.findById("k1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(persistida(ganador, LocalDateTime.now().plusHours(1))));
+
+        MovimientoResponseDTO respuesta = idempotencia.ejecutar("k1", DEBITO, () -> {
+            throw new IllegalStateException("commit fallido", new DataIntegrityViolationException("Duplicate entry 'k1'"));
+        });
+
+        assertEquals(ganador, respuesta);
+    }
+
+    @Test
+    void testRepeticionConcurrenteEsperaAlOriginal() throws Exception {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch salir = new CountDownLatch(1);
+        CompletableFuture<MovimientoResponseDTO> original = CompletableFuture.supplyAsync(() ->
+                idempotencia.ejecutar("k1", DEBITO, () -> {
+                    dentro.countDown();
+                    try {
+                        salir.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return postear();
+                }));
+        dentro.await();
+        CompletableFuture<MovimientoResponseDTO> repetida = CompletableFuture.supplyAsync(() ->
+                idempotencia.ejecutar("k1", DEBITO, this::postear));
+
+        salir.countDown();
+
+        assertSame(original.get(), repetida.get());
+        assertEquals(1, postings.get());
+    }
+
+    @Test
+    void testRegistrarGuardaLaRespuesta() throws Exception {
+        MovimientoResponseDTO respuesta = postear();
+
+        idempotencia.registrar("k1", DEBITO, respuesta);
+
+        verify(repository).insertar(eq("k1"), eq("478758|DEBITO|57500"), eq(objectMapper.writeValueAsString(respuesta)),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+        idempotencia.registrar(null, DEBITO, respuesta);
+        verifyNoMoreInteractions(repository);
+    }
+}
@@ -1,17 +1,26 @@
 package com.upgrade.senior.service.impl;
 
 
+import com.upgrade.senior.datasource.RuteoLecturas;
 import com.upgrade.senior.exception.ClienteNotFoundException;
+import com.upgrade.senior.exception.GeneralException;
 import com.upgrade.senior.persistence.Cliente;
 import com.upgrade.senior.repository.ClienteRepository;
+import com.upgrade.senior.service.dto.PaginaDTO;
+import com.upgrade.senior.service.dto.cliente.ClienteListadoDTO;
 import com.upgrade.senior.service.dto.cliente.ClienteRequestDTO;
 import com.upgrade.senior.service.dto.cliente.ClienteResponseDTO;
 import com.upgrade.senior.service.mapper.ClienteMapper;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
 import java.util.List;
@@ -28,6 +37,10 @@ class ClienteServiceImplTest {
     private ClienteRepository clienteRepository;
     @Mock
     private ClienteMapper clienteMapper;
+    @Mock
+    private EstadoCuentaCache estadoCuentaCache;
+    @Spy
+    private RuteoLecturas ruteoLecturas = RuteoLecturas.sinReplica();
     @InjectMocks
     private ClienteServiceImpl clienteService;
 
@@ -115,4 +128,25 @@ class ClienteServiceImplTest {
         when(clienteRepository.existsById(id)).thenReturn(false);
         assertThrows(ClienteNotFoundException.class, () -> clienteService.eliminarCliente(id));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testListarClientesPaginado() {
+        PageRequest pageable = PageRequest.of(1, 2, Sort.by("nombre"));
+        ClienteListadoDTO cliente = ClienteListadoDTO.builder().clienteId(3L).nombre("Juan").build();
+        when(clienteRepository.findListado(true, pageable)).thenReturn(new PageImpl<>(List.of(cliente), pageable, 3));
+        PaginaDTO<ClienteListadoDTO> result = clienteService.listarClientesPaginado(true, pageable);
+        assertEquals(List.of(cliente), result.getContenido());
+        assertEquals(1, result.getPagina());
+        assertEquals(3, result.getTotalElementos());
+        assertEquals(2, result.getTotalPaginas());
+        verify(clienteRepository, never()).findAll();
+    }
+
+    @Test
+    void testListarClientesPaginado_ordenNoPermitido() {
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("contrasena"));
+        GeneralException ex = assertThrows(GeneralException.class, () -> clienteService.listarClientesPaginado(null, pageable));
+        assertEquals(400, ex.getStatusCode());
+        verifyNoInteractions(clienteRepository);
+    }
+}
@@ -1,5 +1,7 @@
 package com.upgrade.senior.service.impl;
 
+import com.upgrade.senior.datasource.RuteoLecturas;
+import com.upgrade.senior.enums.TipoCuenta;
 import com.upgrade.senior.exception.ClienteNotFoundException;
 import com.upgrade.senior.exception.CuentaNotFoundException;
 import com.upgrade.senior.exception.GeneralException;
@@ -7,14 +9,23 @@ import com.upgrade.senior.persistence.Cuenta;
 import com.upgrade.senior.persistence.Cliente;
 import com.upgrade.senior.repository.CuentaRepository;
 import com.upgrade.senior.repository.ClienteRepository;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import com.upgrade.senior.service.dto.PaginaDTO;
 import com.upgrade.senior.service.dto.cuenta.CuentaCreateDTO;
 import com.upgrade.senior.service.dto.cuenta.CuentaResponseDTO;
+import com.upgrade.senior.service.evento.EventosCuenta;
 import com.upgrade.senior.service.mapper.CuentaMapper;
+import com.upgrade.senior.service.posting.LedgerEngine;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.util.Arrays;
 import java.util.List;
@@ -32,6 +43,16 @@ class CuentaServiceImplTest {
     private ClienteRepository clienteRepository;
     @Mock
     private CuentaMapper cuentaMapper;
+    @Mock
+    private LedgerEngine ledgerEngine;
+    @Mock
+    private EstadoCuentaCache estadoCuentaCache;
+    @Mock
+    private IndiceNumeroCuenta indiceNumeroCuenta;
+    @Mock
+    private EventosCuenta eventosCuenta;
+    @Spy
+    private RuteoLecturas ruteoLecturas = RuteoLecturas.sinReplica();
     @InjectMocks
     private CuentaServiceImpl cuentaService;
 
@@ -99,7 +120,7 @@ class CuentaServiceImplTest {
         String numero = "123";
         Cuenta cuenta = new Cuenta();
         CuentaResponseDTO responseDTO = CuentaResponseDTO.builder().build();
-        when(cuentaRepository.findByNumeroCuenta(numero)).thenReturn(Optional.of(cuenta));
+        when(indiceNumeroCuenta.buscar(numero)).thenReturn(Optional.of(cuenta));
         when(cuentaMapper.toResponseDTO(cuenta)).thenReturn(responseDTO);
         CuentaResponseDTO result = cuentaService.obtenerCuentaPorNumeroCuenta(numero);
         assertEquals(responseDTO, result);
@@ -108,7 +129,7 @@ class CuentaServiceImplTest {
     @Test
     void testObtenerCuentaPorNumeroCuenta_noExiste() {
         String numero = "123";
-        when(cuentaRepository.findByNumeroCuenta(numero)).thenReturn(Optional.empty());
+        when(indiceNumeroCuenta.buscar(numero)).thenReturn(Optional.empty());
         assertThrows(GeneralException.class, () -> cuentaService.obtenerCuentaPorNumeroCuenta(numero));
     }
 
@@ -137,7 +158,7 @@ class CuentaServiceImplTest {
         Cliente cliente = new Cliente();
         Cuenta updated = new Cuenta();
         CuentaResponseDTO responseDTO = CuentaResponseDTO.builder().build();
-        when(cuentaRepository.findByNumeroCuenta(numeroCuenta)).thenReturn(Optional.of(cuenta));
+        when(indiceNumeroCuenta.buscar(numeroCuenta)).thenReturn(Optional.of(cuenta));
         doNothing().when(cuentaMapper).updateEntityFromDto(dto, cuenta);
         when(clienteRepository.existsById(dto.getClienteId())).thenReturn(true);
         when(clienteRepository.findById(dto.getClienteId())).thenReturn(Optional.of(cliente));
@@ -150,16 +171,83 @@ class CuentaServiceImplTest {
     @Test
     void testEliminarCuenta_exito() {
         Long id = 1L;
-        when(cuentaRepository.existsById(id)).thenReturn(true);
+        Cliente cliente = new Cliente();
+        cliente.setClienteId(7L);
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCliente(cliente);
+        when(cuentaRepository.findById(id)).thenReturn(Optional.of(cuenta));
         doNothing().when(cuentaRepository).deleteById(id);
         assertDoesNotThrow(() -> cuentaService.eliminarCuenta(id));
         verify(cuentaRepository).deleteById(id);
+        verify(estadoCuentaCache).invalidarCliente(7L);
     }
 
     @Test
     void testEliminarCuenta_noExiste() {
         Long id = 1L;
-        when(cuentaRepository.existsById(id)).thenReturn(false);
+        when(cuentaRepository.findById(id)).thenReturn(Optional.empty());
         assertThrows(CuentaNotFoundException.class, () -> cuentaService.eliminarCuenta(id));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testListarCuentasPaginado() {
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "saldoInicial"));
+        CuentaResponseDTO cuenta = CuentaResponseDTO.builder().numeroCuenta("123").tipoCuenta(TipoCuenta.AHORRO).build();
+        when(cuentaRepository.findListado(true, TipoCuenta.AHORRO, 1L, pageable)).thenReturn(new PageImpl<>(List.of(cuenta), pageable, 1));
+        PaginaDTO<CuentaResponseDTO> result = cuentaService.listarCuentasPaginado(true, TipoCuenta.AHORRO, 1L, pageable);
+        assertEquals(List.of(cuenta), result.getContenido());
+        assertEquals(1, result.getTotalPaginas());
+        verifyNoInteractions(cuentaMapper);
+    }
+
+    @Test
+    void testListarCuentasPaginado_ordenNoPermitido() {
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("cliente.contrasena"));
+        GeneralException ex = assertThrows(GeneralException.class,
+                () -> cuentaService.listarCuentasPaginado(null, null, null, pageable));
+        assertEquals(400, ex.getStatusCode());
+    }
+
+    @Test
+    void testCrearCuenta_registraEnIndice() {
+        CuentaCreateDTO dto = CuentaCreateDTO.builder().numeroCuenta("123").clienteId(1L).build();
+        Cuenta cuenta = new Cuenta();
+        Cuenta saved = new Cuenta();
+        saved.setCuentaId(9L);
+        saved.setNumeroCuenta("123");
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(cuentaMapper.toEntity(dto)).thenReturn(cuenta);
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(new Cliente()));
+        when(cuentaRepository.save(cuenta)).thenReturn(saved);
+        cuentaService.crearCuenta(dto);
+        verify(indiceNumeroCuenta).cuentaCreada("123", 9L);
+    }
+
+    @Test
+    void testActualizarCuenta_cambioDeNumeroActualizaIndice() {
+        CuentaCreateDTO dto = CuentaCreateDTO.builder().numeroCuenta("456").build();
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(9L);
+        cuenta.setNumeroCuenta("123");
+        when(indiceNumeroCuenta.buscar("123")).thenReturn(Optional.of(cuenta));
+        doAnswer(inv -> {
+            cuenta.setNumeroCuenta("456");
+            return null;
+        }).when(cuentaMapper).updateEntityFromDto(dto, cuenta);
+        when(cuentaRepository.save(cuenta)).thenReturn(cuenta);
+        cuentaService.actualizarCuenta("123", dto);
+        verify(indiceNumeroCuenta).cuentaEliminada("123");
+        verify(indiceNumeroCuenta).cuentaCreada("456", 9L);
+    }
+
+    @Test
+    void testEliminarCuentaByNumeroCuenta_quitaDelIndice() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("123");
+        when(indiceNumeroCuenta.buscar("123")).thenReturn(Optional.of(cuenta));
+        cuentaService.eliminarCuentaByNumeroCuenta("123");
+        verify(cuentaRepository).delete(cuenta);
+        verify(indiceNumeroCuenta).cuentaEliminada("123");
+        verify(ledgerEngine).invalidar("123");
+    }
+}
@@ -1,27 +1,55 @@
 package com.upgrade.senior.service.impl;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrade.senior.datasource.RuteoLecturas;
 import com.upgrade.senior.enums.TipoMovimiento;
 import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cliente;
 import com.upgrade.senior.persistence.Cuenta;
 import com.upgrade.senior.persistence.Movimiento;
 import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.repository.MovimientoIdempotenciaRepository;
 import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.service.ResumenDiarioService;
+import com.upgrade.senior.service.archivo.ArchivoMovimientos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos;
+import com.upgrade.senior.service.dto.movimiento.MovimientoBatchResponseDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoCreateDTO;
+import com.upgrade.senior.service.dto.movimiento.MovimientoPaginaDTO;
 import com.upgrade.senior.service.dto.movimiento.MovimientoResponseDTO;
+import com.upgrade.senior.service.evento.EventosCuenta;
+import com.upgrade.senior.service.idempotencia.IdempotenciaMovimientos;
 import com.upgrade.senior.service.mapper.MovimientoMapper;
+import com.upgrade.senior.service.posting.PostingMetrics;
+import com.upgrade.senior.service.posting.PostingStrategy;
+import com.upgrade.senior.service.posting.LedgerEngine;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,27 +62,108 @@ class MovimientoServiceImplTest {
     private CuentaRepository cuentaRepository;
     @Mock
     private MovimientoMapper movimientoMapper;
+    @Mock
+    private PostingStrategy postingStrategy;
+    @Mock
+    private PostingMetrics postingMetrics;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private LedgerEngine ledgerEngine;
+    @Mock
+    private EstadoCuentaCache estadoCuentaCache;
+    @Mock
+    private ResumenDiarioService resumenDiarioService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private BulkheadBaseDatos bulkhead = new BulkheadBaseDatos(true, 1, 1000, 1, 1000);
+    @Spy
+    private IdempotenciaMovimientos idempotencia = new IdempotenciaMovimientos(mock(MovimientoIdempotenciaRepository.class),
+            new ObjectMapper(), mock(TransactionTemplate.class), true, 100, 24, 1000, 60000);
+    @Spy
+    private RuteoLecturas ruteoLecturas = RuteoLecturas.sinReplica();
+    @Mock
+    private EventosCuenta eventosCuenta;
+    @Spy
+    private ArchivoMovimientos archivoMovimientos = ArchivoMovimientos.sinArchivo();
     @InjectMocks
     private MovimientoServiceImpl movimientoService;
 
+    private void postearSobre(Cuenta cuenta) {
+        when(postingStrategy.post(eq("123"), any()))
+                .thenAnswer(inv -> inv.<Function<Cuenta, ?>>getArgument(1).apply(cuenta));
+    }
+
     @Test
     void testCrearMovimiento_debitoExitoso() {
         MovimientoCreateDTO dto = MovimientoCreateDTO.builder()
                 .numeroCuenta("123")
                 .tipoMovimiento(TipoMovimiento.DEBITO)
-                .valor(50.0)
+                .valor(Money.de("50"))
                 .build();
+        Cliente cliente = new Cliente();
+        cliente.setClienteId(7L);
         Cuenta cuenta = new Cuenta();
-        cuenta.setSaldoInicial(100.0);
+        cuenta.setSaldoInicial(Money.de("100"));
+        cuenta.setCliente(cliente);
         Movimiento movimiento = new Movimiento();
         MovimientoResponseDTO responseDTO = MovimientoResponseDTO.builder().build();
-        when(cuentaRepository.findByNumeroCuenta(dto.getNumeroCuenta())).thenReturn(Optional.of(cuenta));
+        postearSobre(cuenta);
         when(movimientoMapper.toEntity(dto)).thenReturn(movimiento);
         when(movimientoMapper.toResponseDTO(movimiento)).thenReturn(responseDTO);
         MovimientoResponseDTO result = movimientoService.crearMovimiento(dto);
         assertEquals(responseDTO, result);
         verify(cuentaRepository).save(any(Cuenta.class));
         verify(movimientoRepository).save(any(Movimiento.class));
+        verify(resumenDiarioService).acumular(List.of(movimiento));
+        verify(estadoCuentaCache).invalidarCliente(7L);
+        verify(eventosCuenta).publicar(responseDTO, 1L);
+    }
+
+    @Test
+    void testCrearMovimiento_estrategiaConPermisoPropioNoRetienePermiso() {
+        MovimientoCreateDTO dto = MovimientoCreateDTO.builder()
+                .numeroCuenta("123")
+                .tipoMovimiento(TipoMovimiento.CREDITO)
+                .valor(Money.de("50"))
+                .build();
+        Cuenta cuenta = new Cuenta();
+        cuenta.setSaldoInicial(Money.de("100"));
+        Movimiento movimiento = new Movimiento();
+        when(postingStrategy.usaPermisoPropio()).thenReturn(true);
+        postearSobre(cuenta);
+        when(movimientoMapper.toEntity(dto)).thenReturn(movimiento);
+        when(movimientoMapper.toResponseDTO(movimiento)).thenReturn(MovimientoResponseDTO.builder().build());
+
+        movimientoService.crearMovimiento(dto);
+
+        assertEquals(Money.de("150"), cuenta.getSaldoInicial());
+        verify(bulkhead, never()).ejecutar(any(), ArgumentMatchers.<Supplier<Object>>any());
+    }
+
+    @Test
+    void testCrearMovimiento_repeticionConIdempotencyKeyNoVuelveAPostear() {
+        MovimientoCreateDTO dto = MovimientoCreateDTO.builder()
+                .numeroCuenta("123")
+                .tipoMovimiento(TipoMovimiento.DEBITO)
+                .valor(Money.de("50"))
+                .build();
+        Cuenta cuenta = new Cuenta();
+        cuenta.setSaldoInicial(Money.de("100"));
+        Movimiento movimiento = new Movimiento();
+        MovimientoResponseDTO responseDTO = MovimientoResponseDTO.builder().movimientoId("1").build();
+        postearSobre(cuenta);
+        when(movimientoMapper.toEntity(dto)).thenReturn(movimiento);
+        when(movimientoMapper.toResponseDTO(movimiento)).thenReturn(responseDTO);
+
+        assertSame(responseDTO, movimientoService.crearMovimiento(dto, "reintento-1"));
+        assertSame(responseDTO, movimientoService.crearMovimiento(dto, "reintento-1"));
+
+        assertEquals(Money.de("50"), cuenta.getSaldoInicial());
+        verify(postingStrategy, times(1)).post(eq("123"), any());
+        verify(idempotencia).registrar("reintento-1", dto, responseDTO);
+        verify(eventosCuenta, times(1)).publicar(responseDTO, 1L);
     }
 
     @Test
@@ -62,13 +171,15 @@ class MovimientoServiceImplTest {
         MovimientoCreateDTO dto = MovimientoCreateDTO.builder()
                 .numeroCuenta("123")
                 .tipoMovimiento(TipoMovimiento.DEBITO)
-                .valor(200.0)
+                .valor(Money.de("200"))
                 .build();
         Cuenta cuenta = new Cuenta();
-        cuenta.setSaldoInicial(100.0);
-        when(cuentaRepository.findByNumeroCuenta(dto.getNumeroCuenta())).thenReturn(Optional.of(cuenta));
+        cuenta.setSaldoInicial(Money.de("100"));
+        postearSobre(cuenta);
         GeneralException ex = assertThrows(GeneralException.class, () -> movimientoService.crearMovimiento(dto));
         assertEquals("Saldo insuficiente para el débito", ex.getMessage());
+        verify(postingMetrics).registrarDebitoRechazado();
+        verifyNoInteractions(eventosCuenta);
     }
 
     @Test
@@ -76,13 +187,13 @@ class MovimientoServiceImplTest {
         MovimientoCreateDTO dto = MovimientoCreateDTO.builder()
                 .numeroCuenta("123")
                 .tipoMovimiento(TipoMovimiento.CREDITO)
-                .valor(50.0)
+                .valor(Money.de("50"))
                 .build();
         Cuenta cuenta = new Cuenta();
-        cuenta.setSaldoInicial(100.0);
+        cuenta.setSaldoInicial(Money.de("100"));
         Movimiento movimiento = new Movimiento();
         MovimientoResponseDTO responseDTO = MovimientoResponseDTO.builder().build();
-        when(cuentaRepository.findByNumeroCuenta(dto.getNumeroCuenta())).thenReturn(Optional.of(cuenta));
+        postearSobre(cuenta);
         when(movimientoMapper.toEntity(dto)).thenReturn(movimiento);
         when(movimientoMapper.toResponseDTO(movimiento)).thenReturn(responseDTO);
         MovimientoResponseDTO result = movimientoService.crearMovimiento(dto);
@@ -96,64 +207,105 @@ class MovimientoServiceImplTest {
         MovimientoCreateDTO dto = MovimientoCreateDTO.builder()
                 .numeroCuenta("123")
                 .build();
-        when(cuentaRepository.findByNumeroCuenta(dto.getNumeroCuenta())).thenReturn(Optional.empty());
+        when(postingStrategy.post(eq("123"), any())).thenThrow(new GeneralException("Cuenta no encontrada", 404));
         GeneralException ex = assertThrows(GeneralException.class, () -> movimientoService.crearMovimiento(dto));
         assertEquals("Cuenta no encontrada", ex.getMessage());
     }
 
+    private Movimiento movimiento(long id, LocalDateTime fecha, long valor) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setMovimientoId(id);
+        movimiento.setFecha(fecha);
+        movimiento.setValor(Money.deCentavos(valor * 100));
+        return movimiento;
+    }
+
+    private void configurarPaginas(int tamano, int maximo) {
+        ReflectionTestUtils.setField(movimientoService, "tamanoPagina", tamano);
+        ReflectionTestUtils.setField(movimientoService, "tamanoMaximoPagina", maximo);
+    }
+
     @Test
     void testObtenerMovimientosPorCuenta() {
+        configurarPaginas(50, 500);
         String numeroCuenta = "123";
-        Movimiento mov1 = new Movimiento();
-        mov1.setValor(10.0);
-        Movimiento mov2 = new Movimiento();
-        mov2.setValor(5.0);
+        Movimiento mov1 = movimiento(1L, LocalDateTime.of(2024, 1, 1, 9, 0), 10);
+        Movimiento mov2 = movimiento(2L, LocalDateTime.of(2024, 1, 2, 9, 0), 5);
         MovimientoResponseDTO dto1 = MovimientoResponseDTO.builder().build();
         MovimientoResponseDTO dto2 = MovimientoResponseDTO.builder().build();
-        when(movimientoRepository.findByCuenta_NumeroCuenta(numeroCuenta)).thenReturn(Arrays.asList(mov1, mov2));
+        when(movimientoRepository.findPaginaPorCuenta(numeroCuenta, Limit.of(51))).thenReturn(Arrays.asList(mov1, mov2));
         when(movimientoMapper.toResponseDTO(mov1)).thenReturn(dto1);
         when(movimientoMapper.toResponseDTO(mov2)).thenReturn(dto2);
-        List<MovimientoResponseDTO> result = movimientoService.obtenerMovimientosPorCuenta(numeroCuenta);
-        assertEquals(2, result.size());
-        assertTrue(result.contains(dto1));
-        assertTrue(result.contains(dto2));
+        MovimientoPaginaDTO result = movimientoService.obtenerMovimientosPorCuenta(numeroCuenta, null, null);
+        assertEquals(List.of(dto1, dto2), result.getMovimientos());
+        assertNull(result.getSiguiente());
+    }
+
+    @Test
+    void testObtenerMovimientosPorCuenta_cursorContinuaDesdeUltimaFila() {
+        configurarPaginas(50, 2);
+        LocalDateTime fecha = LocalDateTime.of(2024, 1, 2, 9, 0);
+        Movimiento mov1 = movimiento(1L, fecha.minusDays(1), 10);
+        Movimiento mov2 = movimiento(2L, fecha, 5);
+        Movimiento mov3 = movimiento(3L, fecha, 1);
+        Movimiento mov4 = movimiento(4L, fecha.plusDays(1), 1);
+        when(movimientoMapper.toResponseDTO(any())).thenAnswer(inv -> MovimientoResponseDTO.builder().build());
+        when(movimientoRepository.findPaginaPorCuenta("123", Limit.of(3))).thenReturn(List.of(mov1, mov2, mov3));
+
+        MovimientoPaginaDTO primera = movimientoService.obtenerMovimientosPorCuenta("123", null, 10);
+
+        assertEquals(2, primera.getMovimientos().size());
+        assertNotNull(primera.getSiguiente());
+        when(movimientoRepository.findPaginaPorCuentaDesde("123", fecha, 2L, Limit.of(3))).thenReturn(List.of(mov3, mov4));
+        MovimientoPaginaDTO segunda = movimientoService.obtenerMovimientosPorCuenta("123", primera.getSiguiente(), 10);
+        assertEquals(2, segunda.getMovimientos().size());
+        assertNull(segunda.getSiguiente());
+    }
+
+    @Test
+    void testObtenerMovimientosPorCuenta_cursorInvalido() {
+        configurarPaginas(50, 500);
+        GeneralException ex = assertThrows(GeneralException.class,
+                () -> movimientoService.obtenerMovimientosPorCuenta("123", "no-es-un-cursor", null));
+        assertEquals(400, ex.getStatusCode());
+        verifyNoInteractions(movimientoRepository);
     }
 
     @Test
     void testObtenerMovimientosPorClienteYFechas() {
+        configurarPaginas(50, 500);
         Long clienteId = 1L;
         LocalDate fechaInicio = LocalDate.of(2024, 1, 1);
         LocalDate fechaFin = LocalDate.of(2024, 1, 31);
-        Movimiento mov = new Movimiento();
-        mov.setValor(15.0);
+        Movimiento mov = movimiento(1L, LocalDateTime.of(2024, 1, 5, 9, 0), 15);
         MovimientoResponseDTO dto = MovimientoResponseDTO.builder().build();
-        when(movimientoRepository.findMovimientosPorClienteYFechas(eq(clienteId), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(Collections.singletonList(mov));
+        when(movimientoRepository.findPaginaPorClienteYFechas(clienteId, fechaInicio.atStartOfDay(),
+                fechaFin.plusDays(1).atStartOfDay(), Limit.of(51))).thenReturn(Collections.singletonList(mov));
         when(movimientoMapper.toResponseDTO(mov)).thenReturn(dto);
-        List<MovimientoResponseDTO> result = movimientoService.obtenerMovimientosPorClienteYFechas(clienteId, fechaInicio, fechaFin);
-        assertEquals(1, result.size());
-        assertEquals(dto, result.get(0));
+        MovimientoPaginaDTO result = movimientoService.obtenerMovimientosPorClienteYFechas(clienteId, fechaInicio, fechaFin, null, null);
+        assertEquals(1, result.getMovimientos().size());
+        assertEquals(dto, result.getMovimientos().get(0));
     }
 
     @Test
     void testObtenerMovimientosPorClienteYFechas_nullFechas() {
+        configurarPaginas(50, 500);
         Long clienteId = 1L;
-        Movimiento mov = new Movimiento();
-        mov.setValor(1.0);
+        Movimiento mov = movimiento(1L, LocalDateTime.now(), 1);
         MovimientoResponseDTO dto = MovimientoResponseDTO.builder().build();
-        when(movimientoRepository.findMovimientosPorClienteYFechas(eq(clienteId), any(LocalDateTime.class), any(LocalDateTime.class)))
+        when(movimientoRepository.findPaginaPorClienteYFechas(eq(clienteId), any(LocalDateTime.class), any(LocalDateTime.class), any(Limit.class)))
                 .thenReturn(Collections.singletonList(mov));
         when(movimientoMapper.toResponseDTO(mov)).thenReturn(dto);
-        List<MovimientoResponseDTO> result = movimientoService.obtenerMovimientosPorClienteYFechas(clienteId, null, null);
-        assertEquals(1, result.size());
-        assertEquals(dto, result.get(0));
+        MovimientoPaginaDTO result = movimientoService.obtenerMovimientosPorClienteYFechas(clienteId, null, null, null, null);
+        assertEquals(1, result.getMovimientos().size());
+        assertEquals(dto, result.getMovimientos().get(0));
     }
 
     @Test
     void testObtenerMovimientoPorId_exito() {
         Long id = 1L;
         Movimiento mov = new Movimiento();
-        mov.setValor(100.0);
+        mov.setValor(Money.de("100"));
         MovimientoResponseDTO dto = MovimientoResponseDTO.builder().build();
         when(movimientoRepository.findById(id)).thenReturn(Optional.of(mov));
         when(movimientoMapper.toResponseDTO(mov)).thenReturn(dto);
@@ -172,17 +324,99 @@ class MovimientoServiceImplTest {
     @Test
     void testEliminarMovimiento_exito() {
         Long id = 1L;
-        when(movimientoRepository.existsById(id)).thenReturn(true);
-        doNothing().when(movimientoRepository).deleteById(id);
+        Cliente cliente = new Cliente();
+        cliente.setClienteId(7L);
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(3L);
+        cuenta.setCliente(cliente);
+        Movimiento movimiento = new Movimiento();
+        movimiento.setCuenta(cuenta);
+        movimiento.setFecha(LocalDateTime.of(2024, 1, 10, 9, 0));
+        when(movimientoRepository.findById(id)).thenReturn(Optional.of(movimiento));
         assertDoesNotThrow(() -> movimientoService.eliminarMovimiento(id));
-        verify(movimientoRepository).deleteById(id);
+        verify(movimientoRepository).delete(movimiento);
+        verify(resumenDiarioService).recalcularDia(3L, LocalDate.of(2024, 1, 10));
+        verify(estadoCuentaCache).invalidarCliente(7L);
     }
 
     @Test
     void testEliminarMovimiento_noExiste() {
         Long id = 1L;
-        when(movimientoRepository.existsById(id)).thenReturn(false);
+        when(movimientoRepository.findById(id)).thenReturn(Optional.empty());
         GeneralException ex = assertThrows(GeneralException.class, () -> movimientoService.eliminarMovimiento(id));
         assertEquals("Movimiento no encontrado", ex.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCrearMovimientosBatch_resultadosPorItem() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("123");
+        cuenta.setSaldoInicial(Money.de("100"));
+        List<MovimientoCreateDTO> dtos = List.of(
+                MovimientoCreateDTO.builder().numeroCuenta("123").tipoMovimiento(TipoMovimiento.DEBITO).valor(Money.de("80")).build(),
+                MovimientoCreateDTO.builder().numeroCuenta("999").tipoMovimiento(TipoMovimiento.CREDITO).valor(Money.de("10")).build(),
+                MovimientoCreateDTO.builder().numeroCuenta("123").tipoMovimiento(TipoMovimiento.DEBITO).valor(Money.de("30")).build(),
+                MovimientoCreateDTO.builder().numeroCuenta("123").tipoMovimiento(TipoMovimiento.CREDITO).valor(Money.de("5")).build());
+        ReflectionTestUtils.setField(movimientoService, "batchChunkSize", 1000);
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(cuentaRepository.findWithLockByNumeroCuentaIn(List.of("123", "999"))).thenReturn(List.of(cuenta));
+        when(movimientoMapper.toEntity(any(MovimientoCreateDTO.class))).thenAnswer(inv -> new Movimiento());
+        when(movimientoMapper.toResponseDTO(any(Movimiento.class))).thenReturn(MovimientoResponseDTO.builder().build());
+
+        MovimientoBatchResponseDTO result = movimientoService.crearMovimientosBatch(dtos);
+
+        assertEquals(4, result.getTotal());
+        assertEquals(2, result.getExitosos());
+        assertEquals(2, result.getFallidos());
+        assertEquals(201, result.getResultados().get(0).getCodigo());
+        assertEquals(404, result.getResultados().get(1).getCodigo());
+        assertEquals(412, result.getResultados().get(2).getCodigo());
+        assertEquals(201, result.getResultados().get(3).getCodigo());
+        assertEquals(Money.de("25"), cuenta.getSaldoInicial());
+        verify(cuentaRepository, times(1)).findWithLockByNumeroCuentaIn(any());
+        verify(movimientoRepository).saveAll(any());
+        verify(resumenDiarioService).acumular(argThat(movimientos -> movimientos.size() == 2));
+    }
+
+    @Test
+    void testExportarMovimientosPorCliente_escribeUnaLineaPorMovimiento() {
+        ReflectionTestUtils.setField(movimientoService, "exportFetchSize", 500);
+        LocalDate inicio = LocalDate.of(2024, 1, 1);
+        LocalDate fin = LocalDate.of(2024, 1, 31);
+        when(movimientoRepository.streamExportacion(1L, inicio.atStartOfDay(), fin.plusDays(1).atStartOfDay(), 500))
+                .thenReturn(Stream.of(
+                        new Object[]{10L, "123", LocalDateTime.of(2024, 1, 2, 9, 30), TipoMovimiento.CREDITO, Money.de("100"), Money.de("600")},
+                        new Object[]{11L, "123", LocalDateTime.of(2024, 1, 3, 10, 0), TipoMovimiento.DEBITO, Money.de("50"), Money.de("550")}));
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        movimientoService.exportarMovimientosPorCliente(1L, inicio, fin, out);
+
+        String[] lineas = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lineas.length);
+        assertEquals("{\"movimientoId\":\"10\",\"numeroCuenta\":\"123\",\"fecha\":\"2024-01-02T09:30:00\","
+                + "\"tipoMovimiento\":\"CREDITO\",\"valor\":100.00,\"saldo\":600.00}", lineas[0]);
+        assertTrue(lineas[1].startsWith("{\"movimientoId\":\"11\""));
+        assertTrue(lineas[1].contains("\"valor\":-50.00,\"saldo\":550.00}"));
+    }
+
+    @Test
+    void testExportarMovimientosPorCliente_sinMovimientos() {
+        when(movimientoRepository.streamExportacion(eq(1L), any(), any(), anyInt())).thenReturn(Stream.empty());
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        movimientoService.exportarMovimientosPorCliente(1L, null, null, out);
+
+        assertEquals(0, out.size());
+    }
+}
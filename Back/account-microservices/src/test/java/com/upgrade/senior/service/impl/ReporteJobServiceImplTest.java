@@ -0,0 +1,142 @@
+package com.upgrade.senior.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.upgrade.senior.enums.EstadoReporteJob;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.service.ReporteService;
+import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobArchivoDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobCreateDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteJobResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReporteJobServiceImplTest {
+    @Mock
+    private ReporteService reporteService;
+    @TempDir
+    private Path spool;
+    private ReporteJobServiceImpl reporteJobService;
+
+    private void iniciar(int maxEnVuelo, long ttlMinutos) throws Exception {
+        reporteJobService = new ReporteJobServiceImpl(reporteService, new ObjectMapper().registerModule(new JavaTimeModule()),
+                spool, maxEnVuelo, 2, ttlMinutos, 60000);
+        reporteJobService.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reporteJobService.detener();
+    }
+
+    private ReporteJobResponseDTO esperar(String id) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ReporteJobResponseDTO job = reporteJobService.obtenerJob(id);
+        while (job.getEstado() != EstadoReporteJob.COMPLETADO && job.getEstado() != EstadoReporteJob.FALLIDO
+                && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            job = reporteJobService.obtenerJob(id);
+        }
+        return job;
+    }
+
+    @Test
+    void testCrearJob_pdfSeEscribeEnSpool() throws Exception {
+        iniciar(10, 60);
+        doAnswer(inv -> {
+            inv.getArgument(3, OutputStream.class).write("%PDF-1.4".getBytes());
+            return null;
+        }).when(reporteService).escribirEstadoCuentaPDF(eq(1L), any(), any(), any());
+
+        ReporteJobResponseDTO creado = reporteJobService.crearJob(ReporteJobCreateDTO.builder().clienteId(1L).formato("PDF").build());
+        ReporteJobResponseDTO job = esperar(creado.getId());
+
+        assertEquals(EstadoReporteJob.COMPLETADO, job.getEstado());
+        assertEquals(8L, job.getTamanoBytes());
+        ReporteJobArchivoDTO archivo = reporteJobService.obtenerResultado(creado.getId());
+        assertEquals("application/pdf", archivo.getContentType());
+        assertEquals("%PDF-1.4", Files.readString(archivo.getArchivo()));
+        assertEquals(spool, archivo.getArchivo().getParent());
+    }
+
+    @Test
+    void testCrearJob_jsonFallido() throws Exception {
+        iniciar(10, 60);
+        when(reporteService.generarEstadoCuenta(eq(1L), any(), any())).thenThrow(new RuntimeException("boom"));
+
+        ReporteJobResponseDTO creado = reporteJobService.crearJob(ReporteJobCreateDTO.builder().clienteId(1L).build());
+        ReporteJobResponseDTO job = esperar(creado.getId());
+
+        assertEquals(EstadoReporteJob.FALLIDO, job.getEstado());
+        assertEquals("boom", job.getError());
+        GeneralException ex = assertThrows(GeneralException.class, () -> reporteJobService.obtenerResultado(creado.getId()));
+        assertEquals(409, ex.getStatusCode());
+        try (var archivos = Files.list(spool)) {
+            assertEquals(0, archivos.count());
+        }
+    }
+
+    @Test
+    void testCrearJob_limiteEnVuelo() throws Exception {
+        iniciar(1, 60);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(reporteService.generarEstadoCuenta(eq(1L), any(), any())).thenAnswer(inv -> {
+            liberar.await();
+            return ReporteEstadoCuentaResponseDTO.builder().cuentas(List.of()).build();
+        });
+        ReporteJobResponseDTO primero = reporteJobService.crearJob(ReporteJobCreateDTO.builder().clienteId(1L).build());
+
+        GeneralException ex = assertThrows(GeneralException.class,
+                () -> reporteJobService.crearJob(ReporteJobCreateDTO.builder().clienteId(1L).build()));
+        assertEquals(503, ex.getStatusCode());
+        GeneralException noDisponible = assertThrows(GeneralException.class, () -> reporteJobService.obtenerResultado(primero.getId()));
+        assertEquals(409, noDisponible.getStatusCode());
+
+        liberar.countDown();
+        assertEquals(EstadoReporteJob.COMPLETADO, esperar(primero.getId()).getEstado());
+    }
+
+    @Test
+    void testCrearJob_formatoInvalido() throws Exception {
+        iniciar(10, 60);
+        GeneralException ex = assertThrows(GeneralException.class,
+                () -> reporteJobService.crearJob(ReporteJobCreateDTO.builder().clienteId(1L).formato("xml").build()));
+        assertEquals(400, ex.getStatusCode());
+        verifyNoInteractions(reporteService);
+    }
+
+    @Test
+    void testLimpiarExpirados_eliminaJobYArchivo() throws Exception {
+        iniciar(10, 0);
+        when(reporteService.generarEstadoCuenta(eq(1L), any(), any()))
+                .thenReturn(ReporteEstadoCuentaResponseDTO.builder().cuentas(List.of()).build());
+        ReporteJobResponseDTO creado = reporteJobService.crearJob(ReporteJobCreateDTO.builder().clienteId(1L).build());
+        Path archivo = spool.resolve(creado.getId() + ".json");
+        assertEquals(EstadoReporteJob.COMPLETADO, esperar(creado.getId()).getEstado());
+        assertTrue(Files.exists(archivo));
+
+        reporteJobService.limpiarExpirados();
+
+        assertFalse(Files.exists(archivo));
+        GeneralException ex = assertThrows(GeneralException.class, () -> reporteJobService.obtenerJob(creado.getId()));
+        assertEquals(404, ex.getStatusCode());
+    }
+}
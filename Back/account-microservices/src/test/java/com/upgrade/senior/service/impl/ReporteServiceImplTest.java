@@ -0,0 +1,261 @@
+package com.upgrade.senior.service.impl;
+
+import com.upgrade.senior.datasource.RuteoLecturas;
+import com.upgrade.senior.enums.TipoCuenta;
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.exception.ClienteNotFoundException;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cliente;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.persistence.MovimientoResumenDiario;
+import com.upgrade.senior.persistence.MovimientoResumenDiarioId;
+import com.upgrade.senior.repository.ClienteRepository;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.repository.MovimientoResumenDiarioRepository;
+import com.upgrade.senior.service.archivo.ArchivoMovimientos;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos;
+import com.upgrade.senior.service.dto.reporte.CuentaReporteDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
+import com.upgrade.senior.service.reporte.EstadoCuentaCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReporteServiceImplTest {
+    @Mock
+    private ClienteRepository clienteRepository;
+    @Mock
+    private CuentaRepository cuentaRepository;
+    @Mock
+    private MovimientoRepository movimientoRepository;
+    @Mock
+    private MovimientoResumenDiarioRepository resumenRepository;
+    @Mock
+    private EstadoCuentaCache estadoCuentaCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private BulkheadBaseDatos bulkhead = new BulkheadBaseDatos(true, 1, 1000, 1, 1000);
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private RuteoLecturas ruteoLecturas = RuteoLecturas.sinReplica();
+    @Spy
+    private ArchivoMovimientos archivoMovimientos = ArchivoMovimientos.sinArchivo();
+    @Mock
+    private EntityManager entityManager;
+    @InjectMocks
+    private ReporteServiceImpl reporteService;
+
+    private Cuenta cuenta(Long id, String numero) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(id);
+        cuenta.setNumeroCuenta(numero);
+        cuenta.setTipoCuenta(TipoCuenta.AHORRO);
+        cuenta.setSaldoInicial(Money.de("100"));
+        cuenta.setEstado(true);
+        return cuenta;
+    }
+
+    private Movimiento movimiento(Cuenta cuenta, TipoMovimiento tipo, long valor, long saldo) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setCuenta(cuenta);
+        movimiento.setFecha(LocalDateTime.of(2024, 1, 10, 9, 0));
+        movimiento.setTipoMovimiento(tipo);
+        movimiento.setValor(Money.deCentavos(valor * 100));
+        movimiento.setSaldo(Money.deCentavos(saldo * 100));
+        return movimiento;
+    }
+
+    @Test
+    void testGenerarEstadoCuenta_agrupaPorCuentaEnUnaPasada() {
+        Cliente cliente = new Cliente();
+        cliente.setNombre("Jose");
+        Cuenta a = cuenta(1L, "111");
+        Cuenta b = cuenta(2L, "222");
+        LocalDate dia = LocalDate.of(2024, 1, 10);
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        List<Movimiento> movimientos = List.of(
+                movimiento(a, TipoMovimiento.CREDITO, 50, 150),
+                movimiento(a, TipoMovimiento.DEBITO, 20, 130),
+                movimiento(b, TipoMovimiento.DEBITO, 10, 90));
+        when(movimientoRepository.streamEstadoCuenta(1L, dia.atStartOfDay(), dia.plusDays(1).atStartOfDay()))
+                .thenReturn(movimientos.stream());
+        when(cuentaRepository.countByClienteClienteId(1L)).thenReturn(2L);
+
+        ReporteEstadoCuentaResponseDTO result = reporteService.generarEstadoCuenta(1L, dia, dia);
+
+        assertEquals("Jose", result.getCliente());
+        assertEquals(2, result.getCuentas().size());
+        CuentaReporteDTO primera = result.getCuentas().get(0);
+        assertEquals("111", primera.getNumeroCuenta());
+        assertEquals(Money.de("50"), primera.getTotalCreditos());
+        assertEquals(Money.de("20"), primera.getTotalDebitos());
+        assertEquals(Money.de("130"), primera.getSaldoFinal());
+        assertEquals(Money.de("-20"), primera.getMovimientos().get(1).getValor());
+        assertEquals(Money.de("90"), result.getCuentas().get(1).getSaldoFinal());
+        assertEquals(3.0, meterRegistry.get("reporte.estado.cuenta.movimientos").summary().totalAmount());
+        verify(movimientoRepository, never()).findByCuenta_NumeroCuenta(any());
+        verify(cuentaRepository, never()).findAll();
+        // Ningún movimiento queda retenido en el contexto de persistencia
+        movimientos.forEach(m -> verify(entityManager).detach(same(m)));
+    }
+
+    private MovimientoResumenDiario dia(Cuenta cuenta, LocalDate fecha, long creditos, long debitos, long cierre) {
+        MovimientoResumenDiario dia = new MovimientoResumenDiario();
+        dia.setId(new MovimientoResumenDiarioId(cuenta.getCuentaId(), fecha));
+        dia.setCuenta(cuenta);
+        dia.setTotalCreditos(Money.deCentavos(creditos * 100));
+        dia.setTotalDebitos(Money.deCentavos(debitos * 100));
+        dia.setSaldoCierre(Money.deCentavos(cierre * 100));
+        return dia;
+    }
+
+    @Test
+    void testGenerarResumenEstadoCuenta_sumaDiasSinLeerMovimientos() {
+        Cliente cliente = new Cliente();
+        cliente.setNombre("Jose");
+        Cuenta a = cuenta(1L, "111");
+        Cuenta b = cuenta(2L, "222");
+        LocalDate desde = LocalDate.of(2024, 1, 1);
+        LocalDate hasta = LocalDate.of(2024, 1, 31);
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(resumenRepository.findResumenPorClienteYFechas(1L, desde, hasta)).thenReturn(List.of(
+                dia(a, desde, 50, 0, 150),
+                dia(a, hasta, 10, 30, 130),
+                dia(b, hasta, 0, 10, 90)));
+        when(cuentaRepository.countByClienteClienteId(1L)).thenReturn(2L);
+
+        ReporteEstadoCuentaResponseDTO result = reporteService.generarResumenEstadoCuenta(1L, desde, hasta);
+
+        assertEquals(2, result.getCuentas().size());
+        CuentaReporteDTO primera = result.getCuentas().get(0);
+        assertEquals(Money.de("60"), primera.getTotalCreditos());
+        assertEquals(Money.de("30"), primera.getTotalDebitos());
+        assertEquals(Money.de("130"), primera.getSaldoFinal());
+        assertTrue(primera.getMovimientos().isEmpty());
+        assertEquals(Money.de("90"), result.getCuentas().get(1).getSaldoFinal());
+        verifyNoInteractions(movimientoRepository);
+    }
+
+    @Test
+    void testGenerarResumenEstadoCuenta_cuentaSinMovimientos() {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(new Cliente()));
+        when(resumenRepository.findResumenPorClienteYFechas(eq(1L), any(), any())).thenReturn(List.of());
+        when(cuentaRepository.countByClienteClienteId(1L)).thenReturn(1L);
+        GeneralException ex = assertThrows(GeneralException.class, () -> reporteService.generarResumenEstadoCuenta(1L, null, null));
+        assertEquals(404, ex.getStatusCode());
+    }
+
+    @Test
+    void testGenerarEstadoCuenta_cuentaSinMovimientos() {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(new Cliente()));
+        when(movimientoRepository.streamEstadoCuenta(eq(1L), any(), any())).thenReturn(Stream.empty());
+        when(cuentaRepository.countByClienteClienteId(1L)).thenReturn(1L);
+        GeneralException ex = assertThrows(GeneralException.class, () -> reporteService.generarEstadoCuenta(1L, null, null));
+        assertEquals(404, ex.getStatusCode());
+    }
+
+    @Test
+    void testGenerarEstadoCuenta_clienteNoEncontrado() {
+        when(clienteRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(ClienteNotFoundException.class, () -> reporteService.generarEstadoCuenta(1L, null, null));
+    }
+
+    @Test
+    void testEscribirEstadoCuentaPDF_escribeDocumento() {
+        Cliente cliente = new Cliente();
+        cliente.setNombre("Jose");
+        Cuenta a = cuenta(1L, "111");
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(movimientoRepository.streamEstadoCuenta(eq(1L), any(), any())).thenReturn(IntStream.range(0, 250)
+                .mapToObj(i -> movimiento(a, TipoMovimiento.CREDITO, 1, 101 + i)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reporteService.escribirEstadoCuentaPDF(1L, null, null, out);
+
+        assertTrue(new String(out.toByteArray(), 0, 5, StandardCharsets.US_ASCII).startsWith("%PDF"));
+        verify(cuentaRepository, never()).countByClienteClienteId(any());
+        assertEquals(out.size(), meterRegistry.get("reporte.estado.cuenta.pdf").summary().totalAmount());
+    }
+
+    @Test
+    void testValidarEstadoCuenta_cuentaSinMovimientos() {
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(movimientoRepository.contarCuentasConMovimientos(eq(1L), any(), any())).thenReturn(1L);
+        when(cuentaRepository.countByClienteClienteId(1L)).thenReturn(2L);
+        GeneralException ex = assertThrows(GeneralException.class, () -> reporteService.validarEstadoCuenta(1L, null, null));
+        assertEquals(404, ex.getStatusCode());
+    }
+
+    @Test
+    void testValidarEstadoCuenta_clienteNoEncontrado() {
+        when(clienteRepository.existsById(1L)).thenReturn(false);
+        assertThrows(ClienteNotFoundException.class, () -> reporteService.validarEstadoCuenta(1L, null, null));
+        verifyNoInteractions(movimientoRepository);
+    }
+
+    @Test
+    void testGenerarEstadoCuenta_aciertoDeCacheNoConsulta() {
+        ReporteEstadoCuentaResponseDTO cacheado = ReporteEstadoCuentaResponseDTO.builder().cliente("Jose").build();
+        when(estadoCuentaCache.obtener(any(), eq(ReporteEstadoCuentaResponseDTO.class))).thenReturn(cacheado);
+
+        assertSame(cacheado, reporteService.generarEstadoCuenta(1L, null, null));
+
+        verifyNoInteractions(clienteRepository, movimientoRepository, transactionManager);
+    }
+
+    @Test
+    void testGenerarEstadoCuenta_falloDeCacheGuardaConGeneracion() {
+        Cliente cliente = new Cliente();
+        Cuenta a = cuenta(1L, "111");
+        when(estadoCuentaCache.generacion(1L)).thenReturn(3L);
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(movimientoRepository.streamEstadoCuenta(eq(1L), any(), any()))
+                .thenReturn(Stream.of(movimiento(a, TipoMovimiento.CREDITO, 50, 150)));
+        when(cuentaRepository.countByClienteClienteId(1L)).thenReturn(1L);
+
+        ReporteEstadoCuentaResponseDTO result = reporteService.generarEstadoCuenta(1L, null, null);
+
+        verify(estadoCuentaCache).guardar(argThat(c -> c.clienteId().equals(1L) && c.formato().equals("json")), same(result), eq(3L));
+    }
+
+    @Test
+    void testEscribirEstadoCuentaPDF_aciertoDeCache() {
+        byte[] pdf = "%PDF-1.4".getBytes(StandardCharsets.US_ASCII);
+        when(estadoCuentaCache.obtener(any(), eq(byte[].class))).thenReturn(pdf);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        reporteService.escribirEstadoCuentaPDF(1L, null, null, out);
+
+        assertArrayEquals(pdf, out.toByteArray());
+        verifyNoInteractions(clienteRepository, movimientoRepository);
+    }
+}
@@ -0,0 +1,113 @@
+package com.upgrade.senior.service.impl;
+
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.repository.MovimientoResumenDiarioRepository;
+import com.upgrade.senior.service.archivo.ArchivoMovimientos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResumenDiarioServiceImplTest {
+    private static final LocalDate DIA = LocalDate.of(2024, 1, 10);
+
+    @Mock
+    private MovimientoResumenDiarioRepository resumenRepository;
+    @Mock
+    private MovimientoRepository movimientoRepository;
+    @Spy
+    private ArchivoMovimientos archivoMovimientos = ArchivoMovimientos.sinArchivo();
+    @InjectMocks
+    private ResumenDiarioServiceImpl resumenDiarioService;
+
+    private Cuenta cuenta(Long id) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(id);
+        return cuenta;
+    }
+
+    private static BigDecimal monto(String valor) {
+        return new BigDecimal(valor).setScale(Money.ESCALA);
+    }
+
+    private Movimiento movimiento(Cuenta cuenta, LocalDateTime fecha, TipoMovimiento tipo, long valor, long saldo) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setCuenta(cuenta);
+        movimiento.setFecha(fecha);
+        movimiento.setTipoMovimiento(tipo);
+        movimiento.setValor(Money.deCentavos(valor * 100));
+        movimiento.setSaldo(Money.deCentavos(saldo * 100));
+        return movimiento;
+    }
+
+    @Test
+    void testAcumular_unUpsertPorCuentaYDia() {
+        Cuenta a = cuenta(1L);
+        Cuenta b = cuenta(2L);
+        resumenDiarioService.acumular(List.of(
+                movimiento(a, DIA.atTime(9, 0), TipoMovimiento.CREDITO, 50, 150),
+                movimiento(b, DIA.atTime(9, 5), TipoMovimiento.DEBITO, 10, 90),
+                movimiento(a, DIA.atTime(9, 10), TipoMovimiento.DEBITO, 20, 130),
+                movimiento(a, DIA.plusDays(1).atTime(8, 0), TipoMovimiento.CREDITO, 5, 135)));
+
+        verify(resumenRepository).acumular(1L, DIA, monto("100"), monto("130"), monto("50"), monto("20"), 2);
+        verify(resumenRepository).acumular(2L, DIA, monto("100"), monto("90"), monto("0"), monto("10"), 1);
+        verify(resumenRepository).acumular(1L, DIA.plusDays(1), monto("130"), monto("135"), monto("5"), monto("0"), 1);
+        verifyNoMoreInteractions(resumenRepository);
+    }
+
+    @Test
+    void testRecalcularDia_reemplazaDesdeMovimientosRestantes() {
+        Cuenta a = cuenta(1L);
+        when(movimientoRepository.findMovimientosPorCuentaYFechas(1L, DIA.atStartOfDay(), DIA.plusDays(1).atStartOfDay()))
+                .thenReturn(List.of(movimiento(a, DIA.atTime(9, 0), TipoMovimiento.CREDITO, 50, 150)));
+
+        resumenDiarioService.recalcularDia(1L, DIA);
+
+        InOrder orden = inOrder(resumenRepository);
+        orden.verify(resumenRepository).eliminarDia(1L, DIA);
+        orden.verify(resumenRepository).acumular(1L, DIA, monto("100"), monto("150"), monto("50"), monto("0"), 1);
+    }
+
+    @Test
+    void testRecalcularDia_sinMovimientosSoloElimina() {
+        when(movimientoRepository.findMovimientosPorCuentaYFechas(eq(1L), any(), any())).thenReturn(List.of());
+
+        resumenDiarioService.recalcularDia(1L, DIA);
+
+        verify(resumenRepository).eliminarDia(1L, DIA);
+        verify(resumenRepository, never()).acumular(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testReconstruir_recorreMovimientosOrdenados() {
+        when(movimientoRepository.streamResumenOrdenado()).thenReturn(Stream.of(
+                new Object[]{1L, DIA.atTime(9, 0), TipoMovimiento.CREDITO, Money.de("50"), Money.de("150")},
+                new Object[]{1L, DIA.atTime(10, 0), TipoMovimiento.CREDITO, Money.de("10"), Money.de("160")},
+                new Object[]{2L, DIA.atTime(9, 0), TipoMovimiento.DEBITO, Money.de("10"), Money.de("90")}));
+
+        assertEquals(2, resumenDiarioService.reconstruir());
+
+        InOrder orden = inOrder(resumenRepository);
+        orden.verify(resumenRepository).eliminarTodo();
+        orden.verify(resumenRepository).acumular(1L, DIA, monto("100"), monto("160"), monto("60"), monto("0"), 2);
+        orden.verify(resumenRepository).acumular(2L, DIA, monto("100"), monto("90"), monto("0"), monto("10"), 1);
+    }
+}
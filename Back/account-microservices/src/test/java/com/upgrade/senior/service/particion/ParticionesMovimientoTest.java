@@ -0,0 +1,106 @@
+package com.upgrade.senior.service.particion;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ParticionesMovimientoTest {
+
+    private static final YearMonth OCTUBRE = YearMonth.of(2026, 10);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private ParticionesMovimiento particiones(int retencion) {
+        return new ParticionesMovimiento(jdbcTemplate, true, 2, retencion, 60000);
+    }
+
+    private void actuales(String... nombres) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("movimiento"))).thenReturn(List.of(nombres));
+    }
+
+    @Test
+    void testPrimeraEjecucionParteMaximaDesdeElMovimientoMasAntiguo() {
+        actuales("pmax");
+        when(jdbcTemplate.queryForObject("SELECT MIN(fecha) FROM movimiento", LocalDateTime.class))
+                .thenReturn(LocalDateTime.of(2026, 8, 15, 10, 0));
+        ParticionesMovimiento particiones = particiones(0);
+
+        particiones.mantener(OCTUBRE);
+
+        verify(jdbcTemplate).execute("ALTER TABLE movimiento REORGANIZE PARTITION pmax INTO ("
+                + "PARTITION p202608 VALUES LESS THAN (UNIX_TIMESTAMP('2026-09-01 00:00:00')), "
+                + "PARTITION p202609 VALUES LESS THAN (UNIX_TIMESTAMP('2026-10-01 00:00:00')), "
+                + "PARTITION p202610 VALUES LESS THAN (UNIX_TIMESTAMP('2026-11-01 00:00:00')), "
+                + "PARTITION p202611 VALUES LESS THAN (UNIX_TIMESTAMP('2026-12-01 00:00:00')), "
+                + "PARTITION p202612 VALUES LESS THAN (UNIX_TIMESTAMP('2027-01-01 00:00:00')), "
+                + "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+        assertEquals(5, particiones.mensuales());
+    }
+
+    @Test
+    void testSoloCreaLosMesesQueFaltan() {
+        actuales("p202610", "p202611", "p202612", "pmax");
+
+        particiones(0).mantener(OCTUBRE);
+        verify(jdbcTemplate, never()).execute(anyString());
+
+        particiones(0).mantener(OCTUBRE.plusMonths(1));
+        verify(jdbcTemplate).execute("ALTER TABLE movimiento REORGANIZE PARTITION pmax INTO ("
+                + ParticionesMovimiento.definicion(YearMonth.of(2027, 1))
+                + ", PARTITION pmax VALUES LESS THAN MAXVALUE)");
+    }
+
+    @Test
+    void testSeparaLosMesesVencidosSinRecorrerFilas() {
+        actuales("p202607", "p202608", "p202609", "p202610", "p202611", "p202612", "pmax");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("movimiento_historico_202607")))
+                .thenReturn(List.of("p202607", "pmax"));
+        when(jdbcTemplate.queryForList("SELECT 1 FROM movimiento_historico_202607 LIMIT 1", Integer.class))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForList("SELECT 1 FROM movimiento PARTITION (p202607) LIMIT 1", Integer.class))
+                .thenReturn(List.of());
+        ParticionesMovimiento particiones = particiones(2);
+
+        particiones.mantener(OCTUBRE);
+
+        InOrder orden = inOrder(jdbcTemplate);
+        orden.verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS movimiento_historico_202607 LIKE movimiento");
+        orden.verify(jdbcTemplate).execute("ALTER TABLE movimiento_historico_202607 REMOVE PARTITIONING");
+        orden.verify(jdbcTemplate).execute("ALTER TABLE movimiento EXCHANGE PARTITION p202607 WITH TABLE movimiento_historico_202607");
+        orden.verify(jdbcTemplate).execute("ALTER TABLE movimiento DROP PARTITION p202607");
+        // Agosto es el límite: octubre menos dos meses de retención
+        verify(jdbcTemplate, never()).execute("ALTER TABLE movimiento DROP PARTITION p202608");
+        assertEquals(5, particiones.mensuales());
+    }
+
+    @Test
+    void testSeparacionInterrumpidaSeCompletaSinDevolverLosDatos() {
+        actuales("p202607", "p202608", "p202609", "p202610", "p202611", "p202612", "pmax");
+        // El intercambio ya se hizo: la tabla histórica tiene los datos y la partición está vacía
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("movimiento_historico_202607"))).thenReturn(List.of());
+        when(jdbcTemplate.queryForList("SELECT 1 FROM movimiento_historico_202607 LIMIT 1", Integer.class))
+                .thenReturn(List.of(1));
+        when(jdbcTemplate.queryForList("SELECT 1 FROM movimiento PARTITION (p202607) LIMIT 1", Integer.class))
+                .thenReturn(List.of());
+
+        particiones(2).mantener(OCTUBRE);
+
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE movimiento EXCHANGE"));
+        verify(jdbcTemplate, never()).execute("ALTER TABLE movimiento_historico_202607 REMOVE PARTITIONING");
+        verify(jdbcTemplate).execute("ALTER TABLE movimiento DROP PARTITION p202607");
+    }
+
+    @Test
+    void testNombres() {
+        assertEquals(YearMonth.of(2022, 2), ParticionesMovimiento.mes("p202202"));
+        assertNull(ParticionesMovimiento.mes(ParticionesMovimiento.MAXIMA));
+    }
+}
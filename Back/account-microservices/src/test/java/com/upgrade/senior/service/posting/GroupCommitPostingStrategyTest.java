@@ -0,0 +1,113 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.bulkhead.BulkheadBaseDatos;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import com.upgrade.senior.service.dto.movimiento.PostingMetricsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitPostingStrategyTest {
+    @Mock
+    private CuentaRepository cuentaRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private PostingMetrics postingMetrics;
+    private GroupCommitPostingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        postingMetrics = new PostingMetrics();
+        strategy = new GroupCommitPostingStrategy(cuentaRepository, postingMetrics, new IndiceNumeroCuenta(cuentaRepository, true, 16),
+                new org.springframework.transaction.support.TransactionTemplate(transactionManager),
+                new BulkheadBaseDatos(true, 1, 1000, 1, 1000), 50, 16, 64, 5000);
+        strategy.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        strategy.detener();
+    }
+
+    @Test
+    void testPost_agrupaSolicitudesConcurrentes() throws Exception {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("123");
+        cuenta.setSaldoInicial(Money.de("10"));
+        when(cuentaRepository.findWithLockByNumeroCuentaIn(anyCollection())).thenReturn(List.of(cuenta));
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<Money>> futuros = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futuros.add(executor.submit(() -> strategy.post("123", c -> {
+                if (c.getSaldoInicial().compareTo(Money.de("1")) < 0) {
+                    throw new GeneralException("Saldo insuficiente para el débito", 412);
+                }
+                c.setSaldoInicial(c.getSaldoInicial().restar(Money.de("1")));
+                return c.getSaldoInicial();
+            })));
+        }
+        int exitosos = 0;
+        int rechazados = 0;
+        for (Future<Money> futuro : futuros) {
+            try {
+                futuro.get();
+                exitosos++;
+            } catch (java.util.concurrent.ExecutionException e) {
+                assertEquals(412, ((GeneralException) e.getCause()).getStatusCode());
+                rechazados++;
+            }
+        }
+        executor.shutdown();
+        assertEquals(10, exitosos);
+        assertEquals(6, rechazados);
+        PostingMetricsDTO metricas = postingMetrics.snapshot(strategy.nombre(), strategy.configuracion());
+        assertEquals(16, metricas.getOperaciones());
+        // Con un único permiso POSTING los grupos igual superan ese tamaño: el permiso es por grupo, no por solicitud
+        assertTrue(metricas.getLotes() < 16);
+        assertTrue(strategy.usaPermisoPropio());
+        assertEquals(50L, metricas.getConfiguracion().get("windowMs"));
+    }
+
+    @Test
+    void testPost_falloDelGrupoReintentaPorSeparado() throws Exception {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("123");
+        when(cuentaRepository.findWithLockByNumeroCuentaIn(anyCollection())).thenReturn(List.of(cuenta));
+        doThrow(new org.springframework.dao.DataIntegrityViolationException("fallo"))
+                .doNothing()
+                .when(transactionManager).commit(any());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<String> primero = executor.submit(() -> strategy.post("123", c -> "uno"));
+        Future<String> segundo = executor.submit(() -> strategy.post("123", c -> "dos"));
+        assertEquals("uno", primero.get());
+        assertEquals("dos", segundo.get());
+        executor.shutdown();
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    void testPost_cuentaNoEncontrada() {
+        when(cuentaRepository.findWithLockByNumeroCuentaIn(anyCollection())).thenReturn(List.of());
+        GeneralException ex = assertThrows(GeneralException.class, () -> strategy.post("999", c -> "ok"));
+        assertEquals(404, ex.getStatusCode());
+    }
+}
@@ -0,0 +1,261 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.enums.TipoMovimiento;
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.persistence.Movimiento;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.repository.MovimientoRepository;
+import com.upgrade.senior.service.ResumenDiarioService;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LedgerEngineTest {
+    @Mock
+    private CuentaRepository cuentaRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private MovimientoRepository movimientoRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ResumenDiarioService resumenDiarioService;
+    // Filas de cuenta en base, que el persistidor lee con find
+    private final Map<Long, Cuenta> filas = new HashMap<>();
+    private final List<Cuenta> leidas = new ArrayList<>();
+    private LedgerEngine ledgerEngine;
+
+    @BeforeEach
+    void setUp() {
+        ledgerEngine = new LedgerEngine(entityManager, movimientoRepository,
+                new TransactionTemplate(transactionManager), resumenDiarioService,
+                new IndiceNumeroCuenta(cuentaRepository, true, 16), true, 2, 64, 16, 2000);
+        when(entityManager.find(eq(Cuenta.class), any())).thenAnswer(inv -> {
+            Cuenta fila = filas.get((Long) inv.getArgument(1));
+            if (fila != null) {
+                leidas.add(fila);
+            }
+            return fila;
+        });
+        // Como el flush de Hibernate: el commit sube la versión de las filas escritas
+        doAnswer(inv -> {
+            leidas.forEach(fila -> fila.setVersion(fila.getVersion() + 1));
+            leidas.clear();
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(inv -> {
+            leidas.clear();
+            return null;
+        }).when(transactionManager).rollback(any());
+        ledgerEngine.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledgerEngine.detener();
+    }
+
+    private Cuenta cuenta(long id, String numero, String saldo) {
+        return cuenta(id, numero, saldo, 0L);
+    }
+
+    private Cuenta cuenta(long id, String numero, String saldo, long version) {
+        return cuenta(id, numero, saldo, version, 0L);
+    }
+
+    private Cuenta cuenta(long id, String numero, String saldo, long version, long secuencia) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setVersion(version);
+        cuenta.setSecuencia(secuencia);
+        cuenta.setCuentaId(id);
+        cuenta.setNumeroCuenta(numero);
+        cuenta.setSaldoInicial(Money.de(saldo));
+        return cuenta;
+    }
+
+    private Cuenta fila(long id, String saldo, long version) {
+        Cuenta fila = cuenta(id, String.valueOf(id), saldo, version);
+        filas.put(id, fila);
+        return fila;
+    }
+
+    private Function<Cuenta, Movimiento> debito(String monto) {
+        Money valor = Money.de(monto);
+        return c -> {
+            if (c.getSaldoInicial().compareTo(valor) < 0) {
+                throw new GeneralException("Saldo insuficiente para el débito", 412);
+            }
+            c.setSaldoInicial(c.getSaldoInicial().restar(valor));
+            c.setSecuencia(c.getSecuencia() + 1);
+            Movimiento movimiento = new Movimiento();
+            movimiento.setCuenta(c);
+            movimiento.setTipoMovimiento(TipoMovimiento.DEBITO);
+            movimiento.setValor(valor);
+            movimiento.setSaldo(c.getSaldoInicial());
+            movimiento.setSecuencia(c.getSecuencia());
+            return movimiento;
+        };
+    }
+
+    @Test
+    void testPost_aplicaEnOrdenYPersiste() throws Exception {
+        when(cuentaRepository.findByNumeroCuenta("123")).thenReturn(Optional.of(cuenta(1L, "123", "100")));
+        Cuenta fila = fila(1L, "100", 0L);
+        List<CompletableFuture<Movimiento>> futuros = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            futuros.add(ledgerEngine.post("123", debito("10")));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Money.deCentavos(9000 - 1000 * i), futuros.get(i).get(1, TimeUnit.SECONDS).getSaldo());
+        }
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> futuros.get(10).get(1, TimeUnit.SECONDS));
+        assertEquals(412, ((GeneralException) ex.getCause()).getStatusCode());
+        verify(cuentaRepository, times(1)).findByNumeroCuenta("123");
+        // El último lote deja la secuencia en el décimo movimiento
+        assertEquals(Money.CERO, fila.getSaldoInicial());
+        assertEquals(10L, fila.getSecuencia());
+        // Cada lote confirmado espera la versión que dejó el anterior: ninguno chocó
+        assertTrue(fila.getVersion() >= 1);
+    }
+
+    @Test
+    void testPost_cargaLentaNoFrenaAlRestoDelShard() throws Exception {
+        // "125" y "123" caen en el mismo shard
+        assertEquals(Math.floorMod("123".hashCode(), 2), Math.floorMod("125".hashCode(), 2));
+        CountDownLatch lecturaLiberada = new CountDownLatch(1);
+        when(cuentaRepository.findByNumeroCuenta("125")).thenAnswer(inv -> {
+            esperar(lecturaLiberada);
+            return Optional.of(cuenta(3L, "125", "100"));
+        });
+        when(cuentaRepository.findByNumeroCuenta("123")).thenReturn(Optional.of(cuenta(1L, "123", "100")));
+        fila(1L, "100", 0L);
+        fila(3L, "100", 0L);
+
+        CompletableFuture<Movimiento> lenta = ledgerEngine.post("125", debito("10"));
+        CompletableFuture<Movimiento> siguienteDeLenta = ledgerEngine.post("125", debito("10"));
+        assertEquals(Money.de("90"), ledgerEngine.post("123", debito("10")).get(1, TimeUnit.SECONDS).getSaldo());
+        assertFalse(lenta.isDone());
+
+        lecturaLiberada.countDown();
+        assertEquals(Money.de("90"), lenta.get(1, TimeUnit.SECONDS).getSaldo());
+        assertEquals(Money.de("80"), siguienteDeLenta.get(1, TimeUnit.SECONDS).getSaldo());
+        verify(cuentaRepository, times(1)).findByNumeroCuenta("125");
+    }
+
+    @Test
+    void testPost_cuentaNoEncontrada() {
+        when(cuentaRepository.findByNumeroCuenta("999")).thenReturn(Optional.empty());
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> ledgerEngine.post("999", debito("1")).get(1, TimeUnit.SECONDS));
+        assertEquals(404, ((GeneralException) ex.getCause()).getStatusCode());
+    }
+
+    @Test
+    void testPost_falloPersistenciaRecargaCuenta() throws Exception {
+        when(cuentaRepository.findByNumeroCuenta("123"))
+                .thenReturn(Optional.of(cuenta(1L, "123", "100")))
+                .thenReturn(Optional.of(cuenta(1L, "123", "100")));
+        fila(1L, "100", 0L);
+        when(movimientoRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("fk"))
+                .thenReturn(List.of());
+        assertThrows(ExecutionException.class, () -> ledgerEngine.post("123", debito("30")).get(1, TimeUnit.SECONDS));
+        Movimiento movimiento = ledgerEngine.post("123", debito("30")).get(1, TimeUnit.SECONDS);
+        assertEquals(Money.de("70"), movimiento.getSaldo());
+        verify(cuentaRepository, times(2)).findByNumeroCuenta("123");
+    }
+
+    @Test
+    void testPost_cuentaEditadaFueraDelLedgerNoSePisa() throws Exception {
+        when(cuentaRepository.findByNumeroCuenta("123"))
+                .thenReturn(Optional.of(cuenta(1L, "123", "100", 4L)))
+                .thenReturn(Optional.of(cuenta(1L, "123", "500", 5L)));
+        // La edición manual ya movió la fila a la versión 5
+        Cuenta fila = fila(1L, "500", 5L);
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> ledgerEngine.post("123", debito("30")).get(1, TimeUnit.SECONDS));
+        assertEquals(409, ((GeneralException) ex.getCause()).getStatusCode());
+        verify(movimientoRepository, never()).saveAll(anyList());
+
+        Movimiento movimiento = ledgerEngine.post("123", debito("30")).get(1, TimeUnit.SECONDS);
+        assertEquals(Money.de("470"), movimiento.getSaldo());
+        assertEquals(6L, fila.getVersion());
+        ledgerEngine.post("123", debito("70")).get(1, TimeUnit.SECONDS);
+        assertEquals(Money.de("400"), fila.getSaldoInicial());
+        assertEquals(2L, fila.getSecuencia());
+        assertEquals(7L, fila.getVersion());
+    }
+
+    @Test
+    void testPost_falloDelRegistroAsociadoSoloRevierteEseMovimiento() throws Exception {
+        when(cuentaRepository.findByNumeroCuenta("123"))
+                .thenReturn(Optional.of(cuenta(1L, "123", "100")))
+                .thenReturn(Optional.of(cuenta(1L, "123", "90", 1L, 1L)));
+        when(cuentaRepository.findByNumeroCuenta("456")).thenReturn(Optional.of(cuenta(2L, "456", "50")));
+        Cuenta fila = fila(1L, "100", 0L);
+        fila(2L, "50", 0L);
+        DataIntegrityViolationException claveRepetida = new DataIntegrityViolationException("clave");
+
+        // El primer lote queda abierto hasta encolar el resto: todos se calculan antes de que falle el registro
+        CountDownLatch encolados = new CountDownLatch(1);
+        CompletableFuture<Movimiento> anterior = ledgerEngine.post("123", debito("10"), m -> esperar(encolados));
+        CompletableFuture<Movimiento> fallido = ledgerEngine.post("123", debito("10"), m -> {
+            throw claveRepetida;
+        });
+        CompletableFuture<Movimiento> posterior = ledgerEngine.post("123", debito("10"));
+        CompletableFuture<Movimiento> otraCuenta = ledgerEngine.post("456", debito("10"));
+        encolados.countDown();
+
+        assertEquals(Money.de("90"), anterior.get(1, TimeUnit.SECONDS).getSaldo());
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> fallido.get(1, TimeUnit.SECONDS));
+        assertSame(claveRepetida, ex.getCause());
+        // Se calculó sobre el movimiento revertido
+        ex = assertThrows(ExecutionException.class, () -> posterior.get(1, TimeUnit.SECONDS));
+        assertEquals(409, ((GeneralException) ex.getCause()).getStatusCode());
+        assertEquals(Money.de("40"), otraCuenta.get(1, TimeUnit.SECONDS).getSaldo());
+
+        // La cuenta se recarga con lo confirmado
+        assertEquals(Money.de("80"), ledgerEngine.post("123", debito("10")).get(1, TimeUnit.SECONDS).getSaldo());
+        assertEquals(Money.de("80"), fila.getSaldoInicial());
+        assertEquals(2L, fila.getSecuencia());
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import com.upgrade.senior.service.dto.movimiento.PostingMetricsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticPostingStrategyTest {
+    @Mock
+    private CuentaRepository cuentaRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private PostingMetrics postingMetrics;
+    private OptimisticPostingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        postingMetrics = new PostingMetrics();
+        strategy = new OptimisticPostingStrategy(cuentaRepository, postingMetrics, new IndiceNumeroCuenta(cuentaRepository, true, 16),
+                new TransactionTemplate(transactionManager), 3, 1, 2);
+        when(cuentaRepository.findByNumeroCuenta("123")).thenReturn(Optional.of(new Cuenta()));
+    }
+
+    @Test
+    void testPost_reintentaTrasConflicto() {
+        AtomicInteger intentos = new AtomicInteger();
+        String result = strategy.post("123", c -> {
+            if (intentos.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(Cuenta.class, 1L);
+            }
+            return "ok";
+        });
+        assertEquals("ok", result);
+        PostingMetricsDTO metricas = postingMetrics.snapshot(strategy.nombre());
+        assertEquals(1, metricas.getReintentos());
+        assertEquals(0, metricas.getAbortos());
+    }
+
+    @Test
+    void testPost_agotaReintentos() {
+        GeneralException ex = assertThrows(GeneralException.class, () -> strategy.post("123", c -> {
+            throw new ObjectOptimisticLockingFailureException(Cuenta.class, 1L);
+        }));
+        assertEquals(409, ex.getStatusCode());
+        PostingMetricsDTO metricas = postingMetrics.snapshot(strategy.nombre());
+        assertEquals(2, metricas.getReintentos());
+        assertEquals(1, metricas.getAbortos());
+        assertEquals(1.0, metricas.getTasaAbortos());
+        verify(cuentaRepository, times(3)).findByNumeroCuenta("123");
+    }
+}
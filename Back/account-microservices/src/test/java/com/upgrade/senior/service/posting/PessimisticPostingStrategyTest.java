@@ -0,0 +1,73 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.exception.GeneralException;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PessimisticPostingStrategyTest {
+    @Mock
+    private CuentaRepository cuentaRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private PostingMetrics postingMetrics;
+    private PessimisticPostingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        postingMetrics = new PostingMetrics();
+        strategy = new PessimisticPostingStrategy(cuentaRepository, postingMetrics, new IndiceNumeroCuenta(cuentaRepository, true, 16), new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    void testPost_bloqueaCuenta() {
+        Cuenta cuenta = new Cuenta();
+        when(cuentaRepository.findWithLockByNumeroCuenta("123")).thenReturn(Optional.of(cuenta));
+        assertSame(cuenta, strategy.post("123", c -> c));
+        verify(cuentaRepository, never()).findByNumeroCuenta(any());
+        assertEquals(1, postingMetrics.snapshot(strategy.nombre()).getOperaciones());
+    }
+
+    @Test
+    void testPost_cuentaNoEncontrada() {
+        when(cuentaRepository.findWithLockByNumeroCuenta("123")).thenReturn(Optional.empty());
+        GeneralException ex = assertThrows(GeneralException.class, () -> strategy.post("123", c -> c));
+        assertEquals("Cuenta no encontrada", ex.getMessage());
+        assertEquals(404, ex.getStatusCode());
+    }
+
+    @Test
+    void testPost_timeoutDeLockAborta() {
+        when(cuentaRepository.findWithLockByNumeroCuenta("123")).thenThrow(new CannotAcquireLockException("timeout"));
+        GeneralException ex = assertThrows(GeneralException.class, () -> strategy.post("123", c -> c));
+        assertEquals(409, ex.getStatusCode());
+        assertEquals(1, postingMetrics.snapshot(strategy.nombre()).getAbortos());
+    }
+
+    @Test
+    void testPost_segundaVezBloqueaPorId() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(7L);
+        cuenta.setNumeroCuenta("123");
+        when(cuentaRepository.findWithLockByNumeroCuenta("123")).thenReturn(Optional.of(cuenta));
+        when(cuentaRepository.findWithLockByCuentaId(7L)).thenReturn(Optional.of(cuenta));
+        strategy.post("123", c -> c);
+        assertSame(cuenta, strategy.post("123", c -> c));
+        verify(cuentaRepository, times(1)).findWithLockByNumeroCuenta("123");
+        verify(cuentaRepository, times(1)).findWithLockByCuentaId(7L);
+    }
+}
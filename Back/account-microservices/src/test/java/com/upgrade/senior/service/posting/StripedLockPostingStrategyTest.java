@@ -0,0 +1,72 @@
+package com.upgrade.senior.service.posting;
+
+import com.upgrade.senior.money.Money;
+import com.upgrade.senior.persistence.Cuenta;
+import com.upgrade.senior.repository.CuentaRepository;
+import com.upgrade.senior.service.cuenta.IndiceNumeroCuenta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StripedLockPostingStrategyTest {
+    @Mock
+    private CuentaRepository cuentaRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private PostingMetrics postingMetrics;
+    private StripedLockPostingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        postingMetrics = new PostingMetrics();
+        strategy = new StripedLockPostingStrategy(cuentaRepository, postingMetrics, new IndiceNumeroCuenta(cuentaRepository, true, 16),
+                new TransactionTemplate(transactionManager), 16, 5000);
+    }
+
+    @Test
+    void testLockPara_mismaCuentaMismoLock() {
+        assertSame(strategy.lockPara("478758"), strategy.lockPara("478758"));
+    }
+
+    @Test
+    void testPost_serializaMismaCuenta() throws Exception {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setSaldoInicial(Money.CERO);
+        when(cuentaRepository.findByNumeroCuenta("123")).thenReturn(Optional.of(cuenta));
+        AtomicInteger dentro = new AtomicInteger();
+        AtomicInteger maxDentro = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Money>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> strategy.post("123", c -> {
+                maxDentro.accumulateAndGet(dentro.incrementAndGet(), Math::max);
+                c.setSaldoInicial(c.getSaldoInicial().sumar(Money.de("1")));
+                dentro.decrementAndGet();
+                return c.getSaldoInicial();
+            })));
+        }
+        for (Future<Money> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertEquals(1, maxDentro.get());
+        assertEquals(Money.de("200"), cuenta.getSaldoInicial());
+        assertEquals(200, postingMetrics.snapshot(strategy.nombre()).getOperaciones());
+    }
+}
@@ -0,0 +1,63 @@
+package com.upgrade.senior.service.reporte;
+
+import com.upgrade.senior.service.dto.reporte.EstadoCuentaCacheMetricsDTO;
+import com.upgrade.senior.service.dto.reporte.ReporteEstadoCuentaResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstadoCuentaCacheTest {
+    private static final LocalDate DIA = LocalDate.of(2024, 1, 10);
+
+    private final EstadoCuentaCache cache = new EstadoCuentaCache(true, 1 << 20, 1 << 16, 30);
+
+    private EstadoCuentaCache.Clave clave(long clienteId, String formato) {
+        return EstadoCuentaCache.Clave.de(clienteId, DIA, DIA, formato);
+    }
+
+    @Test
+    void testInvalidarCliente_soloAfectaAlCliente() {
+        byte[] pdf1 = new byte[]{1};
+        byte[] pdf2 = new byte[]{2};
+        ReporteEstadoCuentaResponseDTO json1 = ReporteEstadoCuentaResponseDTO.builder().cuentas(List.of()).build();
+        cache.guardar(clave(1, EstadoCuentaCache.FORMATO_PDF), pdf1, cache.generacion(1L));
+        cache.guardar(clave(1, EstadoCuentaCache.FORMATO_JSON), json1, cache.generacion(1L));
+        cache.guardar(clave(2, EstadoCuentaCache.FORMATO_PDF), pdf2, cache.generacion(2L));
+
+        cache.invalidarCliente(1L);
+
+        assertNull(cache.obtener(clave(1, EstadoCuentaCache.FORMATO_PDF), byte[].class));
+        assertNull(cache.obtener(clave(1, EstadoCuentaCache.FORMATO_JSON), ReporteEstadoCuentaResponseDTO.class));
+        assertSame(pdf2, cache.obtener(clave(2, EstadoCuentaCache.FORMATO_PDF), byte[].class));
+        EstadoCuentaCacheMetricsDTO metricas = cache.metricas();
+        assertEquals(1, metricas.getInvalidaciones());
+        assertEquals(1, metricas.getAciertos());
+        assertEquals(2, metricas.getFallos());
+    }
+
+    @Test
+    void testGuardar_descartaReporteCalculadoDuranteInvalidacion() {
+        long generacion = cache.generacion(1L);
+        cache.invalidarCliente(1L);
+
+        cache.guardar(clave(1, EstadoCuentaCache.FORMATO_PDF), new byte[]{1}, generacion);
+
+        assertFalse(cache.contiene(clave(1, EstadoCuentaCache.FORMATO_PDF)));
+    }
+
+    @Test
+    void testGuardar_descartaEntradasMayoresAlLimite() {
+        cache.guardar(clave(1, EstadoCuentaCache.FORMATO_PDF), new byte[1 << 17], cache.generacion(1L));
+        assertFalse(cache.contiene(clave(1, EstadoCuentaCache.FORMATO_PDF)));
+    }
+
+    @Test
+    void testDeshabilitado_noGuarda() {
+        EstadoCuentaCache deshabilitado = new EstadoCuentaCache(false, 1 << 20, 1 << 16, 30);
+        deshabilitado.guardar(clave(1, EstadoCuentaCache.FORMATO_PDF), new byte[]{1}, 0);
+        assertNull(deshabilitado.obtener(clave(1, EstadoCuentaCache.FORMATO_PDF), byte[].class));
+    }
+}
@@ -17,6 +17,8 @@ CREATE TABLE IF NOT EXISTS cuenta (
                         tipo_cuenta VARCHAR(20) NOT NULL,
                         saldo_inicial DECIMAL(15,2) NOT NULL,
                         estado BOOLEAN NOT NULL,
+                        secuencia BIGINT NOT NULL DEFAULT 0,
+                        version BIGINT NOT NULL DEFAULT 0,
                         cliente_id BIGINT NOT NULL,
                         CONSTRAINT fk_cuenta_cliente FOREIGN KEY (cliente_id) REFERENCES cliente(cliente_id)
 );
@@ -28,9 +30,28 @@ CREATE TABLE IF NOT EXISTS movimiento (
                             tipo_movimiento VARCHAR(20) NOT NULL,
                             valor DECIMAL(15,2) NOT NULL,
                             saldo DECIMAL(15,2) NOT NULL,
+                            INDEX idx_movimiento_cuenta_fecha (cuenta_id, fecha, movimiento_id),
+                            INDEX idx_movimiento_fecha (fecha, movimiento_id),
                             CONSTRAINT fk_movimiento_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id)
 );
 
+CREATE TABLE IF NOT EXISTS movimiento_resumen_diario (
+                            cuenta_id BIGINT NOT NULL,
+                            fecha DATE NOT NULL,
+                            saldo_apertura DECIMAL(15,2) NOT NULL,
+                            saldo_cierre DECIMAL(15,2) NOT NULL,
+                            total_creditos DECIMAL(15,2) NOT NULL,
+                            total_debitos DECIMAL(15,2) NOT NULL,
+                            cantidad INT NOT NULL,
+                            PRIMARY KEY (cuenta_id, fecha),
+                            CONSTRAINT fk_resumen_cuenta FOREIGN KEY (cuenta_id) REFERENCES cuenta(cuenta_id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS generador_id (
+                            nombre_secuencia VARCHAR(50) PRIMARY KEY,
+                            siguiente_valor BIGINT NOT NULL
+);
+
 
 
 -- Inserción de datos de ejemplo (clientes) con IDs explícitos
@@ -53,3 +74,15 @@ INSERT IGNORE INTO movimiento (movimiento_id, cuenta_id, fecha, tipo_movimiento,
                                                                                             (2, 2, '2022-02-10 09:00:00', 'DEBITO', 575, 475),
                                                                                             (3, 3, '2022-02-08 11:00:00', 'CREDITO', 600, 600),
                                                                                             (4, 4, '2022-02-08 12:00:00', 'CREDITO', 150, 690);
+
+-- Resumen diario de los movimientos de ejemplo (uno por cuenta y día)
+INSERT IGNORE INTO movimiento_resumen_diario (cuenta_id, fecha, saldo_apertura, saldo_cierre, total_creditos, total_debitos, cantidad)
+SELECT cuenta_id, CAST(fecha AS DATE),
+       saldo - CASE WHEN tipo_movimiento = 'CREDITO' THEN valor ELSE -valor END, saldo,
+       CASE WHEN tipo_movimiento = 'CREDITO' THEN valor ELSE 0 END,
+       CASE WHEN tipo_movimiento = 'DEBITO' THEN valor ELSE 0 END, 1
+FROM movimiento WHERE movimiento_id <= 4;
+
+-- Inicialización del generador de IDs de movimiento (bloques pooled-lo de 50) por encima del máximo existente
+INSERT IGNORE INTO generador_id (nombre_secuencia, siguiente_valor)
+SELECT 'movimiento', COALESCE(MAX(movimiento_id), 0) + 1 FROM movimiento;
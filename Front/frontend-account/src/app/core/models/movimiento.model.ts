@@ -11,3 +11,9 @@ export interface Movimiento {
   descripcion?: string;
   cuentaId?: number | string;
 }
+
+// Página de movimientos; `siguiente` es el cursor de la próxima página o null si no hay más
+export interface MovimientoPagina {
+  movimientos: Movimiento[];
+  siguiente: string | null;
+}
@@ -2,28 +2,34 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { tap, catchError, map } from 'rxjs/operators';
-import { Movimiento } from '../models/movimiento.model';
+import { Movimiento, MovimientoPagina } from '../models/movimiento.model';
 
 @Injectable({
   providedIn: 'root'
 })
 export class MovimientoService {
   private apiUrl = 'http://localhost:8080/api/movimientos';
+  private limitePagina = 50;
 
   constructor(private http: HttpClient) {}
 
-  obtenerPorCliente(clienteId: string | number, fechaInicio?: string, fechaFin?: string): Observable<Movimiento[]> {
-    let url = `${this.apiUrl}/cliente/${clienteId}`;
-    const params: string[] = [];
+  // Una página por llamada: la siguiente se pide con el cursor `siguiente` de la anterior
+  obtenerPorCliente(clienteId: string | number, fechaInicio?: string, fechaFin?: string,
+                    cursor?: string | null): Observable<MovimientoPagina> {
+    const params: string[] = [`limite=${this.limitePagina}`];
     if (fechaInicio?.trim()) params.push(`fechaInicio=${encodeURIComponent(fechaInicio.trim())}`);
     if (fechaFin?.trim()) params.push(`fechaFin=${encodeURIComponent(fechaFin.trim())}`);
-    if (params.length) url += '?' + params.join('&');
-    return this.http.get<Movimiento[]>(url).pipe(
-      map((movimientos) => (Array.isArray(movimientos) ? movimientos : []).map((m) => ({
-        ...m,
-        id: (m as { movimientoId?: string | number }).movimientoId ?? m.id
-      }))),
-      tap(movimientos => console.log('Movimientos cargados:', movimientos?.length ?? 0)),
+    if (cursor) params.push(`cursor=${encodeURIComponent(cursor)}`);
+    const url = `${this.apiUrl}/cliente/${clienteId}?${params.join('&')}`;
+    return this.http.get<MovimientoPagina>(url).pipe(
+      map((pagina) => ({
+        movimientos: (Array.isArray(pagina?.movimientos) ? pagina.movimientos : []).map((m) => ({
+          ...m,
+          id: (m as { movimientoId?: string | number }).movimientoId ?? m.id
+        })),
+        siguiente: pagina?.siguiente ?? null
+      })),
+      tap(pagina => console.log('Movimientos cargados:', pagina.movimientos.length)),
       catchError((error) => {
         console.error('Error cargando movimientos:', error);
         throw error;
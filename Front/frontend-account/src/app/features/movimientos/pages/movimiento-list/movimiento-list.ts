@@ -25,6 +25,9 @@ export class MovimientoListComponent implements OnInit {
   public fechaHasta = '';
   public busqueda = '';
   public cargando = false;
+  public cargandoMas = false;
+  // Cursor de la próxima página; null cuando ya se cargaron todas
+  public siguiente: string | null = null;
 
   constructor(
     private movimientoService: MovimientoService,
@@ -57,10 +60,10 @@ export class MovimientoListComponent implements OnInit {
 
     this.cargando = true;
     this.movimientoService.obtenerPorCliente(this.clienteSeleccionado, this.fechaDesde, this.fechaHasta).subscribe({
-      next: (movimientos) => {
-        const copia = Array.isArray(movimientos) ? [...movimientos] : [];
-        this.movimientos = copia;
-        this.movimientosFiltrados = [...copia];
+      next: (pagina) => {
+        this.movimientos = [...pagina.movimientos];
+        this.siguiente = pagina.siguiente;
+        this.buscar();
         this.cargando = false;
         this.cdr.detectChanges();
       },
@@ -70,6 +73,28 @@ export class MovimientoListComponent implements OnInit {
         this.cargando = false;
         this.movimientos = [];
         this.movimientosFiltrados = [];
+        this.siguiente = null;
+        this.cdr.detectChanges();
+      }
+    });
+  }
+
+  public cargarMas(): void {
+    if (!this.siguiente || this.cargandoMas) return;
+
+    this.cargandoMas = true;
+    this.movimientoService.obtenerPorCliente(this.clienteSeleccionado, this.fechaDesde, this.fechaHasta, this.siguiente).subscribe({
+      next: (pagina) => {
+        this.movimientos = [...this.movimientos, ...pagina.movimientos];
+        this.siguiente = pagina.siguiente;
+        this.buscar(); // La búsqueda se aplica sobre las páginas ya cargadas
+        this.cargandoMas = false;
+        this.cdr.detectChanges();
+      },
+      error: (error) => {
+        console.error('Error cargando más movimientos:', error);
+        alert('Error al cargar más movimientos');
+        this.cargandoMas = false;
         this.cdr.detectChanges();
       }
     });
@@ -97,6 +122,7 @@ export class MovimientoListComponent implements OnInit {
     this.busqueda = '';
     this.movimientos = [];
     this.movimientosFiltrados = [];
+    this.siguiente = null;
   }
 
   public abrirNuevo(): void {